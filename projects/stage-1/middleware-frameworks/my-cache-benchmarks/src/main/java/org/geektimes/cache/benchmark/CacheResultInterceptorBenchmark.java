@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache.benchmark;
+
+import org.geektimes.cache.annotation.interceptor.CacheResultInterceptor;
+import org.geektimes.interceptor.ComponentEnhancer;
+import org.geektimes.interceptor.DefaultComponentEnhancer;
+import org.geektimes.interceptor.Interceptor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.geektimes.commons.util.ServiceLoaders.loadAsArray;
+
+/**
+ * The benchmark of the overhead of {@link CacheResultInterceptor} versus the direct invocation, the cache hit path
+ * ({@link DataService#get}), the cache put path ({@link DataService#getWithoutCache}) and the non-annotated method
+ * of the enhanced component ({@link DataService#getDirectly}) are measured.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class CacheResultInterceptorBenchmark {
+
+    private static final int KEYS = 1024;
+
+    private static final int KEYS_MASK = KEYS - 1;
+
+    private DataService dataService;
+
+    private DataService enhancedDataService;
+
+    private String[] keys;
+
+    private int position;
+
+    @Setup
+    public void setup() {
+        ComponentEnhancer enhancer = new DefaultComponentEnhancer();
+        dataService = new DefaultDataService();
+        enhancedDataService = enhancer.enhance(dataService, DataService.class, loadAsArray(Interceptor.class));
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "key-" + i;
+            // warm the cache up
+            enhancedDataService.get(keys[i]);
+        }
+    }
+
+    @Benchmark
+    public Object direct() {
+        return dataService.get(nextKey());
+    }
+
+    @Benchmark
+    public Object cacheHit() {
+        return enhancedDataService.get(nextKey());
+    }
+
+    @Benchmark
+    public Object cachePut() {
+        return enhancedDataService.getWithoutCache(nextKey());
+    }
+
+    @Benchmark
+    public Object nonAnnotated() {
+        return enhancedDataService.getDirectly(nextKey());
+    }
+
+    private String nextKey() {
+        return keys[position++ & KEYS_MASK];
+    }
+
+    public static class DefaultDataService implements DataService {
+
+        @Override
+        public Object get(String key) {
+            return key.length();
+        }
+
+        @Override
+        public Object getWithoutCache(String key) {
+            return key.length();
+        }
+
+        @Override
+        public Object getDirectly(String key) {
+            return key.length();
+        }
+    }
+}
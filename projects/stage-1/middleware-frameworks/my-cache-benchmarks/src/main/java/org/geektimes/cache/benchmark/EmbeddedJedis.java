@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache.benchmark;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.params.SetParams;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The embedded {@link Jedis} stub storing the binary values in memory without the network round trip, thus
+ * the cost of serialization could be measured separately.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+public class EmbeddedJedis extends Jedis {
+
+    private static final String OK = "OK";
+
+    private final Map<ByteBuffer, byte[]> storage = new ConcurrentHashMap<>();
+
+    @Override
+    public String set(byte[] key, byte[] value) {
+        storage.put(ByteBuffer.wrap(key), value);
+        return OK;
+    }
+
+    @Override
+    public String set(byte[] key, byte[] value, SetParams params) {
+        // The expiration is ignored
+        return set(key, value);
+    }
+
+    @Override
+    public byte[] get(byte[] key) {
+        return storage.get(ByteBuffer.wrap(key));
+    }
+
+    @Override
+    public Boolean exists(byte[] key) {
+        return storage.containsKey(ByteBuffer.wrap(key));
+    }
+
+    @Override
+    public Long del(byte[] key) {
+        return storage.remove(ByteBuffer.wrap(key)) == null ? 0L : 1L;
+    }
+
+    @Override
+    public Set<byte[]> keys(byte[] prefix) {
+        Set<byte[]> keys = new LinkedHashSet<>();
+        for (ByteBuffer key : storage.keySet()) {
+            byte[] bytes = key.array();
+            if (startsWith(bytes, prefix)) {
+                keys.add(bytes);
+            }
+        }
+        return keys;
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        storage.clear();
+    }
+}
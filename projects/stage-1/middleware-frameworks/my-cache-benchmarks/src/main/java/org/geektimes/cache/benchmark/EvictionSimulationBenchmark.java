@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache.benchmark;
+
+import org.geektimes.cache.InMemoryCacheManager;
+import org.openjdk.jmh.annotations.*;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.spi.CachingProvider;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The trace-driven simulation of the eviction policies on the bounded {@link Cache}, the hit ratio is reported by
+ * the auxiliary counters "hits" and "misses".
+ * <p>
+ * The trace file is specified by the "trace" parameter(e.g. "-p trace=/path/to/trace.txt"), whose lines start with
+ * the accessed key followed by the optional columns separated by whitespaces, the lines starting with '#' are
+ * ignored. If the trace file is absent, the Zipfian distributed trace will be generated.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvictionSimulationBenchmark {
+
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    private static final int GENERATED_TRACE_LENGTH = 1 << 20;
+
+    @Param({""})
+    public String trace;
+
+    /**
+     * The number of keys of the generated trace
+     */
+    @Param({"100000"})
+    public int keys;
+
+    @Param({"1000", "10000"})
+    public int capacity;
+
+    @Param({"LRU", "FIFO"})
+    public EvictionPolicy policy;
+
+    private CacheManager cacheManager;
+
+    private Cache<String, Integer> cache;
+
+    /**
+     * The keys in the cache ordered by the eviction policy, the eldest one is the victim.
+     */
+    private LinkedHashMap<String, Boolean> evictionQueue;
+
+    private String[] accesses;
+
+    private int position;
+
+    @Setup
+    public void setup() throws IOException {
+        CachingProvider cachingProvider = Caching.getCachingProvider();
+        cacheManager = new InMemoryCacheManager(cachingProvider,
+                URI.create("in-memory://localhost/eviction-" + sequence.incrementAndGet()),
+                cachingProvider.getDefaultClassLoader(), cachingProvider.getDefaultProperties());
+        cache = cacheManager.createCache("eviction", new MutableConfiguration<String, Integer>()
+                .setTypes(String.class, Integer.class));
+        evictionQueue = new LinkedHashMap<>(capacity * 2, 0.75f, policy == EvictionPolicy.LRU);
+        accesses = trace.isEmpty() ? generateTrace() : loadTrace(trace);
+    }
+
+    @TearDown
+    public void tearDown() {
+        cacheManager.close();
+    }
+
+    @Benchmark
+    public Integer access(HitRatio hitRatio) {
+        String key = accesses[position];
+        position = position + 1 == accesses.length ? 0 : position + 1;
+        Integer value = cache.get(key);
+        if (value != null) {
+            hitRatio.hits++;
+            // Update the order of LRU
+            evictionQueue.get(key);
+            return value;
+        }
+        hitRatio.misses++;
+        value = key.length();
+        cache.put(key, value);
+        evictionQueue.put(key, Boolean.TRUE);
+        if (evictionQueue.size() > capacity) {
+            Iterator<String> iterator = evictionQueue.keySet().iterator();
+            String victim = iterator.next();
+            iterator.remove();
+            cache.remove(victim);
+        }
+        return value;
+    }
+
+    private String[] generateTrace() {
+        String[] keyNames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = "key-" + i;
+        }
+        int[] indexes = new ZipfianGenerator(keys).sequence(GENERATED_TRACE_LENGTH);
+        String[] accesses = new String[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            accesses[i] = keyNames[indexes[i]];
+        }
+        return accesses;
+    }
+
+    static String[] loadTrace(String trace) throws IOException {
+        List<String> accesses = new ArrayList<>();
+        // The same keys share the instance
+        Map<String, String> keys = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(trace), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String key = line.split("\\s+", 2)[0];
+                accesses.add(keys.computeIfAbsent(key, k -> k));
+            }
+        }
+        if (accesses.isEmpty()) {
+            throw new IllegalArgumentException("The trace file[" + trace + "] has no access!");
+        }
+        return accesses.toArray(new String[0]);
+    }
+
+    public enum EvictionPolicy {
+
+        LRU,
+
+        FIFO
+    }
+
+    /**
+     * The hits and misses per iteration, the hit ratio = hits / (hits + misses)
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HitRatio {
+
+        public long hits;
+
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache.benchmark;
+
+import org.geektimes.cache.InMemoryCache;
+import org.geektimes.cache.InMemoryCacheManager;
+import org.openjdk.jmh.annotations.*;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The benchmark of get, put and mixed workloads on {@link InMemoryCache} whose keys are Zipfian distributed.
+ * Because {@link InMemoryCache} is non-thread-safe, every thread owns its cache.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InMemoryCacheBenchmark {
+
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    private static final int SEQUENCE_LENGTH = 1 << 16;
+
+    private static final int SEQUENCE_MASK = SEQUENCE_LENGTH - 1;
+
+    @Param({"1000", "100000"})
+    public int keys;
+
+    @Param({"0.99"})
+    public double theta;
+
+    /**
+     * The percentage of reads in the mixed workload
+     */
+    @Param({"90"})
+    public int readPercentage;
+
+    @Param({"false", "true"})
+    public boolean statisticsEnabled;
+
+    private CacheManager cacheManager;
+
+    private Cache<String, Integer> cache;
+
+    private String[] keyNames;
+
+    private int[] keyIndexes;
+
+    private boolean[] reads;
+
+    private int position;
+
+    @Setup
+    public void setup() {
+        int id = sequence.incrementAndGet();
+        CachingProvider cachingProvider = Caching.getCachingProvider();
+        cacheManager = new InMemoryCacheManager(cachingProvider, URI.create("in-memory://localhost/benchmark-" + id),
+                cachingProvider.getDefaultClassLoader(), cachingProvider.getDefaultProperties());
+        cache = cacheManager.createCache("benchmark", new MutableConfiguration<String, Integer>()
+                .setTypes(String.class, Integer.class)
+                .setStatisticsEnabled(statisticsEnabled));
+        keyNames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = "key-" + i;
+            cache.put(keyNames[i], i);
+        }
+        ZipfianGenerator generator = new ZipfianGenerator(keys, theta, new Random(id));
+        keyIndexes = generator.sequence(SEQUENCE_LENGTH);
+        reads = new boolean[SEQUENCE_LENGTH];
+        Random random = new Random(id);
+        for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+            reads[i] = random.nextInt(100) < readPercentage;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        cacheManager.close();
+    }
+
+    @Benchmark
+    public Integer get() {
+        return cache.get(keyNames[keyIndexes[nextPosition()]]);
+    }
+
+    @Benchmark
+    public void put() {
+        int index = keyIndexes[nextPosition()];
+        cache.put(keyNames[index], index);
+    }
+
+    @Benchmark
+    public Integer mixed() {
+        int position = nextPosition();
+        int index = keyIndexes[position];
+        if (reads[position]) {
+            return cache.get(keyNames[index]);
+        }
+        cache.put(keyNames[index], index);
+        return null;
+    }
+
+    private int nextPosition() {
+        return position++ & SEQUENCE_MASK;
+    }
+}
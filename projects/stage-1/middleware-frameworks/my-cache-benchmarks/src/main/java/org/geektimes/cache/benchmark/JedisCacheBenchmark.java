@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache.benchmark;
+
+import org.geektimes.cache.redis.JedisCache;
+import org.geektimes.cache.redis.JedisCacheManager;
+import org.geektimes.commons.io.Deserializer;
+import org.geektimes.commons.io.Serializer;
+import org.openjdk.jmh.annotations.*;
+
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.spi.CachingProvider;
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of the serialization cost of {@link JedisCache} values, Redis is replaced by {@link EmbeddedJedis},
+ * the raw serialization and deserialization are measured as the baseline.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class JedisCacheBenchmark {
+
+    private static final int KEYS = 1024;
+
+    private static final int KEYS_MASK = KEYS - 1;
+
+    /**
+     * The size of value in bytes
+     */
+    @Param({"64", "1024", "16384"})
+    public int valueSize;
+
+    private JedisCacheManager cacheManager;
+
+    private JedisCache<String, Payload> cache;
+
+    private Serializer<Object> serializer;
+
+    private Deserializer<Object> deserializer;
+
+    private String[] keys;
+
+    private Payload payload;
+
+    private byte[] payloadBytes;
+
+    private int position;
+
+    @Setup
+    public void setup() throws IOException {
+        CachingProvider cachingProvider = Caching.getCachingProvider();
+        // No connection is established until the resource of pool is acquired
+        cacheManager = new JedisCacheManager(cachingProvider, URI.create("redis://127.0.0.1:6379/"),
+                cachingProvider.getDefaultClassLoader(), cachingProvider.getDefaultProperties());
+        cache = new JedisCache<>(cacheManager, "benchmark", new MutableConfiguration<String, Payload>()
+                .setTypes(String.class, Payload.class), new EmbeddedJedis());
+        serializer = (Serializer<Object>) cacheManager.getSerializers().getMostCompatible(Payload.class);
+        deserializer = (Deserializer<Object>) cacheManager.getDeserializers().getMostCompatible(Payload.class);
+
+        byte[] data = new byte[valueSize];
+        new Random(valueSize).nextBytes(data);
+        payload = new Payload(System.currentTimeMillis(), data);
+        payloadBytes = serializer.serialize(payload);
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "key-" + i;
+            cache.put(keys[i], payload);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        cache.close();
+        cacheManager.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return serializer.serialize(payload);
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException {
+        return deserializer.deserialize(payloadBytes);
+    }
+
+    @Benchmark
+    public void put() {
+        cache.put(nextKey(), payload);
+    }
+
+    @Benchmark
+    public Payload get() {
+        return cache.get(nextKey());
+    }
+
+    private String nextKey() {
+        return keys[position++ & KEYS_MASK];
+    }
+
+    public static class Payload implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long timestamp;
+
+        private final byte[] data;
+
+        public Payload(long timestamp, byte[] data) {
+            this.timestamp = timestamp;
+            this.data = data;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Payload)) return false;
+            Payload payload = (Payload) o;
+            return timestamp == payload.timestamp && Arrays.equals(data, payload.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(timestamp) + Arrays.hashCode(data);
+        }
+    }
+}
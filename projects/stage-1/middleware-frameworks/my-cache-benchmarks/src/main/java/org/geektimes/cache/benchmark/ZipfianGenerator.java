@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache.benchmark;
+
+import java.util.Random;
+
+/**
+ * The generator of the Zipfian distributed integers in [0, items), the smaller integers are more popular,
+ * which is based on "Quickly Generating Billion-Record Synthetic Databases" by Jim Gray et al.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+public class ZipfianGenerator {
+
+    /**
+     * The default skew of the popular items
+     */
+    public static final double DEFAULT_THETA = 0.99;
+
+    private final int items;
+
+    private final double theta;
+
+    private final double alpha;
+
+    private final double zetaN;
+
+    private final double eta;
+
+    private final Random random;
+
+    public ZipfianGenerator(int items) {
+        this(items, DEFAULT_THETA, new Random(items));
+    }
+
+    public ZipfianGenerator(int items, double theta, Random random) {
+        if (items < 1) {
+            throw new IllegalArgumentException("The 'items' argument must be positive!");
+        }
+        this.items = items;
+        this.theta = theta;
+        this.random = random;
+        this.alpha = 1.0 / (1.0 - theta);
+        this.zetaN = zeta(items, theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+    }
+
+    public int next() {
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < 1.0 + Math.pow(0.5, theta)) {
+            return Math.min(1, items - 1);
+        }
+        int value = (int) (items * Math.pow(eta * u - eta + 1, alpha));
+        return Math.min(value, items - 1);
+    }
+
+    /**
+     * Generate the sequence of integers in advance, thus the cost of generation is excluded from the measurement.
+     *
+     * @param length the length of sequence
+     * @return non-null
+     */
+    public int[] sequence(int length) {
+        int[] sequence = new int[length];
+        for (int i = 0; i < length; i++) {
+            sequence[i] = next();
+        }
+        return sequence;
+    }
+
+    private static double zeta(int n, double theta) {
+        double sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}
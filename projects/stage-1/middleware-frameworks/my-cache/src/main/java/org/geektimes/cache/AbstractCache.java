@@ -16,9 +16,11 @@
  */
 package org.geektimes.cache;
 
+import org.geektimes.cache.configuration.CacheConfiguration;
 import org.geektimes.cache.event.CacheEntryEventPublisher;
 import org.geektimes.cache.integration.CompositeFallbackStorage;
 import org.geektimes.cache.integration.FallbackStorage;
+import org.geektimes.cache.integration.WriteBehindCacheWriter;
 import org.geektimes.cache.management.CacheStatistics;
 import org.geektimes.cache.management.DummyCacheStatistics;
 import org.geektimes.cache.management.SimpleCacheStatistics;
@@ -40,6 +42,8 @@ import javax.cache.processor.EntryProcessor;
 import javax.cache.processor.EntryProcessorException;
 import javax.cache.processor.EntryProcessorResult;
 import javax.cache.processor.MutableEntry;
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -52,6 +56,7 @@ import static org.geektimes.cache.ExpirableEntry.requireValueNotNull;
 import static org.geektimes.cache.configuration.ConfigurationUtils.immutableConfiguration;
 import static org.geektimes.cache.configuration.ConfigurationUtils.mutableConfiguration;
 import static org.geektimes.cache.event.GenericCacheEntryEvent.*;
+import static org.geektimes.cache.management.CacheStatistics.NOT_SAMPLED;
 import static org.geektimes.cache.management.ManagementUtils.registerMBeansIfRequired;
 
 /**
@@ -84,6 +89,13 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
     private final Executor executor;
 
+    private final int loaderBatchSize;
+
+    /**
+     * The monitor to store the loaded entries serially, because the underlying storage may be non-thread-safe.
+     */
+    private final Object loadedEntriesMonitor = new Object();
+
     private volatile boolean closed = false;
 
     protected AbstractCache(CacheManager cacheManager, String cacheName, Configuration<K, V> configuration) {
@@ -91,12 +103,13 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
         this.cacheName = cacheName;
         this.configuration = mutableConfiguration(configuration);
         this.expiryPolicy = resolveExpiryPolicy(getConfiguration());
-        this.defaultFallbackStorage = new CompositeFallbackStorage(getClassLoader());
+        this.defaultFallbackStorage = new CompositeFallbackStorage(getClassLoader(), cacheName);
         this.cacheLoader = resolveCacheLoader(getConfiguration(), getClassLoader());
         this.cacheWriter = resolveCacheWriter(getConfiguration(), getClassLoader());
-        this.entryEventPublisher = new CacheEntryEventPublisher();
+        this.executor = resolveExecutor(cacheManager);
+        this.entryEventPublisher = new CacheEntryEventPublisher(executor);
         this.cacheStatistics = resolveCacheStatistic();
-        this.executor = ForkJoinPool.commonPool();
+        this.loaderBatchSize = resolveLoaderBatchSize(cacheManager);
         registerCacheEntryListenersFromConfiguration();
         registerMBeansIfRequired(this, cacheStatistics);
     }
@@ -168,7 +181,7 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
         requireKeyNotNull(key);
         ExpirableEntry<K, V> entry = null;
         V value = null;
-        long startTime = System.currentTimeMillis();
+        long startTime = cacheStatistics.startTime();
         try {
             entry = getEntry(key);
             if (handleExpiryPolicyForAccess(entry)) {
@@ -187,7 +200,9 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
                 cacheStatistics.cacheHits();
             }
             cacheStatistics.cacheGets();
-            cacheStatistics.cacheGetsTime(System.currentTimeMillis() - startTime);
+            if (startTime != NOT_SAMPLED) {
+                cacheStatistics.cacheGetsTime(System.nanoTime() - startTime);
+            }
         }
 
         return value;
@@ -434,22 +449,19 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
             return;
         }
 
+        // Implementations may choose to load multiple keys from the provided Set in parallel.
+        // Iteration however must not occur in parallel, thus allow for non-thread-safe Sets to be used.
+        List<List<K>> batches = partitionKeys(keys, replaceExistingValues);
+
         // Asynchronously loads the specified entries into the cache using the configured
-        // CacheLoader for the given keys.
-        CompletableFuture.runAsync(() -> {
-            // Implementations may choose to load multiple keys from the provided Set in parallel.
-            // Iteration however must not occur in parallel, thus allow for non-thread-safe Sets to be used.
-            for (K key : keys) {
-                // If an entry for a key already exists in the Cache, a value will be loaded
-                // if and only if replaceExistingValues is true.
-                V value = loadValue(key, false);
-                if (replaceExistingValues) {
-                    replace(key, value);
-                } else {
-                    put(key, value);
-                }
-            }
-        }, executor).whenComplete((v, e) -> {
+        // CacheLoader for the given keys, each batch is loaded by CacheLoader#loadAll in parallel.
+        CompletableFuture<?>[] futures = new CompletableFuture[batches.size()];
+        for (int i = 0; i < futures.length; i++) {
+            List<K> batch = batches.get(i);
+            futures[i] = CompletableFuture.runAsync(() -> loadEntries(batch, replaceExistingValues), executor);
+        }
+
+        CompletableFuture.allOf(futures).whenComplete((v, e) -> {
             // the CompletionListener may be null
             if (completionListener != null) {
                 // completed exceptionally
@@ -462,6 +474,102 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
         });
     }
 
+    /**
+     * Partition the keys to be loaded into the batches whose size is not greater than {@link #loaderBatchSize}.
+     * If an entry for a key already exists in the Cache, a value will be loaded if and only if
+     * replaceExistingValues is true.
+     *
+     * @param keys                  the keys to load
+     * @param replaceExistingValues the existing keys will be loaded or not
+     * @return non-null
+     */
+    private List<List<K>> partitionKeys(Set<? extends K> keys, boolean replaceExistingValues) {
+        List<List<K>> batches = new ArrayList<>(keys.size() / loaderBatchSize + 1);
+        List<K> batch = new ArrayList<>(Math.min(keys.size(), loaderBatchSize));
+        for (K key : keys) {
+            if (!replaceExistingValues && containsKey(key)) {
+                continue;
+            }
+            batch.add(key);
+            if (batch.size() == loaderBatchSize) {
+                batches.add(batch);
+                batch = new ArrayList<>(loaderBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private void loadEntries(List<K> keys, boolean replaceExistingValues) {
+        Map<K, V> loadedEntries = loadValues(keys);
+        synchronized (loadedEntriesMonitor) {
+            for (Map.Entry<K, V> loadedEntry : loadedEntries.entrySet()) {
+                K key = loadedEntry.getKey();
+                V value = loadedEntry.getValue();
+                if (key == null || value == null) {
+                    // The entry can't be loaded
+                    continue;
+                }
+                // The existing value is replaced if and only if replaceExistingValues is true, and the loaded entry
+                // must not be written by CacheWriter
+                if (replaceExistingValues || !containsKey(key)) {
+                    doPut(key, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the copy of the unexpired entries for the snapshot, the entries are neither accessed by
+     * {@link ExpiryPolicy} nor counted by the statistics.
+     * <p>
+     * The loading is only blocked while the keys are copied, the entries are read from the copy without any lock, thus
+     * the entries changed during the iteration may or may not be included.
+     *
+     * @return non-null
+     * @see CacheSnapshot
+     */
+    final List<ExpirableEntry<K, V>> getUnexpiredEntries() {
+        final List<K> keys;
+        synchronized (loadedEntriesMonitor) {
+            keys = new ArrayList<>(keySet());
+        }
+        List<ExpirableEntry<K, V>> entries = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            ExpirableEntry<K, V> entry = getEntry(key);
+            if (entry != null && !entry.isExpired()) {
+                ExpirableEntry<K, V> copy = ExpirableEntry.of(key, entry.getValue());
+                copy.setTimestamp(entry.getTimestamp());
+                entries.add(copy);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Restore the entries from the snapshot with their original expiration time, the existing or expired entries
+     * will be skipped, and neither the events are published nor the entries are written by {@link CacheWriter}.
+     *
+     * @param entries the entries from the snapshot
+     * @return the number of restored entries
+     * @see CacheSnapshot
+     */
+    final int restoreEntries(Collection<ExpirableEntry<K, V>> entries) {
+        int count = 0;
+        synchronized (loadedEntriesMonitor) {
+            for (ExpirableEntry<K, V> entry : entries) {
+                if (entry.isExpired() || containsEntry(entry.getKey())) {
+                    continue;
+                }
+                putEntry(entry);
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -476,7 +584,16 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
     public void put(K key, V value) {
         assertNotClosed();
         Entry<K, V> entry = null;
-        long startTime = System.currentTimeMillis();
+        try {
+            entry = doPut(key, value);
+        } finally {
+            writeEntryIfWriteThrough(entry);
+        }
+    }
+
+    private Entry<K, V> doPut(K key, V value) {
+        Entry<K, V> entry = null;
+        long startTime = cacheStatistics.startTime();
         try {
             if (!containsKey(key)) {
                 // Put the new Cache.Entry
@@ -485,10 +602,12 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
                 entry = updateEntry(key, value);
             }
         } finally {
-            writeEntryIfWriteThrough(entry);
             cacheStatistics.cachePuts();
-            cacheStatistics.cachePutsTime(System.currentTimeMillis() - startTime);
+            if (startTime != NOT_SAMPLED) {
+                cacheStatistics.cachePutsTime(System.nanoTime() - startTime);
+            }
         }
+        return entry;
     }
 
     /**
@@ -503,8 +622,17 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
      */
     @Override
     public void putAll(Map<? extends K, ? extends V> map) {
-        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
-            put(entry.getKey(), entry.getValue());
+        assertNotClosed();
+        List<Entry<? extends K, ? extends V>> entries = new ArrayList<>(map.size());
+        try {
+            for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+                Entry<K, V> putEntry = doPut(entry.getKey(), entry.getValue());
+                if (putEntry != null) {
+                    entries.add(putEntry);
+                }
+            }
+        } finally {
+            writeAllIfWriteThrough(entries);
         }
     }
 
@@ -543,7 +671,17 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
         assertNotClosed();
         requireKeyNotNull(key);
         boolean removed = false;
-        long startTime = System.currentTimeMillis();
+        try {
+            removed = doRemove(key);
+        } finally {
+            deleteIfWriteThrough(key);
+        }
+        return removed;
+    }
+
+    private boolean doRemove(K key) {
+        boolean removed = false;
+        long startTime = cacheStatistics.startTime();
         try {
             ExpirableEntry<K, V> oldEntry = removeEntry(key);
             removed = oldEntry != null;
@@ -551,9 +689,10 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
                 publishRemovedEvent(key, oldEntry.getValue());
             }
         } finally {
-            deleteIfWriteThrough(key);
             cacheStatistics.cacheRemovals();
-            cacheStatistics.cacheRemovesTime(System.currentTimeMillis() - startTime);
+            if (startTime != NOT_SAMPLED) {
+                cacheStatistics.cacheRemovesTime(System.nanoTime() - startTime);
+            }
         }
         return removed;
     }
@@ -605,8 +744,17 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
      */
     @Override
     public void removeAll(Set<? extends K> keys) {
-        for (Object key : keys.toArray()) {
-            remove((K) key);
+        assertNotClosed();
+        Object[] keysArray = keys.toArray();
+        List<K> removedKeys = new ArrayList<>(keysArray.length);
+        try {
+            for (Object key : keysArray) {
+                requireKeyNotNull(key);
+                doRemove((K) key);
+                removedKeys.add((K) key);
+            }
+        } finally {
+            deleteAllIfWriteThrough(removedKeys);
         }
     }
 
@@ -749,6 +897,11 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
         if (isClosed()) {
             return;
         }
+        // Flush the pending entries if the CacheWriter is write-behind
+        closeIfCloseable(cacheWriter);
+        closeIfCloseable(cacheLoader);
+        // The default FallbackStorage may be shared by the CacheLoader and CacheWriter, it's closed at last
+        closeResource(defaultFallbackStorage);
         doClose();
 
         //  At this point in time the CacheManager:
@@ -786,9 +939,26 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
         return configuration.isStatisticsEnabled();
     }
 
+    private Executor resolveExecutor(CacheManager cacheManager) {
+        return cacheManager instanceof AbstractCacheManager ?
+                ((AbstractCacheManager) cacheManager).getExecutor() : ForkJoinPool.commonPool();
+    }
+
+    private int resolveLoaderBatchSize(CacheManager cacheManager) {
+        int loaderBatchSize = cacheManager instanceof AbstractCacheManager ?
+                ((AbstractCacheManager) cacheManager).getCacheConfiguration().getLoaderBatchSize() :
+                CacheConfiguration.DEFAULT_LOADER_BATCH_SIZE;
+        return Math.max(1, loaderBatchSize);
+    }
+
     private CacheStatistics resolveCacheStatistic() {
-        return isStatisticsEnabled() ?
-                new SimpleCacheStatistics() : DummyCacheStatistics.INSTANCE;
+        if (!isStatisticsEnabled()) {
+            return DummyCacheStatistics.INSTANCE;
+        }
+        int sampleInterval = cacheManager instanceof AbstractCacheManager ?
+                ((AbstractCacheManager) cacheManager).getCacheConfiguration().getStatisticsSampleInterval() :
+                CacheConfiguration.DEFAULT_STATISTICS_SAMPLE_INTERVAL;
+        return new SimpleCacheStatistics(sampleInterval);
     }
 
     // Operations of Cache.Entry and ExpirableEntry
@@ -932,6 +1102,19 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
             cacheWriter = this.defaultFallbackStorage;
         }
 
+        return decorateCacheWriterIfWriteBehind(cacheWriter);
+    }
+
+    private CacheWriter<K, V> decorateCacheWriterIfWriteBehind(CacheWriter<K, V> cacheWriter) {
+        CacheManager cacheManager = getCacheManager();
+        if (cacheManager instanceof AbstractCacheManager) {
+            AbstractCacheManager abstractCacheManager = (AbstractCacheManager) cacheManager;
+            CacheConfiguration cacheConfiguration = abstractCacheManager.getCacheConfiguration();
+            if (cacheConfiguration.isWriteBehind()) {
+                return new WriteBehindCacheWriter<>(getName(), cacheWriter, defaultFallbackStorage,
+                        abstractCacheManager.getExecutor(), cacheConfiguration);
+            }
+        }
         return cacheWriter;
     }
 
@@ -947,18 +1130,49 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
         return value;
     }
 
+    /**
+     * Load the values by {@link CacheLoader#loadAll(Iterable)} in one batch, if the {@link CacheLoader} does not
+     * support the bulk loading (returns <code>null</code>), the values will be loaded by
+     * {@link CacheLoader#load(Object)} key-by-key.
+     *
+     * @param keys the keys to load
+     * @return non-null
+     */
+    private Map<K, V> loadValues(List<K> keys) {
+        Map<K, V> values = getCacheLoader().loadAll(keys);
+        if (values == null) {
+            values = new LinkedHashMap<>(keys.size());
+            for (K key : keys) {
+                values.put(key, loadValue(key));
+            }
+        }
+        return values;
+    }
+
     private void writeEntryIfWriteThrough(Entry<K, V> entry) {
         if (entry != null && isWriteThrough()) {
             getCacheWriter().write(entry);
         }
     }
 
+    private void writeAllIfWriteThrough(List<Entry<? extends K, ? extends V>> entries) {
+        if (!entries.isEmpty() && isWriteThrough()) {
+            getCacheWriter().writeAll(entries);
+        }
+    }
+
     private void deleteIfWriteThrough(K key) {
         if (isWriteThrough()) {
             getCacheWriter().delete(key);
         }
     }
 
+    private void deleteAllIfWriteThrough(List<K> keys) {
+        if (!keys.isEmpty() && isWriteThrough()) {
+            getCacheWriter().deleteAll(keys);
+        }
+    }
+
     // Operations of CacheEntryEvent and CacheEntryListenerConfiguration
 
     private void registerCacheEntryListenersFromConfiguration() {
@@ -1080,6 +1294,23 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
         return getCacheManager().getClassLoader();
     }
 
+    private void closeIfCloseable(Object resource) {
+        // The resources implementing java.io.Closeable will be closed, e.g CacheLoader and CacheWriter
+        if (resource != defaultFallbackStorage) {
+            closeResource(resource);
+        }
+    }
+
+    private void closeResource(Object resource) {
+        if (resource instanceof Closeable) {
+            try {
+                ((Closeable) resource).close();
+            } catch (IOException e) {
+                logger.warning(e.getMessage());
+            }
+        }
+    }
+
     private void assertNotClosed() {
         if (isClosed()) {
             throw new IllegalStateException("Current cache has been closed! No operation should be executed.");
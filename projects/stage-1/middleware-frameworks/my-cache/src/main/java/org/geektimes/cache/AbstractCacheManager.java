@@ -18,6 +18,7 @@ package org.geektimes.cache;
 
 import org.geektimes.cache.configuration.CacheConfiguration;
 import org.geektimes.cache.configuration.PropertiesCacheConfiguration;
+import org.geektimes.commons.concurrent.NamedThreadFactory;
 import org.geektimes.commons.io.Deserializers;
 import org.geektimes.commons.io.Serializers;
 
@@ -27,15 +28,24 @@ import javax.cache.CacheManager;
 import javax.cache.configuration.Configuration;
 import javax.cache.configuration.MutableConfiguration;
 import javax.cache.spi.CachingProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.net.URI;
+import java.net.URLEncoder;
+import java.util.HashSet;
 import java.util.Properties;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Set;
+import java.util.concurrent.*;
 import java.util.function.Consumer;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Abstract {@link CacheManager} class, all instances of {@link CacheManager} that are generated by
@@ -47,6 +57,41 @@ import static java.util.Objects.requireNonNull;
  */
 public abstract class AbstractCacheManager implements CacheManager {
 
+    /**
+     * The property name for the thread count of {@link #getExecutor() the executor} shared by the managed caches
+     */
+    public static final String EXECUTOR_THREADS_PROPERTY_NAME = "javax.cache.CacheManager.executor.threads";
+
+    /**
+     * The property name for the names of caches to be snapshot, separated by comma, "*" means all caches
+     */
+    public static final String SNAPSHOT_CACHES_PROPERTY_NAME = "javax.cache.CacheManager.snapshot.caches";
+
+    /**
+     * The property name for the directory of snapshot files
+     */
+    public static final String SNAPSHOT_DIRECTORY_PROPERTY_NAME = "javax.cache.CacheManager.snapshot.directory";
+
+    /**
+     * The default value of {@link #SNAPSHOT_DIRECTORY_PROPERTY_NAME}
+     */
+    public static final String DEFAULT_SNAPSHOT_DIRECTORY = ".cache/snapshot";
+
+    /**
+     * The property name for the interval in milliseconds of periodic snapshots, the non-positive value means
+     * the snapshot is only taken on close
+     */
+    public static final String SNAPSHOT_INTERVAL_PROPERTY_NAME = "javax.cache.CacheManager.snapshot.interval";
+
+    /**
+     * The default value of {@link #SNAPSHOT_INTERVAL_PROPERTY_NAME}
+     */
+    public static final long DEFAULT_SNAPSHOT_INTERVAL = 0;
+
+    private static final String ALL_CACHES = "*";
+
+    private static final ThreadFactory SNAPSHOT_THREAD_FACTORY = new NamedThreadFactory("CacheSnapshot");
+
     private static final Consumer<Cache> CLEAR_CACHE_OPERATION = Cache::clear;
 
     private static final Consumer<Cache> CLOSE_CACHE_OPERATION = Cache::close;
@@ -67,10 +112,19 @@ public abstract class AbstractCacheManager implements CacheManager {
 
     private final CacheConfiguration cacheConfiguration;
 
+    private volatile ScheduledExecutorService executor;
+
     private volatile boolean closed;
 
     private ConcurrentMap<String, Cache> cacheRepository = new ConcurrentHashMap<>();
 
+    private final Set<String> snapshotCacheNames;
+
+    private final ConcurrentMap<String, CacheSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, CompletableFuture<Integer>> snapshotRestorations = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, ScheduledFuture<?>> snapshotSchedules = new ConcurrentHashMap<>();
 
     public AbstractCacheManager(CachingProvider cachingProvider, URI uri, ClassLoader classLoader, Properties properties) {
         this.cachingProvider = cachingProvider;
@@ -80,6 +134,7 @@ public abstract class AbstractCacheManager implements CacheManager {
         this.classLoader = classLoader == null ? cachingProvider.getDefaultClassLoader() : classLoader;
         this.serializers = initSerializers(this.classLoader);
         this.deserializers = initDeserializers(this.classLoader);
+        this.snapshotCacheNames = resolveSnapshotCacheNames();
     }
 
     protected Serializers initSerializers(ClassLoader classLoader) {
@@ -145,6 +200,7 @@ public abstract class AbstractCacheManager implements CacheManager {
 
         if (created) {
             cache = cacheRepository.computeIfAbsent(cacheName, n -> doCreateCache(cacheName, configuration));
+            startSnapshotIfRequired(cacheName, cache);
         } else {
             cache = cacheRepository.get(cacheName);
             if (cache != null) {
@@ -177,6 +233,7 @@ public abstract class AbstractCacheManager implements CacheManager {
         requireNonNull(cacheName, "The 'cacheName' argument must not be null.");
         assertNotClosed();
         Cache cache = cacheRepository.remove(cacheName);
+        stopSnapshot(cacheName, true);
         if (cache != null) {
             cache.clear();
             cache.close();
@@ -209,8 +266,10 @@ public abstract class AbstractCacheManager implements CacheManager {
             logger.warning("The CacheManager has been closed, current close operation will be ignored!");
             return;
         }
+        snapshots.keySet().forEach(cacheName -> stopSnapshot(cacheName, false));
         iterateCaches(cacheRepository.values(), CLOSE_CACHE_OPERATION);
         doClose();
+        shutdownExecutor();
         this.closed = true;
     }
 
@@ -249,6 +308,172 @@ public abstract class AbstractCacheManager implements CacheManager {
         return value;
     }
 
+    /**
+     * Get the dedicated {@link ScheduledExecutorService} shared by the managed caches for the bulk or periodic
+     * operations, e.g {@link Cache#loadAll}, whose threads count is configured by {@link #EXECUTOR_THREADS_PROPERTY_NAME}.
+     *
+     * @return non-null
+     */
+    public ScheduledExecutorService getExecutor() {
+        ScheduledExecutorService executor = this.executor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = this.executor;
+                if (executor == null) {
+                    executor = createExecutor();
+                    this.executor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    protected ScheduledExecutorService createExecutor() {
+        return newScheduledThreadPool(getExecutorThreads(), new NamedThreadFactory("CacheManager"));
+    }
+
+    private int getExecutorThreads() {
+        int threads = cacheConfiguration.getProperty(EXECUTOR_THREADS_PROPERTY_NAME, Integer.class,
+                Runtime.getRuntime().availableProcessors());
+        return Math.max(1, threads);
+    }
+
+    /**
+     * Restore the entries of the cache from its snapshot asynchronously, the snapshot file is read by a dedicated
+     * thread, the batches of entries are deserialized and stored by {@link #getExecutor() the executor} in parallel.
+     * The restoration is triggered once when the cache is created, thus current method returns the same result.
+     *
+     * @param cacheName the name of cache
+     * @return the number of restored entries, or zero if the cache is not snapshot
+     */
+    public CompletableFuture<Integer> restoreSnapshot(String cacheName) {
+        CacheSnapshot snapshot = snapshots.get(cacheName);
+        if (snapshot == null) {
+            return CompletableFuture.completedFuture(0);
+        }
+        return snapshotRestorations.computeIfAbsent(cacheName, name -> {
+            CompletableFuture<Integer> restoration = new CompletableFuture<>();
+            SNAPSHOT_THREAD_FACTORY.newThread(() -> {
+                try {
+                    int count = snapshot.restore(getExecutor(), cacheConfiguration.getLoaderBatchSize(),
+                            getExecutorThreads());
+                    logger.fine(format("%d entries of cache[name : %s] have been restored from the snapshot[path : %s]",
+                            count, name, snapshot.getFile().getAbsolutePath()));
+                    restoration.complete(count);
+                } catch (Throwable e) {
+                    logger.log(Level.WARNING, format("The cache[name : %s] can't be restored from the snapshot[path : %s]",
+                            name, snapshot.getFile().getAbsolutePath()), e);
+                    restoration.completeExceptionally(e);
+                }
+            }).start();
+            return restoration;
+        });
+    }
+
+    /**
+     * Take the snapshot of the cache synchronously, current method will wait for the restoration.
+     *
+     * @param cacheName the name of cache
+     * @return the number of saved entries, or zero if the cache is not snapshot
+     */
+    public int takeSnapshot(String cacheName) {
+        CacheSnapshot snapshot = snapshots.get(cacheName);
+        if (snapshot == null) {
+            return 0;
+        }
+        // The entries restored partially must not overwrite the previous snapshot
+        restoreSnapshot(cacheName).exceptionally(e -> 0).join();
+        synchronized (snapshot) {
+            try {
+                return snapshot.save();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, format("The snapshot of cache[name : %s] can't be saved into the file[path : %s]",
+                        cacheName, snapshot.getFile().getAbsolutePath()), e);
+                return 0;
+            }
+        }
+    }
+
+    private Set<String> resolveSnapshotCacheNames() {
+        String propertyValue = cacheConfiguration.getProperty(SNAPSHOT_CACHES_PROPERTY_NAME, "");
+        Set<String> cacheNames = new HashSet<>();
+        for (String cacheName : asList(propertyValue.split(","))) {
+            cacheName = cacheName.trim();
+            if (!cacheName.isEmpty()) {
+                cacheNames.add(cacheName);
+            }
+        }
+        return cacheNames;
+    }
+
+    private void startSnapshotIfRequired(String cacheName, Cache cache) {
+        if (!(cache instanceof AbstractCache) ||
+                !(snapshotCacheNames.contains(ALL_CACHES) || snapshotCacheNames.contains(cacheName))) {
+            return;
+        }
+        File directory = new File(cacheConfiguration.getProperty(SNAPSHOT_DIRECTORY_PROPERTY_NAME, DEFAULT_SNAPSHOT_DIRECTORY));
+        File file = new File(directory, encode(cacheName) + ".snapshot");
+        if (snapshots.putIfAbsent(cacheName, new CacheSnapshot(file, (AbstractCache) cache, serializers, deserializers)) != null) {
+            return;
+        }
+        restoreSnapshot(cacheName);
+        long interval = cacheConfiguration.getProperty(SNAPSHOT_INTERVAL_PROPERTY_NAME, Long.class, DEFAULT_SNAPSHOT_INTERVAL);
+        if (interval > 0) {
+            snapshotSchedules.put(cacheName, getExecutor().scheduleWithFixedDelay(() -> {
+                if (snapshotRestorations.get(cacheName).isDone()) {
+                    takeSnapshot(cacheName);
+                }
+            }, interval, interval, MILLISECONDS));
+        }
+    }
+
+    /**
+     * Stop the snapshot of the cache
+     *
+     * @param cacheName the name of cache
+     * @param destroyed the cache is destroyed or not, if <code>true</code>, the snapshot file will be deleted,
+     *                  or the last snapshot will be taken
+     */
+    private void stopSnapshot(String cacheName, boolean destroyed) {
+        ScheduledFuture<?> schedule = snapshotSchedules.remove(cacheName);
+        if (schedule != null) {
+            schedule.cancel(false);
+        }
+        if (!snapshots.containsKey(cacheName)) {
+            return;
+        }
+        if (destroyed) {
+            CacheSnapshot snapshot = snapshots.get(cacheName);
+            restoreSnapshot(cacheName).exceptionally(e -> 0).join();
+            synchronized (snapshot) {
+                snapshot.getFile().delete();
+            }
+        } else {
+            takeSnapshot(cacheName);
+        }
+        snapshots.remove(cacheName);
+        snapshotRestorations.remove(cacheName);
+    }
+
+    private static String encode(String cacheName) {
+        try {
+            return URLEncoder.encode(cacheName, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new CacheException(e);
+        }
+    }
+
+    private void shutdownExecutor() {
+        ScheduledExecutorService executor = this.executor;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public CacheConfiguration getCacheConfiguration() {
+        return cacheConfiguration;
+    }
+
     public Serializers getSerializers() {
         return serializers;
     }
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache;
+
+import org.geektimes.commons.io.Deserializer;
+import org.geektimes.commons.io.Deserializers;
+import org.geektimes.commons.io.Serializer;
+import org.geektimes.commons.io.Serializers;
+
+import javax.cache.configuration.CompleteConfiguration;
+import java.io.*;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * The snapshot file of {@link AbstractCache}, the unexpired entries are serialized by {@link Serializers} and
+ * compressed by GZIP :
+ * <pre>
+ * magic(int) version(int) [key length(int) key value length(int) value timestamp(long)]* -1(int)
+ * </pre>
+ * The snapshot is written into a temporary file and then moved to the target one, and is restored by streaming
+ * the file, deserializing and storing the batches of entries in parallel, the original expiration time
+ * ({@link ExpirableEntry#getTimestamp()}) of entry is kept.
+ *
+ * @param <K> the type of key
+ * @param <V> the type of value
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+class CacheSnapshot<K, V> {
+
+    private static final int MAGIC = 0x43534E50;
+
+    private static final int VERSION = 1;
+
+    private static final int END = -1;
+
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    private final File file;
+
+    private final AbstractCache<K, V> cache;
+
+    private final Serializer<K> keySerializer;
+
+    private final Serializer<V> valueSerializer;
+
+    private final Deserializer<K> keyDeserializer;
+
+    private final Deserializer<V> valueDeserializer;
+
+    CacheSnapshot(File file, AbstractCache<K, V> cache, Serializers serializers, Deserializers deserializers) {
+        CompleteConfiguration<K, V> configuration = cache.getConfiguration();
+        this.file = file;
+        this.cache = cache;
+        this.keySerializer = (Serializer<K>) serializers.getMostCompatible(configuration.getKeyType());
+        this.valueSerializer = (Serializer<V>) serializers.getMostCompatible(configuration.getValueType());
+        this.keyDeserializer = (Deserializer<K>) deserializers.getMostCompatible(configuration.getKeyType());
+        this.valueDeserializer = (Deserializer<V>) deserializers.getMostCompatible(configuration.getValueType());
+    }
+
+    /**
+     * Save the unexpired entries of cache
+     *
+     * @return the number of saved entries
+     * @throws IOException If failed to write the file
+     */
+    int save() throws IOException {
+        List<ExpirableEntry<K, V>> entries = cache.getUnexpiredEntries();
+        File parentDirectory = file.getAbsoluteFile().getParentFile();
+        if (!parentDirectory.exists() && !parentDirectory.mkdirs()) {
+            throw new IOException(format("The snapshot directory[path : %s] can't be created!", parentDirectory));
+        }
+        File tempFile = new File(parentDirectory, file.getName() + ".tmp");
+        int count = 0;
+        try (DataOutputStream outputStream = new DataOutputStream(new GZIPOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tempFile))))) {
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(VERSION);
+            for (ExpirableEntry<K, V> entry : entries) {
+                byte[] key, value;
+                try {
+                    key = keySerializer.serialize(entry.getKey());
+                    value = valueSerializer.serialize(entry.getValue());
+                } catch (IOException e) {
+                    logger.warning(format("The entry[key : %s] of cache[name : %s] can't be serialized, caused by : %s",
+                            entry.getKey(), cache.getName(), e.getMessage()));
+                    continue;
+                }
+                outputStream.writeInt(key.length);
+                outputStream.write(key);
+                outputStream.writeInt(value.length);
+                outputStream.write(value);
+                outputStream.writeLong(entry.getTimestamp());
+                count++;
+            }
+            outputStream.writeInt(END);
+        }
+        Files.move(tempFile.toPath(), file.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+        return count;
+    }
+
+    /**
+     * Restore the entries from the snapshot file if exists
+     *
+     * @param executor    the executor to deserialize and store the batches of entries
+     * @param batchSize   the max number of entries in one batch
+     * @param parallelism the max number of the batches in process
+     * @return the number of restored entries
+     * @throws IOException If failed to read the file
+     */
+    int restore(Executor executor, int batchSize, int parallelism) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        AtomicInteger count = new AtomicInteger();
+        LinkedList<CompletableFuture<Void>> futures = new LinkedList<>();
+        try (DataInputStream inputStream = new DataInputStream(new GZIPInputStream(
+                new BufferedInputStream(new FileInputStream(file))))) {
+            if (inputStream.readInt() != MAGIC || inputStream.readInt() != VERSION) {
+                throw new IOException(format("The file[path : %s] is not a valid snapshot!", file.getAbsolutePath()));
+            }
+            List<byte[][]> batch = new ArrayList<>(batchSize);
+            int keyLength;
+            while ((keyLength = inputStream.readInt()) != END) {
+                byte[] key = readBytes(inputStream, keyLength);
+                byte[] value = readBytes(inputStream, inputStream.readInt());
+                byte[] timestamp = readBytes(inputStream, 8);
+                batch.add(new byte[][]{key, value, timestamp});
+                if (batch.size() >= batchSize) {
+                    submit(batch, executor, futures, count, parallelism);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            submit(batch, executor, futures, count, parallelism);
+        } finally {
+            futures.forEach(CompletableFuture::join);
+        }
+        return count.get();
+    }
+
+    private void submit(List<byte[][]> batch, Executor executor, LinkedList<CompletableFuture<Void>> futures,
+                        AtomicInteger count, int parallelism) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Wait for the oldest batch to bound the memory footprint
+        while (futures.size() >= parallelism) {
+            futures.removeFirst().join();
+        }
+        futures.add(CompletableFuture.runAsync(() -> count.addAndGet(restore(batch)), executor));
+    }
+
+    private int restore(List<byte[][]> batch) {
+        List<ExpirableEntry<K, V>> entries = new ArrayList<>(batch.size());
+        for (byte[][] record : batch) {
+            try {
+                ExpirableEntry<K, V> entry = ExpirableEntry.of(keyDeserializer.deserialize(record[0]),
+                        valueDeserializer.deserialize(record[1]));
+                entry.setTimestamp(new DataInputStream(new ByteArrayInputStream(record[2])).readLong());
+                entries.add(entry);
+            } catch (Throwable e) {
+                logger.warning(format("The entry of cache[name : %s] can't be deserialized, caused by : %s",
+                        cache.getName(), e.getMessage()));
+            }
+        }
+        return cache.restoreEntries(entries);
+    }
+
+    private byte[] readBytes(DataInputStream inputStream, int length) throws IOException {
+        if (length < 0) {
+            throw new IOException(format("The snapshot file[path : %s] is corrupted!", file.getAbsolutePath()));
+        }
+        byte[] bytes = new byte[length];
+        inputStream.readFully(bytes);
+        return bytes;
+    }
+
+    File getFile() {
+        return file;
+    }
+}
@@ -39,4 +39,15 @@ public class DefaultCacheKeyGenerator implements CacheKeyGenerator {
     public GeneratedCacheKey generateCacheKey(CacheKeyInvocationContext<? extends Annotation> cacheKeyInvocationContext) {
         return new DefaultGeneratedCacheKey(cacheKeyInvocationContext);
     }
+
+    /**
+     * Generate the {@link GeneratedCacheKey} from the values of key parameters directly, which is equal to the one
+     * generated by {@link #generateCacheKey(CacheKeyInvocationContext)} with the same values.
+     *
+     * @param keyParameterValues the values of key parameters
+     * @return non-null
+     */
+    public GeneratedCacheKey generateCacheKey(Object... keyParameterValues) {
+        return new DefaultGeneratedCacheKey(keyParameterValues);
+    }
 }
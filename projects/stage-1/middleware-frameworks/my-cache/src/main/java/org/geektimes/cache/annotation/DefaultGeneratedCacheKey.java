@@ -41,10 +41,14 @@ class DefaultGeneratedCacheKey implements GeneratedCacheKey {
     private final Object[] parameters;
 
     DefaultGeneratedCacheKey(CacheKeyInvocationContext context) {
-        this.parameters = getParameters(context.getKeyParameters());
+        this(getParameters(context.getKeyParameters()));
     }
 
-    private Object[] getParameters(CacheInvocationParameter[] keyParameters) {
+    DefaultGeneratedCacheKey(Object[] parameters) {
+        this.parameters = parameters;
+    }
+
+    private static Object[] getParameters(CacheInvocationParameter[] keyParameters) {
         int size = keyParameters.length;
         Object[] parameters = new Object[keyParameters.length];
         for (int i = 0; i < size; i++) {
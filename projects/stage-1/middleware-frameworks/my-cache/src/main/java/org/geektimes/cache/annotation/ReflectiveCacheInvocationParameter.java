@@ -40,9 +40,15 @@ public class ReflectiveCacheInvocationParameter implements CacheInvocationParame
     private final int parameterIndex;
 
     public ReflectiveCacheInvocationParameter(Parameter parameter, int parameterIndex, Object parameterValue) {
-        this.parameterType = parameter.getType();
+        this(parameter.getType(), ReflectiveCacheMethodDetails.getAnnotations(parameter.getAnnotations()),
+                parameterIndex, parameterValue);
+    }
+
+    public ReflectiveCacheInvocationParameter(Class<?> parameterType, Set<Annotation> parameterAnnotations,
+                                              int parameterIndex, Object parameterValue) {
+        this.parameterType = parameterType;
         this.parameterValue = parameterValue;
-        this.parameterAnnotations = ReflectiveCacheMethodDetails.getAnnotations(parameter.getAnnotations());
+        this.parameterAnnotations = parameterAnnotations;
         this.parameterIndex = parameterIndex;
     }
 
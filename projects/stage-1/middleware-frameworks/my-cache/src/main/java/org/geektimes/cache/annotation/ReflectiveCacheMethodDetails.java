@@ -58,7 +58,7 @@ public class ReflectiveCacheMethodDetails<A extends Annotation> implements Cache
         return findCacheAnnotation(getMethod());
     }
 
-    static Set<Annotation> getAnnotations(Annotation[] annotations) {
+    public static Set<Annotation> getAnnotations(Annotation[] annotations) {
         if (annotations == null || annotations.length < 1) {
             return emptySet();
         }
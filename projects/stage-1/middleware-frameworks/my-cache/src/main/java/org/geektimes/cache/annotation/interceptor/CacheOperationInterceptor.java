@@ -16,7 +16,6 @@
  */
 package org.geektimes.cache.annotation.interceptor;
 
-import org.geektimes.cache.annotation.ReflectiveCacheKeyInvocationContext;
 import org.geektimes.cache.annotation.util.CacheOperationAnnotationInfo;
 import org.geektimes.interceptor.AnnotatedInterceptor;
 
@@ -46,9 +45,11 @@ import static org.geektimes.commons.reflect.util.ClassUtils.isDerived;
  */
 public abstract class CacheOperationInterceptor<A extends Annotation> extends AnnotatedInterceptor<A> {
 
-    private final ConcurrentMap<A, CacheResolverFactory> cacheResolverFactoryCache = new ConcurrentHashMap<>();
-
-    private final ConcurrentMap<A, CacheKeyGenerator> cacheKeyGeneratorCache = new ConcurrentHashMap<>();
+    /**
+     * The cache of {@link CacheOperationPlan}s : the target class -> the method -> the plan
+     */
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, CacheOperationPlan<A>>> cacheOperationPlansCache =
+            new ConcurrentHashMap<>();
 
     public CacheOperationInterceptor() {
 
@@ -64,17 +65,17 @@ public abstract class CacheOperationInterceptor<A extends Annotation> extends An
         Method method = context.getMethod();
         Object[] parameters = context.getParameters();
 
-        CacheKeyInvocationContext<A> cacheKeyInvocationContext = new ReflectiveCacheKeyInvocationContext<>(target, method, parameters);
+        CacheOperationPlan<A> cacheOperationPlan = getCacheOperationPlan(cacheOperationAnnotation, method, target);
 
-        CacheDefaults cacheDefaults = findCacheDefaults(method, target);
+        CacheKeyInvocationContext<A> cacheKeyInvocationContext = cacheOperationPlan.newInvocationContext(target, parameters);
 
-        CacheOperationAnnotationInfo cacheOperationAnnotationInfo = getCacheOperationAnnotationInfo(cacheOperationAnnotation, cacheDefaults);
+        CacheOperationAnnotationInfo cacheOperationAnnotationInfo = cacheOperationPlan.getCacheOperationAnnotationInfo();
 
         Object result = null;
 
-        Cache cache = resolveCache(cacheOperationAnnotation, cacheKeyInvocationContext, cacheOperationAnnotationInfo);
+        Cache cache = cacheOperationPlan.getCache(cacheKeyInvocationContext);
 
-        Optional<GeneratedCacheKey> cacheKey = generateCacheKey(cacheOperationAnnotation, cacheKeyInvocationContext, cacheOperationAnnotationInfo);
+        Optional<GeneratedCacheKey> cacheKey = cacheOperationPlan.generateCacheKey(cacheKeyInvocationContext, parameters);
 
         try {
             result = beforeExecute(cacheOperationAnnotation, cacheKeyInvocationContext, cacheOperationAnnotationInfo, cache, cacheKey);
@@ -106,48 +107,32 @@ public abstract class CacheOperationInterceptor<A extends Annotation> extends An
                                           CacheOperationAnnotationInfo cacheOperationAnnotationInfo,
                                           Cache cache, Optional<GeneratedCacheKey> cacheKey, Throwable failure);
 
-    private Cache resolveCache(A cacheOperationAnnotation, CacheKeyInvocationContext<A> cacheKeyInvocationContext,
-                               CacheOperationAnnotationInfo cacheOperationAnnotationInfo) {
-        CacheResolverFactory cacheResolverFactory = getCacheResolverFactory(cacheOperationAnnotation,
-                cacheKeyInvocationContext, cacheOperationAnnotationInfo);
-        CacheResolver cacheResolver = cacheResolverFactory.getCacheResolver(cacheKeyInvocationContext);
-        return cacheResolver.resolveCache(cacheKeyInvocationContext);
-    }
-
     protected CacheResolverFactory getCacheResolverFactory(A cacheOperationAnnotation,
                                                            CacheKeyInvocationContext<A> cacheKeyInvocationContext,
                                                            CacheOperationAnnotationInfo cacheOperationAnnotationInfo) {
-        return cacheResolverFactoryCache.computeIfAbsent(cacheOperationAnnotation, key -> {
-            Class<? extends CacheResolverFactory> cacheResolverFactoryClass = cacheOperationAnnotationInfo.getCacheResolverFactoryClass();
-            return cacheKeyInvocationContext.unwrap(cacheResolverFactoryClass);
-        });
+        return getCacheOperationPlan(cacheOperationAnnotation, cacheKeyInvocationContext.getMethod(),
+                cacheKeyInvocationContext.getTarget()).getCacheResolverFactory();
     }
 
-    private Optional<GeneratedCacheKey> generateCacheKey(A cacheOperationAnnotation,
-                                                         CacheKeyInvocationContext<A> cacheKeyInvocationContext,
-                                                         CacheOperationAnnotationInfo cacheOperationAnnotationInfo) {
-        CacheKeyGenerator cacheKeyGenerator = getCacheKeyGenerator(cacheOperationAnnotation, cacheKeyInvocationContext, cacheOperationAnnotationInfo);
-
-        if (cacheKeyGenerator == null) {
-            return Optional.empty();
+    private CacheOperationPlan<A> getCacheOperationPlan(A cacheOperationAnnotation, Method method, Object target) {
+        Class<?> targetClass = target.getClass();
+        ConcurrentMap<Method, CacheOperationPlan<A>> cacheOperationPlans = cacheOperationPlansCache.get(targetClass);
+        if (cacheOperationPlans == null) {
+            cacheOperationPlans = cacheOperationPlansCache.computeIfAbsent(targetClass, type -> new ConcurrentHashMap<>());
         }
-
-        return Optional.of(cacheKeyGenerator.generateCacheKey(cacheKeyInvocationContext));
-    }
-
-    private CacheKeyGenerator getCacheKeyGenerator(A cacheOperationAnnotation,
-                                                   CacheKeyInvocationContext<A> cacheKeyInvocationContext,
-                                                   CacheOperationAnnotationInfo cacheOperationAnnotationInfo) {
-
-        Class<? extends CacheKeyGenerator> cacheKeyGeneratorClass = cacheOperationAnnotationInfo.getCacheKeyGeneratorClass();
-
-        if (cacheKeyGeneratorClass == null) {
-            return null;
+        CacheOperationPlan<A> cacheOperationPlan = cacheOperationPlans.get(method);
+        if (cacheOperationPlan == null) {
+            cacheOperationPlan = cacheOperationPlans.computeIfAbsent(method, m ->
+                    createCacheOperationPlan(cacheOperationAnnotation, m, target));
         }
+        return cacheOperationPlan;
+    }
 
-        return cacheKeyGeneratorCache.computeIfAbsent(cacheOperationAnnotation, key ->
-                cacheKeyInvocationContext.unwrap(cacheKeyGeneratorClass)
-        );
+    private CacheOperationPlan<A> createCacheOperationPlan(A cacheOperationAnnotation, Method method, Object target) {
+        CacheDefaults cacheDefaults = findCacheDefaults(method, target);
+        CacheOperationAnnotationInfo cacheOperationAnnotationInfo =
+                getCacheOperationAnnotationInfo(cacheOperationAnnotation, cacheDefaults);
+        return new CacheOperationPlan<>(method, cacheOperationAnnotation, target, cacheOperationAnnotationInfo);
     }
 
     private boolean shouldHandleFailure(Throwable failure, CacheOperationAnnotationInfo cacheOperationAnnotationInfo) {
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache.annotation.interceptor;
+
+import org.geektimes.cache.annotation.DefaultCacheKeyGenerator;
+import org.geektimes.cache.annotation.ReflectiveCacheMethodDetails;
+import org.geektimes.cache.annotation.util.CacheOperationAnnotationInfo;
+
+import javax.cache.Cache;
+import javax.cache.annotation.*;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.lang.String.format;
+import static org.geektimes.cache.annotation.util.CacheAnnotationUtils.findCacheName;
+import static org.geektimes.commons.lang.util.AnnotationUtils.contains;
+
+/**
+ * The immutable plan of the cache operation on the annotated {@link Method}, which is compiled once and holds
+ * the indexes of key and value parameters, the {@link CacheResolver} with the resolved {@link Cache} and
+ * the {@link CacheKeyGenerator}, thus the invocation only extracts the arguments and generates the key.
+ *
+ * @param <A> the type of cache annotation
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see CacheOperationInterceptor
+ * @since 1.0.0
+ */
+class CacheOperationPlan<A extends Annotation> implements CacheMethodDetails<A> {
+
+    private final Method method;
+
+    private final Set<Annotation> annotations;
+
+    private final A cacheAnnotation;
+
+    private final String cacheName;
+
+    private final CacheOperationAnnotationInfo cacheOperationAnnotationInfo;
+
+    private final Class<?>[] parameterTypes;
+
+    private final Set<Annotation>[] parameterAnnotations;
+
+    private final int[] keyParameterIndexes;
+
+    /**
+     * The index of value parameter, or -1 if absent
+     */
+    private final int valueParameterIndex;
+
+    private final CacheResolverFactory cacheResolverFactory;
+
+    private final CacheResolver cacheResolver;
+
+    private final CacheKeyGenerator cacheKeyGenerator;
+
+    private volatile Cache cache;
+
+    CacheOperationPlan(Method method, A cacheAnnotation, Object target,
+                       CacheOperationAnnotationInfo cacheOperationAnnotationInfo) {
+        this.method = method;
+        this.annotations = ReflectiveCacheMethodDetails.getAnnotations(method.getAnnotations());
+        this.cacheAnnotation = cacheAnnotation;
+        this.cacheName = findCacheName(cacheAnnotation, method, target);
+        this.cacheOperationAnnotationInfo = cacheOperationAnnotationInfo;
+        this.parameterTypes = method.getParameterTypes();
+        this.parameterAnnotations = resolveParameterAnnotations(method);
+        this.valueParameterIndex = resolveValueParameterIndex();
+        this.keyParameterIndexes = resolveKeyParameterIndexes();
+        this.cacheResolverFactory = newInstance(cacheOperationAnnotationInfo.getCacheResolverFactoryClass());
+        this.cacheResolver = cacheResolverFactory.getCacheResolver(this);
+        Class<? extends CacheKeyGenerator> cacheKeyGeneratorClass = cacheOperationAnnotationInfo.getCacheKeyGeneratorClass();
+        this.cacheKeyGenerator = cacheKeyGeneratorClass == null ? null : newInstance(cacheKeyGeneratorClass);
+    }
+
+    CacheKeyInvocationContext<A> newInvocationContext(Object target, Object[] parameterValues) {
+        return new PlannedCacheKeyInvocationContext<>(this, target, parameterValues);
+    }
+
+    /**
+     * Get the resolved {@link Cache}, it will be resolved again if closed.
+     *
+     * @param cacheKeyInvocationContext {@link CacheKeyInvocationContext}
+     * @return non-null
+     */
+    Cache getCache(CacheKeyInvocationContext<A> cacheKeyInvocationContext) {
+        Cache cache = this.cache;
+        if (cache == null || cache.isClosed()) {
+            cache = cacheResolver.resolveCache(cacheKeyInvocationContext);
+            this.cache = cache;
+        }
+        return cache;
+    }
+
+    Optional<GeneratedCacheKey> generateCacheKey(CacheKeyInvocationContext<A> cacheKeyInvocationContext,
+                                                 Object[] parameterValues) {
+        if (cacheKeyGenerator == null) {
+            return Optional.empty();
+        }
+        if (cacheKeyGenerator instanceof DefaultCacheKeyGenerator) {
+            // Fast path : build the key from the arguments directly
+            int size = keyParameterIndexes.length;
+            Object[] keyParameterValues = new Object[size];
+            for (int i = 0; i < size; i++) {
+                keyParameterValues[i] = parameterValues[keyParameterIndexes[i]];
+            }
+            return Optional.of(((DefaultCacheKeyGenerator) cacheKeyGenerator).generateCacheKey(keyParameterValues));
+        }
+        return Optional.of(cacheKeyGenerator.generateCacheKey(cacheKeyInvocationContext));
+    }
+
+    CacheOperationAnnotationInfo getCacheOperationAnnotationInfo() {
+        return cacheOperationAnnotationInfo;
+    }
+
+    CacheResolverFactory getCacheResolverFactory() {
+        return cacheResolverFactory;
+    }
+
+    Class<?>[] getParameterTypes() {
+        return parameterTypes;
+    }
+
+    Set<Annotation>[] getParameterAnnotations() {
+        return parameterAnnotations;
+    }
+
+    int[] getKeyParameterIndexes() {
+        return keyParameterIndexes;
+    }
+
+    int getValueParameterIndex() {
+        return valueParameterIndex;
+    }
+
+    @Override
+    public Method getMethod() {
+        return method;
+    }
+
+    @Override
+    public Set<Annotation> getAnnotations() {
+        return annotations;
+    }
+
+    @Override
+    public A getCacheAnnotation() {
+        return cacheAnnotation;
+    }
+
+    @Override
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    private Set<Annotation>[] resolveParameterAnnotations(Method method) {
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        Set<Annotation>[] annotations = new Set[parameterAnnotations.length];
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            annotations[i] = ReflectiveCacheMethodDetails.getAnnotations(parameterAnnotations[i]);
+        }
+        return annotations;
+    }
+
+    private int resolveValueParameterIndex() {
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            if (contains(parameterAnnotations[i], CacheValue.class)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The parameters annotated {@link CacheKey} if present, or all parameters except the value parameter.
+     */
+    private int[] resolveKeyParameterIndexes() {
+        List<Integer> keyParameterIndexes = new ArrayList<>();
+        List<Integer> includedKeyParameterIndexes = new ArrayList<>();
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            if (i == valueParameterIndex) {
+                continue;
+            }
+            keyParameterIndexes.add(i);
+            if (contains(parameterAnnotations[i], CacheKey.class)) {
+                includedKeyParameterIndexes.add(i);
+            }
+        }
+        List<Integer> indexes = includedKeyParameterIndexes.isEmpty() ? keyParameterIndexes : includedKeyParameterIndexes;
+        return indexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    static <T> T newInstance(Class<T> cls) {
+        try {
+            return cls.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalArgumentException(format("The class[%s] must contain a public non-argument constructor"
+                    , cls.getName()));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache.annotation.interceptor;
+
+import org.geektimes.cache.annotation.ReflectiveCacheInvocationParameter;
+
+import javax.cache.annotation.CacheInvocationParameter;
+import javax.cache.annotation.CacheKeyInvocationContext;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * {@link CacheKeyInvocationContext} based on {@link CacheOperationPlan}, the {@link CacheInvocationParameter}s
+ * are created lazily.
+ *
+ * @param <A> the type of cache annotation
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+class PlannedCacheKeyInvocationContext<A extends Annotation> implements CacheKeyInvocationContext<A> {
+
+    private final CacheOperationPlan<A> plan;
+
+    private final Object target;
+
+    private final Object[] parameterValues;
+
+    private CacheInvocationParameter[] allParameters;
+
+    private CacheInvocationParameter[] keyParameters;
+
+    PlannedCacheKeyInvocationContext(CacheOperationPlan<A> plan, Object target, Object[] parameterValues) {
+        this.plan = plan;
+        this.target = target;
+        this.parameterValues = parameterValues;
+    }
+
+    @Override
+    public Object getTarget() {
+        return target;
+    }
+
+    @Override
+    public CacheInvocationParameter[] getAllParameters() {
+        if (allParameters == null) {
+            int size = parameterValues.length;
+            CacheInvocationParameter[] allParameters = new CacheInvocationParameter[size];
+            for (int index = 0; index < size; index++) {
+                allParameters[index] = newParameter(index);
+            }
+            this.allParameters = allParameters;
+        }
+        return allParameters;
+    }
+
+    @Override
+    public CacheInvocationParameter[] getKeyParameters() {
+        if (keyParameters == null) {
+            int[] keyParameterIndexes = plan.getKeyParameterIndexes();
+            int size = keyParameterIndexes.length;
+            CacheInvocationParameter[] keyParameters = new CacheInvocationParameter[size];
+            for (int i = 0; i < size; i++) {
+                keyParameters[i] = newParameter(keyParameterIndexes[i]);
+            }
+            this.keyParameters = keyParameters;
+        }
+        return keyParameters;
+    }
+
+    @Override
+    public CacheInvocationParameter getValueParameter() {
+        int valueParameterIndex = plan.getValueParameterIndex();
+        return valueParameterIndex < 0 ? null : newParameter(valueParameterIndex);
+    }
+
+    @Override
+    public Method getMethod() {
+        return plan.getMethod();
+    }
+
+    @Override
+    public Set<Annotation> getAnnotations() {
+        return plan.getAnnotations();
+    }
+
+    @Override
+    public A getCacheAnnotation() {
+        return plan.getCacheAnnotation();
+    }
+
+    @Override
+    public String getCacheName() {
+        return plan.getCacheName();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> cls) {
+        return CacheOperationPlan.newInstance(cls);
+    }
+
+    private CacheInvocationParameter newParameter(int index) {
+        return new ReflectiveCacheInvocationParameter(plan.getParameterTypes()[index],
+                plan.getParameterAnnotations()[index], index, parameterValues[index]);
+    }
+
+    @Override
+    public String toString() {
+        return "PlannedCacheKeyInvocationContext{" +
+                "method=" + getMethod() +
+                ", target=" + target +
+                ", parameterValues=" + Arrays.toString(parameterValues) +
+                '}';
+    }
+}
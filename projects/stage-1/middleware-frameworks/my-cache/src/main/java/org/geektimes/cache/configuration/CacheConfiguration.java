@@ -101,6 +101,84 @@ public interface CacheConfiguration extends CompleteConfiguration {
      */
     String EXPIRY_POLICY_FACTORY_PROPERTY_NAME = CACHE_PROPERTY_PREFIX + "expiry-policy.factory";
 
+    /**
+     * The property name for the max number of keys in one batch of {@link CacheLoader#loadAll(Iterable)}
+     */
+    String LOADER_BATCH_SIZE_PROPERTY_NAME = CACHE_PROPERTY_PREFIX + "loader.batch-size";
+
+    /**
+     * The default value of {@link #LOADER_BATCH_SIZE_PROPERTY_NAME}
+     */
+    int DEFAULT_LOADER_BATCH_SIZE = 1000;
+
+    /**
+     * The property name for the sampling interval of timing the cache operations when the statistics is enabled,
+     * one of every N operations will be timed
+     */
+    String STATISTICS_SAMPLE_INTERVAL_PROPERTY_NAME = CACHE_PROPERTY_PREFIX + "statistics.sample-interval";
+
+    /**
+     * The default value of {@link #STATISTICS_SAMPLE_INTERVAL_PROPERTY_NAME}
+     */
+    int DEFAULT_STATISTICS_SAMPLE_INTERVAL = 16;
+
+    /**
+     * The property name for the write-behind mode of {@link CacheWriter}, which is only effective when
+     * {@link CompleteConfiguration#isWriteThrough()} is <code>true</code>
+     */
+    String WRITE_BEHIND_PROPERTY_NAME = CACHE_PROPERTY_PREFIX + "write-behind";
+
+    /**
+     * The property name for the max number of entries in one batch of write-behind
+     */
+    String WRITE_BEHIND_BATCH_SIZE_PROPERTY_NAME = WRITE_BEHIND_PROPERTY_NAME + ".batch-size";
+
+    /**
+     * The default value of {@link #WRITE_BEHIND_BATCH_SIZE_PROPERTY_NAME}
+     */
+    int DEFAULT_WRITE_BEHIND_BATCH_SIZE = 100;
+
+    /**
+     * The property name for the max number of pending entries of write-behind, once it's exceeded, the writing
+     * thread spills the pending entries into the fallback storage rather than waiting for the delegate
+     */
+    String WRITE_BEHIND_MAX_QUEUE_SIZE_PROPERTY_NAME = WRITE_BEHIND_PROPERTY_NAME + ".max-queue-size";
+
+    /**
+     * The default value of {@link #WRITE_BEHIND_MAX_QUEUE_SIZE_PROPERTY_NAME}
+     */
+    int DEFAULT_WRITE_BEHIND_MAX_QUEUE_SIZE = 10000;
+
+    /**
+     * The property name for the interval(ms) of write-behind flushing
+     */
+    String WRITE_BEHIND_FLUSH_INTERVAL_PROPERTY_NAME = WRITE_BEHIND_PROPERTY_NAME + ".flush-interval";
+
+    /**
+     * The default value of {@link #WRITE_BEHIND_FLUSH_INTERVAL_PROPERTY_NAME}
+     */
+    long DEFAULT_WRITE_BEHIND_FLUSH_INTERVAL = 1000L;
+
+    /**
+     * The property name for the max retries of the failed write-behind batch
+     */
+    String WRITE_BEHIND_MAX_RETRIES_PROPERTY_NAME = WRITE_BEHIND_PROPERTY_NAME + ".max-retries";
+
+    /**
+     * The default value of {@link #WRITE_BEHIND_MAX_RETRIES_PROPERTY_NAME}
+     */
+    int DEFAULT_WRITE_BEHIND_MAX_RETRIES = 3;
+
+    /**
+     * The property name for the initial backoff(ms) of the write-behind retries, which will be doubled per retry
+     */
+    String WRITE_BEHIND_RETRY_BACKOFF_PROPERTY_NAME = WRITE_BEHIND_PROPERTY_NAME + ".retry-backoff";
+
+    /**
+     * The default value of {@link #WRITE_BEHIND_RETRY_BACKOFF_PROPERTY_NAME}
+     */
+    long DEFAULT_WRITE_BEHIND_RETRY_BACKOFF = 100L;
+
     /**
      * Get the string representing property value via the specified name
      *
@@ -209,6 +287,79 @@ public interface CacheConfiguration extends CompleteConfiguration {
         return factoryClass == null ? null : unwrap(factoryClass);
     }
 
+    /**
+     * Get the max number of keys in one batch of {@link CacheLoader#loadAll(Iterable)}
+     *
+     * @return {@link #DEFAULT_LOADER_BATCH_SIZE} if not configured
+     */
+    default int getLoaderBatchSize() {
+        return getProperty(LOADER_BATCH_SIZE_PROPERTY_NAME, Integer.class, DEFAULT_LOADER_BATCH_SIZE);
+    }
+
+    /**
+     * Get the sampling interval of timing the cache operations
+     *
+     * @return {@link #DEFAULT_STATISTICS_SAMPLE_INTERVAL} if not configured
+     */
+    default int getStatisticsSampleInterval() {
+        return getProperty(STATISTICS_SAMPLE_INTERVAL_PROPERTY_NAME, Integer.class, DEFAULT_STATISTICS_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Is the write-behind mode of {@link CacheWriter} enabled or not
+     *
+     * @return <code>false</code> if not configured
+     */
+    default boolean isWriteBehind() {
+        return getProperty(WRITE_BEHIND_PROPERTY_NAME, Boolean.class, Boolean.FALSE);
+    }
+
+    /**
+     * Get the max number of entries in one batch of write-behind
+     *
+     * @return {@link #DEFAULT_WRITE_BEHIND_BATCH_SIZE} if not configured
+     */
+    default int getWriteBehindBatchSize() {
+        return getProperty(WRITE_BEHIND_BATCH_SIZE_PROPERTY_NAME, Integer.class, DEFAULT_WRITE_BEHIND_BATCH_SIZE);
+    }
+
+    /**
+     * Get the max number of pending entries of write-behind
+     *
+     * @return {@link #DEFAULT_WRITE_BEHIND_MAX_QUEUE_SIZE} if not configured
+     */
+    default int getWriteBehindMaxQueueSize() {
+        return getProperty(WRITE_BEHIND_MAX_QUEUE_SIZE_PROPERTY_NAME, Integer.class,
+                DEFAULT_WRITE_BEHIND_MAX_QUEUE_SIZE);
+    }
+
+    /**
+     * Get the interval(ms) of write-behind flushing
+     *
+     * @return {@link #DEFAULT_WRITE_BEHIND_FLUSH_INTERVAL} if not configured
+     */
+    default long getWriteBehindFlushInterval() {
+        return getProperty(WRITE_BEHIND_FLUSH_INTERVAL_PROPERTY_NAME, Long.class, DEFAULT_WRITE_BEHIND_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Get the max retries of the failed write-behind batch
+     *
+     * @return {@link #DEFAULT_WRITE_BEHIND_MAX_RETRIES} if not configured
+     */
+    default int getWriteBehindMaxRetries() {
+        return getProperty(WRITE_BEHIND_MAX_RETRIES_PROPERTY_NAME, Integer.class, DEFAULT_WRITE_BEHIND_MAX_RETRIES);
+    }
+
+    /**
+     * Get the initial backoff(ms) of the write-behind retries
+     *
+     * @return {@link #DEFAULT_WRITE_BEHIND_RETRY_BACKOFF} if not configured
+     */
+    default long getWriteBehindRetryBackoff() {
+        return getProperty(WRITE_BEHIND_RETRY_BACKOFF_PROPERTY_NAME, Long.class, DEFAULT_WRITE_BEHIND_RETRY_BACKOFF);
+    }
+
     default <T> T unwrap(java.lang.Class<T> clazz) {
         T value = null;
         try {
@@ -21,12 +21,11 @@ import javax.cache.configuration.Factory;
 import javax.cache.event.*;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.Executor;
-import java.util.concurrent.ForkJoinPool;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
@@ -56,14 +55,11 @@ public class CacheEntryEventListenerAdapter<K, V> implements ConditionalCacheEnt
 
     private final Map<EventType, Method> eventTypeMethods;
 
-    private final Executor executor;
-
     public CacheEntryEventListenerAdapter(CacheEntryListenerConfiguration<K, V> configuration) {
         this.configuration = configuration;
         this.cacheEntryEventFilter = getCacheEntryEventFilter(configuration);
         this.cacheEntryListener = configuration.getCacheEntryListenerFactory().create();
         this.eventTypeMethods = determineEventTypeMethods(cacheEntryListener);
-        this.executor = getExecutor(configuration);
     }
 
     @Override
@@ -81,17 +77,42 @@ public class CacheEntryEventListenerAdapter<K, V> implements ConditionalCacheEnt
             return;
         }
 
-        EventType eventType = event.getEventType();
-        Method handleMethod = eventTypeMethods.get(eventType);
+        handle(eventTypeMethods.get(event.getEventType()), singleton(event));
+    }
 
-        executor.execute(() -> {
-            try {
-                handleMethod.invoke(cacheEntryListener, singleton(event));
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                throw new CacheEntryListenerException(e);
+    /**
+     * Handle the events in the current thread, the consecutive events with the same {@link EventType} are handled
+     * in one batch by the {@link CacheEntryListener}, thus the order of events is kept.
+     *
+     * @param events the events
+     */
+    @Override
+    public void onEvents(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+        List<CacheEntryEvent<? extends K, ? extends V>> batch = new ArrayList<>();
+        EventType batchEventType = null;
+        for (CacheEntryEvent<? extends K, ? extends V> event : events) {
+            if (!supports(event)) {
+                continue;
+            }
+            EventType eventType = event.getEventType();
+            if (eventType != batchEventType && !batch.isEmpty()) {
+                handle(eventTypeMethods.get(batchEventType), batch);
+                batch = new ArrayList<>();
             }
-        });
+            batchEventType = eventType;
+            batch.add(event);
+        }
+        if (!batch.isEmpty()) {
+            handle(eventTypeMethods.get(batchEventType), batch);
+        }
+    }
 
+    private void handle(Method handleMethod, Iterable<? extends CacheEntryEvent<? extends K, ? extends V>> events) {
+        try {
+            handleMethod.invoke(cacheEntryListener, events);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new CacheEntryListenerException(e);
+        }
     }
 
     @Override
@@ -99,9 +120,8 @@ public class CacheEntryEventListenerAdapter<K, V> implements ConditionalCacheEnt
         return eventTypeMethods.keySet();
     }
 
-    @Override
-    public Executor getExecutor() {
-        return executor;
+    public CacheEntryListenerConfiguration<K, V> getConfiguration() {
+        return configuration;
     }
 
     @Override
@@ -151,14 +171,4 @@ public class CacheEntryEventListenerAdapter<K, V> implements ConditionalCacheEnt
         }
         return unmodifiableMap(eventTypeMethods);
     }
-    
-    private Executor getExecutor(CacheEntryListenerConfiguration<K, V> configuration) {
-        Executor executor = null;
-        if (configuration.isSynchronous()) {
-            executor = Runnable::run;
-        } else {
-            executor = ForkJoinPool.commonPool();
-        }
-        return executor;
-    }
 }
@@ -18,32 +18,167 @@ package org.geektimes.cache.event;
 
 import javax.cache.configuration.CacheEntryListenerConfiguration;
 import javax.cache.event.CacheEntryEvent;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+import static java.lang.String.format;
 
 /**
  * The Publisher of {@link javax.cache.event.CacheEntryEvent}
+ * <p>
+ * The synchronous listeners are notified in the publishing thread, the events for the asynchronous listeners are
+ * queued in a bounded ring buffer, and dispatched in batches by a task on the {@link Executor}, only one thread drains
+ * the ring buffer at a time, thus the order of events(including the ones of the same key) is kept. If the ring buffer
+ * is full, the publishing thread drains and dispatches the pending events itself rather than waiting for the
+ * {@link Executor}, which may be busy.
+ * <p>
+ * The listeners are registered in the copy-on-write registry, so the publishing does not need to be locked.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0
  */
 public class CacheEntryEventPublisher {
 
-    private Set<ConditionalCacheEntryEventListener> listeners = new HashSet<>();
+    /**
+     * The default capacity of ring buffer
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The max number of events in one batch
+     */
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    private final List<CacheEntryEventListenerAdapter> synchronousListeners = new CopyOnWriteArrayList<>();
+
+    private final List<CacheEntryEventListenerAdapter> asynchronousListeners = new CopyOnWriteArrayList<>();
+
+    private final MpscRingBuffer<CacheEntryEvent<?, ?>> ringBuffer;
+
+    private final Executor executor;
+
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean(false);
+
+    /**
+     * The lock of the single consumer of the ring buffer
+     */
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    /**
+     * The events raised by the asynchronous listeners when the ring buffer is full, guarded by {@link #drainLock}
+     */
+    private final Queue<CacheEntryEvent<?, ?>> overflowEvents = new ArrayDeque<>();
+
+    public CacheEntryEventPublisher() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public CacheEntryEventPublisher(Executor executor) {
+        this(executor, DEFAULT_CAPACITY);
+    }
+
+    public CacheEntryEventPublisher(Executor executor, int capacity) {
+        this.executor = executor;
+        this.ringBuffer = new MpscRingBuffer<>(capacity);
+    }
 
     public void registerCacheEntryListener(CacheEntryListenerConfiguration configuration) {
-        CacheEntryEventListenerAdapter listenerAdapter = new CacheEntryEventListenerAdapter(configuration);
-        listeners.add(listenerAdapter);
+        List<CacheEntryEventListenerAdapter> listeners = getListeners(configuration);
+        if (listeners.stream().noneMatch(listener -> listener.getConfiguration().equals(configuration))) {
+            listeners.add(new CacheEntryEventListenerAdapter(configuration));
+        }
     }
 
     public void deregisterCacheEntryListener(CacheEntryListenerConfiguration configuration) {
-        CacheEntryEventListenerAdapter listenerAdapter = new CacheEntryEventListenerAdapter(configuration);
-        listeners.remove(listenerAdapter);
+        getListeners(configuration).removeIf(listener -> listener.getConfiguration().equals(configuration));
     }
 
     public <K, V> void publish(CacheEntryEvent<? extends K, ? extends V> event) {
-        listeners.forEach(listener -> listener.onEvent(event));
+        synchronousListeners.forEach(listener -> listener.onEvent(event));
+        if (!asynchronousListeners.isEmpty()) {
+            enqueue(event);
+        }
+    }
+
+    private List<CacheEntryEventListenerAdapter> getListeners(CacheEntryListenerConfiguration configuration) {
+        return configuration.isSynchronous() ? synchronousListeners : asynchronousListeners;
     }
 
+    private void enqueue(CacheEntryEvent<?, ?> event) {
+        if (drainLock.isHeldByCurrentThread()) {
+            // The event is raised by an asynchronous listener, it can't wait for itself
+            if (!overflowEvents.isEmpty() || !ringBuffer.offer(event)) {
+                // The pending events are moved ahead of the event, thus the order is kept
+                ringBuffer.drainTo(overflowEvents, Integer.MAX_VALUE);
+                overflowEvents.add(event);
+            }
+            return;
+        }
+        while (!ringBuffer.offer(event)) {
+            // Back pressure : the publishing thread drains the ring buffer rather than waiting for the executor
+            drain();
+        }
+        scheduleDispatch();
+    }
+
+    private void scheduleDispatch() {
+        if (dispatchScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    // The events offered after the reset will be dispatched by the next task
+                    dispatchScheduled.set(false);
+                    drain();
+                });
+            } catch (RejectedExecutionException e) {
+                // The executor has been shutdown
+                dispatchScheduled.set(false);
+                drain();
+            }
+        }
+    }
 
+    /**
+     * Drain the events and dispatch them in batches, only one thread drains at a time
+     */
+    private void drain() {
+        drainLock.lock();
+        try {
+            List<CacheEntryEvent<?, ?>> events = new ArrayList<>(Math.min(MAX_BATCH_SIZE, ringBuffer.capacity()));
+            while (true) {
+                if (!overflowEvents.isEmpty()) {
+                    for (int i = 0; i < MAX_BATCH_SIZE && !overflowEvents.isEmpty(); i++) {
+                        events.add(overflowEvents.poll());
+                    }
+                } else if (ringBuffer.drainTo(events, MAX_BATCH_SIZE) == 0) {
+                    break;
+                }
+                dispatch(events);
+                events.clear();
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void dispatch(List<CacheEntryEvent<?, ?>> events) {
+        for (CacheEntryEventListenerAdapter listener : asynchronousListeners) {
+            try {
+                listener.onEvents(events);
+            } catch (Throwable e) {
+                logger.severe(format("The CacheEntryListener[%s] failed to handle %d events, caused by : %s",
+                        listener.getConfiguration(), events.size(), e.getMessage()));
+            }
+        }
+    }
 }
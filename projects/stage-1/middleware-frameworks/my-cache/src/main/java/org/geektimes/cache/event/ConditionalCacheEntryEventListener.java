@@ -20,7 +20,6 @@ import javax.cache.configuration.CacheEntryListenerConfiguration;
 import javax.cache.event.*;
 import java.util.EventListener;
 import java.util.Set;
-import java.util.concurrent.Executor;
 
 /**
  * The conditional {@link EventListener} of {@link CacheEntryEvent}
@@ -76,14 +75,6 @@ public interface ConditionalCacheEntryEventListener<K, V> extends EventListener
      */
     Set<EventType> getSupportedEventTypes();
 
-    /**
-     * The {@link Executor} is used to dispatch the {@link CacheEntryEvent}
-     *
-     * @return non-null
-     * @see CacheEntryListenerConfiguration#isSynchronous()
-     */
-    Executor getExecutor();
-
     @Override
     int hashCode();
 
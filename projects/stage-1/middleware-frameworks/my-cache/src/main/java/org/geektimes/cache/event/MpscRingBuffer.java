@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache.event;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The bounded lock-free ring buffer for multiple producers and single consumer, every slot has a sequence to
+ * indicate whether it's writable or readable in the current round.
+ *
+ * @param <E> the type of elements
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+class MpscRingBuffer<E> {
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> elements;
+
+    private final AtomicLongArray sequences;
+
+    /**
+     * The next position to offer, shared by producers
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * The next position to poll, only accessed by the consumer
+     */
+    private volatile long head;
+
+    MpscRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The 'capacity' argument must be positive!");
+        }
+        // round up to the power of two
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.elements = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Offer the element
+     *
+     * @param element the element
+     * @return <code>false</code> if full
+     */
+    boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    // publish the element to the consumer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                // the slot has not been consumed in the last round
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Drain the elements into the given collection, only called by the consumer
+     *
+     * @param collection the collection
+     * @param limit      the max number of elements to drain
+     * @return the number of drained elements
+     */
+    int drainTo(Collection<? super E> collection, int limit) {
+        long position = head;
+        int count = 0;
+        while (count < limit) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            collection.add(elements.get(index));
+            elements.lazySet(index, null);
+            // release the slot for the next round
+            sequences.set(index, position + capacity);
+            position++;
+            count++;
+        }
+        head = position;
+        return count;
+    }
+
+    boolean isEmpty() {
+        long position = head;
+        return sequences.get((int) (position & mask)) != position + 1;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -16,33 +16,64 @@
  */
 package org.geektimes.cache.integration;
 
+import org.geektimes.commons.concurrent.NamedThreadFactory;
+
 import javax.cache.Cache;
 import javax.cache.integration.CacheLoaderException;
 import javax.cache.integration.CacheWriterException;
-import java.util.List;
-import java.util.ServiceLoader;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
+import static java.util.concurrent.CompletableFuture.runAsync;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.StreamSupport.stream;
 
 /**
  * Composite multiple {@link FallbackStorage}s that instantiated by {@link ServiceLoader Java SPI}.
+ * <p>
+ * The batch operations are delegated to the {@link FallbackStorage}s as a whole rather than element by element,
+ * that allows them to commit the batch at once, and the writes are executed by the {@link FallbackStorage}s
+ * concurrently.
+ * <p>
+ * The {@link FallbackStorage}s dedicated for the {@link Cache} are closed with current instance if they are
+ * {@link Closeable}, the shared ones are never closed.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0
  */
-public class CompositeFallbackStorage extends AbstractFallbackStorage<Object, Object> {
+public class CompositeFallbackStorage extends AbstractFallbackStorage<Object, Object> implements Closeable {
 
     private static final ConcurrentMap<ClassLoader, List<FallbackStorage>> fallbackStoragesCache =
             new ConcurrentHashMap<>();
 
+    private static final ExecutorService writeExecutor = newWriteExecutor();
+
+    private final List<FallbackStorage> sharedFallbackStorages;
+
     private final List<FallbackStorage> fallbackStorages;
 
     public CompositeFallbackStorage(ClassLoader classLoader) {
         super(Integer.MIN_VALUE);
-        this.fallbackStorages = fallbackStoragesCache.computeIfAbsent(classLoader, this::loadFallbackStorages);
+        this.sharedFallbackStorages = fallbackStoragesCache.computeIfAbsent(classLoader, this::loadFallbackStorages);
+        this.fallbackStorages = sharedFallbackStorages;
+    }
+
+    /**
+     * @param classLoader {@link ClassLoader} to load the {@link FallbackStorage}s
+     * @param cacheName   the name of {@link Cache}
+     * @see FallbackStorage#forCache(String)
+     */
+    public CompositeFallbackStorage(ClassLoader classLoader, String cacheName) {
+        super(Integer.MIN_VALUE);
+        this.sharedFallbackStorages = fallbackStoragesCache.computeIfAbsent(classLoader, this::loadFallbackStorages);
+        this.fallbackStorages = sharedFallbackStorages
+                .stream()
+                .map(fallbackStorage -> fallbackStorage.forCache(cacheName))
+                .collect(toList());
     }
 
     private List<FallbackStorage> loadFallbackStorages(ClassLoader classLoader) {
@@ -67,18 +98,95 @@ public class CompositeFallbackStorage extends AbstractFallbackStorage<Object, Ob
         return value;
     }
 
+    @Override
+    public Map<Object, Object> loadAll(Iterable<?> keys) throws CacheLoaderException {
+        Map<Object, Object> result = new LinkedHashMap<>();
+        List<Object> absentKeys = new LinkedList<>();
+        keys.forEach(absentKeys::add);
+        for (FallbackStorage fallbackStorage : fallbackStorages) {
+            if (absentKeys.isEmpty()) {
+                break;
+            }
+            Map<?, ?> values = fallbackStorage.loadAll(absentKeys);
+            values.forEach((key, value) -> {
+                if (value != null) {
+                    result.put(key, value);
+                }
+            });
+            absentKeys.removeIf(result::containsKey);
+        }
+        return result;
+    }
+
     @Override
     public void write(Cache.Entry entry) throws CacheWriterException {
-        fallbackStorages.forEach(fallbackStorage -> fallbackStorage.write(entry));
+        execute(fallbackStorage -> fallbackStorage.write(entry));
+    }
+
+    @Override
+    public void writeAll(Collection<Cache.Entry<?, ?>> entries) throws CacheWriterException {
+        execute(fallbackStorage -> fallbackStorage.writeAll(new ArrayList<>(entries)));
     }
 
     @Override
     public void delete(Object key) throws CacheWriterException {
-        fallbackStorages.forEach(fallbackStorage -> fallbackStorage.delete(key));
+        execute(fallbackStorage -> fallbackStorage.delete(key));
+    }
+
+    @Override
+    public void deleteAll(Collection<?> keys) throws CacheWriterException {
+        execute(fallbackStorage -> fallbackStorage.deleteAll(new ArrayList<>(keys)));
     }
 
     @Override
     public void destroy() {
         fallbackStorages.forEach(FallbackStorage::destroy);
     }
+
+    @Override
+    public void close() throws IOException {
+        for (FallbackStorage fallbackStorage : fallbackStorages) {
+            if (fallbackStorage instanceof Closeable && !sharedFallbackStorages.contains(fallbackStorage)) {
+                ((Closeable) fallbackStorage).close();
+            }
+        }
+    }
+
+    /**
+     * Execute the write operation on all {@link FallbackStorage}s concurrently, the first one is executed on the
+     * calling thread, and the others are executed by the shared executor.
+     *
+     * @param operation the write operation
+     * @throws CacheWriterException if any {@link FallbackStorage} is failed
+     */
+    private void execute(Consumer<FallbackStorage> operation) throws CacheWriterException {
+        int size = fallbackStorages.size();
+        if (size < 2) {
+            fallbackStorages.forEach(operation);
+            return;
+        }
+        CompletableFuture<?>[] futures = new CompletableFuture[size - 1];
+        for (int i = 1; i < size; i++) {
+            FallbackStorage fallbackStorage = fallbackStorages.get(i);
+            futures[i - 1] = runAsync(() -> operation.accept(fallbackStorage), writeExecutor);
+        }
+        operation.accept(fallbackStorages.get(0));
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CacheWriterException) {
+                throw (CacheWriterException) cause;
+            }
+            throw new CacheWriterException(cause);
+        }
+    }
+
+    private static ExecutorService newWriteExecutor() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("CompositeFallbackStorage", true));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 }
@@ -42,6 +42,17 @@ public interface FallbackStorage<K, V> extends CacheLoader<K, V>, CacheWriter<K,
      */
     void destroy();
 
+    /**
+     * Get the {@link FallbackStorage} dedicated for the {@link javax.cache.Cache}, current instance is shared by
+     * all caches by default.
+     *
+     * @param cacheName the name of {@link javax.cache.Cache}
+     * @return non-null
+     */
+    default FallbackStorage<K, V> forCache(String cacheName) {
+        return this;
+    }
+
     class PriorityComparator implements Comparator<FallbackStorage> {
 
         @Override
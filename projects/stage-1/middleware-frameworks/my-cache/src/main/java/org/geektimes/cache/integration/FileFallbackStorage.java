@@ -16,96 +16,734 @@
  */
 package org.geektimes.cache.integration;
 
+import org.geektimes.commons.concurrent.NamedThreadFactory;
+import org.geektimes.commons.io.DefaultDeserializer;
+import org.geektimes.commons.io.DefaultSerializer;
+import org.geektimes.commons.io.Deserializer;
+import org.geektimes.commons.io.Serializer;
+
 import javax.cache.Cache;
 import javax.cache.integration.CacheLoaderException;
 import javax.cache.integration.CacheWriterException;
-import java.io.*;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Logger;
+import java.util.zip.CRC32;
 
 import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.*;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
- * File-based {@link FallbackStorage}
+ * File-based {@link FallbackStorage}, all entries are appended into a single checksummed log file under
+ * the fallback directory :
+ * <ul>
+ *     <li>The batch of entries is appended by one write, and the log file is synced(fsync) periodically
+ *     for all writes in the interval, configured by {@link #SYNC_INTERVAL_PROPERTY_NAME}</li>
+ *     <li>The positions of the latest entries are indexed by the serialized keys in memory, the index is
+ *     rebuilt from the log file on startup, the corrupted tail of log file will be truncated</li>
+ *     <li>The log file is compacted in the background when the obsolete records take over half of it, the
+ *     appending is only blocked while the new log file is swapped in</li>
+ *     <li>{@link #destroy()} only switches to a new empty log file</li>
+ * </ul>
+ * The instances with the same directory share the same log file, every {@link Cache} has its own directory by
+ * {@link #forCache(String)}, thus destroying the storage of one {@link Cache} does not affect the others. The log
+ * file is referenced by the instances, it's closed and its periodic sync is cancelled once the last one is
+ * {@link #close() closed}.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0
  */
-public class FileFallbackStorage extends AbstractFallbackStorage<Object, Object> {
+public class FileFallbackStorage extends AbstractFallbackStorage<Object, Object> implements Closeable {
+
+    /**
+     * The property name of the interval(ms) to sync the log file
+     */
+    public static final String SYNC_INTERVAL_PROPERTY_NAME = "org.geektimes.cache.integration.FileFallbackStorage.sync-interval";
 
     private static final File CACHE_FALLBACK_DIRECTORY = new File(".cache/fallback/");
 
+    private static final String CACHE_DIRECTORY_NAME_PREFIX = "cache-";
+
+    private static final long SYNC_INTERVAL = Long.getLong(SYNC_INTERVAL_PROPERTY_NAME, 100L);
+
+    private static final ConcurrentMap<File, LogFile> logFilesCache = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService syncExecutor =
+            newSingleThreadScheduledExecutor(new NamedThreadFactory("FileFallbackStorage"));
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> logFilesCache.values().forEach(LogFile::sync),
+                "FileFallbackStorage-shutdown"));
+    }
+
     private final Logger logger = Logger.getLogger(getClass().getName());
 
+    private final Serializer<Object> serializer = new DefaultSerializer();
+
+    private final Deserializer<Object> deserializer = new DefaultDeserializer();
+
+    private final File directory;
+
+    private final LogFile logFile;
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
     public FileFallbackStorage() {
+        this(CACHE_FALLBACK_DIRECTORY);
+    }
+
+    public FileFallbackStorage(File directory) {
         super(Integer.MAX_VALUE);
-        makeCacheFallbackDirectory();
+        this.directory = directory.getAbsoluteFile();
+        this.logFile = logFilesCache.compute(this.directory, (key, logFile) -> {
+            if (logFile == null) {
+                logFile = new LogFile(key);
+            }
+            logFile.references++;
+            return logFile;
+        });
     }
 
-    File toStorageFile(Object key) {
-        return new File(CACHE_FALLBACK_DIRECTORY, key.toString() + ".dat");
+    /**
+     * {@inheritDoc}
+     *
+     * @return the {@link FileFallbackStorage} whose log file is under the sub-directory of the {@link Cache}
+     */
+    @Override
+    public FileFallbackStorage forCache(String cacheName) {
+        String directoryName;
+        try {
+            directoryName = CACHE_DIRECTORY_NAME_PREFIX + URLEncoder.encode(cacheName, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        return new FileFallbackStorage(new File(directory, directoryName));
     }
 
     @Override
     public Object load(Object key) throws CacheLoaderException {
-        File storageFile = toStorageFile(key);
-        if (!storageFile.exists() || !storageFile.canRead()) {
-            logger.warning(format("The storage file[path:%s] does not exist or can't be read, " +
-                    "thus the value can't be loaded.", storageFile.getAbsolutePath()));
+        byte[] keyBytes = serialize(key);
+        if (keyBytes == null) {
+            return null;
+        }
+        byte[] valueBytes = logFile.read(keyBytes);
+        if (valueBytes == null) {
             return null;
         }
         Object value = null;
-        try (FileInputStream inputStream = new FileInputStream(storageFile);
-             ObjectInputStream objectInputStream = new ObjectInputStream(inputStream)) {
-            value = objectInputStream.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            logger.severe(format("The deserialization of value[%s] is failed, caused by :%s",
-                    value, e.getMessage()));
+        try {
+            value = deserializer.deserialize(valueBytes);
+        } catch (IOException e) {
+            logger.severe(format("The deserialization of value[key : %s] is failed, caused by :%s",
+                    key, e.getMessage()));
         }
         return value;
     }
 
     @Override
     public void write(Cache.Entry<?, ?> entry) throws CacheWriterException {
-        Object key = entry.getKey();
-        Object value = entry.getValue();
-        File storageFile = toStorageFile(key);
-        if (storageFile.exists() && !storageFile.canWrite()) {
-            logger.warning(format("The storage file[path:%s] can't be written, " +
-                    "thus the entry will not be stored.", storageFile.getAbsolutePath()));
-            return;
-        }
-        try (FileOutputStream outputStream = new FileOutputStream(storageFile);
-             ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
-        ) {
-            objectOutputStream.writeObject(value);
-        } catch (IOException e) {
-            logger.severe(format("The serialization of value[%s] is failed, caused by :%s", value, e.getMessage()));
+        writeAll(Collections.singleton(entry));
+    }
+
+    @Override
+    public void writeAll(Collection<Cache.Entry<?, ?>> entries) throws CacheWriterException {
+        List<LogRecord> records = new ArrayList<>(entries.size());
+        for (Cache.Entry<?, ?> entry : entries) {
+            byte[] keyBytes = serialize(entry.getKey());
+            byte[] valueBytes = serialize(entry.getValue());
+            if (keyBytes != null && valueBytes != null) {
+                records.add(new LogRecord(LogRecord.PUT, keyBytes, valueBytes));
+            }
         }
+        append(records);
     }
 
     @Override
     public void delete(Object key) throws CacheWriterException {
-        File storageFile = toStorageFile(key);
-        storageFile.delete();
+        deleteAll(Collections.singleton(key));
+    }
+
+    @Override
+    public void deleteAll(Collection<?> keys) throws CacheWriterException {
+        List<LogRecord> records = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            byte[] keyBytes = serialize(key);
+            if (keyBytes != null) {
+                records.add(new LogRecord(LogRecord.DELETE, keyBytes, null));
+            }
+        }
+        append(records);
     }
 
     @Override
     public void destroy() {
-        destroyCacheFallbackDirectory();
+        try {
+            logFile.reset();
+        } catch (IOException e) {
+            logger.severe(format("The log file[path : %s] can't be reset, caused by : %s",
+                    logFile.getFile().getAbsolutePath(), e.getMessage()));
+        }
     }
 
-    private void destroyCacheFallbackDirectory() {
-        if (CACHE_FALLBACK_DIRECTORY.exists()) {
-            // Delete all files into directory
-            for (File storageFile : CACHE_FALLBACK_DIRECTORY.listFiles()) {
-                storageFile.delete();
+    /**
+     * Release the log file, which is closed if it's not referenced by the other instances
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        logFilesCache.computeIfPresent(directory, (key, logFile) -> {
+            if (logFile == this.logFile && --logFile.references == 0) {
+                logFile.close();
+                return null;
             }
+            return logFile;
+        });
+    }
+
+    LogFile getLogFile() {
+        return logFile;
+    }
+
+    private void append(List<LogRecord> records) throws CacheWriterException {
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            logFile.append(records);
+        } catch (IOException e) {
+            throw new CacheWriterException(format("The records can't be appended into the log file[path : %s]",
+                    logFile.getFile().getAbsolutePath()), e);
         }
     }
 
-    private void makeCacheFallbackDirectory() {
-        if (!CACHE_FALLBACK_DIRECTORY.exists() && !CACHE_FALLBACK_DIRECTORY.mkdirs()) {
-            throw new RuntimeException(format("The fallback directory[path:%s] can't be created!"));
+    private byte[] serialize(Object object) {
+        byte[] bytes = null;
+        try {
+            bytes = serializer.serialize(object);
+        } catch (IOException e) {
+            logger.severe(format("The serialization of object[%s] is failed, caused by :%s", object, e.getMessage()));
+        }
+        return bytes;
+    }
+
+    /**
+     * The record of {@link LogFile} :
+     * <pre>
+     * +---------+---------+---------------+-----------------+-----------+-------------+
+     * | crc32   | type    | key length    | value length    | key       | value       |
+     * | 4 bytes | 1 byte  | 4 bytes       | 4 bytes         | N bytes   | M bytes     |
+     * +---------+---------+---------------+-----------------+-----------+-------------+
+     * </pre>
+     * The checksum covers all bytes after itself.
+     */
+    static class LogRecord {
+
+        static final byte PUT = 1;
+
+        static final byte DELETE = 2;
+
+        static final int HEADER_LENGTH = 13;
+
+        private final byte type;
+
+        private final ByteBuffer key;
+
+        private final byte[] bytes;
+
+        LogRecord(byte type, byte[] key, byte[] value) {
+            int valueLength = value == null ? 0 : value.length;
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + key.length + valueLength);
+            buffer.putInt(0);
+            buffer.put(type);
+            buffer.putInt(key.length);
+            buffer.putInt(valueLength);
+            buffer.put(key);
+            if (value != null) {
+                buffer.put(value);
+            }
+            this.type = type;
+            this.key = ByteBuffer.wrap(key);
+            this.bytes = buffer.array();
+            buffer.putInt(0, checksum(bytes));
+        }
+
+        static int checksum(byte[] bytes) {
+            CRC32 crc32 = new CRC32();
+            crc32.update(bytes, 4, bytes.length - 4);
+            return (int) crc32.getValue();
+        }
+
+        static boolean verify(byte[] bytes) {
+            return ByteBuffer.wrap(bytes).getInt(0) == checksum(bytes);
+        }
+    }
+
+    /**
+     * The position of the latest record in {@link LogFile}
+     */
+    static class RecordPosition {
+
+        private final long offset;
+
+        private final int length;
+
+        RecordPosition(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * The append-only log file
+     */
+    static class LogFile {
+
+        private static final String FILE_NAME_PREFIX = "fallback-";
+
+        private static final String FILE_NAME_SUFFIX = ".log";
+
+        private static final String TEMP_FILE_NAME_SUFFIX = ".tmp";
+
+        /**
+         * The min size of the log file to compact
+         */
+        private static final long COMPACTION_THRESHOLD = 1024 * 1024;
+
+        /**
+         * The max length of key or value to detect the corrupted records
+         */
+        private static final int MAX_LENGTH = 64 * 1024 * 1024;
+
+        private final Logger logger = Logger.getLogger(getClass().getName());
+
+        private final File directory;
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /**
+         * The serialized key -> the position of the latest record
+         */
+        private Map<ByteBuffer, RecordPosition> index;
+
+        private File file;
+
+        private FileChannel channel;
+
+        private long generation;
+
+        private long size;
+
+        /**
+         * The size of the obsolete records
+         */
+        private long obsoleteSize;
+
+        private volatile boolean dirty;
+
+        /**
+         * The number of {@link FileFallbackStorage}s referencing current log file, guarded by
+         * {@link #logFilesCache}
+         */
+        private int references;
+
+        private boolean closed;
+
+        private final ScheduledFuture<?> syncFuture;
+
+        LogFile(File directory) {
+            this.directory = directory;
+            try {
+                open();
+            } catch (IOException e) {
+                throw new RuntimeException(format("The log file in the fallback directory[path:%s] can't be opened!",
+                        directory.getAbsolutePath()), e);
+            }
+            this.syncFuture = syncExecutor.scheduleWithFixedDelay(this::syncAndCompact, SYNC_INTERVAL, SYNC_INTERVAL,
+                    MILLISECONDS);
+        }
+
+        File getFile() {
+            return file;
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        byte[] read(byte[] key) {
+            lock.readLock().lock();
+            try {
+                if (closed) {
+                    return null;
+                }
+                RecordPosition position = index.get(ByteBuffer.wrap(key));
+                if (position == null) {
+                    return null;
+                }
+                byte[] bytes = readRecord(channel, position);
+                if (!LogRecord.verify(bytes)) {
+                    logger.severe(format("The record[offset : %d] of log file[path : %s] is corrupted!",
+                            position.offset, file.getAbsolutePath()));
+                    return null;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                int keyLength = buffer.getInt(5);
+                int valueLength = buffer.getInt(9);
+                return Arrays.copyOfRange(bytes, LogRecord.HEADER_LENGTH + keyLength,
+                        LogRecord.HEADER_LENGTH + keyLength + valueLength);
+            } catch (IOException e) {
+                logger.severe(format("The log file[path : %s] can't be read, caused by : %s",
+                        file.getAbsolutePath(), e.getMessage()));
+                return null;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void append(List<LogRecord> records) throws IOException {
+            lock.writeLock().lock();
+            try {
+                assertNotClosed();
+                List<LogRecord> appendedRecords = new ArrayList<>(records.size());
+                int length = 0;
+                for (LogRecord record : records) {
+                    // The deleted key which is absent does not need a record
+                    if (record.type == LogRecord.PUT || index.containsKey(record.key)) {
+                        appendedRecords.add(record);
+                        length += record.bytes.length;
+                    }
+                }
+                if (appendedRecords.isEmpty()) {
+                    return;
+                }
+                // Group all records into one write
+                ByteBuffer buffer = ByteBuffer.allocate(length);
+                for (LogRecord record : appendedRecords) {
+                    buffer.put(record.bytes);
+                }
+                buffer.flip();
+                writeFully(channel, buffer, size);
+
+                long offset = size;
+                for (LogRecord record : appendedRecords) {
+                    int recordLength = record.bytes.length;
+                    index(record, offset);
+                    offset += recordLength;
+                }
+                size = offset;
+                dirty = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void sync() {
+            if (!dirty) {
+                return;
+            }
+            lock.readLock().lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                dirty = false;
+                channel.force(false);
+            } catch (IOException e) {
+                dirty = true;
+                logger.severe(format("The log file[path : %s] can't be synced, caused by : %s",
+                        file.getAbsolutePath(), e.getMessage()));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void reset() throws IOException {
+            lock.writeLock().lock();
+            try {
+                assertNotClosed();
+                File oldFile = this.file;
+                channel.close();
+                openFile(generation + 1);
+                index = new HashMap<>();
+                size = 0;
+                obsoleteSize = 0;
+                dirty = false;
+                oldFile.delete();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Cancel the periodic sync, then sync and close the log file
+         */
+        void close() {
+            syncFuture.cancel(false);
+            lock.writeLock().lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                if (dirty) {
+                    channel.force(false);
+                }
+                channel.close();
+            } catch (IOException e) {
+                logger.severe(format("The log file[path : %s] can't be closed, caused by : %s",
+                        file.getAbsolutePath(), e.getMessage()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void syncAndCompact() {
+            sync();
+            try {
+                compactIfRequired();
+            } catch (Throwable e) {
+                logger.severe(format("The log file[path : %s] can't be compacted, caused by : %s",
+                        file.getAbsolutePath(), e.getMessage()));
+            }
+        }
+
+        /**
+         * Compact the log file if required, the live records are copied into a new log file one by one with the read
+         * lock, which is released between the records thus the appending is not blocked, then the records appended
+         * during the copying are transferred and the new file is swapped in with the write lock.
+         */
+        void compactIfRequired() throws IOException {
+            final Map<ByteBuffer, RecordPosition> snapshot;
+            final long snapshotGeneration;
+            final long snapshotSize;
+            lock.readLock().lock();
+            try {
+                if (closed || size < COMPACTION_THRESHOLD || obsoleteSize * 2 < size) {
+                    return;
+                }
+                // The records before the snapshot size are immutable
+                snapshot = new HashMap<>(index);
+                snapshotGeneration = generation;
+                snapshotSize = size;
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            long newGeneration = snapshotGeneration + 1;
+            File tempFile = new File(directory, FILE_NAME_PREFIX + newGeneration + FILE_NAME_SUFFIX + TEMP_FILE_NAME_SUFFIX);
+            Map<ByteBuffer, RecordPosition> compactedIndex = new HashMap<>(snapshot.size());
+            boolean swapped = false;
+            try (FileChannel tempChannel = FileChannel.open(tempFile.toPath(), CREATE, TRUNCATE_EXISTING, WRITE)) {
+                long compactedSize = 0;
+                for (Map.Entry<ByteBuffer, RecordPosition> entry : snapshot.entrySet()) {
+                    RecordPosition position = entry.getValue();
+                    byte[] bytes;
+                    lock.readLock().lock();
+                    try {
+                        // The channel of snapshot is closed if the log file has been reset or closed
+                        if (closed || generation != snapshotGeneration) {
+                            return;
+                        }
+                        bytes = readRecord(channel, position);
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                    writeFully(tempChannel, ByteBuffer.wrap(bytes), compactedSize);
+                    compactedIndex.put(entry.getKey(), new RecordPosition(compactedSize, position.length));
+                    compactedSize += position.length;
+                }
+                tempChannel.force(true);
+
+                lock.writeLock().lock();
+                try {
+                    if (closed || generation != snapshotGeneration) { // The log file has been reset or closed
+                        return;
+                    }
+                    long tailSize = size - snapshotSize;
+                    tempChannel.position(compactedSize);
+                    for (long transferred = 0; transferred < tailSize; ) {
+                        transferred += channel.transferTo(snapshotSize + transferred, tailSize - transferred,
+                                tempChannel);
+                    }
+                    // Only the appended records are synced
+                    tempChannel.force(false);
+
+                    Map<ByteBuffer, RecordPosition> newIndex = new HashMap<>(index.size());
+                    long liveSize = 0;
+                    for (Map.Entry<ByteBuffer, RecordPosition> entry : index.entrySet()) {
+                        RecordPosition position = entry.getValue();
+                        RecordPosition newPosition = position.offset < snapshotSize ?
+                                compactedIndex.get(entry.getKey()) :
+                                new RecordPosition(compactedSize + position.offset - snapshotSize, position.length);
+                        newIndex.put(entry.getKey(), newPosition);
+                        liveSize += position.length;
+                    }
+                    File oldFile = this.file;
+                    File newFile = new File(directory, FILE_NAME_PREFIX + newGeneration + FILE_NAME_SUFFIX);
+                    java.nio.file.Files.move(tempFile.toPath(), newFile.toPath(), ATOMIC_MOVE);
+                    swapped = true;
+                    channel.close();
+                    openFile(newGeneration);
+                    index = newIndex;
+                    size = compactedSize + tailSize;
+                    obsoleteSize = size - liveSize;
+                    oldFile.delete();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                if (!swapped) {
+                    tempFile.delete();
+                }
+            }
+        }
+
+        private void assertNotClosed() throws IOException {
+            if (closed) {
+                throw new IOException(format("The log file[path : %s] has been closed!", file.getAbsolutePath()));
+            }
+        }
+
+        private void open() throws IOException {
+            if (!directory.exists() && !directory.mkdirs()) {
+                throw new IOException(format("The fallback directory[path:%s] can't be created!",
+                        directory.getAbsolutePath()));
+            }
+            long latestGeneration = 0;
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    long generation = parseGeneration(file.getName());
+                    latestGeneration = Math.max(latestGeneration, generation);
+                }
+                for (File file : files) {
+                    String fileName = file.getName();
+                    // Delete the obsolete log files and the incomplete compacted files
+                    if (fileName.endsWith(TEMP_FILE_NAME_SUFFIX) ||
+                            (fileName.startsWith(FILE_NAME_PREFIX) && parseGeneration(fileName) < latestGeneration)) {
+                        file.delete();
+                    }
+                }
+            }
+            openFile(latestGeneration);
+            recover();
+        }
+
+        private void openFile(long generation) throws IOException {
+            this.generation = generation;
+            this.file = new File(directory, FILE_NAME_PREFIX + generation + FILE_NAME_SUFFIX);
+            this.channel = FileChannel.open(file.toPath(), CREATE, READ, WRITE);
+        }
+
+        /**
+         * Rebuild the index from the log file, and truncate the corrupted tail
+         */
+        private void recover() throws IOException {
+            Map<ByteBuffer, RecordPosition> index = new HashMap<>();
+            long fileSize = channel.size();
+            long offset = 0;
+            ByteBuffer header = ByteBuffer.allocate(LogRecord.HEADER_LENGTH);
+            while (offset + LogRecord.HEADER_LENGTH <= fileSize) {
+                header.clear();
+                readFully(channel, header, offset);
+                byte type = header.get(4);
+                int keyLength = header.getInt(5);
+                int valueLength = header.getInt(9);
+                if ((type != LogRecord.PUT && type != LogRecord.DELETE) || keyLength < 0 || valueLength < 0 ||
+                        keyLength > MAX_LENGTH || valueLength > MAX_LENGTH) {
+                    break;
+                }
+                int length = LogRecord.HEADER_LENGTH + keyLength + valueLength;
+                if (offset + length > fileSize) {
+                    break;
+                }
+                byte[] bytes = readRecord(channel, new RecordPosition(offset, length));
+                if (!LogRecord.verify(bytes)) {
+                    break;
+                }
+                ByteBuffer key = ByteBuffer.wrap(Arrays.copyOfRange(bytes, LogRecord.HEADER_LENGTH,
+                        LogRecord.HEADER_LENGTH + keyLength));
+                RecordPosition oldPosition = type == LogRecord.PUT ?
+                        index.put(key, new RecordPosition(offset, length)) : index.remove(key);
+                if (oldPosition != null) {
+                    obsoleteSize += oldPosition.length;
+                }
+                if (type == LogRecord.DELETE) {
+                    obsoleteSize += length;
+                }
+                offset += length;
+            }
+            if (offset < fileSize) {
+                logger.warning(format("The corrupted tail[offset : %d , size : %d] of log file[path : %s] " +
+                        "will be truncated!", offset, fileSize - offset, file.getAbsolutePath()));
+                channel.truncate(offset);
+                channel.force(true);
+            }
+            this.index = index;
+            this.size = offset;
+        }
+
+        private void index(LogRecord record, long offset) {
+            RecordPosition oldPosition;
+            if (record.type == LogRecord.PUT) {
+                oldPosition = index.put(record.key, new RecordPosition(offset, record.bytes.length));
+            } else {
+                oldPosition = index.remove(record.key);
+                obsoleteSize += record.bytes.length;
+            }
+            if (oldPosition != null) {
+                obsoleteSize += oldPosition.length;
+            }
+        }
+
+        private static long parseGeneration(String fileName) {
+            if (fileName.startsWith(FILE_NAME_PREFIX) && fileName.endsWith(FILE_NAME_SUFFIX)) {
+                try {
+                    return Long.parseLong(fileName.substring(FILE_NAME_PREFIX.length(),
+                            fileName.length() - FILE_NAME_SUFFIX.length()));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+            return -1;
+        }
+
+        private static byte[] readRecord(FileChannel channel, RecordPosition position) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(position.length);
+            readFully(channel, buffer, position.offset);
+            return buffer.array();
+        }
+
+        private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                int count = channel.read(buffer, position + buffer.position());
+                if (count < 0) {
+                    throw new IOException("Unexpected end of log file");
+                }
+            }
+        }
+
+        private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
         }
     }
-}
\ No newline at end of file
+}
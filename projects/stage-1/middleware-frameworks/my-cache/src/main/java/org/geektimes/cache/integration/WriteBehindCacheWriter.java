@@ -0,0 +1,600 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache.integration;
+
+import org.geektimes.cache.ExpirableEntry;
+import org.geektimes.cache.configuration.CacheConfiguration;
+
+import javax.cache.Cache;
+import javax.cache.integration.CacheWriter;
+import javax.cache.integration.CacheWriterException;
+import java.io.Closeable;
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * The write-behind {@link CacheWriter} decorates the delegate one, the written or deleted entries are queued in
+ * memory and coalesced by key, then flushed to the delegate {@link CacheWriter} in batches by
+ * {@link CacheWriter#writeAll(Collection)} and {@link CacheWriter#deleteAll(Collection)} on schedule or when the
+ * size of batch is reached.
+ * <p>
+ * The failed batch will be retried with the exponential backoff without blocking the writing threads, the
+ * operations are spilled into the {@link FallbackStorage} in order when :
+ * <ul>
+ *     <li>the failed batch can't be flushed after the retries</li>
+ *     <li>the max queue size is exceeded, the writing thread spills the outstanding batch and all pending
+ *     operations rather than waiting for the delegate, thus the memory is bounded</li>
+ *     <li>current writer is closed</li>
+ * </ul>
+ * The spilled operations are appended into the {@link FallbackStorage} as the sequenced records, the deleted keys
+ * are recorded as the tombstones, they are replayed to the delegate {@link CacheWriter} in order before any
+ * pending operation once it's recovered, even if the spilled ones are left by the previous process.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see CacheConfiguration#isWriteBehind()
+ * @since 1.0
+ */
+public class WriteBehindCacheWriter<K, V> implements CacheWriter<K, V>, Closeable {
+
+    /**
+     * The marker of the deleted key in the pending operations
+     */
+    private static final Object DELETED = new Object();
+
+    /**
+     * The sequence of the record storing the range of spilled sequences
+     */
+    private static final long RANGE_SEQUENCE = -1;
+
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    private final String name;
+
+    private final CacheWriter<K, V> delegate;
+
+    private final FallbackStorage fallbackStorage;
+
+    private final ScheduledExecutorService executor;
+
+    private final int batchSize;
+
+    private final int maxQueueSize;
+
+    private final int maxRetries;
+
+    private final long retryBackoff;
+
+    /**
+     * The pending operations : the key -> {@link Cache.Entry} to write or {@link #DELETED}
+     */
+    private final ConcurrentMap<K, Object> pendingOperations = new ConcurrentHashMap<>();
+
+    /**
+     * The lock guards the states of flushing and spilling, it's never held while the delegate is writing, thus the
+     * writing threads are not blocked by the slow delegate when they spill.
+     */
+    private final Lock flushLock = new ReentrantLock();
+
+    /**
+     * The batch being flushed or waiting for the retry, the later batches are not flushed until it's done, thus the
+     * operations of the same key are flushed in order, guarded by {@link #flushLock}
+     */
+    private Batch<K, V> outstandingBatch;
+
+    /**
+     * The first sequence of the spilled records to replay, guarded by {@link #flushLock}
+     */
+    private long spillHead;
+
+    /**
+     * The next sequence of the spilled records, guarded by {@link #flushLock}
+     */
+    private long spillTail;
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private final ScheduledFuture<?> periodicFlushFuture;
+
+    private volatile boolean closed;
+
+    public WriteBehindCacheWriter(String name, CacheWriter<K, V> delegate, FallbackStorage fallbackStorage,
+                                  ScheduledExecutorService executor, CacheConfiguration configuration) {
+        this.name = name;
+        this.delegate = delegate;
+        this.fallbackStorage = fallbackStorage;
+        this.executor = executor;
+        this.batchSize = Math.max(1, configuration.getWriteBehindBatchSize());
+        this.maxQueueSize = Math.max(batchSize, configuration.getWriteBehindMaxQueueSize());
+        this.maxRetries = Math.max(0, configuration.getWriteBehindMaxRetries());
+        this.retryBackoff = Math.max(0, configuration.getWriteBehindRetryBackoff());
+        long flushInterval = Math.max(1, configuration.getWriteBehindFlushInterval());
+        this.periodicFlushFuture = executor.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, MILLISECONDS);
+        // The operations spilled by the previous writer are replayed once the delegate is recovered
+        if (loadSpillRange()) {
+            scheduleFlush();
+        }
+    }
+
+    @Override
+    public void write(Cache.Entry<? extends K, ? extends V> entry) throws CacheWriterException {
+        K key = entry.getKey();
+        // Copy the entry, because the source may be mutated after written
+        enqueue(key, ExpirableEntry.of(key, entry.getValue()));
+    }
+
+    @Override
+    public void writeAll(Collection<Cache.Entry<? extends K, ? extends V>> entries) throws CacheWriterException {
+        Iterator<Cache.Entry<? extends K, ? extends V>> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            write(iterator.next());
+            // The entries that have been written must be removed from the collection
+            iterator.remove();
+        }
+    }
+
+    @Override
+    public void delete(Object key) throws CacheWriterException {
+        enqueue((K) key, DELETED);
+    }
+
+    @Override
+    public void deleteAll(Collection<?> keys) throws CacheWriterException {
+        Iterator<?> iterator = keys.iterator();
+        while (iterator.hasNext()) {
+            delete(iterator.next());
+            // The keys that have been deleted must be removed from the collection
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Flush the spilled operations and then the pending ones to the delegate {@link CacheWriter}, the failed batch
+     * will be retried by the executor with backoff, and the later operations are not flushed until it's done, thus
+     * the operations of the same key are flushed in order.
+     */
+    public void flush() {
+        Batch<K, V> batch;
+        flushLock.lock();
+        try {
+            if (closed || outstandingBatch != null) {
+                return;
+            }
+            batch = nextBatch();
+        } catch (Throwable e) {
+            logger.severe(format("The write-behind CacheWriter[name : %s] failed to flush, caused by : %s",
+                    name, e.getMessage()));
+            return;
+        } finally {
+            flushLock.unlock();
+        }
+        execute(batch);
+    }
+
+    /**
+     * Get the number of pending operations
+     *
+     * @return the number of pending operations
+     */
+    public int getPendingSize() {
+        return pendingOperations.size();
+    }
+
+    /**
+     * Get the number of spilled operations that have not been replayed
+     *
+     * @return the number of spilled operations
+     */
+    public long getSpilledSize() {
+        flushLock.lock();
+        try {
+            return spillTail - spillHead;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Close current writer, the outstanding batch and pending operations are spilled into the
+     * {@link FallbackStorage} rather than written into the delegate {@link CacheWriter}, which may be slow or
+     * unavailable.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        periodicFlushFuture.cancel(false);
+        flushLock.lock();
+        try {
+            spillAll();
+            outstandingBatch = null;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void enqueue(K key, Object operation) {
+        if (closed) {
+            throw new CacheWriterException(format("The write-behind CacheWriter[name : %s] has been closed!", name));
+        }
+        pendingOperations.put(key, operation);
+        int pendingSize = pendingOperations.size();
+        if (pendingSize > maxQueueSize) {
+            // The writing thread never waits for the delegate, the overflowed operations are spilled instead
+            spillIfOverflowed();
+        } else if (pendingSize >= batchSize) {
+            scheduleFlush();
+        }
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Flush the batches one by one until no operation is left or the batch is failed
+     *
+     * @param batch the outstanding {@link Batch}
+     */
+    private void execute(Batch<K, V> batch) {
+        while (batch != null) {
+            // The spilled batch will be replayed after itself
+            boolean flushed = batch.spilled || flush(batch);
+            flushLock.lock();
+            try {
+                if (outstandingBatch != batch) { // Current writer has been closed
+                    return;
+                }
+                if (!flushed && !batch.spilled) {
+                    scheduleRetry(batch);
+                    return;
+                }
+                if (batch.isReplayed()) {
+                    removeSpilled(batch);
+                }
+                batch = nextBatch();
+            } catch (Throwable e) {
+                outstandingBatch = null;
+                logger.severe(format("The write-behind CacheWriter[name : %s] failed to flush, caused by : %s",
+                        name, e.getMessage()));
+                return;
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Take the next batch as the outstanding one, the spilled operations are replayed before the pending ones,
+     * because they are always older.
+     *
+     * @return <code>null</code> if no operation is left
+     */
+    private Batch<K, V> nextBatch() {
+        Batch<K, V> batch = null;
+        while (spillHead < spillTail && batch == null) {
+            batch = readSpilled();
+            if (batch.isEmpty()) { // The spilled records have been destroyed
+                removeSpilled(batch);
+                batch = null;
+            }
+        }
+        if (batch == null) {
+            batch = drain();
+        }
+        outstandingBatch = batch.isEmpty() ? null : batch;
+        return outstandingBatch;
+    }
+
+    private Batch<K, V> drain() {
+        Batch<K, V> batch = new Batch<>(batchSize);
+        Iterator<Map.Entry<K, Object>> iterator = pendingOperations.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            Map.Entry<K, Object> pendingOperation = iterator.next();
+            K key = pendingOperation.getKey();
+            Object operation = pendingOperation.getValue();
+            // The operation may be replaced concurrently, that will be drained in the next batch
+            if (pendingOperations.remove(key, operation)) {
+                batch.add(key, operation);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Flush the batch to the delegate {@link CacheWriter}
+     *
+     * @param batch {@link Batch}
+     * @return <code>true</code> if all elements of the batch have been flushed
+     */
+    private boolean flush(Batch<K, V> batch) {
+        batch.attempts++;
+        try {
+            // If failed, the batch contains the elements that have not been flushed
+            if (!batch.entries.isEmpty()) {
+                delegate.writeAll(batch.entries);
+            }
+            if (!batch.deletedKeys.isEmpty()) {
+                delegate.deleteAll(batch.deletedKeys);
+            }
+            return true;
+        } catch (Throwable e) {
+            batch.failure = e;
+            return batch.isEmpty();
+        }
+    }
+
+    /**
+     * Schedule the retry of the failed batch after the backoff, the lock is not held while backing off
+     */
+    private void scheduleRetry(Batch<K, V> batch) {
+        if (batch.attempts <= maxRetries) {
+            try {
+                executor.schedule(() -> execute(batch), retryBackoff << (batch.attempts - 1), MILLISECONDS);
+                return;
+            } catch (RejectedExecutionException e) {
+                // Give up the retries
+            }
+        }
+        outstandingBatch = null;
+        String failure = batch.failure == null ? null : batch.failure.getMessage();
+        if (batch.isReplayed()) {
+            logger.warning(format("The write-behind CacheWriter[name : %s] failed to replay %d spilled elements " +
+                    "after %d retries, they will be replayed by the next flush, caused by : %s",
+                    name, batch.size(), batch.attempts - 1, failure));
+        } else {
+            logger.warning(format("The write-behind CacheWriter[name : %s] failed to flush %d elements after %d " +
+                    "retries, they will be spilled into the FallbackStorage, caused by : %s",
+                    name, batch.size(), batch.attempts - 1, failure));
+            spill(batch);
+        }
+    }
+
+    private void spillIfOverflowed() {
+        flushLock.lock();
+        try {
+            // The pending operations may have been drained or spilled by the others
+            if (pendingOperations.size() > maxQueueSize) {
+                spillAll();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Spill the outstanding batch and all pending operations into the {@link FallbackStorage} in order, the
+     * outstanding batch which is still being flushed will be replayed again, that's harmless because the later
+     * operations of the same keys are replayed after it.
+     */
+    private void spillAll() {
+        if (outstandingBatch != null) {
+            spill(outstandingBatch);
+        }
+        while (!pendingOperations.isEmpty()) {
+            spill(drain());
+        }
+    }
+
+    /**
+     * Append the operations of batch into the {@link FallbackStorage} as the sequenced records followed by the
+     * range of sequences, the deleted keys are appended as the tombstones.
+     */
+    private void spill(Batch<K, V> batch) {
+        if (batch.spilled || batch.isReplayed()) { // The operations are in the FallbackStorage already
+            return;
+        }
+        List<Cache.Entry<?, ?>> records = new ArrayList<>(batch.size() + 1);
+        long tail = spillTail;
+        for (Cache.Entry<? extends K, ? extends V> entry : batch.entries) {
+            records.add(ExpirableEntry.of(new SpillKey(name, tail++),
+                    new SpilledOperation(entry.getKey(), entry.getValue())));
+        }
+        for (K key : batch.deletedKeys) {
+            records.add(ExpirableEntry.of(new SpillKey(name, tail++), new SpilledOperation(key, null)));
+        }
+        records.add(ExpirableEntry.of(new SpillKey(name, RANGE_SEQUENCE), new long[]{spillHead, tail}));
+        try {
+            fallbackStorage.writeAll(records);
+            spillTail = tail;
+            batch.spilled = true;
+        } catch (Throwable e) {
+            logger.severe(format("The write-behind CacheWriter[name : %s] failed to spill %d elements into " +
+                    "the FallbackStorage, caused by : %s", name, batch.size(), e.getMessage()));
+        }
+    }
+
+    /**
+     * Read the batch of spilled operations from the head, the operations of the same key are coalesced in order
+     */
+    private Batch<K, V> readSpilled() {
+        long end = Math.min(spillTail, spillHead + batchSize);
+        List<SpillKey> keys = new ArrayList<>((int) (end - spillHead));
+        for (long sequence = spillHead; sequence < end; sequence++) {
+            keys.add(new SpillKey(name, sequence));
+        }
+        Map<?, ?> records = fallbackStorage.loadAll(keys);
+        Map<K, Object> operations = new LinkedHashMap<>();
+        for (SpillKey key : keys) {
+            Object record = records.get(key);
+            if (record instanceof SpilledOperation) {
+                SpilledOperation spilledOperation = (SpilledOperation) record;
+                K operationKey = (K) spilledOperation.key;
+                operations.put(operationKey, spilledOperation.isTombstone() ? DELETED :
+                        ExpirableEntry.of(operationKey, (V) spilledOperation.value));
+            }
+        }
+        Batch<K, V> batch = new Batch<>(operations.size());
+        operations.forEach(batch::add);
+        batch.spillEnd = end;
+        return batch;
+    }
+
+    /**
+     * Remove the replayed records from the {@link FallbackStorage}
+     */
+    private void removeSpilled(Batch<K, V> batch) {
+        List<SpillKey> keys = new ArrayList<>((int) (batch.spillEnd - spillHead));
+        for (long sequence = spillHead; sequence < batch.spillEnd; sequence++) {
+            keys.add(new SpillKey(name, sequence));
+        }
+        spillHead = batch.spillEnd;
+        fallbackStorage.write(ExpirableEntry.of(new SpillKey(name, RANGE_SEQUENCE), new long[]{spillHead, spillTail}));
+        fallbackStorage.deleteAll(keys);
+    }
+
+    /**
+     * Load the range of sequences spilled by the previous writer
+     *
+     * @return <code>true</code> if any spilled operation is left
+     */
+    private boolean loadSpillRange() {
+        try {
+            Object range = fallbackStorage.load(new SpillKey(name, RANGE_SEQUENCE));
+            if (range instanceof long[]) {
+                spillHead = ((long[]) range)[0];
+                spillTail = ((long[]) range)[1];
+            }
+        } catch (Throwable e) {
+            logger.severe(format("The write-behind CacheWriter[name : %s] failed to load the spilled elements " +
+                    "from the FallbackStorage, caused by : %s", name, e.getMessage()));
+        }
+        return spillHead < spillTail;
+    }
+
+    /**
+     * The batch of operations drained from the pending ones or read from the spilled ones
+     */
+    private static class Batch<K, V> {
+
+        private final List<Cache.Entry<? extends K, ? extends V>> entries;
+
+        private final List<K> deletedKeys;
+
+        private int attempts;
+
+        private Throwable failure;
+
+        /**
+         * Whether the operations have been spilled into the {@link FallbackStorage}
+         */
+        private boolean spilled;
+
+        /**
+         * The end of the spilled sequences if the batch is replayed, or -1
+         */
+        private long spillEnd = -1;
+
+        Batch(int size) {
+            this.entries = new ArrayList<>(size);
+            this.deletedKeys = new ArrayList<>(size);
+        }
+
+        void add(K key, Object operation) {
+            if (operation == DELETED) {
+                deletedKeys.add(key);
+            } else {
+                entries.add((Cache.Entry<? extends K, ? extends V>) operation);
+            }
+        }
+
+        int size() {
+            return entries.size() + deletedKeys.size();
+        }
+
+        boolean isEmpty() {
+            return entries.isEmpty() && deletedKeys.isEmpty();
+        }
+
+        boolean isReplayed() {
+            return spillEnd > -1;
+        }
+    }
+
+    /**
+     * The key of the spilled record in the {@link FallbackStorage}
+     */
+    private static class SpillKey implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+
+        private final long sequence;
+
+        SpillKey(String name, long sequence) {
+            this.name = name;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SpillKey)) {
+                return false;
+            }
+            SpillKey that = (SpillKey) o;
+            return sequence == that.sequence && name.equals(that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, sequence);
+        }
+    }
+
+    /**
+     * The spilled operation, the value of tombstone is <code>null</code>
+     */
+    private static class SpilledOperation implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object key;
+
+        private final Object value;
+
+        SpilledOperation(Object key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        boolean isTombstone() {
+            return value == null;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache.management;
+
+import javax.cache.management.CacheStatisticsMXBean;
+
+/**
+ * {@link CacheStatisticsMXBean} with the latency percentiles of cache operations, all times are in microseconds
+ * as same as {@link #getAverageGetTime()}.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see LatencyHistogram
+ * @since 1.0.0
+ */
+public interface CacheLatencyStatisticsMXBean extends CacheStatisticsMXBean {
+
+    float getGetTime50thPercentile();
+
+    float getGetTime99thPercentile();
+
+    float getGetTime999thPercentile();
+
+    float getPutTime50thPercentile();
+
+    float getPutTime99thPercentile();
+
+    float getPutTime999thPercentile();
+
+    float getRemoveTime50thPercentile();
+
+    float getRemoveTime99thPercentile();
+
+    float getRemoveTime999thPercentile();
+}
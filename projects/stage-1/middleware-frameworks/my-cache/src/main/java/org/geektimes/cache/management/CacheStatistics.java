@@ -16,8 +16,6 @@
  */
 package org.geektimes.cache.management;
 
-import javax.cache.management.CacheStatisticsMXBean;
-
 /**
  * Cache Statistics
  *
@@ -25,7 +23,19 @@ import javax.cache.management.CacheStatisticsMXBean;
  * @since 1.0.0
  * Date : 2021-04-13
  */
-public interface CacheStatistics extends CacheStatisticsMXBean {
+public interface CacheStatistics extends CacheLatencyStatisticsMXBean {
+
+    /**
+     * The start time of the operation that is not sampled
+     */
+    long NOT_SAMPLED = Long.MIN_VALUE;
+
+    /**
+     * Start timing current operation if it's sampled
+     *
+     * @return the start time in nanoseconds, or {@link #NOT_SAMPLED}
+     */
+    long startTime();
 
     CacheStatistics reset();
 
@@ -39,10 +49,22 @@ public interface CacheStatistics extends CacheStatisticsMXBean {
 
     CacheStatistics cacheEvictions();
 
+    /**
+     * @param costTime the cost time in nanoseconds of the sampled get operation
+     * @return this
+     */
     CacheStatistics cacheGetsTime(long costTime);
 
+    /**
+     * @param costTime the cost time in nanoseconds of the sampled put operation
+     * @return this
+     */
     CacheStatistics cachePutsTime(long costTime);
 
+    /**
+     * @param costTime the cost time in nanoseconds of the sampled remove operation
+     * @return this
+     */
     CacheStatistics cacheRemovesTime(long costTime);
 
 }
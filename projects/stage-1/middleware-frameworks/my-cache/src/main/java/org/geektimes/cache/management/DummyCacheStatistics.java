@@ -33,6 +33,11 @@ public class DummyCacheStatistics implements CacheStatistics {
     private DummyCacheStatistics() {
     }
 
+    @Override
+    public long startTime() {
+        return NOT_SAMPLED;
+    }
+
     @Override
     public CacheStatistics reset() {
         return this;
@@ -137,4 +142,49 @@ public class DummyCacheStatistics implements CacheStatistics {
     public float getAverageRemoveTime() {
         return 0;
     }
+
+    @Override
+    public float getGetTime50thPercentile() {
+        return 0;
+    }
+
+    @Override
+    public float getGetTime99thPercentile() {
+        return 0;
+    }
+
+    @Override
+    public float getGetTime999thPercentile() {
+        return 0;
+    }
+
+    @Override
+    public float getPutTime50thPercentile() {
+        return 0;
+    }
+
+    @Override
+    public float getPutTime99thPercentile() {
+        return 0;
+    }
+
+    @Override
+    public float getPutTime999thPercentile() {
+        return 0;
+    }
+
+    @Override
+    public float getRemoveTime50thPercentile() {
+        return 0;
+    }
+
+    @Override
+    public float getRemoveTime99thPercentile() {
+        return 0;
+    }
+
+    @Override
+    public float getRemoveTime999thPercentile() {
+        return 0;
+    }
 }
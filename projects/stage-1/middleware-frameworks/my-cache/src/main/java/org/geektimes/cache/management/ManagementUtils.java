@@ -22,6 +22,7 @@ import javax.cache.management.CacheMXBean;
 import javax.management.MBeanServer;
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
+import javax.management.StandardMBean;
 import java.io.UnsupportedEncodingException;
 import java.lang.management.ManagementFactory;
 import java.net.URI;
@@ -41,6 +42,10 @@ public abstract class ManagementUtils {
         return new CacheMXBeanAdapter(configuration);
     }
 
+    public static StandardMBean adaptCacheStatisticsMXBean(CacheStatistics cacheStatistics) {
+        return new StandardMBean(cacheStatistics, CacheLatencyStatisticsMXBean.class, true);
+    }
+
     private static ObjectName createObjectName(Cache<?, ?> cache,
                                                String type) {
         Hashtable<String, String> props = new Hashtable<>();
@@ -88,7 +93,8 @@ public abstract class ManagementUtils {
                                                                 MBeanServer mBeanServer, CacheStatistics cacheStatistics) {
         if (configuration.isStatisticsEnabled()) {
             ObjectName objectName = createObjectName(cache, "CacheStatistics");
-            registerMBean(objectName, cacheStatistics, mBeanServer);
+            // Expose the latency percentiles besides the standard ones of CacheStatisticsMXBean
+            registerMBean(objectName, adaptCacheStatisticsMXBean(cacheStatistics), mBeanServer);
         }
     }
 
@@ -16,34 +16,59 @@
  */
 package org.geektimes.cache.management;
 
-import javax.cache.management.CacheStatisticsMXBean;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Cache Statistics
+ * Cache Statistics, the counters are based on {@link LongAdder} to avoid the contention, and one of every
+ * {@link #getSampleInterval() N} operations is timed in nanoseconds and recorded into the {@link LatencyHistogram}.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0.0
  * Date : 2021-04-13
  */
-public class SimpleCacheStatistics implements CacheStatisticsMXBean, CacheStatistics {
+public class SimpleCacheStatistics implements CacheLatencyStatisticsMXBean, CacheStatistics {
 
-    private final AtomicLong cacheHits = new AtomicLong();
+    private final int sampleInterval;
 
-    private final AtomicLong cacheGets = new AtomicLong();
+    private final LongAdder cacheHits = new LongAdder();
 
-    private final AtomicLong cachePuts = new AtomicLong();
+    private final LongAdder cacheGets = new LongAdder();
 
-    private final AtomicLong cacheRemovals = new AtomicLong();
+    private final LongAdder cachePuts = new LongAdder();
 
-    private final AtomicLong cacheEvictions = new AtomicLong();
+    private final LongAdder cacheRemovals = new LongAdder();
 
-    private final LongAdder cacheGetTime = new LongAdder();
+    private final LongAdder cacheEvictions = new LongAdder();
 
-    private final LongAdder cachePutTime = new LongAdder();
+    private final TimeStatistics cacheGetTime = new TimeStatistics();
 
-    private final LongAdder cacheRemoveTime = new LongAdder();
+    private final TimeStatistics cachePutTime = new TimeStatistics();
+
+    private final TimeStatistics cacheRemoveTime = new TimeStatistics();
+
+    public SimpleCacheStatistics() {
+        this(1);
+    }
+
+    /**
+     * @param sampleInterval one of every N operations will be timed
+     */
+    public SimpleCacheStatistics(int sampleInterval) {
+        this.sampleInterval = Math.max(1, sampleInterval);
+    }
+
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    @Override
+    public long startTime() {
+        if (sampleInterval > 1 && ThreadLocalRandom.current().nextInt(sampleInterval) != 0) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
 
     @Override
     public void clear() {
@@ -52,11 +77,11 @@ public class SimpleCacheStatistics implements CacheStatisticsMXBean, CacheStatis
 
     @Override
     public SimpleCacheStatistics reset() {
-        cacheHits.set(0);
-        cacheGets.set(0);
-        cachePuts.set(0);
-        cacheRemovals.set(0);
-        cacheEvictions.set(0);
+        cacheHits.reset();
+        cacheGets.reset();
+        cachePuts.reset();
+        cacheRemovals.reset();
+        cacheEvictions.reset();
         cacheGetTime.reset();
         cachePutTime.reset();
         cacheRemoveTime.reset();
@@ -65,110 +90,197 @@ public class SimpleCacheStatistics implements CacheStatisticsMXBean, CacheStatis
 
     @Override
     public SimpleCacheStatistics cacheHits() {
-        cacheHits.incrementAndGet();
+        cacheHits.increment();
         return this;
     }
 
     @Override
     public SimpleCacheStatistics cacheGets() {
-        cacheGets.incrementAndGet();
+        cacheGets.increment();
         return this;
     }
 
     @Override
     public SimpleCacheStatistics cachePuts() {
-        cachePuts.incrementAndGet();
+        cachePuts.increment();
         return this;
     }
 
     @Override
     public SimpleCacheStatistics cacheRemovals() {
-        cacheRemovals.incrementAndGet();
+        cacheRemovals.increment();
         return this;
     }
 
     @Override
     public SimpleCacheStatistics cacheEvictions() {
-        cacheEvictions.incrementAndGet();
+        cacheEvictions.increment();
         return this;
     }
 
     @Override
     public SimpleCacheStatistics cacheGetsTime(long costTime) {
-        cacheGetTime.add(costTime);
+        cacheGetTime.record(costTime);
         return this;
     }
 
     @Override
     public SimpleCacheStatistics cachePutsTime(long costTime) {
-        cachePutTime.add(costTime);
+        cachePutTime.record(costTime);
         return this;
     }
 
     @Override
     public SimpleCacheStatistics cacheRemovesTime(long costTime) {
-        cacheRemoveTime.add(costTime);
+        cacheRemoveTime.record(costTime);
         return this;
     }
 
     @Override
     public long getCacheHits() {
-        return cacheHits.get();
+        return cacheHits.sum();
     }
 
     @Override
     public float getCacheHitPercentage() {
-        if (getCacheGets() < 1) {
+        long cacheGets = getCacheGets();
+        if (cacheGets < 1) {
             return 0.0f;
         }
-        return (getCacheHits() / getCacheGets()) / 100.0f;
+        return getCacheHits() * 100.0f / cacheGets;
     }
 
     @Override
     public long getCacheMisses() {
-        return getCacheGets() - getCacheHits();
+        return Math.max(0, getCacheGets() - getCacheHits());
     }
 
     @Override
     public float getCacheMissPercentage() {
-        if (getCacheGets() < 1) {
+        long cacheGets = getCacheGets();
+        if (cacheGets < 1) {
             return 0.0f;
         }
-        return (getCacheMisses() / getCacheGets()) / 100.0f;
+        return getCacheMisses() * 100.0f / cacheGets;
     }
 
     @Override
     public long getCacheGets() {
-        return cacheGets.get();
+        return cacheGets.sum();
     }
 
     @Override
     public long getCachePuts() {
-        return cachePuts.get();
+        return cachePuts.sum();
     }
 
     @Override
     public long getCacheRemovals() {
-        return cacheRemovals.get();
+        return cacheRemovals.sum();
     }
 
     @Override
     public long getCacheEvictions() {
-        return cacheEvictions.get();
+        return cacheEvictions.sum();
     }
 
     @Override
     public float getAverageGetTime() {
-        return cacheGetTime.floatValue() / getCacheGets();
+        return cacheGetTime.getAverage();
     }
 
     @Override
     public float getAveragePutTime() {
-        return cachePutTime.floatValue() / getCachePuts();
+        return cachePutTime.getAverage();
     }
 
     @Override
     public float getAverageRemoveTime() {
-        return cacheRemoveTime.floatValue() / getCacheRemovals();
+        return cacheRemoveTime.getAverage();
+    }
+
+    @Override
+    public float getGetTime50thPercentile() {
+        return cacheGetTime.getPercentile(50);
+    }
+
+    @Override
+    public float getGetTime99thPercentile() {
+        return cacheGetTime.getPercentile(99);
+    }
+
+    @Override
+    public float getGetTime999thPercentile() {
+        return cacheGetTime.getPercentile(99.9);
+    }
+
+    @Override
+    public float getPutTime50thPercentile() {
+        return cachePutTime.getPercentile(50);
+    }
+
+    @Override
+    public float getPutTime99thPercentile() {
+        return cachePutTime.getPercentile(99);
+    }
+
+    @Override
+    public float getPutTime999thPercentile() {
+        return cachePutTime.getPercentile(99.9);
+    }
+
+    @Override
+    public float getRemoveTime50thPercentile() {
+        return cacheRemoveTime.getPercentile(50);
+    }
+
+    @Override
+    public float getRemoveTime99thPercentile() {
+        return cacheRemoveTime.getPercentile(99);
+    }
+
+    @Override
+    public float getRemoveTime999thPercentile() {
+        return cacheRemoveTime.getPercentile(99.9);
+    }
+
+    /**
+     * The statistics of the sampled cost times in nanoseconds, reported in microseconds
+     */
+    private static class TimeStatistics {
+
+        private final LongAdder samples = new LongAdder();
+
+        private final LongAdder totalTime = new LongAdder();
+
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        void record(long costTime) {
+            samples.increment();
+            totalTime.add(costTime);
+            histogram.record(costTime);
+        }
+
+        float getAverage() {
+            long samples = this.samples.sum();
+            if (samples < 1) {
+                return 0.0f;
+            }
+            return toMicros(totalTime.sum()) / samples;
+        }
+
+        float getPercentile(double percentile) {
+            return toMicros(histogram.getPercentile(percentile));
+        }
+
+        void reset() {
+            samples.reset();
+            totalTime.reset();
+            histogram.reset();
+        }
+
+        private static float toMicros(long nanos) {
+            return nanos / 1000.0f;
+        }
     }
 }
@@ -35,15 +35,21 @@ import javax.cache.integration.CacheLoaderException;
 import javax.cache.integration.CompletionListener;
 import javax.cache.processor.EntryProcessorResult;
 import javax.cache.spi.CachingProvider;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonMap;
 import static javax.cache.expiry.CreatedExpiryPolicy.factoryOf;
+import static org.geektimes.commons.collection.util.CollectionUtils.asSet;
 import static org.junit.Assert.*;
 
 /**
@@ -312,8 +318,8 @@ public class AbstractCacheTest {
         cache.loadAll(singleton(key), replaceExistingValues, listener);
         while (!completed.get()) {
         }
-        assertFalse(cache.containsKey(key));
-        assertEquals(Integer.valueOf(1), cache.get(key)); // the value comes from CacheLoader
+        assertTrue(cache.containsKey(key)); // the value has been loaded by CacheLoader
+        assertEquals(Integer.valueOf(1), cache.get(key));
         assertNull(exceptionReference.get());
 
         // replaceExistingValues == false
@@ -367,6 +373,107 @@ public class AbstractCacheTest {
         cache.close();
     }
 
+    @Test
+    public void testLoadAllInBatches() {
+        AtomicInteger loadAllCount = new AtomicInteger();
+        MutableConfiguration<String, Integer> config = new MutableConfiguration<>(this.config)
+                .setCacheLoaderFactory(() -> new CacheLoader<String, Integer>() {
+                    @Override
+                    public Integer load(String key) throws CacheLoaderException {
+                        throw new CacheLoaderException("The loadAll method should be invoked!");
+                    }
+
+                    @Override
+                    public Map<String, Integer> loadAll(Iterable<? extends String> keys) throws CacheLoaderException {
+                        loadAllCount.incrementAndGet();
+                        Map<String, Integer> values = new HashMap<>();
+                        keys.forEach(key -> values.put(key, Integer.valueOf(key)));
+                        return values;
+                    }
+                });
+
+        Cache<String, Integer> cache = cacheManager.createCache("testCache-batches", config);
+
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < 2500; i++) {
+            keys.add(String.valueOf(i));
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        cache.loadAll(keys, false, new CompletionListener() {
+            @Override
+            public void onCompletion() {
+                future.complete(null);
+            }
+
+            @Override
+            public void onException(Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        future.join();
+
+        // 2500 keys are partitioned into 3 batches by the default batch size(1000)
+        assertEquals(3, loadAllCount.get());
+        for (String key : keys) {
+            assertEquals(Integer.valueOf(key), cache.get(key));
+        }
+
+        cacheManager.destroyCache("testCache-batches");
+    }
+
+    @Test
+    public void testLoadAllWithReplaceExistingValues() {
+        MutableConfiguration<String, Integer> config = new MutableConfiguration<>(this.config)
+                .setCacheLoaderFactory(() -> new CacheLoader<String, Integer>() {
+                    @Override
+                    public Integer load(String key) throws CacheLoaderException {
+                        return Integer.valueOf(key);
+                    }
+
+                    @Override
+                    public Map<String, Integer> loadAll(Iterable<? extends String> keys) throws CacheLoaderException {
+                        Map<String, Integer> values = new HashMap<>();
+                        keys.forEach(key -> values.put(key, Integer.valueOf(key)));
+                        return values;
+                    }
+                });
+
+        Cache<String, Integer> cache = cacheManager.createCache("testCache-replace", config);
+        cache.put("0", -1);
+
+        // The absent keys are loaded, the existing ones are kept
+        loadAll(cache, asSet("0", "1"), false);
+        assertEquals(Integer.valueOf(-1), cache.get("0"));
+        assertTrue(cache.containsKey("1"));
+        assertEquals(Integer.valueOf(1), cache.get("1"));
+
+        // All keys are loaded, whether they are cached or not
+        loadAll(cache, asSet("0", "1", "2"), true);
+        assertTrue(cache.containsKey("2"));
+        assertEquals(Integer.valueOf(0), cache.get("0"));
+        assertEquals(Integer.valueOf(1), cache.get("1"));
+        assertEquals(Integer.valueOf(2), cache.get("2"));
+
+        cacheManager.destroyCache("testCache-replace");
+    }
+
+    private void loadAll(Cache<String, Integer> cache, Set<String> keys, boolean replaceExistingValues) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        cache.loadAll(keys, replaceExistingValues, new CompletionListener() {
+            @Override
+            public void onCompletion() {
+                future.complete(null);
+            }
+
+            @Override
+            public void onException(Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        future.join();
+    }
+
     @Test
     public void testInvoke() {
 
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache;
+
+import org.junit.Test;
+
+import javax.cache.Cache;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.Duration;
+import javax.cache.spi.CachingProvider;
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static javax.cache.expiry.CreatedExpiryPolicy.factoryOf;
+import static org.geektimes.cache.AbstractCacheManager.*;
+import static org.junit.Assert.*;
+
+/**
+ * {@link CacheSnapshot} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+public class CacheSnapshotTest {
+
+    private static final int ENTRIES = 3000;
+
+    private final CachingProvider cachingProvider = Caching.getCachingProvider();
+
+    private final URI uri = URI.create("in-memory://localhost/snapshot");
+
+    @Test
+    public void testTakeAndRestoreSnapshot() throws Exception {
+        File directory = Files.createTempDirectory("snapshot").toFile();
+        Properties properties = new Properties();
+        properties.putAll(cachingProvider.getDefaultProperties());
+        properties.setProperty(SNAPSHOT_CACHES_PROPERTY_NAME, "eternalCache, expiredCache");
+        properties.setProperty(SNAPSHOT_DIRECTORY_PROPERTY_NAME, directory.getAbsolutePath());
+
+        AbstractCacheManager cacheManager = newCacheManager(properties);
+        Cache<String, Integer> eternalCache = cacheManager.createCache("eternalCache", newConfiguration(Duration.ETERNAL));
+        Cache<String, Integer> expiredCache = cacheManager.createCache("expiredCache",
+                newConfiguration(new Duration(MILLISECONDS, 100)));
+        Cache<String, Integer> otherCache = cacheManager.createCache("otherCache", newConfiguration(Duration.ETERNAL));
+        for (int i = 0; i < ENTRIES; i++) {
+            eternalCache.put("key-" + i, i);
+            expiredCache.put("key-" + i, i);
+            otherCache.put("key-" + i, i);
+        }
+        // The snapshots are taken on close
+        cacheManager.close();
+        assertTrue(new File(directory, "eternalCache.snapshot").exists());
+        assertTrue(new File(directory, "expiredCache.snapshot").exists());
+        assertFalse(new File(directory, "otherCache.snapshot").exists());
+
+        Thread.sleep(200);
+
+        cacheManager = newCacheManager(properties);
+        eternalCache = cacheManager.createCache("eternalCache", newConfiguration(Duration.ETERNAL));
+        expiredCache = cacheManager.createCache("expiredCache", newConfiguration(new Duration(MILLISECONDS, 100)));
+        assertEquals(ENTRIES, cacheManager.restoreSnapshot("eternalCache").get().intValue());
+        assertEquals(0, cacheManager.restoreSnapshot("expiredCache").get().intValue());
+        for (int i = 0; i < ENTRIES; i++) {
+            assertEquals(Integer.valueOf(i), eternalCache.get("key-" + i));
+            assertNull(expiredCache.get("key-" + i));
+        }
+
+        cacheManager.destroyCache("eternalCache");
+        assertFalse(new File(directory, "eternalCache.snapshot").exists());
+        cacheManager.close();
+    }
+
+    private AbstractCacheManager newCacheManager(Properties properties) {
+        return new InMemoryCacheManager(cachingProvider, uri, cachingProvider.getDefaultClassLoader(), properties);
+    }
+
+    private MutableConfiguration<String, Integer> newConfiguration(Duration duration) {
+        return new MutableConfiguration<String, Integer>()
+                .setTypes(String.class, Integer.class)
+                .setExpiryPolicyFactory(factoryOf(duration));
+    }
+}
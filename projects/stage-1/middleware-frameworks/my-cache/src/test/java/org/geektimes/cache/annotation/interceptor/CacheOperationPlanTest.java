@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache.annotation.interceptor;
+
+import org.geektimes.cache.DataRepository;
+import org.geektimes.cache.InMemoryDataRepository;
+import org.geektimes.cache.annotation.DefaultCacheKeyGenerator;
+import org.geektimes.cache.annotation.ReflectiveCacheKeyInvocationContext;
+import org.geektimes.cache.annotation.util.CacheOperationAnnotationInfo;
+import org.junit.Test;
+
+import javax.cache.Cache;
+import javax.cache.annotation.CacheKeyInvocationContext;
+import javax.cache.annotation.CachePut;
+import javax.cache.annotation.GeneratedCacheKey;
+import java.lang.reflect.Method;
+
+import static org.geektimes.cache.annotation.util.CacheAnnotationUtils.findCacheDefaults;
+import static org.junit.Assert.*;
+
+/**
+ * {@link CacheOperationPlan} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class CacheOperationPlanTest {
+
+    private final DataRepository dataRepository = new InMemoryDataRepository();
+
+    @Test
+    public void test() throws Exception {
+        Method method = DataRepository.class.getMethod("save", String.class, String.class, Object.class);
+        CachePut cachePut = method.getAnnotation(CachePut.class);
+        CacheOperationPlan<CachePut> plan = new CacheOperationPlan<>(method, cachePut, dataRepository,
+                new CacheOperationAnnotationInfo(cachePut, findCacheDefaults(method, dataRepository)));
+
+        assertEquals("defaultCache", plan.getCacheName());
+        assertArrayEquals(new int[]{0, 1}, plan.getKeyParameterIndexes());
+        assertEquals(2, plan.getValueParameterIndex());
+
+        Object[] parameters = new Object[]{"A", "B", 1};
+        CacheKeyInvocationContext<CachePut> context = plan.newInvocationContext(dataRepository, parameters);
+        assertEquals(1, context.getValueParameter().getValue());
+        assertEquals(2, context.getKeyParameters().length);
+
+        GeneratedCacheKey cacheKey = plan.generateCacheKey(context, parameters).get();
+        GeneratedCacheKey reflectiveCacheKey = new DefaultCacheKeyGenerator().generateCacheKey(
+                new ReflectiveCacheKeyInvocationContext<>(dataRepository, method, parameters));
+        assertEquals(reflectiveCacheKey, cacheKey);
+        assertEquals(reflectiveCacheKey.hashCode(), cacheKey.hashCode());
+
+        Cache cache = plan.getCache(context);
+        assertEquals("defaultCache", cache.getName());
+        assertSame(cache, plan.getCache(context));
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache.event;
+
+import org.junit.After;
+import org.junit.Test;
+
+import javax.cache.Cache;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
+import javax.cache.event.*;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.*;
+
+/**
+ * {@link CacheEntryEventPublisher} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+public class CacheEntryEventPublisherTest {
+
+    private static final int EVENTS = 10000;
+
+    private final ExecutorService executor = newSingleThreadExecutor();
+
+    private final Cache cache = (Cache) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Cache.class},
+            (proxy, method, args) -> "getName".equals(method.getName()) ? "My Cache" : null);
+
+    @After
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testPublishInOrder() throws Exception {
+        // The small capacity makes the publishing thread wait
+        CacheEntryEventPublisher publisher = new CacheEntryEventPublisher(executor, 16);
+        RecordingListener asyncListener = new RecordingListener(EVENTS);
+        RecordingListener syncListener = new RecordingListener(EVENTS);
+        publisher.registerCacheEntryListener(newConfiguration(asyncListener, false));
+        publisher.registerCacheEntryListener(newConfiguration(syncListener, true));
+
+        for (int i = 0; i < EVENTS; i++) {
+            publisher.publish(new GenericCacheEntryEvent<>(cache, EventType.UPDATED, "a", i, i + 1));
+        }
+
+        // synchronous listener is notified one by one
+        assertEquals(EVENTS, syncListener.batches.get());
+        assertTrue(asyncListener.latch.await(10, SECONDS));
+        assertTrue(asyncListener.batches.get() < EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            assertEquals(i + 1, asyncListener.values.get(i));
+        }
+
+        publisher.deregisterCacheEntryListener(newConfiguration(asyncListener, false));
+        publisher.publish(new GenericCacheEntryEvent<>(cache, EventType.UPDATED, "a", 1, 2));
+        assertEquals(EVENTS, asyncListener.values.size());
+    }
+
+    @Test
+    public void testPublishWithBusyExecutor() throws Exception {
+        // The only thread of executor is busy, the dispatching tasks are queued
+        CountDownLatch busy = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                busy.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CacheEntryEventPublisher publisher = new CacheEntryEventPublisher(executor, 16);
+        RecordingListener asyncListener = new RecordingListener(EVENTS);
+        publisher.registerCacheEntryListener(newConfiguration(asyncListener, false));
+
+        // The publishing thread drains the full ring buffer itself
+        for (int i = 0; i < EVENTS; i++) {
+            publisher.publish(new GenericCacheEntryEvent<>(cache, EventType.UPDATED, "a", i, i + 1));
+        }
+        busy.countDown();
+
+        assertTrue(asyncListener.latch.await(10, SECONDS));
+        for (int i = 0; i < EVENTS; i++) {
+            assertEquals(i + 1, asyncListener.values.get(i));
+        }
+    }
+
+    @Test
+    public void testPublishByListener() throws Exception {
+        int events = 100;
+        CacheEntryEventPublisher publisher = new CacheEntryEventPublisher(executor, 4);
+        RecordingListener asyncListener = new RecordingListener(events * 2) {
+            @Override
+            public void onUpdated(Iterable<CacheEntryEvent<?, ?>> cacheEntryEvents) {
+                super.onUpdated(cacheEntryEvents);
+                // The events are published by the dispatching thread, even if the ring buffer is full
+                cacheEntryEvents.forEach(event -> {
+                    int value = (Integer) event.getValue();
+                    if (value <= events) {
+                        publisher.publish(new GenericCacheEntryEvent<>(cache, EventType.UPDATED, "b", value,
+                                value + events));
+                    }
+                });
+            }
+        };
+        publisher.registerCacheEntryListener(newConfiguration(asyncListener, false));
+
+        for (int i = 0; i < events; i++) {
+            publisher.publish(new GenericCacheEntryEvent<>(cache, EventType.UPDATED, "a", i, i + 1));
+        }
+
+        assertTrue(asyncListener.latch.await(10, SECONDS));
+        assertEquals(events * 2, asyncListener.values.size());
+        int lastValue = 0;
+        int lastRepublishedValue = events;
+        for (Object value : asyncListener.values) {
+            int intValue = (Integer) value;
+            if (intValue <= events) {
+                assertEquals(++lastValue, intValue);
+            } else {
+                assertEquals(++lastRepublishedValue, intValue);
+                // The republished event follows the original one
+                assertTrue(intValue - events <= lastValue);
+            }
+        }
+    }
+
+    private MutableCacheEntryListenerConfiguration<Object, Object> newConfiguration(RecordingListener listener,
+                                                                                  boolean synchronous) {
+        return new MutableCacheEntryListenerConfiguration<>(new FactoryBuilder.SingletonFactory<>(listener),
+                null, true, synchronous);
+    }
+
+    static class RecordingListener implements CacheEntryUpdatedListener<Object, Object> {
+
+        private final List<Object> values = new CopyOnWriteArrayList<>();
+
+        private final AtomicInteger batches = new AtomicInteger();
+
+        private final CountDownLatch latch;
+
+        RecordingListener(int events) {
+            this.latch = new CountDownLatch(events);
+        }
+
+        @Override
+        public void onUpdated(Iterable<CacheEntryEvent<?, ?>> cacheEntryEvents) throws CacheEntryListenerException {
+            batches.incrementAndGet();
+            cacheEntryEvents.forEach(event -> {
+                values.add(event.getValue());
+                latch.countDown();
+            });
+        }
+    }
+}
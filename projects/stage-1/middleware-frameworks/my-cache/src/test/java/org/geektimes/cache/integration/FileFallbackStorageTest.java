@@ -20,11 +20,14 @@ import org.geektimes.cache.ExpirableEntry;
 import org.junit.After;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Map;
 
 import static java.util.Arrays.asList;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNull;
+import static org.junit.Assert.*;
 
 /**
  * {@link FileFallbackStorage} Test
@@ -53,6 +56,115 @@ public class FileFallbackStorageTest {
         instance.write(ExpirableEntry.of("a", new Object()));
     }
 
+    @Test
+    public void testRecoverAndDestroy() throws IOException {
+        File directory = Files.createTempDirectory("fallback").toFile();
+        FileFallbackStorage storage = new FileFallbackStorage(directory);
+        storage.writeAll(asList(ExpirableEntry.of("a", 1), ExpirableEntry.of("b", 2)));
+        storage.write(ExpirableEntry.of("a", 3));
+        storage.delete("b");
+
+        File logFile = directory.listFiles()[0];
+        long length = logFile.length();
+        // Simulate the partial write of the last record
+        try (FileOutputStream outputStream = new FileOutputStream(logFile, true)) {
+            outputStream.write(new byte[]{1, 2, 3});
+        }
+
+        FileFallbackStorage.LogFile recoveredLogFile = new FileFallbackStorage.LogFile(directory);
+        assertEquals(length, recoveredLogFile.getFile().length());
+        recoveredLogFile.close();
+
+        assertEquals(3, storage.load("a"));
+        assertNull(storage.load("b"));
+
+        storage.destroy();
+        assertNull(storage.load("a"));
+        assertEquals(1, directory.listFiles().length);
+        storage.close();
+    }
+
+    @Test
+    public void testForCache() throws IOException {
+        File directory = Files.createTempDirectory("fallback").toFile();
+        FileFallbackStorage storage = new FileFallbackStorage(directory);
+        FileFallbackStorage storage1 = storage.forCache("cache/1");
+        FileFallbackStorage storage2 = storage.forCache("cache/2");
+        storage1.write(ExpirableEntry.of("a", 1));
+        storage2.write(ExpirableEntry.of("a", 2));
+
+        // The log files are isolated by the caches
+        assertEquals(1, storage1.load("a"));
+        assertEquals(2, storage2.load("a"));
+        assertNull(storage.load("a"));
+
+        storage1.destroy();
+        assertNull(storage1.load("a"));
+        assertEquals(2, storage2.load("a"));
+
+        storage.close();
+        storage1.close();
+        storage2.close();
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        File directory = Files.createTempDirectory("fallback").toFile();
+        FileFallbackStorage storage1 = new FileFallbackStorage(directory);
+        FileFallbackStorage storage2 = new FileFallbackStorage(directory);
+        FileFallbackStorage.LogFile logFile = storage1.getLogFile();
+        assertSame(logFile, storage2.getLogFile());
+        storage1.write(ExpirableEntry.of("a", 1));
+
+        // The log file is still referenced by the other storage
+        storage1.close();
+        storage1.close();
+        assertFalse(logFile.isClosed());
+        assertEquals(1, storage2.load("a"));
+
+        storage2.close();
+        assertTrue(logFile.isClosed());
+        // The compaction of the closed log file is a no-op
+        logFile.compactIfRequired();
+
+        // The log file is reopened by the new storage
+        FileFallbackStorage storage = new FileFallbackStorage(directory);
+        assertNotSame(logFile, storage.getLogFile());
+        assertEquals(1, storage.load("a"));
+        storage.close();
+    }
+
+    @Test
+    public void testCompact() throws IOException {
+        File directory = Files.createTempDirectory("fallback").toFile();
+        FileFallbackStorage storage = new FileFallbackStorage(directory);
+        byte[] value = new byte[64 * 1024];
+        for (int i = 0; i < 32; i++) {
+            storage.write(ExpirableEntry.of("a", value));
+        }
+        storage.write(ExpirableEntry.of("b", 1));
+
+        FileFallbackStorage.LogFile logFile = storage.getLogFile();
+        File oldFile = logFile.getFile();
+        logFile.compactIfRequired();
+
+        assertNotEquals(oldFile, logFile.getFile());
+        assertFalse(oldFile.exists());
+        assertTrue(logFile.getFile().length() < 2 * value.length);
+        assertArrayEquals(value, (byte[]) storage.load("a"));
+        assertEquals(1, storage.load("b"));
+
+        // The records are appended into the new log file
+        storage.write(ExpirableEntry.of("c", 3));
+        assertEquals(3, storage.load("c"));
+        // No record is truncated by the recovery
+        long length = logFile.getFile().length();
+        FileFallbackStorage.LogFile recoveredLogFile = new FileFallbackStorage.LogFile(directory);
+        assertEquals(length, recoveredLogFile.getFile().length());
+        recoveredLogFile.close();
+        storage.close();
+    }
+
     @After
     public void deleteAll() {
         instance.deleteAll(asList("a", "b", "c"));
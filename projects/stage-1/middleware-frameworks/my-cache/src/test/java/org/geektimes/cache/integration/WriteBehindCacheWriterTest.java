@@ -0,0 +1,346 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache.integration;
+
+import org.geektimes.cache.ExpirableEntry;
+import org.geektimes.cache.configuration.PropertiesCacheConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.cache.Cache;
+import javax.cache.integration.CacheLoaderException;
+import javax.cache.integration.CacheWriterException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.geektimes.cache.configuration.CacheConfiguration.*;
+import static org.junit.Assert.*;
+
+/**
+ * {@link WriteBehindCacheWriter} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+public class WriteBehindCacheWriterTest {
+
+    private ScheduledExecutorService executor;
+
+    private PropertiesCacheConfiguration configuration;
+
+    @Before
+    public void init() {
+        executor = newSingleThreadScheduledExecutor();
+        Properties properties = new Properties();
+        properties.setProperty(WRITE_BEHIND_BATCH_SIZE_PROPERTY_NAME, "10");
+        properties.setProperty(WRITE_BEHIND_FLUSH_INTERVAL_PROPERTY_NAME, "60000");
+        properties.setProperty(WRITE_BEHIND_MAX_RETRIES_PROPERTY_NAME, "1");
+        properties.setProperty(WRITE_BEHIND_RETRY_BACKOFF_PROPERTY_NAME, "1");
+        configuration = new PropertiesCacheConfiguration(properties);
+    }
+
+    @After
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testCoalesceAndFlush() {
+        InMemoryFallbackStorage storage = new InMemoryFallbackStorage(false);
+        WriteBehindCacheWriter<Object, Object> writer = new WriteBehindCacheWriter<>("test", storage,
+                new InMemoryFallbackStorage(false), executor, configuration);
+
+        writer.write(ExpirableEntry.of("a", 1));
+        writer.write(ExpirableEntry.of("a", 2));
+        writer.write(ExpirableEntry.of("b", 1));
+        writer.delete("b");
+
+        // nothing is written before flushing
+        assertTrue(storage.storage.isEmpty());
+        assertEquals(2, writer.getPendingSize());
+
+        writer.flush();
+
+        assertEquals(0, writer.getPendingSize());
+        assertEquals(2, storage.storage.get("a"));
+        assertFalse(storage.storage.containsKey("b"));
+        // one writeAll and one deleteAll
+        assertEquals(1, storage.writeAllCount.get());
+        assertEquals(1, storage.deleteAllCount.get());
+
+        writer.close();
+    }
+
+    @Test
+    public void testSpillOnClose() throws Exception {
+        InMemoryFallbackStorage storage = new InMemoryFallbackStorage(false);
+        InMemoryFallbackStorage fallbackStorage = new InMemoryFallbackStorage(false);
+        WriteBehindCacheWriter<Object, Object> writer = new WriteBehindCacheWriter<>("test", storage,
+                fallbackStorage, executor, configuration);
+
+        writer.write(ExpirableEntry.of("a", 1));
+        writer.close();
+
+        // The pending entries are not written into the delegate
+        assertEquals(0, writer.getPendingSize());
+        assertEquals(0, storage.writeAllCount.get());
+        assertEquals(1, writer.getSpilledSize());
+
+        assertThrows(CacheWriterException.class, () -> writer.write(ExpirableEntry.of("c", 1)));
+
+        // The spilled entries are replayed by the next writer
+        WriteBehindCacheWriter<Object, Object> nextWriter = new WriteBehindCacheWriter<>("test", storage,
+                fallbackStorage, executor, configuration);
+        await(() -> storage.storage.containsKey("a"));
+        assertEquals(1, storage.storage.get("a"));
+        assertEquals(0, nextWriter.getSpilledSize());
+
+        nextWriter.close();
+    }
+
+    @Test
+    public void testSpillDeletes() throws Exception {
+        InMemoryFallbackStorage storage = new InMemoryFallbackStorage(false);
+        InMemoryFallbackStorage fallbackStorage = new InMemoryFallbackStorage(false);
+        storage.storage.put("a", 1);
+        fallbackStorage.storage.put("a", 1);
+        WriteBehindCacheWriter<Object, Object> writer = new WriteBehindCacheWriter<>("test", storage,
+                fallbackStorage, executor, configuration);
+
+        writer.delete("a");
+        writer.close();
+
+        // The deleted key is recorded as the tombstone rather than deleted from the fallback storage
+        assertEquals(1, writer.getSpilledSize());
+        assertEquals(1, fallbackStorage.storage.get("a"));
+        assertEquals(1, storage.storage.get("a"));
+
+        WriteBehindCacheWriter<Object, Object> nextWriter = new WriteBehindCacheWriter<>("test", storage,
+                fallbackStorage, executor, configuration);
+        await(() -> !storage.storage.containsKey("a"));
+        assertFalse(storage.storage.containsKey("a"));
+        assertEquals(0, nextWriter.getSpilledSize());
+
+        nextWriter.close();
+    }
+
+    @Test
+    public void testReplayInOrder() throws Exception {
+        InMemoryFallbackStorage storage = new InMemoryFallbackStorage(false);
+        WriteBehindCacheWriter<Object, Object> writer = new WriteBehindCacheWriter<>("test", storage,
+                new InMemoryFallbackStorage(false), executor, configuration);
+
+        // 1 attempt + 1 retry
+        storage.failures.set(2);
+        writer.write(ExpirableEntry.of("a", 1));
+        writer.write(ExpirableEntry.of("b", 1));
+        writer.flush();
+        await(() -> writer.getSpilledSize() == 2);
+        assertEquals(2, writer.getSpilledSize());
+
+        // The spilled operations are replayed before the later ones of the same keys
+        writer.write(ExpirableEntry.of("a", 2));
+        writer.delete("b");
+        writer.flush();
+
+        assertEquals(0, writer.getSpilledSize());
+        assertEquals(0, writer.getPendingSize());
+        assertEquals(2, storage.storage.get("a"));
+        assertFalse(storage.storage.containsKey("b"));
+
+        writer.close();
+    }
+
+    @Test
+    public void testSpillIntoFallbackStorage() throws Exception {
+        InMemoryFallbackStorage storage = new InMemoryFallbackStorage(true);
+        InMemoryFallbackStorage fallbackStorage = new InMemoryFallbackStorage(false);
+        WriteBehindCacheWriter<Object, Object> writer = new WriteBehindCacheWriter<>("test", storage,
+                fallbackStorage, executor, configuration);
+
+        writer.write(ExpirableEntry.of("a", 1));
+        // The failed batch is retried by the executor rather than the flushing thread
+        writer.flush();
+        await(() -> writer.getSpilledSize() == 1);
+
+        // 1 attempt + 1 retry
+        assertEquals(2, storage.writeAllCount.get());
+        assertTrue(storage.storage.isEmpty());
+        assertEquals(1, writer.getSpilledSize());
+
+        writer.close();
+    }
+
+    @Test
+    public void testRetryInOrder() throws Exception {
+        InMemoryFallbackStorage storage = new InMemoryFallbackStorage(false);
+        WriteBehindCacheWriter<Object, Object> writer = new WriteBehindCacheWriter<>("test", storage,
+                new InMemoryFallbackStorage(false), executor, configuration);
+
+        storage.failures.set(1);
+        writer.write(ExpirableEntry.of("a", 1));
+        writer.flush();
+        // The later value is not flushed before the retried one
+        writer.write(ExpirableEntry.of("a", 2));
+        writer.flush();
+        await(() -> Integer.valueOf(2).equals(storage.storage.get("a")));
+
+        assertEquals(0, writer.getPendingSize());
+        assertEquals(2, storage.storage.get("a"));
+
+        writer.close();
+    }
+
+    @Test
+    public void testSpillOnMaxQueueSize() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(WRITE_BEHIND_BATCH_SIZE_PROPERTY_NAME, "1");
+        properties.setProperty(WRITE_BEHIND_MAX_QUEUE_SIZE_PROPERTY_NAME, "2");
+        properties.setProperty(WRITE_BEHIND_FLUSH_INTERVAL_PROPERTY_NAME, "60000");
+        properties.setProperty(WRITE_BEHIND_MAX_RETRIES_PROPERTY_NAME, "1");
+        properties.setProperty(WRITE_BEHIND_RETRY_BACKOFF_PROPERTY_NAME, "60000");
+        InMemoryFallbackStorage storage = new InMemoryFallbackStorage(true);
+        InMemoryFallbackStorage fallbackStorage = new InMemoryFallbackStorage(false);
+        WriteBehindCacheWriter<Object, Object> writer = new WriteBehindCacheWriter<>("test", storage,
+                fallbackStorage, executor, new PropertiesCacheConfiguration(properties));
+
+        writer.write(ExpirableEntry.of("a", 1));
+        writer.flush();
+        // The writing threads are not blocked by the failing delegate
+        writer.write(ExpirableEntry.of("b", 1));
+        writer.write(ExpirableEntry.of("c", 1));
+        assertEquals(2, writer.getPendingSize());
+        writer.write(ExpirableEntry.of("d", 1));
+
+        // The retrying batch is spilled before the pending entries
+        assertEquals(0, writer.getPendingSize());
+        assertEquals(1, storage.writeAllCount.get());
+        assertEquals(4, writer.getSpilledSize());
+
+        writer.close();
+    }
+
+    @Test
+    public void testMaxQueueSizeWithSlowDelegate() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(WRITE_BEHIND_BATCH_SIZE_PROPERTY_NAME, "1");
+        properties.setProperty(WRITE_BEHIND_MAX_QUEUE_SIZE_PROPERTY_NAME, "2");
+        properties.setProperty(WRITE_BEHIND_FLUSH_INTERVAL_PROPERTY_NAME, "60000");
+        InMemoryFallbackStorage storage = new InMemoryFallbackStorage(false);
+        storage.latch = new CountDownLatch(1);
+        WriteBehindCacheWriter<Object, Object> writer = new WriteBehindCacheWriter<>("test", storage,
+                new InMemoryFallbackStorage(false), executor, new PropertiesCacheConfiguration(properties));
+
+        writer.write(ExpirableEntry.of("a", 1));
+        await(() -> writer.getPendingSize() == 0);
+        // The delegate is slow but not failing, the queue is still bounded
+        for (int i = 0; i < 10; i++) {
+            writer.write(ExpirableEntry.of("b", i));
+            writer.write(ExpirableEntry.of("c", i));
+            writer.write(ExpirableEntry.of("d", i));
+            assertTrue(writer.getPendingSize() <= 2);
+        }
+        storage.latch.countDown();
+
+        // The spilled entries are replayed in order once the delegate is done
+        writer.flush();
+        await(() -> writer.getSpilledSize() == 0 && writer.getPendingSize() == 0);
+        assertEquals(1, storage.storage.get("a"));
+        assertEquals(9, storage.storage.get("b"));
+        assertEquals(9, storage.storage.get("c"));
+        assertEquals(9, storage.storage.get("d"));
+
+        writer.close();
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    static class InMemoryFallbackStorage extends AbstractFallbackStorage<Object, Object> {
+
+        private final Map<Object, Object> storage = new ConcurrentHashMap<>();
+
+        private final AtomicInteger writeAllCount = new AtomicInteger();
+
+        private final AtomicInteger deleteAllCount = new AtomicInteger();
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private final boolean failed;
+
+        private volatile CountDownLatch latch;
+
+        InMemoryFallbackStorage(boolean failed) {
+            super(0);
+            this.failed = failed;
+        }
+
+        @Override
+        public Object load(Object key) throws CacheLoaderException {
+            return storage.get(key);
+        }
+
+        @Override
+        public void write(Cache.Entry<?, ?> entry) throws CacheWriterException {
+            if (failed || failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new CacheWriterException("Testing...");
+            }
+            storage.put(entry.getKey(), entry.getValue());
+        }
+
+        @Override
+        public void writeAll(Collection<Cache.Entry<?, ?>> entries) throws CacheWriterException {
+            writeAllCount.incrementAndGet();
+            CountDownLatch latch = this.latch;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    throw new CacheWriterException(e);
+                }
+            }
+            super.writeAll(entries);
+        }
+
+        @Override
+        public void delete(Object key) throws CacheWriterException {
+            storage.remove(key);
+        }
+
+        @Override
+        public void deleteAll(Collection<?> keys) throws CacheWriterException {
+            deleteAllCount.incrementAndGet();
+            super.deleteAll(keys);
+        }
+
+        @Override
+        public void destroy() {
+            storage.clear();
+        }
+    }
+}
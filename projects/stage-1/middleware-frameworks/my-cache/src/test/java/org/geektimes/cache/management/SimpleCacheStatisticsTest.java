@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.cache.management;
+
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link SimpleCacheStatistics} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class SimpleCacheStatisticsTest {
+
+    @Test
+    public void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertRelativeError(500_000, histogram.getPercentile(50));
+        assertRelativeError(990_000, histogram.getPercentile(99));
+        assertRelativeError(999_000, histogram.getPercentile(99.9));
+
+        for (long value = 0; value < 100_000; value += 7) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(value <= LatencyHistogram.upperBoundOf(index));
+            assertTrue(index == 0 || value > LatencyHistogram.upperBoundOf(index - 1));
+        }
+
+        histogram.reset();
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        SimpleCacheStatistics statistics = new SimpleCacheStatistics();
+        statistics.cacheGets().cacheGets().cacheGets().cacheGets().cacheHits();
+        statistics.cacheGetsTime(2000).cacheGetsTime(4000);
+
+        assertEquals(4, statistics.getCacheGets());
+        assertEquals(1, statistics.getCacheHits());
+        assertEquals(3, statistics.getCacheMisses());
+        assertEquals(25.0f, statistics.getCacheHitPercentage(), 0.0f);
+        assertEquals(75.0f, statistics.getCacheMissPercentage(), 0.0f);
+        // microseconds
+        assertEquals(3.0f, statistics.getAverageGetTime(), 0.0f);
+        assertTrue(statistics.getGetTime99thPercentile() >= 4.0f);
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("javax.cache:type=CacheStatistics,name=test");
+        mBeanServer.registerMBean(ManagementUtils.adaptCacheStatisticsMXBean(statistics), objectName);
+        try {
+            assertEquals(4L, mBeanServer.getAttribute(objectName, "CacheGets"));
+            assertEquals(statistics.getGetTime50thPercentile(),
+                    mBeanServer.getAttribute(objectName, "GetTime50thPercentile"));
+        } finally {
+            mBeanServer.unregisterMBean(objectName);
+        }
+    }
+
+    private void assertRelativeError(long expected, long actual) {
+        assertTrue(actual + " is not close to " + expected, Math.abs(actual - expected) <= expected / 8);
+    }
+}
@@ -16,6 +16,8 @@
  */
 package org.geektimes.commons.convert;
 
+import static org.geektimes.commons.reflect.util.TypeUtils.findActualTypeArgumentClass;
+
 /**
  * A class to covert {@link String} to the target-typed value
  *
@@ -24,4 +26,14 @@ package org.geektimes.commons.convert;
  */
 @FunctionalInterface
 public interface StringConverter<T> extends Converter<String, T> {
+
+    @Override
+    default Class<String> getSourceType() {
+        return String.class;
+    }
+
+    @Override
+    default Class<T> getTargetType() {
+        return findActualTypeArgumentClass(getClass(), StringConverter.class, 0);
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.benchmark;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.eclipse.microprofile.config.spi.Converter;
+import org.geektimes.configuration.microprofile.config.DefaultConfigBuilder;
+import org.geektimes.configuration.microprofile.config.source.ConfigSources;
+import org.geektimes.configuration.microprofile.config.util.ServiceDescriptorIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of the startup of {@link Config}, the {@link Config} is built by {@link DefaultConfigBuilder} with
+ * the default and discovered sources and converters, then a property is looked up to build the index :
+ * <ul>
+ *     <li>classLoader = "shared" : the {@link ClassLoader} is reused, like the filters and servlets of the same
+ *     web application, thus the descriptors and the default sources are cached</li>
+ *     <li>classLoader = "new" : a new {@link ClassLoader} is used by every invocation, like the cold start</li>
+ * </ul>
+ * The discovery by {@link ServiceLoader} is the baseline of {@link ServiceDescriptorIndex}.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConfigStartupBenchmark {
+
+    private static final String PROPERTY_NAME = "java.version";
+
+    @Param({"shared", "new"})
+    public String classLoader;
+
+    private ClassLoader sharedClassLoader;
+
+    private ClassLoader currentClassLoader;
+
+    @Setup(Level.Trial)
+    public void init() {
+        sharedClassLoader = newClassLoader();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareClassLoader() {
+        currentClassLoader = "new".equals(classLoader) ? newClassLoader() : sharedClassLoader;
+    }
+
+    @TearDown(Level.Invocation)
+    public void releaseClassLoader() {
+        if (currentClassLoader != sharedClassLoader) {
+            ConfigSources.release(currentClassLoader);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void destroy() {
+        ConfigSources.release(sharedClassLoader);
+    }
+
+    @Benchmark
+    public String buildConfig() {
+        Config config = new DefaultConfigBuilder(currentClassLoader).build();
+        return config.getValue(PROPERTY_NAME, String.class);
+    }
+
+    @Benchmark
+    public void serviceLoaderDiscovery(Blackhole blackhole) {
+        ServiceLoader.load(ConfigSource.class, currentClassLoader).forEach(blackhole::consume);
+        ServiceLoader.load(Converter.class, currentClassLoader).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void indexedDiscovery(Blackhole blackhole) {
+        ServiceDescriptorIndex index = ServiceDescriptorIndex.get(currentClassLoader);
+        blackhole.consume(index.newProviders(ConfigSource.class));
+        blackhole.consume(index.getSharedProviders(Converter.class));
+    }
+
+    /**
+     * The classes are loaded by the parent, the resources (the descriptors and the config files) are scanned again
+     */
+    private ClassLoader newClassLoader() {
+        return new URLClassLoader(new URL[0], getClass().getClassLoader());
+    }
+}
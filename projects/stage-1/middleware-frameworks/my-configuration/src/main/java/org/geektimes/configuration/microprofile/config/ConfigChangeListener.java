@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config;
+
+import org.eclipse.microprofile.config.Config;
+
+import java.util.EventListener;
+import java.util.Set;
+
+/**
+ * The listener of the property changes of {@link ObservableConfig}
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface ConfigChangeListener extends EventListener {
+
+    /**
+     * Callback after the effective values of properties changed
+     *
+     * @param config               {@link Config}
+     * @param changedPropertyNames the names of changed properties
+     */
+    void onChange(Config config, Set<String> changedPropertyNames);
+}
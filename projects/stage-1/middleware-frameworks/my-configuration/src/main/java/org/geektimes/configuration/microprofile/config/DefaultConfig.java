@@ -1,23 +1,50 @@
 package org.geektimes.configuration.microprofile.config;
 
-
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigValue;
 import org.eclipse.microprofile.config.spi.ConfigSource;
 import org.eclipse.microprofile.config.spi.Converter;
 import org.geektimes.configuration.microprofile.config.converter.Converters;
-import org.geektimes.configuration.microprofile.config.source.ConfigSources;
+import org.geektimes.configuration.microprofile.config.source.*;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+import static java.lang.String.format;
+
+import static java.util.Collections.unmodifiableMap;
 
-import static java.util.stream.StreamSupport.stream;
+/**
+ * The default {@link Config} implementation, the properties of the stable sources are merged into an immutable index
+ * by the ordinals, thus the lookup is a single hash probe, the index is rebuilt when the sources are added or
+ * {@link ObservableConfigSource the observable source} changed. The unstable sources (e.g, the request-scoped ones)
+ * are looked up only if their ordinals are higher than the indexed one. The changes of the effective values are
+ * notified to {@link ConfigChangeListener the listeners}.
+ */
+class DefaultConfig implements ObservableConfig, ConfigSourceChangeListener {
 
-class DefaultConfig implements Config {
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * The placeholder of the absent {@link Converter} in the cache
+     */
+    private static final Converter<?> ABSENT_CONVERTER = value -> null;
 
     private final ConfigSources configSources;
 
     private final Converters converters;
 
+    private final ConcurrentMap<Class<?>, Converter<?>> cachedConverters = new ConcurrentHashMap<>();
+
+    private final Set<ObservableConfigSource> observedConfigSources = new HashSet<>();
+
+    private final List<ConfigChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+    private volatile PropertyIndex propertyIndex;
+
     DefaultConfig(ConfigSources configSources, Converters converters) {
         this.configSources = configSources;
         this.converters = converters;
@@ -37,25 +64,22 @@ class DefaultConfig implements Config {
 
     @Override
     public ConfigValue getConfigValue(String propertyName) {
-
-        String propertyValue = null;
-
-        ConfigSource configSource = null;
-
-        Iterator<ConfigSource> iterator = configSources.iterator();
-
-        while (iterator.hasNext()) {
-            configSource = iterator.next();
-            propertyValue = configSource.getValue(propertyName);
-            if (propertyValue != null) {
+        PropertyIndex propertyIndex = getPropertyIndex();
+        ConfigValue configValue = propertyIndex.configValues.get(propertyName);
+        // The unstable sources are sorted by ordinal as well
+        for (ConfigSource configSource : propertyIndex.unstableConfigSources) {
+            if (configValue != null && configSource.getOrdinal() < configValue.getSourceOrdinal()) {
                 break;
             }
+            String propertyValue = configSource.getValue(propertyName);
+            if (propertyValue != null) {
+                return newConfigValue(propertyName, propertyValue, configSource);
+            }
         }
+        return configValue;
+    }
 
-        if (propertyValue == null) { // Not found
-            return null;
-        }
-
+    private ConfigValue newConfigValue(String propertyName, String propertyValue, ConfigSource configSource) {
         return new DefaultConfigValue(propertyName, propertyValue, transformPropertyValue(propertyValue),
                 configSource.getName(),
                 configSource.getOrdinal());
@@ -79,9 +103,12 @@ class DefaultConfig implements Config {
 
     @Override
     public Iterable<String> getPropertyNames() {
-        return stream(configSources.spliterator(), false)
-                .map(ConfigSource::getPropertyNames)
-                .collect(LinkedHashSet::new, Set::addAll, Set::addAll);
+        PropertyIndex propertyIndex = getPropertyIndex();
+        Set<String> propertyNames = new LinkedHashSet<>(propertyIndex.configValues.keySet());
+        for (ConfigSource configSource : propertyIndex.unstableConfigSources) {
+            propertyNames.addAll(configSource.getPropertyNames());
+        }
+        return propertyNames;
     }
 
     @Override
@@ -96,12 +123,154 @@ class DefaultConfig implements Config {
     }
 
     protected <T> Converter<T> doGetConverter(Class<T> forType) {
-        List<Converter> converters = this.converters.getConverters(forType);
-        return converters.isEmpty() ? null : converters.get(0);
+        Converter<?> converter = cachedConverters.computeIfAbsent(forType, type -> {
+            List<Converter> converters = this.converters.getConverters(type);
+            return converters.isEmpty() ? ABSENT_CONVERTER : converters.get(0);
+        });
+        return converter == ABSENT_CONVERTER ? null : (Converter<T>) converter;
     }
 
     @Override
     public <T> T unwrap(Class<T> type) {
-        return null;
+        return type.isInstance(this) ? type.cast(this) : null;
+    }
+
+    @Override
+    public void addChangeListener(ConfigChangeListener listener) {
+        changeListeners.add(listener);
+        // Observe the sources eagerly
+        getPropertyIndex();
+    }
+
+    @Override
+    public void removeChangeListener(ConfigChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Whether the properties of {@link ConfigSource} could be indexed
+     *
+     * @param configSource {@link ConfigSource}
+     * @return <code>true</code> if the properties are changed with the notification only
+     */
+    protected boolean isStable(ConfigSource configSource) {
+        if (configSource instanceof MapBasedConfigSource) {
+            return ((MapBasedConfigSource) configSource).isStable();
+        }
+        return configSource instanceof ObservableConfigSource || configSource instanceof DefaultResourceConfigSources;
+    }
+
+    private PropertyIndex getPropertyIndex() {
+        PropertyIndex propertyIndex = this.propertyIndex;
+        if (propertyIndex == null || propertyIndex.version != configSources.getVersion()) {
+            propertyIndex = buildPropertyIndex();
+        }
+        return propertyIndex;
+    }
+
+    private synchronized PropertyIndex buildPropertyIndex() {
+        int version = configSources.getVersion();
+        PropertyIndex propertyIndex = this.propertyIndex;
+        if (propertyIndex != null && propertyIndex.version == version) {
+            return propertyIndex;
+        }
+        List<ConfigSource> stableConfigSources = new ArrayList<>();
+        List<ConfigSource> unstableConfigSources = new ArrayList<>();
+        Map<String, ConfigValue> configValues = new HashMap<>();
+        // sorted by ordinal
+        for (ConfigSource configSource : configSources) {
+            if (!isStable(configSource)) {
+                unstableConfigSources.add(configSource);
+                continue;
+            }
+            stableConfigSources.add(configSource);
+            if (configSource instanceof ObservableConfigSource &&
+                    observedConfigSources.add((ObservableConfigSource) configSource)) {
+                ((ObservableConfigSource) configSource).addChangeListener(this);
+            }
+            for (Map.Entry<String, String> property : configSource.getProperties().entrySet()) {
+                if (property.getValue() != null && !configValues.containsKey(property.getKey())) {
+                    configValues.put(property.getKey(),
+                            newConfigValue(property.getKey(), property.getValue(), configSource));
+                }
+            }
+        }
+        propertyIndex = new PropertyIndex(version, configValues, stableConfigSources, unstableConfigSources);
+        this.propertyIndex = propertyIndex;
+        return propertyIndex;
+    }
+
+    @Override
+    public void onChange(ConfigSource configSource, Set<String> changedPropertyNames) {
+        Set<String> changedValueNames = reindex(configSource, changedPropertyNames);
+        if (changedValueNames.isEmpty()) {
+            return;
+        }
+        changedValueNames = Collections.unmodifiableSet(changedValueNames);
+        for (ConfigChangeListener listener : changeListeners) {
+            try {
+                listener.onChange(this, changedValueNames);
+            } catch (Throwable e) {
+                logger.warning(format("The listener[%s] of Config failed to handle the change, caused by : %s",
+                        listener, e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Re-index the changed properties only
+     *
+     * @return the names of the properties whose effective values changed
+     */
+    private synchronized Set<String> reindex(ConfigSource configSource, Set<String> changedPropertyNames) {
+        Set<String> changedValueNames = new LinkedHashSet<>();
+        PropertyIndex propertyIndex = this.propertyIndex;
+        if (propertyIndex == null || !propertyIndex.stableConfigSources.contains(configSource)) {
+            return changedValueNames;
+        }
+        Map<String, ConfigValue> configValues = new HashMap<>(propertyIndex.configValues);
+        for (String propertyName : changedPropertyNames) {
+            ConfigValue oldConfigValue = configValues.remove(propertyName);
+            for (ConfigSource stableConfigSource : propertyIndex.stableConfigSources) {
+                String propertyValue = stableConfigSource.getValue(propertyName);
+                if (propertyValue != null) {
+                    configValues.put(propertyName, newConfigValue(propertyName, propertyValue, stableConfigSource));
+                    break;
+                }
+            }
+            ConfigValue newConfigValue = configValues.get(propertyName);
+            if (!Objects.equals(oldConfigValue == null ? null : oldConfigValue.getValue(),
+                    newConfigValue == null ? null : newConfigValue.getValue())) {
+                changedValueNames.add(propertyName);
+            }
+        }
+        this.propertyIndex = new PropertyIndex(propertyIndex.version, configValues,
+                propertyIndex.stableConfigSources, propertyIndex.unstableConfigSources);
+        return changedValueNames;
+    }
+
+    /**
+     * The immutable index of the properties
+     */
+    private static class PropertyIndex {
+
+        /**
+         * The version of {@link ConfigSources}
+         */
+        private final int version;
+
+        private final Map<String, ConfigValue> configValues;
+
+        private final List<ConfigSource> stableConfigSources;
+
+        private final List<ConfigSource> unstableConfigSources;
+
+        private PropertyIndex(int version, Map<String, ConfigValue> configValues,
+                              List<ConfigSource> stableConfigSources, List<ConfigSource> unstableConfigSources) {
+            this.version = version;
+            this.configValues = unmodifiableMap(configValues);
+            this.stableConfigSources = stableConfigSources;
+            this.unstableConfigSources = unstableConfigSources;
+        }
     }
 }
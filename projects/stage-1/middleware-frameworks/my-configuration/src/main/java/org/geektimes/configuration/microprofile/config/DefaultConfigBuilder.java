@@ -7,6 +7,9 @@ import org.eclipse.microprofile.config.spi.Converter;
 import org.geektimes.configuration.microprofile.config.converter.Converters;
 import org.geektimes.configuration.microprofile.config.source.ConfigSources;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * @see {@link ConfigSources}
  */
@@ -64,12 +67,30 @@ public class DefaultConfigBuilder implements ConfigBuilder {
         return this;
     }
 
+    /**
+     * The converters are discovered in parallel with the sources, the descriptors of both are indexed per
+     * {@link ClassLoader} by {@link org.geektimes.configuration.microprofile.config.util.ServiceDescriptorIndex}, which
+     * instantiates the providers with that {@link ClassLoader} as the context one in the worker threads.
+     */
     @Override
     public Config build() {
         Config config = new DefaultConfig(configSources, converters);
-        configSources.addDefaultSources();
-        configSources.addDiscoveredSources();
-        converters.addDiscoveredConverters();
+        CompletableFuture<Void> discoveringConverters = CompletableFuture.runAsync(converters::addDiscoveredConverters);
+        try {
+            configSources.addDefaultSources();
+            configSources.addDiscoveredSources();
+        } finally {
+            join(discoveringConverters);
+        }
         return config;
     }
+
+    private void join(CompletableFuture<Void> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+        }
+    }
 }
@@ -3,6 +3,7 @@ package org.geektimes.configuration.microprofile.config;
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.spi.ConfigBuilder;
 import org.eclipse.microprofile.config.spi.ConfigProviderResolver;
+import org.geektimes.configuration.microprofile.config.source.ConfigSources;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -65,6 +66,9 @@ public class DefaultConfigProviderResolver extends ConfigProviderResolver {
                 targetKeys.add(entry.getKey());
             }
         }
-        targetKeys.forEach(configsRepository::remove);
+        targetKeys.forEach(classLoader -> {
+            configsRepository.remove(classLoader);
+            ConfigSources.release(classLoader);
+        });
     }
 }
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config;
+
+import org.eclipse.microprofile.config.Config;
+import org.geektimes.configuration.microprofile.config.source.ObservableConfigSource;
+
+/**
+ * The {@link Config} notifying the changes of the effective property values which are caused by
+ * {@link ObservableConfigSource the observable sources}, thus the components could retune themselves without polling
+ * the {@link Config}, it's unwrapped by {@link Config#unwrap(Class)} :
+ * <pre>
+ * config.unwrap(ObservableConfig.class).addChangeListener((c, names) -> ...);
+ * </pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public interface ObservableConfig extends Config {
+
+    void addChangeListener(ConfigChangeListener listener);
+
+    void removeChangeListener(ConfigChangeListener listener);
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config.binding;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.geektimes.configuration.microprofile.config.ConfigChangeListener;
+import org.geektimes.configuration.microprofile.config.ObservableConfig;
+
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import static java.lang.String.format;
+
+/**
+ * The binding of the {@link org.eclipse.microprofile.config.inject.ConfigProperties @ConfigProperties}-style type,
+ * the properties are converted into an immutable instance once, and the instance is replaced as a whole when the
+ * bound properties of {@link ObservableConfig} changed, thus the reads are the plain field reads without the lookup
+ * of sources or converters :
+ * <pre>
+ * &#64;ConfigProperties(prefix = "session")
+ * public interface SessionConfig {
+ *
+ *     &#64;ConfigProperty(defaultValue = "30")
+ *     long maxInactiveInterval();
+ * }
+ *
+ * ConfigBinding&lt;SessionConfig&gt; binding = ConfigBinding.bind(config, SessionConfig.class);
+ * long maxInactiveInterval = binding.get().maxInactiveInterval();
+ * </pre>
+ * The request-scoped properties are not bound, since they are resolved live.
+ *
+ * @param <T> the bound type
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ConfigPropertiesBinder
+ * @since 1.0.0
+ */
+public class ConfigBinding<T> implements Supplier<T>, AutoCloseable {
+
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    private final Config config;
+
+    private final ConfigPropertiesBinder<T> binder;
+
+    private final ConfigChangeListener changeListener = this::onChange;
+
+    private volatile T instance;
+
+    private ConfigBinding(Config config, Class<T> type) {
+        this.config = config;
+        this.binder = ConfigPropertiesBinder.of(type);
+        // Listen before binding, thus no change is missed
+        if (config instanceof ObservableConfig) {
+            ((ObservableConfig) config).addChangeListener(changeListener);
+        }
+        try {
+            rebind();
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Bind the properties of {@link Config} into the instance of the given type
+     *
+     * @param config {@link Config}
+     * @param type   the interface or the class with a no-argument constructor
+     * @param <T>    the bound type
+     * @return non-null
+     * @throws IllegalArgumentException         if the type can't be bound
+     * @throws java.util.NoSuchElementException if a required property is absent
+     */
+    public static <T> ConfigBinding<T> bind(Config config, Class<T> type) {
+        return new ConfigBinding<>(config, type);
+    }
+
+    /**
+     * Bind the properties of {@link Config} for the {@link ClassLoader} of the given type
+     *
+     * @see #bind(Config, Class)
+     */
+    public static <T> ConfigBinding<T> bind(Class<T> type) {
+        return bind(ConfigProvider.getConfig(type.getClassLoader()), type);
+    }
+
+    /**
+     * Get the current bound instance, which is never modified once published
+     *
+     * @return non-null
+     */
+    @Override
+    public T get() {
+        return instance;
+    }
+
+    public Class<T> getType() {
+        return binder.getType();
+    }
+
+    /**
+     * Stop rebinding, the current instance is kept
+     */
+    @Override
+    public void close() {
+        if (config instanceof ObservableConfig) {
+            ((ObservableConfig) config).removeChangeListener(changeListener);
+        }
+    }
+
+    private void onChange(Config config, Set<String> changedPropertyNames) {
+        if (!binder.isBound(changedPropertyNames)) {
+            return;
+        }
+        try {
+            rebind();
+        } catch (RuntimeException e) {
+            logger.warning(format("The properties of %s can't be rebound, the previous instance is kept, caused by : %s",
+                    getType().getName(), e.getMessage()));
+        }
+    }
+
+    /**
+     * The concurrent changes are serialized, thus the latest state of {@link Config} is always published at last
+     */
+    private synchronized void rebind() {
+        this.instance = binder.bind(config);
+    }
+}
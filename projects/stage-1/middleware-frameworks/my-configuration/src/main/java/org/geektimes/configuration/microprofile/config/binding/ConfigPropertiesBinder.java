@@ -0,0 +1,310 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config.binding;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigValue;
+import org.eclipse.microprofile.config.inject.ConfigProperties;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.config.spi.Converter;
+
+import java.beans.Introspector;
+import java.lang.reflect.*;
+import java.util.*;
+
+import static java.lang.String.format;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableSet;
+import static org.eclipse.microprofile.config.inject.ConfigProperties.UNCONFIGURED_PREFIX;
+import static org.eclipse.microprofile.config.inject.ConfigProperty.UNCONFIGURED_VALUE;
+import static org.geektimes.commons.reflect.util.ClassUtils.resolveWrapperType;
+
+/**
+ * The binder of the {@link ConfigProperties @ConfigProperties}-style type, the metadata (the property names, the
+ * converted types and the accessors) is resolved once per type :
+ * <ul>
+ *     <li>The interface : the abstract methods without parameters are the properties, the instance is a
+ *     {@link Proxy} returning the values by the indexes of methods</li>
+ *     <li>The class : the non-static and non-transient fields are the properties, the instance is created by the
+ *     no-argument constructor, and then the fields are assigned (the final fields must not be initialized by the
+ *     constant expressions, which are inlined by the compiler)</li>
+ * </ul>
+ * The property name is the prefix of {@link ConfigProperties} and {@link ConfigProperty#name()} or the name of
+ * field (or the property name of method), {@link Optional} is supported for the optional properties, otherwise
+ * the absent property without {@link ConfigProperty#defaultValue() the default value} fails the binding.
+ *
+ * @param <T> the bound type
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ConfigBinding
+ * @since 1.0.0
+ */
+class ConfigPropertiesBinder<T> {
+
+    private static final ClassValue<ConfigPropertiesBinder<?>> binders = new ClassValue<ConfigPropertiesBinder<?>>() {
+        @Override
+        protected ConfigPropertiesBinder<?> computeValue(Class<?> type) {
+            return new ConfigPropertiesBinder<>(type);
+        }
+    };
+
+    private final Class<T> type;
+
+    private final List<BoundProperty> properties;
+
+    private final Set<String> propertyNames;
+
+    /**
+     * The indexes of the property methods for the interface
+     */
+    private final Map<Method, Integer> methodIndexes;
+
+    /**
+     * The no-argument constructor for the class
+     */
+    private final Constructor<T> constructor;
+
+    private ConfigPropertiesBinder(Class<T> type) {
+        this.type = type;
+        String prefix = resolvePrefix(type);
+        List<BoundProperty> properties = new ArrayList<>();
+        if (type.isInterface()) {
+            Map<Method, Integer> methodIndexes = new HashMap<>();
+            for (Method method : type.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                if (method.isDefault() || method.getParameterCount() > 0 || void.class.equals(method.getReturnType())) {
+                    throw new IllegalArgumentException(format("The method[%s] of %s can't be bound, only the abstract " +
+                            "methods without parameters are supported!", method.getName(), type.getName()));
+                }
+                methodIndexes.put(method, properties.size());
+                properties.add(new BoundProperty(prefix, resolvePropertyName(method),
+                        method.getAnnotation(ConfigProperty.class), method.getGenericReturnType(), method));
+            }
+            this.methodIndexes = unmodifiableMap(methodIndexes);
+            this.constructor = null;
+        } else {
+            if (Modifier.isAbstract(type.getModifiers())) {
+                throw new IllegalArgumentException(format("The abstract class[%s] can't be bound!", type.getName()));
+            }
+            for (Class<?> declaringClass = type; declaringClass != null && !Object.class.equals(declaringClass);
+                 declaringClass = declaringClass.getSuperclass()) {
+                for (Field field : declaringClass.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    properties.add(new BoundProperty(prefix, field.getName(),
+                            field.getAnnotation(ConfigProperty.class), field.getGenericType(), field));
+                }
+            }
+            this.methodIndexes = null;
+            this.constructor = resolveConstructor(type);
+        }
+        this.properties = unmodifiableList(properties);
+        Set<String> propertyNames = new HashSet<>();
+        properties.forEach(property -> propertyNames.add(property.name));
+        this.propertyNames = unmodifiableSet(propertyNames);
+    }
+
+    static <T> ConfigPropertiesBinder<T> of(Class<T> type) {
+        return (ConfigPropertiesBinder<T>) binders.get(type);
+    }
+
+    /**
+     * Bind the properties into a new instance
+     *
+     * @param config {@link Config}
+     * @return non-null
+     * @throws NoSuchElementException   if a required property is absent
+     * @throws IllegalArgumentException if a property can't be converted
+     */
+    T bind(Config config) {
+        Object[] values = new Object[properties.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = properties.get(i).resolveValue(config);
+        }
+        return type.isInterface() ? newProxy(values) : newInstance(values);
+    }
+
+    /**
+     * Whether any of the given properties is bound
+     *
+     * @param propertyNames the names of properties
+     * @return <code>true</code> if bound
+     */
+    boolean isBound(Set<String> propertyNames) {
+        for (String propertyName : propertyNames) {
+            if (this.propertyNames.contains(propertyName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    Class<T> getType() {
+        return type;
+    }
+
+    private T newProxy(Object[] values) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class[]{type},
+                new BoundInvocationHandler(values)));
+    }
+
+    private T newInstance(Object[] values) {
+        try {
+            T instance = constructor.newInstance();
+            for (int i = 0; i < values.length; i++) {
+                ((Field) properties.get(i).accessor).set(instance, values[i]);
+            }
+            return instance;
+        } catch (InvocationTargetException e) {
+            throw new IllegalArgumentException(format("The instance of %s can't be created!", type.getName()),
+                    e.getTargetException());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(format("The instance of %s can't be bound!", type.getName()), e);
+        }
+    }
+
+    private String toString(Object[] values) {
+        StringJoiner joiner = new StringJoiner(", ", type.getSimpleName() + "{", "}");
+        for (int i = 0; i < values.length; i++) {
+            joiner.add(properties.get(i).name + "=" + values[i]);
+        }
+        return joiner.toString();
+    }
+
+    private static String resolvePrefix(Class<?> type) {
+        ConfigProperties configProperties = type.getAnnotation(ConfigProperties.class);
+        if (configProperties == null || UNCONFIGURED_PREFIX.equals(configProperties.prefix())
+                || configProperties.prefix().isEmpty()) {
+            return "";
+        }
+        return configProperties.prefix() + ".";
+    }
+
+    private static String resolvePropertyName(Method method) {
+        String methodName = method.getName();
+        for (String accessorPrefix : new String[]{"get", "is"}) {
+            if (methodName.length() > accessorPrefix.length() && methodName.startsWith(accessorPrefix)
+                    && Character.isUpperCase(methodName.charAt(accessorPrefix.length()))) {
+                return Introspector.decapitalize(methodName.substring(accessorPrefix.length()));
+            }
+        }
+        return methodName;
+    }
+
+    private static <T> Constructor<T> resolveConstructor(Class<T> type) {
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(format("The class[%s] must have a no-argument constructor!",
+                    type.getName()), e);
+        }
+    }
+
+    private static class BoundProperty {
+
+        private final String name;
+
+        private final String defaultValue;
+
+        private final Class<?> convertedType;
+
+        private final boolean optional;
+
+        /**
+         * {@link Method} or {@link Field}
+         */
+        private final Member accessor;
+
+        private BoundProperty(String prefix, String defaultName, ConfigProperty configProperty, Type type,
+                              Member accessor) {
+            String name = configProperty == null || configProperty.name().isEmpty() ? defaultName : configProperty.name();
+            String defaultValue = configProperty == null ? UNCONFIGURED_VALUE : configProperty.defaultValue();
+            this.name = prefix + name;
+            this.defaultValue = UNCONFIGURED_VALUE.equals(defaultValue) ? null : defaultValue;
+            this.accessor = accessor;
+            if (type instanceof ParameterizedType && Optional.class.equals(((ParameterizedType) type).getRawType())) {
+                this.optional = true;
+                type = ((ParameterizedType) type).getActualTypeArguments()[0];
+            } else {
+                this.optional = false;
+            }
+            if (!(type instanceof Class)) {
+                throw new IllegalArgumentException(format("The type[%s] of the property[name : %s] is unsupported!",
+                        type.getTypeName(), this.name));
+            }
+            Class<?> convertedType = (Class<?>) type;
+            this.convertedType = convertedType.isPrimitive() ? resolveWrapperType(convertedType) : convertedType;
+        }
+
+        private Object resolveValue(Config config) {
+            ConfigValue configValue = config.getConfigValue(name);
+            String value = configValue == null ? null : configValue.getValue();
+            if (value == null) {
+                value = defaultValue;
+            }
+            Object convertedValue = value == null ? null : convert(config, value);
+            if (optional) {
+                return Optional.ofNullable(convertedValue);
+            }
+            if (convertedValue == null) {
+                throw new NoSuchElementException(format("The required property[name : %s] is absent!", name));
+            }
+            return convertedValue;
+        }
+
+        private Object convert(Config config, String value) {
+            Converter<?> converter = config.getConverter(convertedType).orElseThrow(() ->
+                    new IllegalArgumentException(format("No Converter is found for the type[%s] of the property[name : %s]!",
+                            convertedType.getName(), name)));
+            return converter.convert(value);
+        }
+    }
+
+    private class BoundInvocationHandler implements InvocationHandler {
+
+        private final Object[] values;
+
+        private BoundInvocationHandler(Object[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            Integer index = methodIndexes.get(method);
+            if (index != null) {
+                return values[index];
+            }
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return ConfigPropertiesBinder.this.toString(values);
+                default:
+                    throw new UnsupportedOperationException(method.toString());
+            }
+        }
+    }
+}
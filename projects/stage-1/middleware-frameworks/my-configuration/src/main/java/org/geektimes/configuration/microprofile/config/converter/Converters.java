@@ -1,13 +1,14 @@
 package org.geektimes.configuration.microprofile.config.converter;
 
 import org.eclipse.microprofile.config.spi.Converter;
+import org.geektimes.configuration.microprofile.config.util.ServiceDescriptorIndex;
 
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
 
-import static java.util.ServiceLoader.load;
+import static org.geektimes.configuration.microprofile.config.util.ServiceDescriptorIndex.get;
 
 public class Converters implements Iterable<Converter> {
 
@@ -19,6 +20,11 @@ public class Converters implements Iterable<Converter> {
 
     private boolean addedDiscoveredConverters = false;
 
+    /**
+     * The index sharing the discovered converters is kept as long as this is used
+     */
+    private ServiceDescriptorIndex serviceDescriptorIndex;
+
     public Converters() {
         this(Thread.currentThread().getContextClassLoader());
     }
@@ -31,7 +37,10 @@ public class Converters implements Iterable<Converter> {
         if (addedDiscoveredConverters) {
             return;
         }
-        addConverters(load(Converter.class, classLoader));
+        // The discovered converters are stateless, thus shared by the Configs of the same ClassLoader
+        ServiceDescriptorIndex serviceDescriptorIndex = get(classLoader);
+        this.serviceDescriptorIndex = serviceDescriptorIndex;
+        addConverters((Iterable) serviceDescriptorIndex.getSharedProviders(Converter.class));
         addedDiscoveredConverters = true;
     }
 
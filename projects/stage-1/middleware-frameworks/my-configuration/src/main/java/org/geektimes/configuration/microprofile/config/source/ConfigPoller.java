@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config.source;
+
+import java.util.Map;
+
+/**
+ * The poller of the remote properties, e.g, the configuration server
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see PollingConfigSource
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface ConfigPoller {
+
+    /**
+     * Poll all properties
+     *
+     * @return <code>null</code> if not modified since the last poll
+     * @throws Exception if failed to poll
+     */
+    Map<String, String> poll() throws Exception;
+}
@@ -1,17 +1,34 @@
 package org.geektimes.configuration.microprofile.config.source;
 
 import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.geektimes.configuration.microprofile.config.util.ServiceDescriptorIndex;
 
-import java.util.Arrays;
-import java.util.Iterator;
-import java.util.SortedSet;
+import java.lang.ref.WeakReference;
+import java.util.*;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static java.util.ServiceLoader.load;
+import static java.util.Collections.unmodifiableList;
 import static java.util.stream.Stream.of;
 
 public class ConfigSources implements Iterable<ConfigSource> {
 
+    /**
+     * The immutable default sources (the environment variables and the default config files) are shared by the
+     * instances for the same {@link ClassLoader}, the system properties are not shared since they are mutable.
+     * Both of the keys and the values are referenced weakly, since the sources reference the {@link ClassLoader},
+     * and they're kept by the instances using them.
+     */
+    private static final Map<ClassLoader, WeakReference<List<ConfigSource>>> sharedDefaultConfigSources =
+            new WeakHashMap<>();
+
+    /**
+     * The shared default sources and the {@link ServiceDescriptorIndex} are kept as long as this is used
+     */
+    private List<ConfigSource> defaultConfigSources;
+
+    private ServiceDescriptorIndex serviceDescriptorIndex;
+
     private boolean addedDefaultConfigSources;
 
     private boolean addedDiscoveredConfigSources;
@@ -20,6 +37,11 @@ public class ConfigSources implements Iterable<ConfigSource> {
 
     private ClassLoader classLoader;
 
+    /**
+     * The version is increased whenever the sources are added
+     */
+    private final AtomicInteger version = new AtomicInteger();
+
     public ConfigSources(ClassLoader classLoader) {
         this.classLoader = classLoader;
     }
@@ -32,10 +54,10 @@ public class ConfigSources implements Iterable<ConfigSource> {
         if (addedDefaultConfigSources) {
             return;
         }
-        addConfigSources(JavaSystemPropertiesConfigSource.class,
-                OperationSystemEnvironmentVariablesConfigSource.class,
-                DefaultResourceConfigSources.class
-        );
+        this.defaultConfigSources = getSharedDefaultConfigSources(classLoader);
+        List<ConfigSource> defaultConfigSources = new ArrayList<>(this.defaultConfigSources);
+        defaultConfigSources.add(new JavaSystemPropertiesConfigSource());
+        addConfigSources(defaultConfigSources);
         addedDefaultConfigSources = true;
     }
 
@@ -44,10 +66,43 @@ public class ConfigSources implements Iterable<ConfigSource> {
             return;
         }
 
-        addConfigSources(load(ConfigSource.class, classLoader));
+        this.serviceDescriptorIndex = ServiceDescriptorIndex.get(classLoader);
+        addConfigSources(serviceDescriptorIndex.newProviders(ConfigSource.class));
         addedDiscoveredConfigSources = true;
     }
 
+    /**
+     * Release the cached sources and descriptors of {@link ClassLoader}
+     *
+     * @param classLoader {@link ClassLoader}
+     */
+    public static void release(ClassLoader classLoader) {
+        if (classLoader != null) {
+            synchronized (sharedDefaultConfigSources) {
+                sharedDefaultConfigSources.remove(classLoader);
+            }
+        }
+        ServiceDescriptorIndex.remove(classLoader);
+    }
+
+    private static List<ConfigSource> getSharedDefaultConfigSources(ClassLoader classLoader) {
+        ClassLoader targetClassLoader = classLoader == null ? ClassLoader.getSystemClassLoader() : classLoader;
+        synchronized (sharedDefaultConfigSources) {
+            WeakReference<List<ConfigSource>> reference = sharedDefaultConfigSources.get(targetClassLoader);
+            List<ConfigSource> configSources = reference == null ? null : reference.get();
+            if (configSources == null) {
+                OperationSystemEnvironmentVariablesConfigSource environmentVariablesConfigSource =
+                        new OperationSystemEnvironmentVariablesConfigSource();
+                // Prepared before shared
+                environmentVariablesConfigSource.getProperties();
+                configSources = unmodifiableList(Arrays.asList(environmentVariablesConfigSource,
+                        new DefaultResourceConfigSources(targetClassLoader)));
+                sharedDefaultConfigSources.put(targetClassLoader, new WeakReference<>(configSources));
+            }
+            return configSources;
+        }
+    }
+
     public void addConfigSources(Class<? extends ConfigSource>... configSourceClasses) {
         addConfigSources(
                 of(configSourceClasses)
@@ -62,6 +117,7 @@ public class ConfigSources implements Iterable<ConfigSource> {
 
     public void addConfigSources(Iterable<ConfigSource> configSources) {
         configSources.forEach(this.configSources::add);
+        version.incrementAndGet();
     }
 
     private ConfigSource newInstance(Class<? extends ConfigSource> configSourceClass) {
@@ -87,6 +143,10 @@ public class ConfigSources implements Iterable<ConfigSource> {
         return addedDiscoveredConfigSources;
     }
 
+    public int getVersion() {
+        return version.get();
+    }
+
     public ClassLoader getClassLoader() {
         return classLoader;
     }
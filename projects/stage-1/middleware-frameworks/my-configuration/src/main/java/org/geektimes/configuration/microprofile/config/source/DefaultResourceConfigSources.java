@@ -21,29 +21,37 @@ public class DefaultResourceConfigSources implements ConfigSource {
 
     private final List<ConfigSource> configSources = new LinkedList<>();
 
+    private final ClassLoader classLoader;
+
     public DefaultResourceConfigSources() {
+        this(DefaultResourceConfigSources.class.getClassLoader());
+    }
+
+    public DefaultResourceConfigSources(ClassLoader classLoader) {
+        this.classLoader = classLoader == null ? ClassLoader.getSystemClassLoader() : classLoader;
         initializeConfigSources();
     }
 
     protected void initializeConfigSources() {
-        ClassLoader classLoader = getClass().getClassLoader();
         try {
 
             Enumeration<URL> resources = classLoader.getResources(configFileLocation);
+            if (!resources.hasMoreElements()) {
+                logger.info("The default config file can't be found in the classpath : " + configFileLocation);
+                return;
+            }
 
-            // the order or resources by ClassPath
+            // the order or resources by ClassPath, every file is read once
             while (resources.hasMoreElements()) {
-                URL resource = classLoader.getResource(configFileLocation);
-                if (resource == null) {
-                    logger.info("The default config file can't be found in the classpath : " + configFileLocation);
-                    return;
-                }
+                URL resource = resources.nextElement();
                 try (InputStream inputStream = resource.openStream()) {
                     Properties properties = new Properties();
                     properties.load(inputStream);
                     String ordinalProperty = properties.getProperty(CONFIG_ORDINAL_PROPERTY_NAME);
                     int ordinal = ordinalProperty == null ? getOrdinal() : Integer.decode(ordinalProperty);
                     MapConfigSource mapConfigSource = new MapConfigSource(resource.toString(), ordinal, properties);
+                    // Prepared eagerly, since the instance may be shared by the threads
+                    mapConfigSource.getProperties();
                     configSources.add(mapConfigSource);
                 }
             }
@@ -1,24 +1,127 @@
 package org.geektimes.configuration.microprofile.config.source;
 
-import java.util.Map;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+import static java.lang.String.format;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableSet;
 
 /**
  * 动态配置源
+ * <p>
+ * The properties are held by an immutable snapshot which is swapped atomically when {@link #update(Map) updated},
+ * then the {@link ConfigSourceChangeListener listeners} are notified with the changed property names only, thus
+ * the readers never see the partial updates and never poll the source.
  */
-public class DynamicConfigSource extends MapBasedConfigSource {
+public class DynamicConfigSource extends MapBasedConfigSource implements ObservableConfigSource {
+
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    private final List<ConfigSourceChangeListener> listeners = new CopyOnWriteArrayList<>();
 
-    private Map configData;
+    private volatile Map<String, String> snapshot = emptyMap();
 
     public DynamicConfigSource() {
-        super("DynamicConfigSource", 500);
+        this("DynamicConfigSource", 500);
+    }
+
+    protected DynamicConfigSource(String name, int ordinal) {
+        super(name, ordinal);
+    }
+
+    /**
+     * The properties are pushed by {@link #update(Map)}
+     */
+    @Override
+    protected final void prepareConfigData(Map configData) throws Throwable {
+    }
+
+    @Override
+    protected Map<String, String> getConfigData() {
+        return snapshot;
+    }
+
+    @Override
+    public Set<String> getPropertyNames() {
+        return snapshot.keySet();
     }
 
     @Override
-    protected void prepareConfigData(Map configData) throws Throwable {
-        this.configData = configData;
+    public String getValue(String propertyName) {
+        return snapshot.get(propertyName);
     }
 
+    /**
+     * 更新配置
+     *
+     * @param data the content of properties format
+     */
     public void onUpdate(String data) {
-        // 更新（异步）
+        Properties properties = new Properties();
+        try {
+            properties.load(new StringReader(data));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(format("The data of ConfigSource[name : %s] is invalid!", getName()), e);
+        }
+        update((Map) properties);
+    }
+
+    /**
+     * Replace all properties
+     *
+     * @param properties the new properties
+     * @return the names of the changed properties
+     */
+    public Set<String> update(Map<String, String> properties) {
+        Set<String> changedPropertyNames;
+        synchronized (this) {
+            Map<String, String> oldSnapshot = this.snapshot;
+            Map<String, String> newSnapshot = new HashMap<>(properties);
+            newSnapshot.values().removeIf(Objects::isNull);
+            changedPropertyNames = new LinkedHashSet<>();
+            for (Map.Entry<String, String> property : newSnapshot.entrySet()) {
+                if (!property.getValue().equals(oldSnapshot.get(property.getKey()))) {
+                    changedPropertyNames.add(property.getKey());
+                }
+            }
+            for (String propertyName : oldSnapshot.keySet()) {
+                if (!newSnapshot.containsKey(propertyName)) {
+                    changedPropertyNames.add(propertyName);
+                }
+            }
+            if (changedPropertyNames.isEmpty()) {
+                return changedPropertyNames;
+            }
+            this.snapshot = unmodifiableMap(newSnapshot);
+        }
+        changedPropertyNames = unmodifiableSet(changedPropertyNames);
+        fireChange(changedPropertyNames);
+        return changedPropertyNames;
+    }
+
+    private void fireChange(Set<String> changedPropertyNames) {
+        for (ConfigSourceChangeListener listener : listeners) {
+            try {
+                listener.onChange(this, changedPropertyNames);
+            } catch (Throwable e) {
+                logger.warning(format("The listener[%s] of ConfigSource[name : %s] failed to handle the change, " +
+                        "caused by : %s", listener, getName(), e.getMessage()));
+            }
+        }
+    }
+
+    @Override
+    public void addChangeListener(ConfigSourceChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(ConfigSourceChangeListener listener) {
+        listeners.remove(listener);
     }
 }
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config.source;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyMap;
+
+/**
+ * The {@link DynamicConfigSource} backed by the properties file, which is reloaded when the file is created, modified
+ * or deleted. The file is expected to be replaced atomically (e.g, by moving a temporary file), otherwise a partial
+ * content may be loaded until the next modification.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class FileConfigSource extends DynamicConfigSource implements AutoCloseable {
+
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    private final Path file;
+
+    private final AutoCloseable watchRegistration;
+
+    public FileConfigSource(Path file) {
+        this(file.toString(), 500, file);
+    }
+
+    public FileConfigSource(String name, int ordinal, Path file) {
+        super(name, ordinal);
+        this.file = file;
+        try {
+            // Watch before loading, thus the changes in between are not lost
+            this.watchRegistration = FileWatcher.INSTANCE.watch(file, this::reload);
+        } catch (IOException e) {
+            throw new IllegalStateException(format("The file[path : %s] can't be watched!", file), e);
+        }
+        reload();
+    }
+
+    /**
+     * Reload the file, the absent file is regarded as empty
+     */
+    public void reload() {
+        Map<String, String> properties;
+        try (Reader reader = Files.newBufferedReader(file, UTF_8)) {
+            Properties fileProperties = new Properties();
+            fileProperties.load(reader);
+            properties = (Map) fileProperties;
+        } catch (NoSuchFileException e) {
+            properties = emptyMap();
+        } catch (IOException e) {
+            logger.warning(format("The file[path : %s] can't be loaded, the current properties are kept, " +
+                    "caused by : %s", file, e.getMessage()));
+            return;
+        }
+        update(properties);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws Exception {
+        watchRegistration.close();
+    }
+}
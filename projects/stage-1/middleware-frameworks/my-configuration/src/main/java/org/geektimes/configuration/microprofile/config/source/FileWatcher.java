@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config.source;
+
+import org.geektimes.commons.concurrent.NamedThreadFactory;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * The shared watcher of the files based on {@link WatchService}, the parent directories of files are registered,
+ * and the changes are dispatched by one daemon thread.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+class FileWatcher {
+
+    static final FileWatcher INSTANCE = new FileWatcher();
+
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * The listeners of the absolute files
+     */
+    private final Map<Path, List<Runnable>> fileListeners = new ConcurrentHashMap<>();
+
+    private final Map<Path, WatchKey> directoryWatchKeys = new HashMap<>();
+
+    private WatchService watchService;
+
+    private FileWatcher() {
+    }
+
+    /**
+     * Watch the creation, modification and deletion of file
+     *
+     * @param file     the file
+     * @param listener the listener of the changes
+     * @return the registration which stops watching when closed
+     * @throws IOException if the directory of file can't be watched
+     */
+    synchronized AutoCloseable watch(Path file, Runnable listener) throws IOException {
+        Path absoluteFile = file.toAbsolutePath().normalize();
+        Path directory = absoluteFile.getParent();
+        if (watchService == null) {
+            watchService = directory.getFileSystem().newWatchService();
+            new NamedThreadFactory("ConfigFileWatcher", true).newThread(this::dispatch).start();
+        }
+        if (!directoryWatchKeys.containsKey(directory)) {
+            directoryWatchKeys.put(directory, directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE));
+        }
+        fileListeners.computeIfAbsent(absoluteFile, f -> new CopyOnWriteArrayList<>()).add(listener);
+        return () -> unwatch(absoluteFile, listener);
+    }
+
+    private synchronized void unwatch(Path absoluteFile, Runnable listener) {
+        List<Runnable> listeners = fileListeners.get(absoluteFile);
+        if (listeners == null || !listeners.remove(listener)) {
+            return;
+        }
+        if (listeners.isEmpty()) {
+            fileListeners.remove(absoluteFile);
+        }
+        Path directory = absoluteFile.getParent();
+        if (fileListeners.keySet().stream().noneMatch(file -> directory.equals(file.getParent()))) {
+            directoryWatchKeys.remove(directory).cancel();
+        }
+    }
+
+    private void dispatch() {
+        while (true) {
+            WatchKey watchKey;
+            try {
+                watchKey = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path directory = (Path) watchKey.watchable();
+            Set<Path> changedFiles = new LinkedHashSet<>();
+            for (WatchEvent<?> event : watchKey.pollEvents()) {
+                if (OVERFLOW.equals(event.kind())) {
+                    // Some events were lost, all files of the directory are regarded as changed
+                    fileListeners.keySet().stream()
+                            .filter(file -> directory.equals(file.getParent()))
+                            .forEach(changedFiles::add);
+                } else {
+                    changedFiles.add(directory.resolve((Path) event.context()));
+                }
+            }
+            watchKey.reset();
+            for (Path changedFile : changedFiles) {
+                for (Runnable listener : fileListeners.getOrDefault(changedFile, Collections.emptyList())) {
+                    try {
+                        listener.run();
+                    } catch (Throwable e) {
+                        logger.warning(format("The listener of file[path : %s] failed, caused by : %s",
+                                changedFile, e.getMessage()));
+                    }
+                }
+            }
+        }
+    }
+}
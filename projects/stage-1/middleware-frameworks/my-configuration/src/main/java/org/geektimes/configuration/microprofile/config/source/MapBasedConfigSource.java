@@ -63,6 +63,16 @@ public abstract class MapBasedConfigSource implements ConfigSource {
         return ordinal;
     }
 
+    /**
+     * Whether the properties are stable or not, the stable properties are indexed by the Config, thus the changes
+     * must be notified if the source is {@link ObservableConfigSource observable}.
+     *
+     * @return <code>true</code> as default
+     */
+    public boolean isStable() {
+        return true;
+    }
+
     @Override
     public Set<String> getPropertyNames() {
         return configData.keySet();
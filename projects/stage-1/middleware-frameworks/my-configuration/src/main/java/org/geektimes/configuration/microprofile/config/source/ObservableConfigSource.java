@@ -0,0 +1,33 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config.source;
+
+import org.eclipse.microprofile.config.spi.ConfigSource;
+
+/**
+ * The {@link ConfigSource} whose properties may be changed at runtime, the changes must be notified to
+ * the {@link ConfigSourceChangeListener listeners}.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public interface ObservableConfigSource extends ConfigSource {
+
+    void addChangeListener(ConfigSourceChangeListener listener);
+
+    void removeChangeListener(ConfigSourceChangeListener listener);
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config.source;
+
+import org.geektimes.commons.concurrent.NamedThreadFactory;
+
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static java.lang.String.format;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+
+/**
+ * The {@link DynamicConfigSource} polling the remote properties by {@link ConfigPoller} periodically, the listeners
+ * are only notified if the properties changed.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class PollingConfigSource extends DynamicConfigSource implements AutoCloseable {
+
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    private final ConfigPoller poller;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final boolean sharedScheduler;
+
+    private final ScheduledFuture<?> pollingFuture;
+
+    public PollingConfigSource(String name, int ordinal, ConfigPoller poller, long interval, TimeUnit unit) {
+        this(name, ordinal, poller, newSingleThreadScheduledExecutor(new NamedThreadFactory("ConfigPoller", true)),
+                false, interval, unit);
+    }
+
+    public PollingConfigSource(String name, int ordinal, ConfigPoller poller, ScheduledExecutorService scheduler,
+                               long interval, TimeUnit unit) {
+        this(name, ordinal, poller, scheduler, true, interval, unit);
+    }
+
+    private PollingConfigSource(String name, int ordinal, ConfigPoller poller, ScheduledExecutorService scheduler,
+                                boolean sharedScheduler, long interval, TimeUnit unit) {
+        super(name, ordinal);
+        this.poller = poller;
+        this.scheduler = scheduler;
+        this.sharedScheduler = sharedScheduler;
+        // The initial properties are ready after construction
+        poll();
+        this.pollingFuture = scheduler.scheduleWithFixedDelay(this::poll, interval, interval, unit);
+    }
+
+    /**
+     * Poll the properties immediately
+     */
+    public void poll() {
+        try {
+            Map<String, String> properties = poller.poll();
+            if (properties != null) {
+                update(properties);
+            }
+        } catch (Throwable e) {
+            logger.warning(format("The ConfigSource[name : %s] failed to poll, the current properties are kept, " +
+                    "caused by : %s", getName(), e.getMessage()));
+        }
+    }
+
+    @Override
+    public void close() {
+        pollingFuture.cancel(false);
+        if (!sharedScheduler) {
+            scheduler.shutdown();
+        }
+    }
+}
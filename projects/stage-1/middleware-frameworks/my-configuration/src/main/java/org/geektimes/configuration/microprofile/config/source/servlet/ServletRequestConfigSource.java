@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config.source.servlet;
+
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.geektimes.configuration.microprofile.config.source.servlet.initializer.ServletRequestThreadLocalListener;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.AbstractSet;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The request-scoped {@link ConfigSource} resolving the properties on demand against the current request of
+ * {@link ServletRequestThreadLocalListener}, nothing is copied or cached, and the property names are a view of
+ * the current request.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public abstract class ServletRequestConfigSource implements ConfigSource {
+
+    private final String name;
+
+    private final int ordinal;
+
+    private final Set<String> propertyNames = new PropertyNames();
+
+    protected ServletRequestConfigSource(String name, int ordinal) {
+        this.name = name;
+        this.ordinal = ordinal;
+    }
+
+    @Override
+    public final String getValue(String propertyName) {
+        HttpServletRequest request = ServletRequestThreadLocalListener.getRequest();
+        return request == null ? null : getValue(request, propertyName);
+    }
+
+    /**
+     * Get the value of property from the request
+     *
+     * @param request      the current request
+     * @param propertyName the name of property
+     * @return <code>null</code> if absent
+     */
+    protected abstract String getValue(HttpServletRequest request, String propertyName);
+
+    /**
+     * Get the names of properties from the request
+     *
+     * @param request the current request
+     * @return non-null
+     */
+    protected abstract Enumeration<String> getPropertyNames(HttpServletRequest request);
+
+    @Override
+    public final Set<String> getPropertyNames() {
+        return propertyNames;
+    }
+
+    @Override
+    public final String getName() {
+        return name;
+    }
+
+    @Override
+    public final int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * The view of the property names of the current request
+     */
+    private class PropertyNames extends AbstractSet<String> {
+
+        @Override
+        public Iterator<String> iterator() {
+            HttpServletRequest request = ServletRequestThreadLocalListener.getRequest();
+            Enumeration<String> names = request == null ? null : getPropertyNames(request);
+            return new Iterator<String>() {
+                @Override
+                public boolean hasNext() {
+                    return names != null && names.hasMoreElements();
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return names.nextElement();
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String && getValue((String) o) != null;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (Iterator<String> iterator = iterator(); iterator.hasNext(); iterator.next()) {
+                size++;
+            }
+            return size;
+        }
+    }
+}
@@ -17,48 +17,41 @@
 package org.geektimes.configuration.microprofile.config.source.servlet;
 
 import org.eclipse.microprofile.config.spi.ConfigSource;
-import org.geektimes.configuration.microprofile.config.source.EnumerableConfigSource;
-import org.geektimes.configuration.microprofile.config.source.servlet.initializer.ServletRequestThreadLocalListener;
 
-import javax.servlet.ServletRequest;
 import javax.servlet.http.HttpServletRequest;
 import java.util.Enumeration;
-import java.util.function.Function;
-import java.util.function.Supplier;
-
-import static java.util.Collections.emptyEnumeration;
-import static java.util.Collections.list;
 
 /**
- * {@link ServletRequest}'s Headers {@link ConfigSource}
+ * {@link HttpServletRequest}'s Headers {@link ConfigSource}, the multiple values are joined by comma
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0.0
  */
-public class ServletRequestHeaderConfigSource extends EnumerableConfigSource {
+public class ServletRequestHeaderConfigSource extends ServletRequestConfigSource {
 
     public ServletRequestHeaderConfigSource() {
         super("Request Headers", 1100);
     }
 
-    protected Supplier<Enumeration<String>> namesSupplier() {
-        return () -> {
-            HttpServletRequest request = request();
-            return request == null ? emptyEnumeration() : request.getHeaderNames();
-        };
-    }
-
-    protected Function<String, String> valueResolver() {
-        return this::getHeaderValue;
-    }
-
-    private String getHeaderValue(String parameterName) {
-        // return String Array
-        Enumeration<String> headerValues = request().getHeaders(parameterName);
-        return String.join(",", list(headerValues).toArray(new String[0]));
+    @Override
+    protected String getValue(HttpServletRequest request, String headerName) {
+        Enumeration<String> headerValues = request.getHeaders(headerName);
+        if (headerValues == null || !headerValues.hasMoreElements()) {
+            return null;
+        }
+        String headerValue = headerValues.nextElement();
+        if (!headerValues.hasMoreElements()) {
+            return headerValue;
+        }
+        StringBuilder builder = new StringBuilder(headerValue);
+        while (headerValues.hasMoreElements()) {
+            builder.append(',').append(headerValues.nextElement());
+        }
+        return builder.toString();
     }
 
-    private HttpServletRequest request() {
-        return ServletRequestThreadLocalListener.getRequest();
+    @Override
+    protected Enumeration<String> getPropertyNames(HttpServletRequest request) {
+        return request.getHeaderNames();
     }
 }
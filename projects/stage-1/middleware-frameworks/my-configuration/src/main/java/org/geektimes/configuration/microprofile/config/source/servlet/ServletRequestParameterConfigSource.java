@@ -17,48 +17,34 @@
 package org.geektimes.configuration.microprofile.config.source.servlet;
 
 import org.eclipse.microprofile.config.spi.ConfigSource;
-import org.geektimes.configuration.microprofile.config.source.EnumerableConfigSource;
-import org.geektimes.configuration.microprofile.config.source.servlet.initializer.ServletRequestThreadLocalListener;
 
 import javax.servlet.ServletRequest;
 import javax.servlet.http.HttpServletRequest;
 import java.util.Enumeration;
-import java.util.function.Function;
-import java.util.function.Supplier;
-
-import static java.util.Collections.emptyEnumeration;
 
 /**
- * {@link ServletRequest}'s Parameters {@link ConfigSource}
+ * {@link ServletRequest}'s Parameters {@link ConfigSource}, the multiple values are joined by comma
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0.0
  */
-public class ServletRequestParameterConfigSource extends EnumerableConfigSource {
+public class ServletRequestParameterConfigSource extends ServletRequestConfigSource {
 
     public ServletRequestParameterConfigSource() {
         super("Request Parameters", 1000);
     }
 
-    protected Supplier<Enumeration<String>> namesSupplier() {
-        return () -> {
-            HttpServletRequest request = request();
-            return request == null ? emptyEnumeration() : request.getParameterNames();
-        };
-    }
-
-    protected Function<String, String> valueResolver() {
-        return this::getParameterValue;
-    }
-
-    private String getParameterValue(String parameterName) {
-        // return String Array
-        // return String Array
-        String[] parameterValues = request().getParameterValues(parameterName);
-        return String.join(",", parameterValues);
+    @Override
+    protected String getValue(HttpServletRequest request, String parameterName) {
+        String[] parameterValues = request.getParameterValues(parameterName);
+        if (parameterValues == null || parameterValues.length == 0) {
+            return null;
+        }
+        return parameterValues.length == 1 ? parameterValues[0] : String.join(",", parameterValues);
     }
 
-    private HttpServletRequest request() {
-        return ServletRequestThreadLocalListener.getRequest();
+    @Override
+    protected Enumeration<String> getPropertyNames(HttpServletRequest request) {
+        return request.getParameterNames();
     }
 }
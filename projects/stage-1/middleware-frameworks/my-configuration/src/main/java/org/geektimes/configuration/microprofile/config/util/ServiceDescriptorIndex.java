@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * The index of the service descriptors ("META-INF/services/*") per {@link ClassLoader}, the descriptors are scanned
+ * and the classes of providers are loaded once, thus the {@link org.eclipse.microprofile.config.Config Configs}
+ * built for the same {@link ClassLoader} only instantiate the providers, which is done in parallel with
+ * {@link ClassLoader} as the context one. The indexes are referenced weakly, thus they're kept as long as they're used
+ * (e.g, by the {@link org.eclipse.microprofile.config.Config Configs}) and never retain the discarded
+ * {@link ClassLoader}, otherwise they could be {@link #remove(ClassLoader) removed} explicitly.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see java.util.ServiceLoader
+ * @since 1.0.0
+ */
+public class ServiceDescriptorIndex {
+
+    private static final String SERVICES_DIRECTORY = "META-INF/services/";
+
+    /**
+     * The values are referenced weakly too, since the index references its {@link ClassLoader} strongly
+     */
+    private static final Map<ClassLoader, WeakReference<ServiceDescriptorIndex>> indexes = new WeakHashMap<>();
+
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    private final ClassLoader classLoader;
+
+    private final ConcurrentMap<Class<?>, List<Class<?>>> providerClasses = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Class<?>, List<?>> sharedProviders = new ConcurrentHashMap<>();
+
+    private ServiceDescriptorIndex(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Get the index of {@link ClassLoader}
+     *
+     * @param classLoader {@link ClassLoader}, the system one is used if <code>null</code>
+     * @return non-null
+     */
+    public static ServiceDescriptorIndex get(ClassLoader classLoader) {
+        ClassLoader targetClassLoader = classLoader == null ? ClassLoader.getSystemClassLoader() : classLoader;
+        synchronized (indexes) {
+            WeakReference<ServiceDescriptorIndex> reference = indexes.get(targetClassLoader);
+            ServiceDescriptorIndex index = reference == null ? null : reference.get();
+            if (index == null) {
+                index = new ServiceDescriptorIndex(targetClassLoader);
+                indexes.put(targetClassLoader, new WeakReference<>(index));
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Remove the index of {@link ClassLoader}
+     *
+     * @param classLoader {@link ClassLoader}
+     */
+    public static void remove(ClassLoader classLoader) {
+        if (classLoader != null) {
+            synchronized (indexes) {
+                indexes.remove(classLoader);
+            }
+        }
+    }
+
+    /**
+     * Get the classes of the providers in the order of the descriptors
+     *
+     * @param serviceType the type of service
+     * @param <S>         the type of service
+     * @return the unmodifiable list
+     */
+    public <S> List<Class<? extends S>> getProviderClasses(Class<S> serviceType) {
+        List<Class<?>> classes = providerClasses.computeIfAbsent(serviceType, this::loadProviderClasses);
+        return (List) classes;
+    }
+
+    /**
+     * Create the new instances of the providers, which are instantiated in parallel with the {@link ClassLoader}
+     * of index as the context one, rather than the one of the worker thread
+     *
+     * @param serviceType the type of service
+     * @param <S>         the type of service
+     * @return the modifiable list in the order of the descriptors
+     * @throws IllegalStateException if any provider can't be instantiated
+     */
+    public <S> List<S> newProviders(Class<S> serviceType) {
+        List<Class<? extends S>> classes = getProviderClasses(serviceType);
+        if (classes.size() < 2) {
+            return classes.stream().map(this::newInstance).collect(toList());
+        }
+        // The parallel stream keeps the encounter order
+        return classes.parallelStream().map(this::newInstance).collect(toList());
+    }
+
+    /**
+     * Get the instances of the stateless providers, which are shared by the callers
+     *
+     * @param serviceType the type of service
+     * @param <S>         the type of service
+     * @return the unmodifiable list in the order of the descriptors
+     * @throws IllegalStateException if any provider can't be instantiated
+     */
+    public <S> List<S> getSharedProviders(Class<S> serviceType) {
+        List<?> providers = sharedProviders.computeIfAbsent(serviceType,
+                type -> unmodifiableList(newProviders(type)));
+        return (List<S>) providers;
+    }
+
+    private List<Class<?>> loadProviderClasses(Class<?> serviceType) {
+        Set<String> classNames = new LinkedHashSet<>();
+        String location = SERVICES_DIRECTORY + serviceType.getName();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(location);
+            while (resources.hasMoreElements()) {
+                readClassNames(resources.nextElement(), classNames);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(format("The service descriptors[location : %s] can't be read!", location), e);
+        }
+        List<Class<?>> classes = new ArrayList<>(classNames.size());
+        for (String className : classNames) {
+            try {
+                Class<?> providerClass = Class.forName(className, false, classLoader);
+                if (serviceType.isAssignableFrom(providerClass)) {
+                    classes.add(providerClass);
+                } else {
+                    logger.warning(format("The provider[class : %s] is not a subtype of %s, ignored!", className,
+                            serviceType.getName()));
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                logger.warning(format("The provider[class : %s] of %s can't be loaded, ignored, caused by : %s",
+                        className, serviceType.getName(), e));
+            }
+        }
+        return unmodifiableList(classes);
+    }
+
+    private void readClassNames(URL resource, Set<String> classNames) throws IOException {
+        try (InputStream inputStream = resource.openStream();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int commentIndex = line.indexOf('#');
+                if (commentIndex > -1) {
+                    line = line.substring(0, commentIndex);
+                }
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    classNames.add(line);
+                }
+            }
+        }
+    }
+
+    private <S> S newInstance(Class<? extends S> providerClass) {
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            return providerClass.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException(format("The provider[class : %s] can't be instantiated!",
+                    providerClass.getName()), e);
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+    }
+}
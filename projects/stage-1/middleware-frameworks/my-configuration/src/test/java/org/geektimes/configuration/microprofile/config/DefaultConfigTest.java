@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigValue;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.geektimes.configuration.microprofile.config.converter.IntegerConverter;
+import org.geektimes.configuration.microprofile.config.source.ConfigSourceChangeListener;
+import org.geektimes.configuration.microprofile.config.source.MapConfigSource;
+import org.geektimes.configuration.microprofile.config.source.ObservableConfigSource;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.*;
+
+/**
+ * {@link DefaultConfig} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class DefaultConfigTest {
+
+    private static final String PROPERTY_NAME = "default-config-test.value";
+
+    private final Map<String, String> unstableProperties = new ConcurrentHashMap<>();
+
+    private TestObservableConfigSource observableConfigSource;
+
+    private Config config;
+
+    @Before
+    public void init() {
+        observableConfigSource = new TestObservableConfigSource(450);
+        config = new DefaultConfigBuilder(getClass().getClassLoader())
+                .withSources(new MapConfigSource("low", 200, singletonMap(PROPERTY_NAME, "1")),
+                        new MapConfigSource("high", 350, singletonMap(PROPERTY_NAME, "2")),
+                        new TestConfigSource("unstable", 250, unstableProperties),
+                        observableConfigSource)
+                .withConverters(new IntegerConverter())
+                .build();
+    }
+
+    @Test
+    public void testIndexedValue() {
+        ConfigValue configValue = config.getConfigValue(PROPERTY_NAME);
+        assertEquals("2", configValue.getValue());
+        assertEquals("high", configValue.getSourceName());
+        assertEquals(350, configValue.getSourceOrdinal());
+        assertEquals(Integer.valueOf(2), config.getValue(PROPERTY_NAME, Integer.class));
+        assertNull(config.getConfigValue("default-config-test.absent"));
+    }
+
+    @Test
+    public void testUnstableSource() {
+        // The lower ordinal
+        unstableProperties.put(PROPERTY_NAME, "3");
+        assertEquals("2", config.getConfigValue(PROPERTY_NAME).getValue());
+
+        unstableProperties.put("default-config-test.unstable", "a");
+        assertEquals("a", config.getConfigValue("default-config-test.unstable").getValue());
+        unstableProperties.put("default-config-test.unstable", "b");
+        assertEquals("b", config.getConfigValue("default-config-test.unstable").getValue());
+    }
+
+    @Test
+    public void testObservableSource() {
+        assertEquals("2", config.getConfigValue(PROPERTY_NAME).getValue());
+
+        observableConfigSource.setProperty(PROPERTY_NAME, "4");
+        assertEquals("4", config.getConfigValue(PROPERTY_NAME).getValue());
+        assertEquals(Integer.valueOf(4), config.getValue(PROPERTY_NAME, Integer.class));
+
+        observableConfigSource.setProperty(PROPERTY_NAME, null);
+        assertEquals("2", config.getConfigValue(PROPERTY_NAME).getValue());
+    }
+
+    @Test
+    public void testChangeListener() {
+        List<Set<String>> changes = new ArrayList<>();
+        config.unwrap(ObservableConfig.class).addChangeListener((c, changedPropertyNames) -> changes.add(changedPropertyNames));
+
+        observableConfigSource.setProperty(PROPERTY_NAME, "4");
+        assertEquals(singleton(PROPERTY_NAME), changes.get(0));
+        // The effective value is not changed
+        observableConfigSource.setProperty(PROPERTY_NAME, "4");
+        assertEquals(1, changes.size());
+        observableConfigSource.setProperty(PROPERTY_NAME, null);
+        assertEquals(singleton(PROPERTY_NAME), changes.get(1));
+    }
+
+    @Test
+    public void testConverter() {
+        assertTrue(config.getConverter(Integer.class).isPresent());
+        assertSame(config.getConverter(Integer.class).get(), config.getConverter(Integer.class).get());
+        assertFalse(config.getConverter(Thread.class).isPresent());
+        assertFalse(config.getConverter(Thread.class).isPresent());
+    }
+
+    static class TestConfigSource implements ConfigSource {
+
+        private final String name;
+
+        private final int ordinal;
+
+        protected final Map<String, String> properties;
+
+        TestConfigSource(String name, int ordinal, Map<String, String> properties) {
+            this.name = name;
+            this.ordinal = ordinal;
+            this.properties = properties;
+        }
+
+        @Override
+        public Set<String> getPropertyNames() {
+            return properties.keySet();
+        }
+
+        @Override
+        public String getValue(String propertyName) {
+            return properties.get(propertyName);
+        }
+
+        @Override
+        public int getOrdinal() {
+            return ordinal;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    static class TestObservableConfigSource extends TestConfigSource implements ObservableConfigSource {
+
+        private final List<ConfigSourceChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+        TestObservableConfigSource(int ordinal) {
+            super("observable", ordinal, new ConcurrentHashMap<>());
+        }
+
+        void setProperty(String propertyName, String propertyValue) {
+            if (propertyValue == null) {
+                properties.remove(propertyName);
+            } else {
+                properties.put(propertyName, propertyValue);
+            }
+            listeners.forEach(listener -> listener.onChange(this, singleton(propertyName)));
+        }
+
+        @Override
+        public void addChangeListener(ConfigSourceChangeListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeChangeListener(ConfigSourceChangeListener listener) {
+            listeners.remove(listener);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config.binding;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperties;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.geektimes.configuration.microprofile.config.DefaultConfigBuilder;
+import org.geektimes.configuration.microprofile.config.source.DynamicConfigSource;
+import org.geektimes.configuration.microprofile.config.source.MapConfigSource;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.*;
+
+/**
+ * {@link ConfigBinding} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class ConfigBindingTest {
+
+    private DynamicConfigSource dynamicConfigSource;
+
+    private Config config;
+
+    @Before
+    public void init() {
+        dynamicConfigSource = new DynamicConfigSource();
+        Map<String, String> properties = new HashMap<>();
+        properties.put("server.host", "localhost");
+        properties.put("server.port", "8080");
+        config = new DefaultConfigBuilder(getClass().getClassLoader())
+                .withSources(new MapConfigSource("static", 200, properties), dynamicConfigSource)
+                .addDiscoveredConverters()
+                .build();
+    }
+
+    @Test
+    public void testBindInterface() {
+        try (ConfigBinding<ServerConfig> binding = ConfigBinding.bind(config, ServerConfig.class)) {
+            ServerConfig serverConfig = binding.get();
+            assertEquals("localhost", serverConfig.getHost());
+            assertEquals(8080, serverConfig.port());
+            assertEquals(100L, serverConfig.timeout());
+            assertFalse(serverConfig.secure().isPresent());
+            assertEquals("ServerConfig{server.host=localhost, server.port=8080, server.timeout=100, " +
+                    "server.secure=Optional.empty}", sortedToString(serverConfig));
+
+            dynamicConfigSource.onUpdate("server.port=9090\nserver.secure=true");
+            ServerConfig reboundServerConfig = binding.get();
+            assertNotSame(serverConfig, reboundServerConfig);
+            // The bound instance is immutable
+            assertEquals(8080, serverConfig.port());
+            assertEquals(9090, reboundServerConfig.port());
+            assertEquals(Optional.of(true), reboundServerConfig.secure());
+
+            // The unbound properties are ignored
+            dynamicConfigSource.onUpdate("server.port=9090\nserver.secure=true\nother=1");
+            assertSame(reboundServerConfig, binding.get());
+
+            // The invalid values keep the previous instance
+            dynamicConfigSource.onUpdate("server.port=invalid\nserver.secure=true");
+            assertSame(reboundServerConfig, binding.get());
+        }
+    }
+
+    @Test
+    public void testBindClass() {
+        try (ConfigBinding<ServerProperties> binding = ConfigBinding.bind(config, ServerProperties.class)) {
+            ServerProperties serverProperties = binding.get();
+            assertEquals("localhost", serverProperties.host);
+            assertEquals(8080, serverProperties.port);
+            assertEquals(Integer.valueOf(10), serverProperties.maxConnections);
+
+            dynamicConfigSource.update(singletonMap("server.max-connections", "20"));
+            assertEquals(Integer.valueOf(20), binding.get().maxConnections);
+            assertEquals(Integer.valueOf(10), serverProperties.maxConnections);
+        }
+        // No more rebinding after closed
+        ConfigBinding<ServerProperties> binding = ConfigBinding.bind(config, ServerProperties.class);
+        binding.close();
+        ServerProperties serverProperties = binding.get();
+        dynamicConfigSource.update(singletonMap("server.max-connections", "30"));
+        assertSame(serverProperties, binding.get());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testAbsentRequiredProperty() {
+        ConfigBinding.bind(config, ClientConfig.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedMethod() {
+        ConfigBinding.bind(config, InvalidConfig.class);
+    }
+
+    private static String sortedToString(ServerConfig serverConfig) {
+        // The order of methods is unspecified
+        String value = serverConfig.toString();
+        String[] properties = value.substring(value.indexOf('{') + 1, value.length() - 1).split(", ");
+        String[] orderedNames = {"server.host", "server.port", "server.timeout", "server.secure"};
+        StringBuilder builder = new StringBuilder("ServerConfig{");
+        for (String name : orderedNames) {
+            for (String property : properties) {
+                if (property.startsWith(name + "=")) {
+                    builder.append(builder.length() > "ServerConfig{".length() ? ", " : "").append(property);
+                }
+            }
+        }
+        return builder.append("}").toString();
+    }
+
+    @ConfigProperties(prefix = "server")
+    public interface ServerConfig {
+
+        String getHost();
+
+        int port();
+
+        @ConfigProperty(defaultValue = "100")
+        long timeout();
+
+        Optional<Boolean> secure();
+    }
+
+    @ConfigProperties(prefix = "server")
+    public static class ServerProperties {
+
+        private String host;
+
+        private final int port;
+
+        @ConfigProperty(name = "max-connections", defaultValue = "10")
+        private Integer maxConnections;
+
+        private ServerProperties() {
+            this.port = -1;
+        }
+    }
+
+    @ConfigProperties(prefix = "client")
+    public interface ClientConfig {
+
+        String host();
+    }
+
+    public interface InvalidConfig {
+
+        String host(String defaultHost);
+    }
+}
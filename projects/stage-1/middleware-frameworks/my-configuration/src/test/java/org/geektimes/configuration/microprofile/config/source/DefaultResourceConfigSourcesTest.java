@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config.source;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+/**
+ * {@link DefaultResourceConfigSources} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class DefaultResourceConfigSourcesTest {
+
+    @Test
+    public void testAllResourcesRead() throws Exception {
+        File lowDirectory = createConfigFile(null, "a", "low-a", "b", "low-b");
+        File highDirectory = createConfigFile("200", "a", "high-a", "c", "high-c");
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{lowDirectory.toURI().toURL(),
+                highDirectory.toURI().toURL()}, null)) {
+            DefaultResourceConfigSources configSources = new DefaultResourceConfigSources(classLoader);
+            // The higher ordinal wins
+            assertEquals("high-a", configSources.getValue("a"));
+            assertEquals("low-b", configSources.getValue("b"));
+            assertEquals("high-c", configSources.getValue("c"));
+            assertTrue(configSources.getPropertyNames().containsAll(asList("a", "b", "c")));
+        }
+    }
+
+    @Test
+    public void testNoResource() throws Exception {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[0], null)) {
+            DefaultResourceConfigSources configSources = new DefaultResourceConfigSources(classLoader);
+            assertNull(configSources.getValue("a"));
+            assertTrue(configSources.getPropertyNames().isEmpty());
+        }
+    }
+
+    private File createConfigFile(String ordinal, String... keyValues) throws IOException {
+        File directory = Files.createTempDirectory("config").toFile();
+        File file = new File(directory, "META-INF/microprofile-config.properties");
+        assertTrue(file.getParentFile().mkdirs());
+        Properties properties = new Properties();
+        if (ordinal != null) {
+            properties.setProperty("config_ordinal", ordinal);
+        }
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.setProperty(keyValues[i], keyValues[i + 1]);
+        }
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            properties.store(outputStream, null);
+        }
+        return directory;
+    }
+}
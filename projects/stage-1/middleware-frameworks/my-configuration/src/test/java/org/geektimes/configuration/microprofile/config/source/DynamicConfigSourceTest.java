@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config.source;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.*;
+
+/**
+ * {@link DynamicConfigSource} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class DynamicConfigSourceTest {
+
+    @Test
+    public void testUpdate() {
+        DynamicConfigSource configSource = new DynamicConfigSource();
+        List<Set<String>> changes = new ArrayList<>();
+        configSource.addChangeListener((source, changedPropertyNames) -> {
+            assertSame(configSource, source);
+            changes.add(changedPropertyNames);
+        });
+
+        configSource.onUpdate("a=1\nb=2");
+        assertEquals("1", configSource.getValue("a"));
+        assertEquals(new HashSet<>(asList("a", "b")), changes.get(0));
+
+        // Only the changed properties are notified
+        configSource.onUpdate("a=1\nb=3\nc=4");
+        assertEquals(new HashSet<>(asList("b", "c")), changes.get(1));
+
+        configSource.update(Collections.singletonMap("a", "1"));
+        assertEquals(new HashSet<>(asList("b", "c")), changes.get(2));
+        assertNull(configSource.getValue("b"));
+        assertEquals(Collections.singletonMap("a", "1"), configSource.getProperties());
+
+        // No change
+        assertTrue(configSource.update(Collections.singletonMap("a", "1")).isEmpty());
+        assertEquals(3, changes.size());
+    }
+
+    @Test
+    public void testPolling() throws Exception {
+        AtomicReference<Map<String, String>> remoteProperties = new AtomicReference<>(
+                Collections.singletonMap("timeout", "100"));
+        BlockingQueue<Set<String>> changes = new LinkedBlockingQueue<>();
+        // null means not modified
+        try (PollingConfigSource configSource = new PollingConfigSource("remote", 600,
+                () -> remoteProperties.getAndSet(null), 10, MILLISECONDS)) {
+            assertEquals("100", configSource.getValue("timeout"));
+            configSource.addChangeListener((source, changedPropertyNames) -> changes.add(changedPropertyNames));
+
+            remoteProperties.set(Collections.singletonMap("timeout", "200"));
+            assertEquals(Collections.singleton("timeout"), changes.poll(10, SECONDS));
+            assertEquals("200", configSource.getValue("timeout"));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config.source;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.*;
+
+/**
+ * {@link FileConfigSource} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class FileConfigSourceTest {
+
+    @Test
+    public void testWatch() throws Exception {
+        Path directory = Files.createTempDirectory("config");
+        Path file = directory.resolve("app.properties");
+        write(file, "bulkhead.max=10\ncache.ttl=30");
+        BlockingQueue<Set<String>> changes = new LinkedBlockingQueue<>();
+
+        try (FileConfigSource configSource = new FileConfigSource(file)) {
+            assertEquals("10", configSource.getValue("bulkhead.max"));
+            configSource.addChangeListener((source, changedPropertyNames) -> changes.add(changedPropertyNames));
+
+            write(file, "bulkhead.max=20\ncache.ttl=30");
+            assertEquals(singleton("bulkhead.max"), changes.poll(30, SECONDS));
+            assertEquals("20", configSource.getValue("bulkhead.max"));
+
+            Files.delete(file);
+            assertNotNull(changes.poll(30, SECONDS));
+            assertTrue(configSource.getPropertyNames().isEmpty());
+        }
+    }
+
+    private void write(Path file, String content) throws Exception {
+        Path tempFile = Files.createTempFile(file.getParent(), "app", ".tmp");
+        Files.write(tempFile, content.getBytes(UTF_8));
+        Files.move(tempFile, file, ATOMIC_MOVE);
+    }
+}
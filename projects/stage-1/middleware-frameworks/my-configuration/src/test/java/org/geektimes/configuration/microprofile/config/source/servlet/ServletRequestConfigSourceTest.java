@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config.source.servlet;
+
+import org.eclipse.microprofile.config.Config;
+import org.geektimes.configuration.microprofile.config.DefaultConfigBuilder;
+import org.geektimes.configuration.microprofile.config.source.MapConfigSource;
+import org.geektimes.configuration.microprofile.config.source.servlet.initializer.ServletRequestThreadLocalListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRequestEvent;
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.enumeration;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.*;
+
+/**
+ * {@link ServletRequestConfigSource} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class ServletRequestConfigSourceTest {
+
+    private final ServletRequestThreadLocalListener listener = new ServletRequestThreadLocalListener();
+
+    private final ServletContext servletContext = (ServletContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class[]{ServletContext.class}, (proxy, method, args) -> null);
+
+    private final Map<String, List<String>> headers = new LinkedHashMap<>();
+
+    private final Map<String, String[]> parameters = new LinkedHashMap<>();
+
+    private ServletRequestEvent event;
+
+    @Before
+    public void init() {
+        HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getHeaders":
+                            return enumeration(headers.getOrDefault(args[0], Collections.emptyList()));
+                        case "getHeaderNames":
+                            return enumeration(headers.keySet());
+                        case "getParameterValues":
+                            return parameters.get(args[0]);
+                        case "getParameterNames":
+                            return enumeration(parameters.keySet());
+                        default:
+                            return null;
+                    }
+                });
+        event = new ServletRequestEvent(servletContext, request);
+    }
+
+    @After
+    public void destroy() {
+        listener.requestDestroyed(event);
+    }
+
+    @Test
+    public void testHeaders() {
+        ServletRequestHeaderConfigSource configSource = new ServletRequestHeaderConfigSource();
+        headers.put("Accept", asList("text/html", "application/json"));
+        headers.put("Host", asList("localhost"));
+        // No request
+        assertNull(configSource.getValue("Host"));
+        assertTrue(configSource.getPropertyNames().isEmpty());
+
+        listener.requestInitialized(event);
+        assertEquals("localhost", configSource.getValue("Host"));
+        assertEquals("text/html,application/json", configSource.getValue("Accept"));
+        assertNull(configSource.getValue("Cookie"));
+        assertEquals(new LinkedHashSet<>(asList("Accept", "Host")), new LinkedHashSet<>(configSource.getPropertyNames()));
+        assertTrue(configSource.getPropertyNames().contains("Host"));
+
+        // The view of the current request
+        headers.put("Cookie", asList("a=b"));
+        assertEquals(3, configSource.getPropertyNames().size());
+    }
+
+    @Test
+    public void testParameters() {
+        ServletRequestParameterConfigSource configSource = new ServletRequestParameterConfigSource();
+        parameters.put("id", new String[]{"1"});
+        parameters.put("tag", new String[]{"a", "b"});
+        listener.requestInitialized(event);
+        assertEquals("1", configSource.getValue("id"));
+        assertEquals("a,b", configSource.getValue("tag"));
+        assertNull(configSource.getValue("name"));
+        assertEquals(2, configSource.getPropertyNames().size());
+    }
+
+    @Test
+    public void testConfig() {
+        Config config = new DefaultConfigBuilder(getClass().getClassLoader())
+                .withSources(new ServletRequestHeaderConfigSource(), new ServletRequestParameterConfigSource(),
+                        new MapConfigSource("map", 200, singletonMap("timeout", "100")))
+                .build();
+        assertEquals("100", config.getValue("timeout", String.class));
+
+        listener.requestInitialized(event);
+        // The absent header doesn't hide the lower sources
+        assertEquals("100", config.getValue("timeout", String.class));
+        parameters.put("timeout", new String[]{"200"});
+        assertEquals("200", config.getValue("timeout", String.class));
+        headers.put("timeout", asList("300"));
+        assertEquals("300", config.getValue("timeout", String.class));
+
+        listener.requestDestroyed(event);
+        assertEquals("100", config.getValue("timeout", String.class));
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.configuration.microprofile.config.util;
+
+import org.eclipse.microprofile.config.spi.Converter;
+import org.geektimes.configuration.microprofile.config.converter.IntegerConverter;
+import org.geektimes.configuration.microprofile.config.converter.LongConverter;
+import org.geektimes.configuration.microprofile.config.source.ConfigSources;
+import org.junit.Test;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+/**
+ * {@link ServiceDescriptorIndex} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class ServiceDescriptorIndexTest {
+
+    @Test
+    public void testProviders() throws Exception {
+        File directory = Files.createTempDirectory("services").toFile();
+        File file = new File(directory, "META-INF/services/" + Converter.class.getName());
+        assertTrue(file.getParentFile().mkdirs());
+        Files.write(file.toPath(), asList(
+                "# comment",
+                IntegerConverter.class.getName() + " # trailing comment",
+                "",
+                "  " + LongConverter.class.getName(),
+                IntegerConverter.class.getName(),
+                "org.geektimes.NotFoundConverter",
+                String.class.getName()
+        ), UTF_8);
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toURI().toURL()},
+                getClass().getClassLoader())) {
+            ServiceDescriptorIndex index = ServiceDescriptorIndex.get(classLoader);
+            assertSame(index, ServiceDescriptorIndex.get(classLoader));
+
+            List<Class<? extends Converter>> providerClasses = index.getProviderClasses(Converter.class);
+            // The ones of the parent ClassLoader are included
+            assertTrue(providerClasses.containsAll(asList(IntegerConverter.class, LongConverter.class)));
+            assertEquals(providerClasses.indexOf(IntegerConverter.class), providerClasses.lastIndexOf(IntegerConverter.class));
+            assertFalse(providerClasses.contains(String.class));
+            assertSame(providerClasses, index.getProviderClasses(Converter.class));
+
+            List<Converter> providers = index.newProviders(Converter.class);
+            assertEquals(providerClasses.size(), providers.size());
+            for (int i = 0; i < providers.size(); i++) {
+                assertEquals(providerClasses.get(i), providers.get(i).getClass());
+            }
+            assertNotSame(providers.get(0), index.newProviders(Converter.class).get(0));
+
+            List<Converter> sharedProviders = index.getSharedProviders(Converter.class);
+            assertSame(sharedProviders, index.getSharedProviders(Converter.class));
+
+            ServiceDescriptorIndex.remove(classLoader);
+            assertNotSame(index, ServiceDescriptorIndex.get(classLoader));
+            ServiceDescriptorIndex.remove(classLoader);
+        }
+    }
+
+    /**
+     * The providers are instantiated with the {@link ClassLoader} of index as the context one, even by
+     * the worker threads of the parallel stream
+     */
+    @Test
+    public void testContextClassLoader() throws Exception {
+        File directory = newServiceDirectory(ContextConverter.class.getName(), OtherContextConverter.class.getName());
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toURI().toURL()},
+                getClass().getClassLoader())) {
+            List<Converter> providers = ServiceDescriptorIndex.get(classLoader).newProviders(Converter.class);
+            assertFalse(providers.isEmpty());
+            for (Converter provider : providers) {
+                if (provider instanceof ContextConverter) {
+                    assertSame(classLoader, ((ContextConverter) provider).contextClassLoader);
+                }
+            }
+            assertSame(contextClassLoader, Thread.currentThread().getContextClassLoader());
+            ServiceDescriptorIndex.remove(classLoader);
+        }
+    }
+
+    /**
+     * The discarded {@link ClassLoader} is not retained by the index and the shared default sources
+     */
+    @Test
+    public void testDiscardedClassLoader() throws Exception {
+        WeakReference<ClassLoader> reference = useClassLoader();
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+    }
+
+    private WeakReference<ClassLoader> useClassLoader() throws Exception {
+        File directory = newServiceDirectory(IntegerConverter.class.getName());
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toURI().toURL()},
+                getClass().getClassLoader())) {
+            ServiceDescriptorIndex.get(classLoader).getSharedProviders(Converter.class);
+            ConfigSources configSources = new ConfigSources(classLoader);
+            configSources.addDefaultSources();
+            configSources.addDiscoveredSources();
+            return new WeakReference<>(classLoader);
+        }
+    }
+
+    private File newServiceDirectory(String... classNames) throws Exception {
+        File directory = Files.createTempDirectory("services").toFile();
+        File file = new File(directory, "META-INF/services/" + Converter.class.getName());
+        assertTrue(file.getParentFile().mkdirs());
+        Files.write(file.toPath(), asList(classNames), UTF_8);
+        return directory;
+    }
+
+    public static class ContextConverter implements Converter<String> {
+
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        @Override
+        public String convert(String value) {
+            return value;
+        }
+    }
+
+    public static class OtherContextConverter extends ContextConverter {
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance.benchmark;
+
+import org.geektimes.commons.concurrent.NamedThreadFactory;
+import org.geektimes.interceptor.DefaultComponentEnhancer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * The chaos test of the fault tolerance, the concurrent clients invoke the method of {@link GuardedService} enhanced
+ * by {@link DefaultComponentEnhancer}, whose latencies and failures are injected by {@link FaultInjector}, and the
+ * success rate, the outcomes, the latency percentiles and the threads consumed are reported. The options are
+ * specified by the system properties, e.g :
+ * <pre>
+ * java -Dchaos.method=resilientAsynchronously -Dchaos.failure.percentage=20 -Dchaos.outage.millis=500 \
+ *      -cp target/benchmarks.jar org.geektimes.microprofile.faulttolerance.benchmark.ChaosDriver
+ * </pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+public class ChaosDriver {
+
+    public static final String PROPERTY_NAME_PREFIX = "chaos.";
+
+    private static final String SUCCESS_OUTCOME = "success";
+
+    private static final String FALLBACK_OUTCOME = "fallback";
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    /**
+     * The name of the method of {@link GuardedService}
+     */
+    private final String methodName = System.getProperty(PROPERTY_NAME_PREFIX + "method", "resilient");
+
+    private final int clients = Integer.getInteger(PROPERTY_NAME_PREFIX + "clients", 32);
+
+    /**
+     * The number of measured requests per client
+     */
+    private final int requests = Integer.getInteger(PROPERTY_NAME_PREFIX + "requests", 500);
+
+    /**
+     * The number of warmup requests per client
+     */
+    private final int warmupRequests = Integer.getInteger(PROPERTY_NAME_PREFIX + "warmup.requests", 50);
+
+    /**
+     * The duration of the outage in milliseconds, it starts after the delay since the measurement starts
+     */
+    private final long outageDuration = Long.getLong(PROPERTY_NAME_PREFIX + "outage.millis", 0);
+
+    private final long outageDelay = Long.getLong(PROPERTY_NAME_PREFIX + "outage.delay.millis", 200);
+
+    private final FaultInjector faultInjector = new FaultInjector(
+            Long.getLong(PROPERTY_NAME_PREFIX + "latency.micros", 1000),
+            Long.getLong(PROPERTY_NAME_PREFIX + "tail.latency.micros", 200_000),
+            Double.parseDouble(System.getProperty(PROPERTY_NAME_PREFIX + "tail.percentage", "1")),
+            Double.parseDouble(System.getProperty(PROPERTY_NAME_PREFIX + "failure.percentage", "10")));
+
+    private final Method method;
+
+    private final GuardedService service;
+
+    /**
+     * The counts of outcomes, the key is "success", "fallback" or the simple name of exception
+     */
+    private final Map<String, LongAdder> outcomes = new ConcurrentSkipListMap<>();
+
+    public ChaosDriver() {
+        try {
+            this.method = GuardedService.class.getMethod(methodName, String.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(format("The method[name : %s] of %s can't be found!", methodName,
+                    GuardedService.class.getName()), e);
+        }
+        this.service = new DefaultComponentEnhancer().enhance(new DefaultGuardedService(faultInjector),
+                GuardedService.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new ChaosDriver().run();
+    }
+
+    public void run() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(clients, new NamedThreadFactory("chaos-client"));
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                new NamedThreadFactory("chaos-scheduler"));
+        try {
+            execute(executor, warmupRequests);
+            outcomes.clear();
+            // The threads of clients have been started by the warmup
+            int baselineThreads = threadMXBean.getThreadCount();
+            long startedThreads = threadMXBean.getTotalStartedThreadCount();
+            threadMXBean.resetPeakThreadCount();
+            if (outageDuration > 0) {
+                scheduler.schedule(() -> faultInjector.setOutage(true), outageDelay, MILLISECONDS);
+                scheduler.schedule(() -> faultInjector.setOutage(false), outageDelay + outageDuration, MILLISECONDS);
+            }
+            long startTime = System.nanoTime();
+            long[] latencies = execute(executor, requests);
+            long elapsedTime = System.nanoTime() - startTime;
+            report(latencies, elapsedTime, baselineThreads, threadMXBean.getPeakThreadCount(),
+                    threadMXBean.getTotalStartedThreadCount() - startedThreads);
+        } finally {
+            scheduler.shutdownNow();
+            executor.shutdownNow();
+            faultInjector.setOutage(false);
+        }
+    }
+
+    /**
+     * Execute the requests of all clients concurrently
+     *
+     * @return the latencies of all requests in nanoseconds
+     */
+    private long[] execute(ExecutorService executor, int requests) throws Exception {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            String value = "client-" + i;
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                return executeClient(value, requests);
+            }));
+        }
+        startLatch.countDown();
+        long[] latencies = new long[clients * requests];
+        int position = 0;
+        for (Future<long[]> future : futures) {
+            long[] clientLatencies = future.get();
+            System.arraycopy(clientLatencies, 0, latencies, position, clientLatencies.length);
+            position += clientLatencies.length;
+        }
+        return latencies;
+    }
+
+    private long[] executeClient(String value, int requests) {
+        long[] latencies = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            long startTime = System.nanoTime();
+            String outcome = invoke(value);
+            latencies[i] = System.nanoTime() - startTime;
+            outcomes.computeIfAbsent(outcome, o -> new LongAdder()).increment();
+        }
+        return latencies;
+    }
+
+    /**
+     * Invoke the method of {@link GuardedService}
+     *
+     * @return the outcome
+     */
+    private String invoke(String value) {
+        try {
+            Object result = method.invoke(service, value);
+            if (result instanceof CompletionStage) {
+                result = ((CompletionStage<?>) result).toCompletableFuture().get();
+            }
+            return GuardedService.FALLBACK_RESULT.equals(result) ? FALLBACK_OUTCOME : SUCCESS_OUTCOME;
+        } catch (Throwable e) {
+            return resolveFailure(e).getClass().getSimpleName();
+        }
+    }
+
+    private Throwable resolveFailure(Throwable failure) {
+        while ((failure instanceof InvocationTargetException || failure instanceof ExecutionException
+                || failure instanceof CompletionException) && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        return failure;
+    }
+
+    private void report(long[] latencies, long elapsedTime, int baselineThreads, int peakThreads,
+                        long startedThreads) {
+        Arrays.sort(latencies);
+        long successes = count(SUCCESS_OUTCOME);
+        long fallbacks = count(FALLBACK_OUTCOME);
+        System.out.printf("Method : %s, Clients : %d, Faults : %s, Outage : %d ms%n", methodName, clients,
+                faultInjector, outageDuration);
+        System.out.printf("Requests : %d, Elapsed : %d ms, Throughput : %.1f ops/sec%n", latencies.length,
+                NANOSECONDS.toMillis(elapsedTime), latencies.length * 1e9 / elapsedTime);
+        System.out.printf("Success rate : %.2f%% (%.2f%% with fallbacks)%n", successes * 100.0 / latencies.length,
+                (successes + fallbacks) * 100.0 / latencies.length);
+        StringBuilder outcomeReport = new StringBuilder("Outcomes :");
+        outcomes.forEach((outcome, count) -> outcomeReport.append(format(" %s=%d,", outcome, count.sum())));
+        outcomeReport.setLength(outcomeReport.length() - 1);
+        System.out.println(outcomeReport);
+        StringBuilder latencyReport = new StringBuilder("Latency (us) :");
+        for (double percentile : PERCENTILES) {
+            latencyReport.append(format(" p%s=%.1f,", format("%.1f", percentile).replace(".0", ""),
+                    percentile(latencies, percentile) / 1e3));
+        }
+        latencyReport.append(format(" max=%.1f", latencies[latencies.length - 1] / 1e3));
+        System.out.println(latencyReport);
+        System.out.printf("Threads : baseline=%d, peak=%d (+%d), started=%d, common pool=%d%n", baselineThreads,
+                peakThreads, peakThreads - baselineThreads, startedThreads,
+                ForkJoinPool.commonPool().getPoolSize());
+    }
+
+    private long count(String outcome) {
+        LongAdder count = outcomes.get(outcome);
+        return count == null ? 0 : count.sum();
+    }
+
+    private static long percentile(long[] sortedValues, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sortedValues.length) - 1;
+        return sortedValues[Math.max(0, Math.min(index, sortedValues.length - 1))];
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance.benchmark;
+
+import org.geektimes.microprofile.faulttolerance.benchmark.FaultInjector.InjectedFault;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Default {@link GuardedService}, the faults are injected into every invocation by {@link FaultInjector}
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+public class DefaultGuardedService implements GuardedService {
+
+    private final FaultInjector faultInjector;
+
+    public DefaultGuardedService() {
+        this(FaultInjector.NONE);
+    }
+
+    public DefaultGuardedService(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
+    @Override
+    public String plain(String value) {
+        return echo(value);
+    }
+
+    @Override
+    public String circuitBreaker(String value) {
+        return echo(value);
+    }
+
+    @Override
+    public String retry(String value) {
+        return echo(value);
+    }
+
+    @Override
+    public String timeout(String value) {
+        return echo(value);
+    }
+
+    @Override
+    public String bulkhead(String value) {
+        return echo(value);
+    }
+
+    @Override
+    public String fallback(String value) {
+        return echo(value);
+    }
+
+    @Override
+    public String failing(String value) {
+        throw new InjectedFault(value);
+    }
+
+    @Override
+    public String circuitBreakerWithRetry(String value) {
+        return echo(value);
+    }
+
+    @Override
+    public String resilient(String value) {
+        return echo(value);
+    }
+
+    @Override
+    public CompletionStage<String> resilientAsynchronously(String value) {
+        return CompletableFuture.completedFuture(echo(value));
+    }
+
+    private String echo(String value) {
+        faultInjector.inject();
+        return value;
+    }
+}
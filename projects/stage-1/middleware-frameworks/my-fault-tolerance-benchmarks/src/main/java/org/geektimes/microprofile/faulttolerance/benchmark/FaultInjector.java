@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * The injector of the latencies and the exceptions into the invocations :
+ * <ul>
+ *     <li>the latency is exponentially distributed with the mean {@link #getLatency() latency}, and the
+ *     {@link #getTailPercentage() tail percentage} of the invocations take the {@link #getTailLatency() tail latency}
+ *     additionally, e.g, the full GC or the slow queries</li>
+ *     <li>the {@link #getFailurePercentage() failure percentage} of the invocations throw {@link InjectedFault}
+ *     after the latency</li>
+ *     <li>all invocations throw {@link InjectedFault} immediately during the {@link #setOutage(boolean) outage}</li>
+ * </ul>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+public class FaultInjector {
+
+    /**
+     * No latency and no failure
+     */
+    public static final FaultInjector NONE = new FaultInjector(0, 0, 0, 0);
+
+    /**
+     * The mean latency in microseconds
+     */
+    private final long latency;
+
+    /**
+     * The tail latency in microseconds
+     */
+    private final long tailLatency;
+
+    private final double tailPercentage;
+
+    private final double failurePercentage;
+
+    private volatile boolean outage;
+
+    public FaultInjector(long latency, long tailLatency, double tailPercentage, double failurePercentage) {
+        if (latency < 0 || tailLatency < 0) {
+            throw new IllegalArgumentException("The latencies must not be negative!");
+        }
+        if (tailPercentage < 0 || tailPercentage > 100 || failurePercentage < 0 || failurePercentage > 100) {
+            throw new IllegalArgumentException("The percentages must be in [0, 100]!");
+        }
+        this.latency = latency;
+        this.tailLatency = tailLatency;
+        this.tailPercentage = tailPercentage;
+        this.failurePercentage = failurePercentage;
+    }
+
+    /**
+     * Inject the latency and the failure into the current invocation
+     *
+     * @throws InjectedFault if the invocation is chosen to fail
+     */
+    public void inject() throws InjectedFault {
+        if (outage) {
+            throw new InjectedFault("outage");
+        }
+        Random random = ThreadLocalRandom.current();
+        long latency = 0;
+        if (this.latency > 0) {
+            latency += (long) (-Math.log(1.0 - random.nextDouble()) * this.latency);
+        }
+        if (tailPercentage > 0 && random.nextDouble() * 100 < tailPercentage) {
+            latency += tailLatency;
+        }
+        if (latency > 0) {
+            sleep(latency);
+        }
+        if (failurePercentage > 0 && random.nextDouble() * 100 < failurePercentage) {
+            throw new InjectedFault("failure");
+        }
+    }
+
+    private void sleep(long latency) {
+        try {
+            TimeUnit.MICROSECONDS.sleep(latency);
+        } catch (InterruptedException e) {
+            // The invocation is cancelled, e.g, timed out
+            Thread.currentThread().interrupt();
+            throw new InjectedFault("interrupted");
+        }
+    }
+
+    public long getLatency() {
+        return latency;
+    }
+
+    public long getTailLatency() {
+        return tailLatency;
+    }
+
+    public double getTailPercentage() {
+        return tailPercentage;
+    }
+
+    public double getFailurePercentage() {
+        return failurePercentage;
+    }
+
+    public boolean isOutage() {
+        return outage;
+    }
+
+    public void setOutage(boolean outage) {
+        this.outage = outage;
+    }
+
+    @Override
+    public String toString() {
+        return format("latency=%dus, tail=%dus(%.2f%%), failure=%.2f%%", latency, tailLatency, tailPercentage,
+                failurePercentage);
+    }
+
+    /**
+     * The injected exception, whose stack trace is not filled because it's thrown frequently
+     */
+    public static class InjectedFault extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public InjectedFault(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance.benchmark;
+
+import org.geektimes.interceptor.ComponentEnhancer;
+import org.geektimes.interceptor.DefaultComponentEnhancer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of the per-call overhead of the fault tolerance interceptors on the component enhanced by
+ * {@link DefaultComponentEnhancer}, the methods of {@link GuardedService} are guarded by one annotation or the
+ * combinations, and they neither block nor fail except {@link GuardedService#failing}, thus the differences from
+ * {@link #direct()} (the invocation without proxy) and {@link #plain()} (the proxy without interceptor) are the
+ * costs of the interceptors themselves, e.g :
+ * <pre>
+ * java -jar target/benchmarks.jar FaultToleranceOverheadBenchmark -t 8
+ * </pre>
+ * The injected latencies and failures are measured by {@link ChaosDriver}.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class FaultToleranceOverheadBenchmark {
+
+    private static final String VALUE = "Hello,World";
+
+    private GuardedService service;
+
+    private GuardedService enhancedService;
+
+    @Setup
+    public void setup() {
+        ComponentEnhancer enhancer = new DefaultComponentEnhancer();
+        service = new DefaultGuardedService();
+        // The interceptors are resolved by the bindings only, the default interceptors would be applied twice
+        enhancedService = enhancer.enhance(service, GuardedService.class);
+    }
+
+    @Benchmark
+    public String direct() {
+        return service.plain(VALUE);
+    }
+
+    @Benchmark
+    public String plain() {
+        return enhancedService.plain(VALUE);
+    }
+
+    @Benchmark
+    public String circuitBreaker() {
+        return enhancedService.circuitBreaker(VALUE);
+    }
+
+    @Benchmark
+    public String retry() {
+        return enhancedService.retry(VALUE);
+    }
+
+    @Benchmark
+    public String timeout() {
+        return enhancedService.timeout(VALUE);
+    }
+
+    @Benchmark
+    public String bulkhead() {
+        return enhancedService.bulkhead(VALUE);
+    }
+
+    @Benchmark
+    public String fallback() {
+        return enhancedService.fallback(VALUE);
+    }
+
+    @Benchmark
+    public String fallbackOnFailure() {
+        return enhancedService.failing(VALUE);
+    }
+
+    @Benchmark
+    public String circuitBreakerWithRetry() {
+        return enhancedService.circuitBreakerWithRetry(VALUE);
+    }
+
+    @Benchmark
+    public String resilient() {
+        return enhancedService.resilient(VALUE);
+    }
+
+    @Benchmark
+    public String resilientAsynchronously() {
+        return enhancedService.resilientAsynchronously(VALUE).toCompletableFuture().join();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance.benchmark;
+
+import org.eclipse.microprofile.faulttolerance.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The service whose methods are guarded by the annotations of MicroProfile Fault Tolerance, every method echoes the
+ * value, the fallback methods return {@link #FALLBACK_RESULT}.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+public interface GuardedService {
+
+    String FALLBACK_RESULT = "fallback";
+
+    /**
+     * The timeout in milliseconds
+     */
+    long TIMEOUT = 100;
+
+    int MAX_RETRIES = 2;
+
+    int MAX_CONCURRENT_REQUESTS = 32;
+
+    String plain(String value);
+
+    @CircuitBreaker
+    String circuitBreaker(String value);
+
+    @Retry(maxRetries = MAX_RETRIES)
+    String retry(String value);
+
+    @Timeout(TIMEOUT)
+    String timeout(String value);
+
+    @Bulkhead(MAX_CONCURRENT_REQUESTS)
+    String bulkhead(String value);
+
+    @Fallback(fallbackMethod = "recover")
+    String fallback(String value);
+
+    /**
+     * The method always fails, thus the result is always {@link #FALLBACK_RESULT}
+     */
+    @Fallback(fallbackMethod = "recover")
+    String failing(String value);
+
+    @CircuitBreaker
+    @Retry(maxRetries = MAX_RETRIES)
+    String circuitBreakerWithRetry(String value);
+
+    @CircuitBreaker
+    @Bulkhead(MAX_CONCURRENT_REQUESTS)
+    @Fallback(fallbackMethod = "recover")
+    @Retry(maxRetries = MAX_RETRIES)
+    @Timeout(TIMEOUT)
+    String resilient(String value);
+
+    @CircuitBreaker
+    @Bulkhead(value = MAX_CONCURRENT_REQUESTS, waitingTaskQueue = MAX_CONCURRENT_REQUESTS)
+    @Fallback(fallbackMethod = "recoverAsynchronously")
+    @Retry(maxRetries = MAX_RETRIES)
+    @Timeout(TIMEOUT)
+    @Asynchronous
+    CompletionStage<String> resilientAsynchronously(String value);
+
+    default String recover(String value) {
+        return FALLBACK_RESULT;
+    }
+
+    default CompletionStage<String> recoverAsynchronously(String value) {
+        return CompletableFuture.completedFuture(FALLBACK_RESULT);
+    }
+}
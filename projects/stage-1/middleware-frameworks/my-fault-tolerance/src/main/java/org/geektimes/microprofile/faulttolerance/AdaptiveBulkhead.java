@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+
+import java.lang.annotation.*;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Enables the adaptive mode of {@link Bulkhead} on the method or all methods of the class, the max concurrent
+ * requests starts at {@link Bulkhead#value()} and is resized within
+ * [{@link #minConcurrentRequests()}, {@link #maxConcurrentRequests()}] by the latencies and the queue wait times
+ * observed in every {@link #interval()} :
+ * <ul>
+ *     <li>decreased multiplicatively if the average latency exceeds the baseline by {@link #latencyTolerance()}
+ *     times, the baseline is the lowest average latency that drifts toward the recent ones slowly</li>
+ *     <li>otherwise increased by one if the average queue wait time exceeds {@link #maxWaitTime()}</li>
+ * </ul>
+ * It's ignored without {@link Bulkhead}.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface AdaptiveBulkhead {
+
+    /**
+     * @return the lower bound of max concurrent requests
+     */
+    int minConcurrentRequests() default 1;
+
+    /**
+     * @return the upper bound of max concurrent requests
+     */
+    int maxConcurrentRequests() default 100;
+
+    /**
+     * @return the average queue wait time tolerated before the max concurrent requests is increased
+     */
+    long maxWaitTime() default 10;
+
+    /**
+     * @return the interval of adjustments
+     */
+    long interval() default 1000;
+
+    /**
+     * @return the unit of {@link #maxWaitTime()} and {@link #interval()}
+     */
+    ChronoUnit unit() default ChronoUnit.MILLIS;
+
+    /**
+     * @return the ratio of the average latency to the baseline that the downstream is considered as overloaded
+     */
+    double latencyTolerance() default 2.0;
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceDefinitionException;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+import static org.geektimes.commons.util.TimeUtils.toTimeUnit;
+
+/**
+ * The limit of the concurrent requests resized by {@link AdaptiveBulkhead}, the samples are added by
+ * {@link LongAdder LongAdders}, and the thread winning the CAS of the next update time adjusts the limit, thus no
+ * lock is required.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see AdaptiveBulkhead
+ * @since 1.0.0
+ */
+class AdaptiveLimit {
+
+    /**
+     * The ratio of the decrease
+     */
+    static final double BACKOFF_RATIO = 0.9;
+
+    /**
+     * The baseline drifts toward the higher average latency by 1/N per update
+     */
+    static final int BASELINE_DRIFT = 20;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long maxWaitTime;
+
+    private final long interval;
+
+    private final double latencyTolerance;
+
+    private final LongAdder samples = new LongAdder();
+
+    private final LongAdder latencies = new LongAdder();
+
+    private final LongAdder waitTimes = new LongAdder();
+
+    private final AtomicLong nextUpdateTime;
+
+    private volatile int limit;
+
+    private volatile long baselineLatency = Long.MAX_VALUE;
+
+    AdaptiveLimit(int initialLimit, AdaptiveBulkhead adaptiveBulkhead, long startTime) {
+        this.minLimit = adaptiveBulkhead.minConcurrentRequests();
+        this.maxLimit = adaptiveBulkhead.maxConcurrentRequests();
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new FaultToleranceDefinitionException(format("The max concurrent requests[%d] must be in [%d, %d] " +
+                    "and the lower bound must be positive!", initialLimit, minLimit, maxLimit));
+        }
+        this.maxWaitTime = toTimeUnit(adaptiveBulkhead.unit()).toNanos(adaptiveBulkhead.maxWaitTime());
+        this.interval = toTimeUnit(adaptiveBulkhead.unit()).toNanos(adaptiveBulkhead.interval());
+        this.latencyTolerance = adaptiveBulkhead.latencyTolerance();
+        this.limit = initialLimit;
+        this.nextUpdateTime = new AtomicLong(startTime + interval);
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Reset the limit, which is bounded by {@link AdaptiveBulkhead}
+     *
+     * @param limit the new limit
+     */
+    void setLimit(int limit) {
+        this.limit = Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    /**
+     * Add the sample of the completed request
+     *
+     * @param latency  the execution time in nanoseconds
+     * @param waitTime the queue wait time in nanoseconds
+     * @param now      the current time in nanoseconds
+     */
+    void onSample(long latency, long waitTime, long now) {
+        samples.increment();
+        latencies.add(latency);
+        waitTimes.add(waitTime);
+        long nextUpdateTime = this.nextUpdateTime.get();
+        if (now - nextUpdateTime >= 0 && this.nextUpdateTime.compareAndSet(nextUpdateTime, now + interval)) {
+            update();
+        }
+    }
+
+    private void update() {
+        long count = samples.sumThenReset();
+        long totalLatency = latencies.sumThenReset();
+        long totalWaitTime = waitTimes.sumThenReset();
+        if (count < 1) {
+            return;
+        }
+        long averageLatency = totalLatency / count;
+        long averageWaitTime = totalWaitTime / count;
+
+        long baselineLatency = this.baselineLatency;
+        if (averageLatency < baselineLatency) {
+            baselineLatency = averageLatency;
+        } else {
+            // The downstream may become slower permanently
+            baselineLatency += (averageLatency - baselineLatency) / BASELINE_DRIFT;
+        }
+        this.baselineLatency = baselineLatency;
+
+        int limit = this.limit;
+        if (averageLatency > baselineLatency * latencyTolerance) {
+            // The downstream is overloaded, the fewer concurrent requests recover the latency
+            limit = Math.max(minLimit, Math.min(limit - 1, (int) (limit * BACKOFF_RATIO)));
+        } else if (averageWaitTime > maxWaitTime) {
+            // The latency is healthy, but the requests are queued too long
+            limit = Math.min(maxLimit, limit + 1);
+        }
+        this.limit = limit;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveLimit{" +
+                "minLimit=" + minLimit +
+                ", maxLimit=" + maxLimit +
+                ", maxWaitTime=" + maxWaitTime +
+                ", interval=" + interval +
+                ", latencyTolerance=" + latencyTolerance +
+                ", limit=" + limit +
+                ", baselineLatency=" + baselineLatency +
+                '}';
+    }
+}
@@ -18,7 +18,6 @@ package org.geektimes.microprofile.faulttolerance;
 
 import org.eclipse.microprofile.faulttolerance.Asynchronous;
 import org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceDefinitionException;
-import org.geektimes.commons.function.ThrowableSupplier;
 import org.geektimes.interceptor.AnnotatedInterceptor;
 
 import javax.annotation.Priority;
@@ -27,13 +26,16 @@ import javax.interceptor.InvocationContext;
 import java.lang.reflect.Method;
 import java.util.concurrent.*;
 
-import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static org.geektimes.microprofile.faulttolerance.AsynchronousInterceptor.ASYNCHRONOUS_PRIORITY;
+import static org.geektimes.microprofile.faulttolerance.AsynchronousUtils.complete;
+import static org.geektimes.microprofile.faulttolerance.AsynchronousUtils.proceed;
 import static org.geektimes.microprofile.faulttolerance.TimeoutInterceptor.TIMEOUT_PRIORITY;
 
 /**
  * The interceptor implementation for the annotation {@link Asynchronous} of
- * MicroProfile Fault Tolerance
+ * MicroProfile Fault Tolerance, the method is executed by the executor, and the result is always
+ * {@link CompletableFuture} completed by the {@link CompletionStage} or {@link Future} returned by the method, thus
+ * the outer interceptors could compose it without blocking.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0.0
@@ -55,10 +57,8 @@ public class AsynchronousInterceptor extends AnnotatedInterceptor<Asynchronous>
     @Override
     protected Object intercept(InvocationContext context, Asynchronous bindingAnnotation) throws Throwable {
         Method method = context.getMethod();
-        if (validateMethod(method, Future.class)) {
-            return executeFuture(context);
-        } else if (validateMethod(method, CompletionStage.class)) {
-            return executeCompletableFuture(context);
+        if (validateMethod(method, Future.class) || validateMethod(method, CompletionStage.class)) {
+            return execute(context);
         } else {
             throw new FaultToleranceDefinitionException("The return type of @Asynchronous method must be " +
                     "java.util.concurrent.Future or java.util.concurrent.CompletableFuture!");
@@ -71,11 +71,9 @@ public class AsynchronousInterceptor extends AnnotatedInterceptor<Asynchronous>
         return expectedReturnType.isAssignableFrom(returnType);
     }
 
-    private Future<?> executeFuture(InvocationContext context) {
-        return executor.submit(context::proceed);
-    }
-
-    private CompletableFuture<?> executeCompletableFuture(InvocationContext context) {
-        return supplyAsync(() -> ThrowableSupplier.execute(context::proceed), executor);
+    private CompletableFuture<Object> execute(InvocationContext context) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        executor.execute(() -> proceed(context).whenComplete((result, failure) -> complete(future, result, failure)));
+        return future;
     }
 }
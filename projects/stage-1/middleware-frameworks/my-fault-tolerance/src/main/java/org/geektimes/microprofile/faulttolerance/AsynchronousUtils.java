@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
+import org.geektimes.commons.concurrent.NamedThreadFactory;
+
+import javax.interceptor.InvocationContext;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+
+/**
+ * The utilities of the non-blocking execution for the {@link Asynchronous} methods, the fault tolerance
+ * interceptors compose the {@link CompletableFuture} returned by the next interceptor as the stages, and the delays
+ * (e.g, the retry delay and the timeout) are scheduled by the shared {@link #timer}, thus no thread is parked while
+ * waiting. The delayed actions are executed by the {@link #executor}, thus the dependent stages never run on
+ * the timer.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+abstract class AsynchronousUtils {
+
+    /**
+     * The shared timer only schedules the stages, which must not execute the blocking actions
+     */
+    static final ScheduledExecutorService timer = newTimer();
+
+    /**
+     * The executor of the delayed actions and the stages completed by them
+     */
+    static final Executor executor = ForkJoinPool.commonPool();
+
+    /**
+     * The min delay of polling the plain {@link Future} in nanoseconds
+     */
+    static final long MIN_POLL_DELAY = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * The max delay of polling the plain {@link Future} in nanoseconds
+     */
+    static final long MAX_POLL_DELAY = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private AsynchronousUtils() {
+    }
+
+    private static ScheduledExecutorService newTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1,
+                new NamedThreadFactory("FaultTolerance-Timer", true));
+        // The cancelled timeouts are removed eagerly
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * Schedule the action which is executed by the {@link #executor} after the delay
+     *
+     * @param action the action which may block or complete the stages
+     * @param delay  the delay
+     * @param unit   the unit of delay
+     * @return the {@link ScheduledFuture} cancelling the action before it's executed
+     */
+    static ScheduledFuture<?> schedule(Runnable action, long delay, TimeUnit unit) {
+        return timer.schedule(() -> executor.execute(action), delay, unit);
+    }
+
+    /**
+     * Whether the method is executed asynchronously, the non-blocking execution is only applied for the
+     * {@link Asynchronous} method returning {@link CompletionStage} or {@link Future}
+     *
+     * @param method {@link Method}
+     * @return <code>true</code> if asynchronous
+     */
+    static boolean isAsynchronous(Method method) {
+        if (!method.isAnnotationPresent(Asynchronous.class)
+                && !method.getDeclaringClass().isAnnotationPresent(Asynchronous.class)) {
+            return false;
+        }
+        Class<?> returnType = method.getReturnType();
+        return CompletionStage.class.isAssignableFrom(returnType) || Future.class.isAssignableFrom(returnType);
+    }
+
+    /**
+     * Proceed the invocation as {@link CompletableFuture}, the failure thrown is returned as the failed one
+     *
+     * @param context {@link InvocationContext}
+     * @return non-null
+     */
+    static CompletableFuture<Object> proceed(InvocationContext context) {
+        try {
+            return toCompletableFuture(context.proceed());
+        } catch (Throwable e) {
+            return failedFuture(e);
+        }
+    }
+
+    /**
+     * Convert the result of the asynchronous method to be {@link CompletableFuture}
+     *
+     * @param result the result of the asynchronous method
+     * @return non-null
+     */
+    static CompletableFuture<Object> toCompletableFuture(Object result) {
+        if (result instanceof CompletionStage) {
+            return ((CompletionStage<Object>) result).toCompletableFuture();
+        } else if (result instanceof Future) {
+            Future<Object> future = (Future<Object>) result;
+            if (future.isDone()) {
+                try {
+                    return CompletableFuture.completedFuture(future.get());
+                } catch (Throwable e) {
+                    return failedFuture(e);
+                }
+            }
+            // The plain Future can't be composed, it's polled by the timer without blocking any thread
+            CompletableFuture<Object> completableFuture = new CompletableFuture<>();
+            completableFuture.whenComplete((value, failure) -> {
+                if (completableFuture.isCancelled()) {
+                    future.cancel(true);
+                }
+            });
+            poll(future, completableFuture, MIN_POLL_DELAY);
+            return completableFuture;
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    /**
+     * Poll the {@link Future} with the exponential delays until it's done
+     */
+    private static void poll(Future<Object> future, CompletableFuture<Object> target, long delay) {
+        if (target.isDone()) {
+            return;
+        }
+        if (future.isDone()) {
+            executor.execute(() -> {
+                try {
+                    target.complete(future.get());
+                } catch (Throwable e) {
+                    target.completeExceptionally(resolveFailure(e));
+                }
+            });
+            return;
+        }
+        timer.schedule(() -> poll(future, target, Math.min(delay * 2, MAX_POLL_DELAY)), delay, TimeUnit.NANOSECONDS);
+    }
+
+    static <T> CompletableFuture<T> failedFuture(Throwable failure) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(resolveFailure(failure));
+        return future;
+    }
+
+    /**
+     * Complete the target by the result or the failure
+     */
+    static void complete(CompletableFuture<Object> target, Object result, Throwable failure) {
+        if (failure == null) {
+            target.complete(result);
+        } else {
+            target.completeExceptionally(resolveFailure(failure));
+        }
+    }
+
+    /**
+     * Get the actual failure wrapped by the reflection or the stages
+     *
+     * @param e the caught {@link Throwable}
+     * @return non-null
+     */
+    static Throwable resolveFailure(Throwable e) {
+        Throwable failure = e;
+        while ((failure instanceof InvocationTargetException || failure instanceof CompletionException
+                || failure instanceof ExecutionException) && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        return failure;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.geektimes.configuration.microprofile.config.ConfigChangeListener;
+import org.geektimes.configuration.microprofile.config.ObservableConfig;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.lang.String.format;
+import static org.eclipse.microprofile.config.spi.ConfigProviderResolver.instance;
+
+/**
+ * The {@link ConfigChangeListener} retunes the limits of {@link BulkheadState} once the properties of
+ * {@link Bulkhead} changed, the properties follow the convention of MicroProfile Fault Tolerance, the more specific
+ * one takes precedence :
+ * <ul>
+ *     <li>&lt;class name&gt;/&lt;method name&gt;/Bulkhead/&lt;parameter&gt;</li>
+ *     <li>&lt;class name&gt;/Bulkhead/&lt;parameter&gt;</li>
+ *     <li>Bulkhead/&lt;parameter&gt;</li>
+ * </ul>
+ * the parameter is "value" or "waitingTaskQueue", the values of annotation are used if absent.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ObservableConfig
+ * @since 1.0.0
+ */
+class BulkheadConfigListener implements ConfigChangeListener {
+
+    static final String VALUE_PARAMETER = "value";
+
+    static final String WAITING_TASK_QUEUE_PARAMETER = "waitingTaskQueue";
+
+    private static final Logger logger = Logger.getLogger(BulkheadConfigListener.class.getName());
+
+    private final Method method;
+
+    private final Bulkhead bulkhead;
+
+    private final BulkheadState state;
+
+    private final List<String> valuePropertyNames;
+
+    private final List<String> waitingTaskQueuePropertyNames;
+
+    private Config config;
+
+    BulkheadConfigListener(Method method, Bulkhead bulkhead, BulkheadState state) {
+        this.method = method;
+        this.bulkhead = bulkhead;
+        this.state = state;
+        this.valuePropertyNames = getPropertyNames(method, VALUE_PARAMETER);
+        this.waitingTaskQueuePropertyNames = getPropertyNames(method, WAITING_TASK_QUEUE_PARAMETER);
+    }
+
+    /**
+     * Bind the {@link BulkheadState} to the {@link Config} of the method's {@link ClassLoader}
+     *
+     * @param method   the method of bulkhead
+     * @param bulkhead {@link Bulkhead}
+     * @param state    {@link BulkheadState}
+     * @return <code>null</code> if no {@link Config} is available
+     */
+    static BulkheadConfigListener bind(Method method, Bulkhead bulkhead, BulkheadState state) {
+        Config config;
+        try {
+            config = instance().getConfig(method.getDeclaringClass().getClassLoader());
+        } catch (Throwable e) { // The failure of Config must not fail the invocation
+            logger.log(Level.WARNING, format("The Config of the bulkhead method[%s] can't be resolved", method), e);
+            return null;
+        }
+        BulkheadConfigListener listener = new BulkheadConfigListener(method, bulkhead, state);
+        listener.bind(config);
+        return listener;
+    }
+
+    /**
+     * Retune the limits by the current values of {@link Config} and observe their changes
+     *
+     * @param config {@link Config}
+     */
+    void bind(Config config) {
+        this.config = config;
+        retune(config);
+        if (config instanceof ObservableConfig) {
+            ((ObservableConfig) config).addChangeListener(this);
+        }
+    }
+
+    /**
+     * Stop observing the changes of {@link Config}
+     */
+    void unbind() {
+        Config config = this.config;
+        if (config instanceof ObservableConfig) {
+            ((ObservableConfig) config).removeChangeListener(this);
+        }
+        this.config = null;
+    }
+
+    @Override
+    public void onChange(Config config, Set<String> changedPropertyNames) {
+        if (valuePropertyNames.stream().anyMatch(changedPropertyNames::contains) ||
+                waitingTaskQueuePropertyNames.stream().anyMatch(changedPropertyNames::contains)) {
+            retune(config);
+        }
+    }
+
+    private void retune(Config config) {
+        int value = getValue(config, valuePropertyNames, bulkhead.value());
+        int waitingTaskQueue = getValue(config, waitingTaskQueuePropertyNames, bulkhead.waitingTaskQueue());
+        try {
+            state.retune(value, waitingTaskQueue);
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.WARNING, format("The bulkhead of method[%s] can't be retuned", method), e);
+        }
+    }
+
+    private int getValue(Config config, List<String> propertyNames, int defaultValue) {
+        for (String propertyName : propertyNames) {
+            try {
+                Optional<Integer> value = config.getOptionalValue(propertyName, Integer.class);
+                if (value.isPresent()) {
+                    return value.get();
+                }
+            } catch (IllegalArgumentException e) {
+                logger.log(Level.WARNING, format("The property[name : %s] of bulkhead must be an integer",
+                        propertyName), e);
+            }
+        }
+        return defaultValue;
+    }
+
+    static List<String> getPropertyNames(Method method, String parameter) {
+        String annotation = Bulkhead.class.getSimpleName();
+        String className = method.getDeclaringClass().getName();
+        return Arrays.asList(
+                className + "/" + method.getName() + "/" + annotation + "/" + parameter,
+                className + "/" + annotation + "/" + parameter,
+                annotation + "/" + parameter);
+    }
+}
@@ -16,27 +16,38 @@
  */
 package org.geektimes.microprofile.faulttolerance;
 
-import org.eclipse.microprofile.faulttolerance.Asynchronous;
 import org.eclipse.microprofile.faulttolerance.Bulkhead;
-import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
 import org.geektimes.interceptor.AnnotatedInterceptor;
 
 import javax.annotation.Priority;
 import javax.interceptor.Interceptor;
 import javax.interceptor.InvocationContext;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Method;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import static java.lang.String.format;
+import static org.geektimes.commons.reflect.util.ClassUtils.isPresent;
+import static org.geektimes.microprofile.faulttolerance.AsynchronousUtils.isAsynchronous;
 import static org.geektimes.microprofile.faulttolerance.BulkheadInterceptor.BULKHEAD_PRIORITY;
 import static org.geektimes.microprofile.faulttolerance.CircuitBreakerInterceptor.CIRCUIT_BREAKER_PRIORITY;
 
 /**
  * The interceptor implementation for the annotation {@link Bulkhead} of
- * MicroProfile Fault Tolerance
+ * MicroProfile Fault Tolerance, the {@link BulkheadState state} is isolated per method even if the annotations are
+ * equal, and is exported as {@link BulkheadMXBean}. The {@link org.eclipse.microprofile.faulttolerance.Asynchronous}
+ * methods are isolated without blocking the callers, the others are isolated by the semaphores. The limits are
+ * retuned at runtime once the properties of {@link BulkheadConfigListener} changed.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see AdaptiveBulkhead
  * @since 1.0.0
  */
 @Bulkhead
@@ -46,9 +57,17 @@ public class BulkheadInterceptor extends AnnotatedInterceptor<Bulkhead> {
 
     public static final int BULKHEAD_PRIORITY = CIRCUIT_BREAKER_PRIORITY + 100;
 
-    private final ConcurrentMap<Bulkhead, ExecutorService> executorsCache = new ConcurrentHashMap<>();
+    public static final String MBEAN_DOMAIN = "org.geektimes.microprofile.faulttolerance";
 
-    private final ConcurrentHashMap<Bulkhead, Semaphore> semaphoresCache = new ConcurrentHashMap<>();
+    private static final Logger logger = Logger.getLogger(BulkheadInterceptor.class.getName());
+
+    private static final boolean CONFIG_PRESENT = isPresent(
+            "org.geektimes.configuration.microprofile.config.ObservableConfig",
+            BulkheadInterceptor.class.getClassLoader());
+
+    private static final ConcurrentMap<Method, BulkheadState> statesCache = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<Method, BulkheadConfigListener> configListeners = new ConcurrentHashMap<>();
 
     public BulkheadInterceptor() {
         super();
@@ -57,93 +76,106 @@ public class BulkheadInterceptor extends AnnotatedInterceptor<Bulkhead> {
     @Override
     protected Object intercept(InvocationContext context, Bulkhead bulkhead) throws Exception {
         Method method = context.getMethod();
+        BulkheadState state = getState(method, bulkhead);
         if (isThreadIsolation(method)) {
-            return executeInThreadIsolation(context, bulkhead);
+            return state.executeAsynchronously(context);
         } else {
-            return executeInSemaphoreIsolation(context, bulkhead);
+            return state.execute(context);
         }
     }
 
-    private Object executeInThreadIsolation(InvocationContext context, Bulkhead bulkhead) throws Exception {
-        ExecutorService executorService = executorsCache.computeIfAbsent(bulkhead, key -> {
-            int fixedThreadPoolSize = bulkhead.value();
-            int waitingTaskQueueSize = bulkhead.waitingTaskQueue();
-            ThreadPoolExecutor executor = new ThreadPoolExecutor(fixedThreadPoolSize, fixedThreadPoolSize,
-                    0, TimeUnit.MILLISECONDS,
-                    new ArrayBlockingQueue<>(waitingTaskQueueSize),
-                    new BulkheadThreadFactory(),
-                    new BulkheadExceptionRejectedExecutionHandler()
-            );
-            return executor;
-        });
-
-        Future<Object> future = executorService.submit(context::proceed);
-        return future.get();
+    private boolean isThreadIsolation(Method method) {
+        return isAsynchronous(method);
     }
 
-    private Object executeInSemaphoreIsolation(InvocationContext context, Bulkhead bulkhead) throws Exception {
-
-        int maxConcurrentRequests = bulkhead.value();
-
-        Semaphore semaphore = semaphoresCache.computeIfAbsent(bulkhead,
-                key -> new Semaphore(maxConcurrentRequests));
+    static BulkheadState getState(Method method, Bulkhead bulkhead) {
+        BulkheadState state = statesCache.get(method);
+        if (state == null) {
+            BulkheadState newState = new BulkheadState(bulkhead, getAdaptiveBulkhead(method));
+            state = statesCache.putIfAbsent(method, newState);
+            if (state == null) {
+                // Only the winner binds the Config and registers the MBean
+                state = newState;
+                if (CONFIG_PRESENT) {
+                    BulkheadConfigListener configListener = BulkheadConfigListener.bind(method, bulkhead, state);
+                    if (configListener != null) {
+                        configListeners.put(method, configListener);
+                    }
+                }
+                registerMBean(method, state);
+            }
+        }
+        return state;
+    }
 
-        Object result = null;
-        if (!semaphore.tryAcquire()) { // No semaphore available
-            throw new BulkheadException(
-                    format("The concurrent requests exceed the threshold[%d] under thread isolation",
-                            maxConcurrentRequests));
+    /**
+     * Release the bulkhead of the method, its {@link BulkheadMXBean} is unregistered, and its state will be
+     * recreated by the next invocation.
+     *
+     * @param method the method of bulkhead
+     */
+    public static void release(Method method) {
+        if (statesCache.remove(method) == null) {
+            return;
         }
-        try {
-            result = context.proceed();
-        } finally {
-            semaphore.release();
+        BulkheadConfigListener configListener = configListeners.remove(method);
+        if (configListener != null) {
+            configListener.unbind();
         }
-
-        return result;
+        unregisterMBean(method);
     }
 
-    private boolean isThreadIsolation(Method method) {
-        return method.isAnnotationPresent(Asynchronous.class);
+    /**
+     * Release the bulkheads of the methods declared by the classes of the {@link ClassLoader}, which is required
+     * before the {@link ClassLoader} is discarded, e.g. the web application is undeployed.
+     *
+     * @param classLoader {@link ClassLoader}
+     */
+    public static void release(ClassLoader classLoader) {
+        for (Method method : statesCache.keySet()) {
+            if (method.getDeclaringClass().getClassLoader() == classLoader) {
+                release(method);
+            }
+        }
     }
 
-    private static class BulkheadThreadFactory implements ThreadFactory {
-
-        private static final AtomicInteger poolNumber = new AtomicInteger(1);
-        private final ThreadGroup group;
-        private final AtomicInteger threadNumber = new AtomicInteger(1);
-        private final String namePrefix;
+    private static AdaptiveBulkhead getAdaptiveBulkhead(Method method) {
+        AdaptiveBulkhead adaptiveBulkhead = method.getAnnotation(AdaptiveBulkhead.class);
+        return adaptiveBulkhead == null ? method.getDeclaringClass().getAnnotation(AdaptiveBulkhead.class) :
+                adaptiveBulkhead;
+    }
 
-        private BulkheadThreadFactory() {
-            SecurityManager s = System.getSecurityManager();
-            group = (s != null) ? s.getThreadGroup() :
-                    Thread.currentThread().getThreadGroup();
-            namePrefix = "Bulkhead-pool-" +
-                    poolNumber.getAndIncrement() +
-                    "-thread-";
+    static ObjectName createObjectName(Method method) throws Exception {
+        StringJoiner parameterTypes = new StringJoiner(",", "(", ")");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            parameterTypes.add(parameterType.getTypeName());
         }
+        String name = method.getDeclaringClass().getName() + "#" + method.getName() + parameterTypes;
+        return new ObjectName(format("%s:type=Bulkhead,name=%s", MBEAN_DOMAIN, ObjectName.quote(name)));
+    }
 
-        public Thread newThread(Runnable r) {
-            Thread t = new Thread(group, r, namePrefix + threadNumber.getAndIncrement());
-            if (t.isDaemon())
-                t.setDaemon(false);
-            if (t.getPriority() != Thread.NORM_PRIORITY)
-                t.setPriority(Thread.NORM_PRIORITY);
-            return t;
+    private static void registerMBean(Method method, BulkheadState state) {
+        // The failure of JMX must not fail the invocation
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = createObjectName(method);
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(new StandardMBean(state, BulkheadMXBean.class, true), objectName);
+            }
+        } catch (Exception e) {
+            logger.log(Level.WARNING, format("The BulkheadMXBean of method[%s] can't be registered", method), e);
         }
-
     }
 
-    private static class BulkheadExceptionRejectedExecutionHandler implements RejectedExecutionHandler {
-
-        @Override
-        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
-            int fixedThreadPoolSize = executor.getPoolSize();
-            int waitingTaskQueueSize = executor.getQueue().size();
-            throw new BulkheadException(
-                    format("The concurrent request was rejected by the ThreadPoolExecutor[size: %d , queue: d] under semaphore isolation",
-                            fixedThreadPoolSize, waitingTaskQueueSize));
+    private static void unregisterMBean(Method method) {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = createObjectName(method);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            logger.log(Level.WARNING, format("The BulkheadMXBean of method[%s] can't be unregistered", method), e);
         }
     }
-
 }
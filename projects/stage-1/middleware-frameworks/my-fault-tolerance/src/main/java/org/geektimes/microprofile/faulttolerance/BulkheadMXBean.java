@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+
+import java.util.Map;
+
+/**
+ * The MXBean of the {@link Bulkhead} per method, which is registered as
+ * "org.geektimes.microprofile.faulttolerance:type=Bulkhead,name=&lt;method&gt;".
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public interface BulkheadMXBean {
+
+    /**
+     * @return the current max concurrent requests, which is resized in the adaptive mode
+     */
+    int getMaxConcurrentRequests();
+
+    int getWaitingTaskQueue();
+
+    boolean isAdaptive();
+
+    int getActiveRequests();
+
+    int getQueuedRequests();
+
+    long getRejectedRequests();
+
+    /**
+     * @return the counts of the queue wait times of the queued requests, the key is the upper bound of the bucket in
+     * milliseconds, the last one is "+Inf"
+     */
+    Map<String, Long> getWaitTimeHistogram();
+}
@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+
+import javax.interceptor.InvocationContext;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static java.lang.String.format;
+import static org.geektimes.microprofile.faulttolerance.AsynchronousUtils.*;
+
+/**
+ * The state of {@link Bulkhead} per method, the running and the waiting requests are counted by CAS against the
+ * current limit, which is resized by {@link AdaptiveLimit} if {@link AdaptiveBulkhead} is present :
+ * <ul>
+ *     <li>the synchronous requests are rejected once the limit is reached (semaphore isolation)</li>
+ *     <li>the asynchronous requests are queued up to {@link Bulkhead#waitingTaskQueue()}, the queued ones are
+ *     started once the running ones complete, thus no thread is parked (thread isolation)</li>
+ * </ul>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see BulkheadMXBean
+ * @since 1.0.0
+ */
+class BulkheadState implements BulkheadMXBean {
+
+    /**
+     * The upper bounds of the buckets of wait time histogram in milliseconds
+     */
+    static final long[] WAIT_TIME_BOUNDS = {1, 5, 10, 50, 100, 500, 1000, 5000};
+
+    private volatile int maxConcurrentRequests;
+
+    private volatile int waitingTaskQueueSize;
+
+    private final AdaptiveLimit adaptiveLimit;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger runningRequests = new AtomicInteger();
+
+    private final AtomicInteger waitingRequests = new AtomicInteger();
+
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    private final Queue<Runnable> waitingTasks = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder[] waitTimeCounts;
+
+    BulkheadState(Bulkhead bulkhead, AdaptiveBulkhead adaptiveBulkhead) {
+        this(bulkhead, adaptiveBulkhead, System::nanoTime);
+    }
+
+    BulkheadState(Bulkhead bulkhead, AdaptiveBulkhead adaptiveBulkhead, LongSupplier nanoClock) {
+        this.maxConcurrentRequests = bulkhead.value();
+        this.waitingTaskQueueSize = bulkhead.waitingTaskQueue();
+        this.adaptiveLimit = adaptiveBulkhead == null ? null :
+                new AdaptiveLimit(maxConcurrentRequests, adaptiveBulkhead, nanoClock.getAsLong());
+        this.nanoClock = nanoClock;
+        this.waitTimeCounts = new LongAdder[WAIT_TIME_BOUNDS.length + 1];
+        for (int i = 0; i < waitTimeCounts.length; i++) {
+            waitTimeCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Execute the synchronous request in semaphore isolation
+     *
+     * @param context {@link InvocationContext}
+     * @return the result of execution
+     * @throws BulkheadException if the limit is reached
+     * @throws Exception         the failure of execution
+     */
+    Object execute(InvocationContext context) throws Exception {
+        if (!tryAcquire()) {
+            rejectedRequests.increment();
+            throw new BulkheadException(format("The concurrent requests exceed the threshold[%d] " +
+                    "under semaphore isolation", getMaxConcurrentRequests()));
+        }
+        long startTime = nanoClock.getAsLong();
+        try {
+            return context.proceed();
+        } finally {
+            release(startTime, 0);
+        }
+    }
+
+    /**
+     * Execute the asynchronous request in thread isolation without blocking
+     *
+     * @param context {@link InvocationContext}
+     * @return the stage of execution, which is failed by {@link BulkheadException} if the queue is full
+     */
+    CompletableFuture<Object> executeAsynchronously(InvocationContext context) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        long queuedTime = nanoClock.getAsLong();
+        Runnable task = () -> {
+            long startTime = nanoClock.getAsLong();
+            long waitTime = startTime - queuedTime;
+            proceed(context).whenComplete((value, failure) -> {
+                release(startTime, waitTime);
+                complete(result, value, failure);
+            });
+        };
+        if (tryAcquire()) {
+            task.run();
+        } else if (tryEnqueue()) {
+            // Only the queued requests wait
+            waitingTasks.offer(() -> {
+                recordWaitTime(nanoClock.getAsLong() - queuedTime);
+                task.run();
+            });
+            // The running executions may complete before the task is queued
+            drain();
+        } else {
+            rejectedRequests.increment();
+            return failedFuture(new BulkheadException(
+                    format("The concurrent request was rejected by the bulkhead[size : %d , waiting queue : %d] " +
+                            "under thread isolation", getMaxConcurrentRequests(), waitingTaskQueueSize)));
+        }
+        return result;
+    }
+
+    /**
+     * Retune the limits at runtime, the queued requests are started at once if the limit is increased, and
+     * the excessive ones complete as usual if it's decreased.
+     *
+     * @param maxConcurrentRequests the max concurrent requests, which is the current limit if adaptive
+     * @param waitingTaskQueue      the size of waiting task queue
+     * @throws IllegalArgumentException if any limit is not positive
+     */
+    void retune(int maxConcurrentRequests, int waitingTaskQueue) throws IllegalArgumentException {
+        if (maxConcurrentRequests < 1 || waitingTaskQueue < 1) {
+            throw new IllegalArgumentException(format("The bulkhead[size : %d , waiting queue : %d] must be " +
+                    "positive!", maxConcurrentRequests, waitingTaskQueue));
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.waitingTaskQueueSize = waitingTaskQueue;
+        if (adaptiveLimit != null) {
+            adaptiveLimit.setLimit(maxConcurrentRequests);
+        }
+        drain();
+    }
+
+    private boolean tryAcquire() {
+        return increment(runningRequests, getMaxConcurrentRequests());
+    }
+
+    private boolean tryEnqueue() {
+        return increment(waitingRequests, waitingTaskQueueSize);
+    }
+
+    private void release(long startTime, long waitTime) {
+        runningRequests.decrementAndGet();
+        if (adaptiveLimit != null) {
+            long now = nanoClock.getAsLong();
+            adaptiveLimit.onSample(now - startTime, waitTime, now);
+        }
+        drain();
+    }
+
+    private void drain() {
+        while (!waitingTasks.isEmpty() && tryAcquire()) {
+            Runnable task = waitingTasks.poll();
+            if (task == null) { // The task was taken by the other thread
+                runningRequests.decrementAndGet();
+                continue;
+            }
+            waitingRequests.decrementAndGet();
+            task.run();
+        }
+    }
+
+    private void recordWaitTime(long waitTime) {
+        long waitTimeMillis = TimeUnit.NANOSECONDS.toMillis(waitTime);
+        int index = 0;
+        while (index < WAIT_TIME_BOUNDS.length && waitTimeMillis > WAIT_TIME_BOUNDS[index]) {
+            index++;
+        }
+        waitTimeCounts[index].increment();
+    }
+
+    private static boolean increment(AtomicInteger counter, int limit) {
+        int count;
+        do {
+            count = counter.get();
+            if (count >= limit) {
+                return false;
+            }
+        } while (!counter.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    @Override
+    public int getMaxConcurrentRequests() {
+        return adaptiveLimit == null ? maxConcurrentRequests : adaptiveLimit.getLimit();
+    }
+
+    @Override
+    public int getWaitingTaskQueue() {
+        return waitingTaskQueueSize;
+    }
+
+    @Override
+    public boolean isAdaptive() {
+        return adaptiveLimit != null;
+    }
+
+    @Override
+    public int getActiveRequests() {
+        return runningRequests.get();
+    }
+
+    @Override
+    public int getQueuedRequests() {
+        return waitingRequests.get();
+    }
+
+    @Override
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    @Override
+    public Map<String, Long> getWaitTimeHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < WAIT_TIME_BOUNDS.length; i++) {
+            histogram.put(String.valueOf(WAIT_TIME_BOUNDS[i]), waitTimeCounts[i].sum());
+        }
+        histogram.put("+Inf", waitTimeCounts[WAIT_TIME_BOUNDS.length].sum());
+        return histogram;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkheadState{" +
+                "maxConcurrentRequests=" + getMaxConcurrentRequests() +
+                ", waitingTaskQueue=" + waitingTaskQueueSize +
+                ", activeRequests=" + getActiveRequests() +
+                ", queuedRequests=" + getQueuedRequests() +
+                ", rejectedRequests=" + getRejectedRequests() +
+                (adaptiveLimit == null ? "" : ", adaptiveLimit=" + adaptiveLimit) +
+                '}';
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import javax.cache.Cache;
+import javax.cache.CacheException;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.Duration;
+import javax.cache.expiry.ModifiedExpiryPolicy;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.MutableEntry;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * The {@link RateLimiter} sharing the state between the nodes through {@link Cache}, the state is updated by
+ * {@link Cache#invoke(Object, EntryProcessor, Object...) the entry processor} that is atomic per entry, and the
+ * wall clock of the node executing the processor is used, thus the limit is consistent if the processor is executed
+ * by the owner of the entry. The entry expires once its state is no longer effective after the last modification,
+ * thus the keys of {@link RateLimit#keyParameter()} are not retained by the shared cache.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+class CachingRateLimiter implements RateLimiter {
+
+    private final Cache<String, long[]> cache;
+
+    private final String key;
+
+    private final EntryProcessor<String, long[], Long> processor;
+
+    private CachingRateLimiter(Cache<String, long[]> cache, String key, EntryProcessor<String, long[], Long> processor) {
+        this.cache = cache;
+        this.key = key;
+        this.processor = processor;
+    }
+
+    static Function<String, RateLimiter> tokenBucketFactory(String cacheName, ClassLoader classLoader,
+                                                            long interval, long tolerance) {
+        // The bucket is full after the theoretical arrival time that is (interval + tolerance) later at most
+        Cache<String, long[]> cache = getCache(cacheName, classLoader, interval + tolerance);
+        TokenBucketProcessor processor = new TokenBucketProcessor(interval, tolerance);
+        return key -> new CachingRateLimiter(cache, key, processor);
+    }
+
+    static Function<String, RateLimiter> slidingWindowFactory(String cacheName, ClassLoader classLoader,
+                                                              long size, long permits) {
+        // The previous window is counted no longer than twice of the size
+        Cache<String, long[]> cache = getCache(cacheName, classLoader, 2 * size);
+        SlidingWindowProcessor processor = new SlidingWindowProcessor(size, permits);
+        return key -> new CachingRateLimiter(cache, key, processor);
+    }
+
+    /**
+     * Get or create the cache of the states
+     *
+     * @param cacheName   the name of cache
+     * @param classLoader the {@link ClassLoader} of the caching provider
+     * @param expiry      the expiry of the modified entries in nanoseconds, it's applied when the cache is created
+     * @return non-null
+     */
+    private static Cache<String, long[]> getCache(String cacheName, ClassLoader classLoader, long expiry) {
+        CacheManager cacheManager = Caching.getCachingProvider(classLoader).getCacheManager();
+        Cache<String, long[]> cache = cacheManager.getCache(cacheName, String.class, long[].class);
+        if (cache == null) {
+            try {
+                cache = cacheManager.createCache(cacheName,
+                        new MutableConfiguration<String, long[]>()
+                                .setTypes(String.class, long[].class)
+                                .setExpiryPolicyFactory(ModifiedExpiryPolicy.factoryOf(
+                                        new Duration(TimeUnit.MILLISECONDS, toMillis(expiry)))));
+            } catch (CacheException e) { // Created by the other thread
+                cache = cacheManager.getCache(cacheName, String.class, long[].class);
+            }
+        }
+        return cache;
+    }
+
+    @Override
+    public long tryAcquire() {
+        Long waitTime = cache.invoke(key, processor);
+        return waitTime == null ? 0 : waitTime;
+    }
+
+    /**
+     * The state is held by the cache, whose entry expires after it's idle
+     */
+    @Override
+    public boolean isIdle() {
+        return true;
+    }
+
+    private static long toMillis(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos + TimeUnit.MILLISECONDS.toNanos(1) - 1));
+    }
+
+    private static long currentTimeNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    }
+
+    /**
+     * The state : [theoretical arrival time]
+     *
+     * @see TokenBucketRateLimiter
+     */
+    static class TokenBucketProcessor implements EntryProcessor<String, long[], Long>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long interval;
+
+        private final long tolerance;
+
+        TokenBucketProcessor(long interval, long tolerance) {
+            this.interval = interval;
+            this.tolerance = tolerance;
+        }
+
+        @Override
+        public Long process(MutableEntry<String, long[]> entry, Object... arguments) {
+            long now = currentTimeNanos();
+            long[] state = entry.getValue();
+            long theoreticalArrivalTime = state == null ? now : state[0];
+            long waitTime = TokenBucketRateLimiter.getWaitTime(theoreticalArrivalTime, now, tolerance);
+            if (waitTime == 0) {
+                entry.setValue(new long[]{TokenBucketRateLimiter.nextArrivalTime(theoreticalArrivalTime, now,
+                        interval)});
+            }
+            return waitTime;
+        }
+    }
+
+    /**
+     * The state : [start of current window, count of previous window, count of current window]
+     *
+     * @see SlidingWindowRateLimiter
+     */
+    static class SlidingWindowProcessor implements EntryProcessor<String, long[], Long>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long size;
+
+        private final long permits;
+
+        SlidingWindowProcessor(long size, long permits) {
+            this.size = size;
+            this.permits = permits;
+        }
+
+        @Override
+        public Long process(MutableEntry<String, long[]> entry, Object... arguments) {
+            long now = currentTimeNanos();
+            long[] state = entry.getValue();
+            long start = state == null ? now : state[0];
+            long previousCount = state == null ? 0 : state[1];
+            long count = state == null ? 0 : state[2];
+            if (now - start >= size) { // Roll the window
+                long windows = (now - start) / size;
+                start += windows * size;
+                previousCount = windows == 1 ? count : 0;
+                count = 0;
+            }
+            long waitTime = SlidingWindowRateLimiter.getWaitTime(now - start, previousCount, count, size, permits);
+            if (waitTime == 0) {
+                count++;
+            }
+            entry.setValue(new long[]{start, previousCount, count});
+            return waitTime;
+        }
+    }
+}
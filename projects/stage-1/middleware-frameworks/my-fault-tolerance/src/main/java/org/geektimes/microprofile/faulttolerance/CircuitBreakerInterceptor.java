@@ -17,26 +17,24 @@
 package org.geektimes.microprofile.faulttolerance;
 
 import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
-import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
-import org.geektimes.commons.util.TimeUtils;
 import org.geektimes.interceptor.AnnotatedInterceptor;
 
 import javax.annotation.Priority;
 import javax.interceptor.Interceptor;
 import javax.interceptor.InvocationContext;
-import java.util.Arrays;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.LongAdder;
 
 import static javax.interceptor.Interceptor.Priority.LIBRARY_BEFORE;
-import static org.geektimes.commons.reflect.util.ClassUtils.isDerived;
+import static org.geektimes.microprofile.faulttolerance.AsynchronousUtils.*;
 import static org.geektimes.microprofile.faulttolerance.CircuitBreakerInterceptor.CIRCUIT_BREAKER_PRIORITY;
 
 /**
  * The interceptor implementation for the annotation {@link CircuitBreaker} of
- * MicroProfile Fault Tolerance
+ * MicroProfile Fault Tolerance, the {@link CircuitBreakerState state} is shared per method, thus all instances of
+ * the interceptor see the same circuit.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0.0
@@ -48,7 +46,7 @@ public class CircuitBreakerInterceptor extends AnnotatedInterceptor<CircuitBreak
 
     public static final int CIRCUIT_BREAKER_PRIORITY = LIBRARY_BEFORE + 100;
 
-    private final ConcurrentMap<CircuitBreaker, CountableSlidingWindow> slidingWindowsCache = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Method, CircuitBreakerState> statesCache = new ConcurrentHashMap<>();
 
     public CircuitBreakerInterceptor() {
         super();
@@ -56,210 +54,49 @@ public class CircuitBreakerInterceptor extends AnnotatedInterceptor<CircuitBreak
 
     @Override
     protected Object intercept(InvocationContext context, CircuitBreaker circuitBreaker) throws Throwable {
-        CountableSlidingWindow slidingWindow = getSlidingWindow(circuitBreaker);
-        if (slidingWindow.isOpen()) {
-            throw new CircuitBreakerOpenException(slidingWindow.toString());
+        CircuitBreakerState state = getState(context.getMethod(), circuitBreaker);
+        if (isAsynchronous(context.getMethod())) {
+            return interceptAsynchronously(context, state);
         }
-        if (slidingWindow.shouldReset()) {
-            slidingWindow.reset();
-        }
-        Object result = null;
+        CircuitBreakerState.Phase phase = state.acquire();
+        Object result;
         try {
             result = context.proceed();
-            slidingWindow.success();
         } catch (Throwable e) {
             Throwable failure = getFailure(e);
-            slidingWindow.failure(failure);
+            state.onFailure(phase, failure);
+            throw failure;
         }
+        state.onSuccess(phase);
         return result;
     }
 
-    CountableSlidingWindow getSlidingWindow(CircuitBreaker circuitBreaker) {
-        return slidingWindowsCache.computeIfAbsent(circuitBreaker, key -> new CountableSlidingWindow(key))
-                .calculateStatus();
-    }
-
-    static class CountableSlidingWindow {
-
-        public static final int CLOSED_STATUS = 0;
-
-        public static final int OPEN_STATUS = 1;
-
-        public static final int HALF_OPEN_STATUS = 2;
-
-        // Configuration fields
-
-        private final Class<? extends Throwable>[] appliedFailures;
-
-        private final Class<? extends Throwable>[] ignoredFailures;
-
-        private final long delay;
-
-        private final int requestVolumeThreshold;
-
-        private final double failureRatio;
-
-        private final int successThreshold;
-
-        // status fields
-
-        private volatile long createdTime;
-
-        private volatile long openTime;
-
-        private volatile int status;
-
-        private final LongAdder requests = new LongAdder();
-
-        private final LongAdder failures = new LongAdder();
-
-        private final LongAdder successTrials = new LongAdder();
-
-        public CountableSlidingWindow(CircuitBreaker circuitBreaker) {
-            this.reset();
-            this.appliedFailures = circuitBreaker.failOn();
-            this.ignoredFailures = circuitBreaker.skipOn();
-            this.delay = getDelay(circuitBreaker);
-            this.requestVolumeThreshold = circuitBreaker.requestVolumeThreshold();
-            this.failureRatio = circuitBreaker.failureRatio();
-            this.successThreshold = circuitBreaker.successThreshold();
-        }
-
-        private long getDelay(CircuitBreaker circuitBreaker) {
-            TimeUnit timeUnit = TimeUtils.toTimeUnit(circuitBreaker.delayUnit());
-            return timeUnit.toNanos(circuitBreaker.delay());
-        }
-
-        private CountableSlidingWindow success() {
-            if (isHalfOpen()) {
-                successTrials.increment();
-            }
-            requests.increment();
-            return this;
-        }
-
-        private CountableSlidingWindow failure(Throwable failure) {
-            if (isOnFailure(failure)) {
-                failures.increment();
-            }
-            requests.increment();
-            return this;
-        }
-
-        private boolean isOnFailure(Throwable failure) {
-            Class<? extends Throwable> failureClass = failure.getClass();
-            return isDerived(failureClass, appliedFailures) && !isDerived(failureClass, ignoredFailures);
-        }
-
-        private CountableSlidingWindow calculateStatus() {
-            if (isClosed()) {
-
-                // Status : CLOSED -> OPEN
-                /**
-                 * If a failure occurs, the Circuit Breaker records the event.
-                 * In closed state the requestVolumeThreshold and failureRatio parameters may be configured
-                 * in order to specify the conditions under which the breaker will transition the circuit to open.
-                 * If the failure conditions are met, the circuit will be opened.
-                 */
-                if (shouldOpen()) {
-                    open();
-                }
-            } else if (isOpen()) {
-                // Status : OPEN -> HALF_OPEN
-                /**
-                 * When the circuit is open, calls to the service operating under the circuit breaker
-                 * will fail immediately.
-                 * A delay may be configured for the circuit breaker.
-                 * After the specified delay, the circuit transitions to half-open state.
-                 */
-                if (shouldHalfOpen()) {
-                    halfOpen();
-                }
-            } else if (isHalfOpen()) {
-
-                if (successTrials.intValue() >= successThreshold) {
-                    // Status : HALF_OPEN -> CLOSE
-                    close();
-                } else if (shouldOpen()) {
-                    open();
-                }
-
+    private CompletableFuture<Object> interceptAsynchronously(InvocationContext context, CircuitBreakerState state) {
+        CircuitBreakerState.Phase phase;
+        try {
+            phase = state.acquire();
+        } catch (Throwable e) { // The open circuit fails the returned stage rather than the caller
+            return failedFuture(e);
+        }
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        proceed(context).whenComplete((value, e) -> {
+            if (e == null) {
+                state.onSuccess(phase);
+                result.complete(value);
+            } else {
+                Throwable failure = resolveFailure(e);
+                state.onFailure(phase, failure);
+                result.completeExceptionally(failure);
             }
+        });
+        return result;
+    }
 
-            return this;
-        }
-
-        boolean shouldOpen() {
-            return !shouldClosed();
-        }
-
-        boolean shouldHalfOpen() {
-            return System.nanoTime() - delay > openTime
-                    && shouldClosed();
-        }
-
-        boolean shouldClosed() {
-            return currentFailureRatio() < failureRatio;
-        }
-
-        boolean shouldReset() {
-            return requests.intValue() >= requestVolumeThreshold;
-        }
-
-        private void close() {
-            this.openTime = Long.MAX_VALUE;
-            this.status = CLOSED_STATUS;
-        }
-
-        private void open() {
-            this.openTime = System.nanoTime();
-            this.status = OPEN_STATUS;
-        }
-
-        private void halfOpen() {
-            status = HALF_OPEN_STATUS;
-        }
-
-        boolean isOpen() {
-            return OPEN_STATUS == status;
-        }
-
-        boolean isClosed() {
-            return CLOSED_STATUS == status;
-        }
-
-        boolean isHalfOpen() {
-            return HALF_OPEN_STATUS == status;
-        }
-
-        private double currentFailureRatio() {
-            return failures.doubleValue() / requests.doubleValue();
-        }
-
-        private void reset() {
-            createdTime = System.nanoTime();
-            close();
-            requests.reset();
-            failures.reset();
-            successTrials.reset();
-        }
-
-        @Override
-        public String toString() {
-            return "CountableSlidingWindow{" +
-                    "appliedFailures=" + Arrays.toString(appliedFailures) +
-                    ", ignoredFailures=" + Arrays.toString(ignoredFailures) +
-                    ", delay=" + delay +
-                    ", requestVolumeThreshold=" + requestVolumeThreshold +
-                    ", failureRatio=" + failureRatio +
-                    ", successThreshold=" + successThreshold +
-                    ", createdTime=" + createdTime +
-                    ", openTime=" + openTime +
-                    ", status=" + status +
-                    ", requests=" + requests +
-                    ", failures=" + failures +
-                    ", successTrials=" + successTrials +
-                    '}';
+    static CircuitBreakerState getState(Method method, CircuitBreaker circuitBreaker) {
+        CircuitBreakerState state = statesCache.get(method);
+        if (state == null) {
+            state = statesCache.computeIfAbsent(method, key -> new CircuitBreakerState(circuitBreaker));
         }
+        return state;
     }
 }
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import static org.geektimes.commons.reflect.util.ClassUtils.isDerived;
+import static org.geektimes.commons.util.TimeUtils.toTimeUnit;
+
+/**
+ * The state machine of {@link CircuitBreaker}, the state is an immutable {@link Phase} swapped by CAS, thus the
+ * transitions are atomic without the lock :
+ * <ul>
+ *     <li>CLOSED -> OPEN : the requests of the {@link RollingWindow rolling window} reach
+ *     {@link CircuitBreaker#requestVolumeThreshold()} and the failures reach {@link CircuitBreaker#failureRatio()}</li>
+ *     <li>OPEN -> HALF_OPEN : {@link CircuitBreaker#delay()} elapsed, checked by the next request</li>
+ *     <li>HALF_OPEN -> CLOSED : {@link CircuitBreaker#successThreshold()} trials succeeded, only as many trial
+ *     permits as the threshold are granted, the others are rejected</li>
+ *     <li>HALF_OPEN -> OPEN : any trial failed</li>
+ * </ul>
+ * Every CLOSED phase owns a new rolling window, thus the window is reset by the transition. The check of the CLOSED
+ * phase is a volatile read, and the success only increments the counter of the current bucket.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+class CircuitBreakerState {
+
+    public static final int CLOSED_STATUS = 0;
+
+    public static final int OPEN_STATUS = 1;
+
+    public static final int HALF_OPEN_STATUS = 2;
+
+    /**
+     * The duration of the rolling window
+     */
+    static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * The number of buckets in the rolling window
+     */
+    static final int WINDOW_BUCKETS = 10;
+
+    // Configuration fields
+
+    private final Class<? extends Throwable>[] appliedFailures;
+
+    private final Class<? extends Throwable>[] ignoredFailures;
+
+    private final long delay;
+
+    private final int requestVolumeThreshold;
+
+    private final double failureRatio;
+
+    private final int successThreshold;
+
+    private final long windowNanos;
+
+    private final LongSupplier nanoClock;
+
+    // status field
+
+    private final AtomicReference<Phase> phase;
+
+    CircuitBreakerState(CircuitBreaker circuitBreaker) {
+        this(circuitBreaker, WINDOW_NANOS, System::nanoTime);
+    }
+
+    CircuitBreakerState(CircuitBreaker circuitBreaker, long windowNanos, LongSupplier nanoClock) {
+        this.appliedFailures = circuitBreaker.failOn();
+        this.ignoredFailures = circuitBreaker.skipOn();
+        this.delay = toTimeUnit(circuitBreaker.delayUnit()).toNanos(circuitBreaker.delay());
+        this.requestVolumeThreshold = Math.max(1, circuitBreaker.requestVolumeThreshold());
+        this.failureRatio = circuitBreaker.failureRatio();
+        this.successThreshold = Math.max(1, circuitBreaker.successThreshold());
+        this.windowNanos = windowNanos;
+        this.nanoClock = nanoClock;
+        this.phase = new AtomicReference<>(closedPhase());
+    }
+
+    /**
+     * Acquire the permit of execution
+     *
+     * @return the phase that the execution belongs to, which must be passed to {@link #onSuccess(Phase)} or
+     * {@link #onFailure(Phase, Throwable)}
+     * @throws CircuitBreakerOpenException if the circuit is open or no trial permit is left
+     */
+    Phase acquire() throws CircuitBreakerOpenException {
+        Phase phase = this.phase.get();
+        switch (phase.status) {
+            case CLOSED_STATUS:
+                return phase;
+            case OPEN_STATUS:
+                if (nanoClock.getAsLong() - phase.openTime < delay) {
+                    throw new CircuitBreakerOpenException(toString());
+                }
+                Phase halfOpenPhase = halfOpenPhase();
+                // The loser retries with the phase set by the winner
+                return this.phase.compareAndSet(phase, halfOpenPhase) ? acquire(halfOpenPhase) : acquire();
+            default:
+                return acquire(phase);
+        }
+    }
+
+    private Phase acquire(Phase halfOpenPhase) {
+        AtomicInteger trialPermits = halfOpenPhase.trialPermits;
+        for (int permits = trialPermits.get(); permits > 0; permits = trialPermits.get()) {
+            if (trialPermits.compareAndSet(permits, permits - 1)) {
+                return halfOpenPhase;
+            }
+        }
+        throw new CircuitBreakerOpenException(toString());
+    }
+
+    void onSuccess(Phase phase) {
+        if (phase.status == CLOSED_STATUS) {
+            phase.window.recordSuccess();
+        } else if (phase.status == HALF_OPEN_STATUS && phase.trialSuccesses.incrementAndGet() >= successThreshold) {
+            this.phase.compareAndSet(phase, closedPhase());
+        }
+    }
+
+    void onFailure(Phase phase, Throwable failure) {
+        if (!isOnFailure(failure)) {
+            // The failures not applied are considered as successes
+            onSuccess(phase);
+            return;
+        }
+        if (phase.status == CLOSED_STATUS) {
+            phase.window.recordFailure();
+            RollingWindow.Counts counts = phase.window.getCounts();
+            if (counts.getRequests() >= requestVolumeThreshold
+                    && counts.getFailures() >= failureRatio * counts.getRequests()) {
+                this.phase.compareAndSet(phase, openPhase());
+            }
+        } else if (phase.status == HALF_OPEN_STATUS) {
+            this.phase.compareAndSet(phase, openPhase());
+        }
+    }
+
+    private boolean isOnFailure(Throwable failure) {
+        Class<? extends Throwable> failureClass = failure.getClass();
+        return isDerived(failureClass, appliedFailures) && !isDerived(failureClass, ignoredFailures);
+    }
+
+    int getStatus() {
+        return phase.get().status;
+    }
+
+    boolean isOpen() {
+        return OPEN_STATUS == getStatus();
+    }
+
+    boolean isClosed() {
+        return CLOSED_STATUS == getStatus();
+    }
+
+    boolean isHalfOpen() {
+        return HALF_OPEN_STATUS == getStatus();
+    }
+
+    private Phase closedPhase() {
+        return new Phase(CLOSED_STATUS, 0, new RollingWindow(windowNanos, WINDOW_BUCKETS, nanoClock), 0);
+    }
+
+    private Phase openPhase() {
+        return new Phase(OPEN_STATUS, nanoClock.getAsLong(), null, 0);
+    }
+
+    private Phase halfOpenPhase() {
+        return new Phase(HALF_OPEN_STATUS, 0, null, successThreshold);
+    }
+
+    @Override
+    public String toString() {
+        Phase phase = this.phase.get();
+        return "CircuitBreakerState{" +
+                "appliedFailures=" + Arrays.toString(appliedFailures) +
+                ", ignoredFailures=" + Arrays.toString(ignoredFailures) +
+                ", delay=" + delay +
+                ", requestVolumeThreshold=" + requestVolumeThreshold +
+                ", failureRatio=" + failureRatio +
+                ", successThreshold=" + successThreshold +
+                ", status=" + phase.status +
+                (phase.window == null ? "" : ", counts=" + phase.window.getCounts()) +
+                '}';
+    }
+
+    /**
+     * The immutable phase of the state machine
+     */
+    static final class Phase {
+
+        private final int status;
+
+        /**
+         * The time entering OPEN
+         */
+        private final long openTime;
+
+        /**
+         * The rolling window of CLOSED
+         */
+        private final RollingWindow window;
+
+        /**
+         * The remaining trial permits of HALF_OPEN
+         */
+        private final AtomicInteger trialPermits;
+
+        /**
+         * The succeeded trials of HALF_OPEN
+         */
+        private final AtomicInteger trialSuccesses = new AtomicInteger();
+
+        private Phase(int status, long openTime, RollingWindow window, int trialPermits) {
+            this.status = status;
+            this.openTime = openTime;
+            this.window = window;
+            this.trialPermits = new AtomicInteger(trialPermits);
+        }
+    }
+}
@@ -26,16 +26,19 @@ import javax.annotation.Priority;
 import javax.interceptor.Interceptor;
 import javax.interceptor.InvocationContext;
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
 
 import static java.lang.String.format;
 import static org.geektimes.commons.reflect.util.ClassUtils.getTypes;
 import static org.geektimes.commons.reflect.util.ClassUtils.isDerived;
+import static org.geektimes.microprofile.faulttolerance.AsynchronousUtils.*;
 import static org.geektimes.microprofile.faulttolerance.BulkheadInterceptor.BULKHEAD_PRIORITY;
 import static org.geektimes.microprofile.faulttolerance.FallbackInterceptor.FALLBACK_PRIORITY;
 
 /**
  * The interceptor implementation for the annotation {@link Fallback} of
- * MicroProfile Fault Tolerance
+ * MicroProfile Fault Tolerance, the fallback of the {@link org.eclipse.microprofile.faulttolerance.Asynchronous}
+ * method is composed as the stage handling the failure.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0.0
@@ -52,6 +55,9 @@ public class FallbackInterceptor extends AnnotatedInterceptor<Fallback> {
 
     @Override
     protected Object intercept(InvocationContext context, Fallback fallback) throws Throwable {
+        if (isAsynchronous(context.getMethod())) {
+            return interceptAsynchronously(context, fallback);
+        }
         Object result = null;
         try {
             result = context.proceed();
@@ -66,6 +72,28 @@ public class FallbackInterceptor extends AnnotatedInterceptor<Fallback> {
         return result;
     }
 
+    private CompletableFuture<Object> interceptAsynchronously(InvocationContext context, Fallback fallback) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        proceed(context).whenComplete((value, e) -> {
+            if (e == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable failure = resolveFailure(e);
+            if (!isApplyOn(fallback, failure) || isSkipOn(fallback, failure)) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            try {
+                toCompletableFuture(handleFallback(context, fallback, failure))
+                        .whenComplete((fallbackValue, fallbackFailure) -> complete(result, fallbackValue, fallbackFailure));
+            } catch (Throwable fallbackFailure) {
+                complete(result, null, fallbackFailure);
+            }
+        });
+        return result;
+    }
+
     private Object handleFallback(InvocationContext context, Fallback fallback, Throwable e) throws Exception {
         Object result = null;
         String methodName = fallback.fallbackMethod();
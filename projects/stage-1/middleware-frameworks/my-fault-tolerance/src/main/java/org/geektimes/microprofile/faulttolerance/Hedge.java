@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import javax.enterprise.util.Nonbinding;
+import javax.interceptor.InterceptorBinding;
+import java.lang.annotation.*;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The hedged requests of the idempotent method, the hedged attempts are launched if the previous attempts are not
+ * completed after the delay, the first successful result is taken and the other attempts are cancelled. The delay is
+ * either fixed by {@link #delay()} or the {@link #percentile()} of the latencies observed, and the extra load is
+ * capped by {@link #maxExtraLoad()}.
+ * <p>
+ * The failed attempt doesn't launch the hedged attempts, which should be retried by
+ * {@link org.eclipse.microprofile.faulttolerance.Retry}, and every attempt is limited by
+ * {@link org.eclipse.microprofile.faulttolerance.Timeout} separately.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see HedgeInterceptor
+ * @since 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@InterceptorBinding
+@Inherited
+public @interface Hedge {
+
+    /**
+     * @return the fixed delay of the hedged attempts, which is also used before enough latencies are observed if
+     * {@link #percentile()} is set, the hedged attempts are not launched until then if it's zero.
+     */
+    @Nonbinding
+    long delay() default 0;
+
+    /**
+     * @return the unit of {@link #delay()}
+     */
+    @Nonbinding
+    ChronoUnit delayUnit() default ChronoUnit.MILLIS;
+
+    /**
+     * @return the percentile of the latencies observed as the delay, in [0, 1), zero means {@link #delay()} is
+     * fixed.
+     */
+    @Nonbinding
+    double percentile() default 0.95;
+
+    /**
+     * @return the max number of the hedged attempts per request
+     */
+    @Nonbinding
+    int maxHedgedAttempts() default 1;
+
+    /**
+     * @return the max ratio of the hedged attempts to the requests
+     */
+    @Nonbinding
+    double maxExtraLoad() default 0.1;
+}
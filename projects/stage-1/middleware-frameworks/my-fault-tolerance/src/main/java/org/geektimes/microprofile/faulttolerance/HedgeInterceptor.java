@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.geektimes.commons.concurrent.NamedThreadFactory;
+import org.geektimes.interceptor.AnnotatedInterceptor;
+
+import javax.annotation.Priority;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InvocationContext;
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.geektimes.microprofile.faulttolerance.AsynchronousUtils.*;
+import static org.geektimes.microprofile.faulttolerance.HedgeInterceptor.HEDGE_PRIORITY;
+import static org.geektimes.microprofile.faulttolerance.RetryInterceptor.RETRY_PRIORITY;
+
+/**
+ * The interceptor implementation for the annotation {@link Hedge}, which is inside
+ * {@link org.eclipse.microprofile.faulttolerance.Retry} and outside
+ * {@link org.eclipse.microprofile.faulttolerance.Timeout}, thus every retry is hedged and every attempt has its own
+ * timeout. The attempts of the {@link org.eclipse.microprofile.faulttolerance.Asynchronous} method are composed as the
+ * stages. The attempts of the others are executed by the bounded hedge executor while the caller waits on the
+ * result, thus the caller returns once any attempt wins even if the slow one never reacts to the interruption. The
+ * first attempt is executed by the caller thread if no hedge could be sent, e.g. the budget is exhausted or the hedge
+ * executor is saturated, thus no thread is borrowed then, and it is interrupted if a hedged one wins later.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see HedgeState
+ * @since 1.0.0
+ */
+@Hedge
+@Interceptor
+@Priority(HEDGE_PRIORITY)
+public class HedgeInterceptor extends AnnotatedInterceptor<Hedge> {
+
+    public static final int HEDGE_PRIORITY = RETRY_PRIORITY + 100;
+
+    private static final ConcurrentMap<Method, HedgeState> statesCache = new ConcurrentHashMap<>();
+
+    /**
+     * The max threads of the hedged synchronous attempts
+     */
+    static final int MAX_HEDGE_THREADS = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+
+    /**
+     * The bounded executor of the hedged synchronous attempts which may be blocked, no hedge is sent if it's
+     * saturated, because the queued attempt would not be faster than the running ones.
+     */
+    private static final ThreadPoolExecutor executor = newExecutor();
+
+    public HedgeInterceptor() {
+        super();
+    }
+
+    @Override
+    protected Object intercept(InvocationContext context, Hedge hedge) throws Throwable {
+        Method method = context.getMethod();
+        HedgeState state = getState(method, hedge);
+        if (isAsynchronous(method)) {
+            return execute(state, () -> proceed(context));
+        }
+        HedgedExecution execution = new HedgedExecution(state, () -> submit(context));
+        CompletableFuture<Object> firstAttempt = state.isHedgeable() ? trySubmit(context) : null;
+        if (firstAttempt != null) {
+            // The caller waits on the result rather than the first attempt, which may never react to the
+            // interruption, thus the caller returns as soon as any attempt wins
+            execution.start(firstAttempt);
+        } else {
+            InlineAttempt inlineAttempt = new InlineAttempt();
+            execution.start(inlineAttempt);
+            inlineAttempt.run(context);
+        }
+        CompletableFuture<Object> result = execution.result;
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw resolveFailure(e);
+        }
+    }
+
+    private CompletableFuture<Object> execute(HedgeState state, Supplier<CompletableFuture<Object>> attempt) {
+        HedgedExecution execution = new HedgedExecution(state, attempt);
+        execution.start(attempt.get());
+        return execution.result;
+    }
+
+    private CompletableFuture<Object> submit(InvocationContext context) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                future.complete(context.proceed());
+            } catch (Throwable e) {
+                future.completeExceptionally(resolveFailure(e));
+            }
+        });
+        // The cancellation interrupts the blocking attempt
+        future.whenComplete((value, failure) -> {
+            if (future.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    private CompletableFuture<Object> trySubmit(InvocationContext context) {
+        try {
+            return submit(context);
+        } catch (RejectedExecutionException e) { // The hedge executor is saturated
+            return null;
+        }
+    }
+
+    private static ThreadPoolExecutor newExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_HEDGE_THREADS, MAX_HEDGE_THREADS,
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), new NamedThreadFactory("FaultTolerance-Hedge", true));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    static HedgeState getState(Method method, Hedge hedge) {
+        HedgeState state = statesCache.get(method);
+        if (state == null) {
+            state = statesCache.computeIfAbsent(method, key -> new HedgeState(hedge));
+        }
+        return state;
+    }
+
+    /**
+     * The execution of a request, the result is completed by the first successful attempt or the failure of the
+     * last attempt, the hedged attempts are scheduled by the shared timer.
+     */
+    private static class HedgedExecution {
+
+        private final HedgeState state;
+
+        private final Supplier<CompletableFuture<Object>> attempt;
+
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private final Queue<CompletableFuture<Object>> attempts = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger runningAttempts = new AtomicInteger();
+
+        private final AtomicInteger hedgedAttempts = new AtomicInteger();
+
+        private volatile ScheduledFuture<?> nextHedge;
+
+        private HedgedExecution(HedgeState state, Supplier<CompletableFuture<Object>> attempt) {
+            this.state = state;
+            this.attempt = attempt;
+            // The cancellation of result cancels all attempts
+            result.whenComplete((value, failure) -> cancel());
+        }
+
+        private void start(CompletableFuture<Object> firstAttempt) {
+            state.onRequest();
+            launch(firstAttempt);
+            scheduleHedge();
+        }
+
+        private void launch(CompletableFuture<Object> future) {
+            runningAttempts.incrementAndGet();
+            long startTime = System.nanoTime();
+            attempts.offer(future);
+            if (result.isDone()) { // Completed by the other attempt
+                future.cancel(true);
+                return;
+            }
+            future.whenComplete((value, failure) -> {
+                if (failure == null) {
+                    state.recordLatency(System.nanoTime() - startTime);
+                    result.complete(value);
+                } else if (runningAttempts.decrementAndGet() == 0 && !result.isDone()) {
+                    // No attempt is running, the pending hedged attempt is cancelled by the completion
+                    complete(result, null, failure);
+                }
+            });
+        }
+
+        private void scheduleHedge() {
+            if (result.isDone() || hedgedAttempts.get() >= state.getMaxHedgedAttempts()) {
+                return;
+            }
+            long delay = state.getDelay();
+            if (delay < 0) {
+                return;
+            }
+            nextHedge = schedule(() -> {
+                if (!result.isDone() && state.tryAcquireHedge()) {
+                    CompletableFuture<Object> future;
+                    try {
+                        future = attempt.get();
+                    } catch (RejectedExecutionException e) { // The hedge executor is saturated
+                        return;
+                    }
+                    hedgedAttempts.incrementAndGet();
+                    launch(future);
+                    scheduleHedge();
+                }
+            }, delay, TimeUnit.NANOSECONDS);
+        }
+
+        private void cancel() {
+            ScheduledFuture<?> nextHedge = this.nextHedge;
+            if (nextHedge != null) {
+                nextHedge.cancel(false);
+            }
+            for (CompletableFuture<Object> attempt : attempts) {
+                attempt.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * The attempt executed by the caller thread, which is interrupted if the attempt is cancelled while running
+     */
+    private static class InlineAttempt extends CompletableFuture<Object> {
+
+        private Thread runner;
+
+        private boolean interrupted;
+
+        private void run(InvocationContext context) {
+            synchronized (this) {
+                if (isDone()) {
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+            try {
+                complete(context.proceed());
+            } catch (Throwable e) {
+                completeExceptionally(resolveFailure(e));
+            } finally {
+                boolean interrupted;
+                synchronized (this) {
+                    runner = null;
+                    interrupted = this.interrupted;
+                }
+                if (interrupted) { // Clear the interruption of cancellation
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && mayInterruptIfRunning) {
+                synchronized (this) {
+                    if (runner != null) {
+                        interrupted = true;
+                        runner.interrupt();
+                    }
+                }
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceDefinitionException;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+import static org.geektimes.commons.util.TimeUtils.toTimeUnit;
+
+/**
+ * The state of {@link Hedge} per method :
+ * <ul>
+ *     <li>the latencies of the successful attempts are sampled in a ring, and the percentile is recomputed every
+ *     {@link #UPDATE_INTERVAL} samples by the thread adding the sample</li>
+ *     <li>the extra load is capped by the budget, every request deposits {@link Hedge#maxExtraLoad()} token and
+ *     every hedged attempt withdraws one token, the budget is full at the beginning and holds the tokens of
+ *     {@link #BUDGET_REQUESTS} requests at most</li>
+ * </ul>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+class HedgeState {
+
+    /**
+     * The size of the latency samples ring
+     */
+    static final int SAMPLE_SIZE = 1024;
+
+    static final int UPDATE_INTERVAL = 64;
+
+    static final int BUDGET_REQUESTS = 100;
+
+    /**
+     * The tokens are counted in thousandths
+     */
+    private static final long TOKEN = 1000;
+
+    private final long delay;
+
+    private final double percentile;
+
+    private final int maxHedgedAttempts;
+
+    private final long deposit;
+
+    private final long maxBudget;
+
+    private final AtomicLong budget;
+
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLE_SIZE);
+
+    private final AtomicLong sampleCount = new AtomicLong();
+
+    private final LongAdder hedgedAttempts = new LongAdder();
+
+    private volatile long percentileDelay = -1;
+
+    HedgeState(Hedge hedge) {
+        double percentile = hedge.percentile();
+        double maxExtraLoad = hedge.maxExtraLoad();
+        if (percentile < 0 || percentile >= 1 || hedge.delay() < 0 || hedge.maxHedgedAttempts() < 0
+                || maxExtraLoad < 0) {
+            throw new FaultToleranceDefinitionException(format("The @Hedge[delay : %d , percentile : %s , " +
+                            "maxHedgedAttempts : %d , maxExtraLoad : %s] is invalid!", hedge.delay(), percentile,
+                    hedge.maxHedgedAttempts(), maxExtraLoad));
+        }
+        this.delay = toTimeUnit(hedge.delayUnit()).toNanos(hedge.delay());
+        this.percentile = percentile;
+        this.maxHedgedAttempts = hedge.maxHedgedAttempts();
+        this.deposit = (long) (maxExtraLoad * TOKEN);
+        this.maxBudget = deposit * BUDGET_REQUESTS;
+        this.budget = new AtomicLong(maxBudget);
+    }
+
+    /**
+     * Get the delay of the hedged attempts
+     *
+     * @return the delay in nanoseconds, negative if the hedged attempts should not be launched
+     */
+    long getDelay() {
+        if (percentile > 0) {
+            long percentileDelay = this.percentileDelay;
+            if (percentileDelay > -1) {
+                return percentileDelay;
+            }
+            return delay > 0 ? delay : -1;
+        }
+        return delay;
+    }
+
+    /**
+     * @return <code>true</code> if a hedged attempt could be sent for the request
+     */
+    boolean isHedgeable() {
+        return maxHedgedAttempts > 0 && getDelay() > -1 && budget.get() >= TOKEN;
+    }
+
+    int getMaxHedgedAttempts() {
+        return maxHedgedAttempts;
+    }
+
+    long getHedgedAttempts() {
+        return hedgedAttempts.sum();
+    }
+
+    void onRequest() {
+        long budget;
+        do {
+            budget = this.budget.get();
+            if (budget >= maxBudget) {
+                return;
+            }
+        } while (!this.budget.compareAndSet(budget, Math.min(maxBudget, budget + deposit)));
+    }
+
+    /**
+     * Try to withdraw the token of a hedged attempt from the budget
+     *
+     * @return <code>true</code> if the hedged attempt could be launched
+     */
+    boolean tryAcquireHedge() {
+        long budget;
+        do {
+            budget = this.budget.get();
+            if (budget < TOKEN) {
+                return false;
+            }
+        } while (!this.budget.compareAndSet(budget, budget - TOKEN));
+        hedgedAttempts.increment();
+        return true;
+    }
+
+    /**
+     * Add the latency of the successful attempt
+     *
+     * @param latency the latency in nanoseconds
+     */
+    void recordLatency(long latency) {
+        long count = sampleCount.getAndIncrement();
+        samples.set((int) (count % SAMPLE_SIZE), latency);
+        if (percentile > 0 && (count + 1) % UPDATE_INTERVAL == 0) {
+            updatePercentileDelay((int) Math.min(count + 1, SAMPLE_SIZE));
+        }
+    }
+
+    private void updatePercentileDelay(int size) {
+        long[] latencies = new long[size];
+        for (int i = 0; i < size; i++) {
+            latencies[i] = samples.get(i);
+        }
+        Arrays.sort(latencies);
+        int index = Math.max(0, (int) Math.ceil(percentile * size) - 1);
+        this.percentileDelay = latencies[index];
+    }
+
+    @Override
+    public String toString() {
+        return "HedgeState{" +
+                "delay=" + delay +
+                ", percentile=" + percentile +
+                ", maxHedgedAttempts=" + maxHedgedAttempts +
+                ", budget=" + budget.get() +
+                ", percentileDelay=" + percentileDelay +
+                ", hedgedAttempts=" + getHedgedAttempts() +
+                '}';
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import javax.enterprise.util.Nonbinding;
+import javax.interceptor.InterceptorBinding;
+import java.lang.annotation.*;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The rate limit of the method, at most {@link #value()} permits are granted in every {@link #period()} by the
+ * {@link #algorithm()}, the requests beyond the limit wait up to {@link #maxWait()} or are rejected by
+ * {@link RateLimitException}. The limit is applied per method, or per key if {@link #keyParameter()} is set, and is
+ * shared by the nodes through the cache named {@link #cacheName()} if set.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see RateLimitInterceptor
+ * @since 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@InterceptorBinding
+@Inherited
+public @interface RateLimit {
+
+    /**
+     * @return the permits per {@link #period()}
+     */
+    @Nonbinding
+    long value() default 100;
+
+    @Nonbinding
+    long period() default 1;
+
+    @Nonbinding
+    ChronoUnit periodUnit() default ChronoUnit.SECONDS;
+
+    @Nonbinding
+    Algorithm algorithm() default Algorithm.TOKEN_BUCKET;
+
+    /**
+     * @return the capacity of {@link Algorithm#TOKEN_BUCKET token bucket}, zero means {@link #value()}
+     */
+    @Nonbinding
+    long burst() default 0;
+
+    /**
+     * @return the index of the parameter whose value is the key of the limit, negative means the limit is per
+     * method
+     */
+    @Nonbinding
+    int keyParameter() default -1;
+
+    /**
+     * @return the max time waiting for the permit, zero means the request is rejected immediately
+     */
+    @Nonbinding
+    long maxWait() default 0;
+
+    @Nonbinding
+    ChronoUnit maxWaitUnit() default ChronoUnit.MILLIS;
+
+    /**
+     * @return the name of {@link javax.cache.Cache} sharing the limits between the nodes, empty means the limits
+     * are local
+     */
+    @Nonbinding
+    String cacheName() default "";
+
+    /**
+     * The algorithms of rate limit
+     */
+    enum Algorithm {
+
+        /**
+         * The token bucket smooths the requests and allows the burst up to {@link #burst()}
+         */
+        TOKEN_BUCKET,
+
+        /**
+         * The sliding window counter limits the requests in any {@link #period()}, the count of the previous window
+         * is weighted by its overlap with the sliding window
+         */
+        SLIDING_WINDOW
+    }
+}
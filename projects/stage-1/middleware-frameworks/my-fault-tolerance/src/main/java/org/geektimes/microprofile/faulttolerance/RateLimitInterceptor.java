@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.geektimes.interceptor.AnnotatedInterceptor;
+
+import javax.annotation.Priority;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InvocationContext;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static javax.interceptor.Interceptor.Priority.LIBRARY_BEFORE;
+import static org.geektimes.microprofile.faulttolerance.AsynchronousUtils.*;
+import static org.geektimes.microprofile.faulttolerance.RateLimitInterceptor.RATE_LIMIT_PRIORITY;
+
+/**
+ * The interceptor implementation for the annotation {@link RateLimit}, which is the outermost one of fault
+ * tolerance, thus the requests beyond the limit are rejected before reaching the others. The caller of the
+ * synchronous method sleeps while waiting for the permit, the permit of the
+ * {@link org.eclipse.microprofile.faulttolerance.Asynchronous} method is retried by the shared timer.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see RateLimitState
+ * @since 1.0.0
+ */
+@RateLimit
+@Interceptor
+@Priority(RATE_LIMIT_PRIORITY)
+public class RateLimitInterceptor extends AnnotatedInterceptor<RateLimit> {
+
+    public static final int RATE_LIMIT_PRIORITY = LIBRARY_BEFORE;
+
+    private static final ConcurrentMap<Method, RateLimitState> statesCache = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor() {
+        super();
+    }
+
+    @Override
+    protected Object intercept(InvocationContext context, RateLimit rateLimit) throws Throwable {
+        Method method = context.getMethod();
+        RateLimitState state = getState(method, rateLimit);
+        RateLimiter rateLimiter = state.getRateLimiter(context.getParameters());
+        long deadline = System.nanoTime() + state.getMaxWait();
+        if (isAsynchronous(method)) {
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            acquireAsynchronously(context, rateLimit, rateLimiter, deadline, result);
+            return result;
+        }
+        for (long waitTime = rateLimiter.tryAcquire(); waitTime > 0; waitTime = rateLimiter.tryAcquire()) {
+            if (waitTime > deadline - System.nanoTime()) {
+                throw newRateLimitException(method, rateLimit);
+            }
+            TimeUnit.NANOSECONDS.sleep(waitTime);
+        }
+        return context.proceed();
+    }
+
+    private void acquireAsynchronously(InvocationContext context, RateLimit rateLimit, RateLimiter rateLimiter,
+                                       long deadline, CompletableFuture<Object> result) {
+        long waitTime = rateLimiter.tryAcquire();
+        if (waitTime == 0) {
+            proceed(context).whenComplete((value, failure) -> complete(result, value, failure));
+        } else if (waitTime > deadline - System.nanoTime()) {
+            result.completeExceptionally(newRateLimitException(context.getMethod(), rateLimit));
+        } else {
+            // The delayed call proceeds the next interceptors by the executor rather than the timer
+            schedule(() -> acquireAsynchronously(context, rateLimit, rateLimiter, deadline, result),
+                    waitTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private RateLimitException newRateLimitException(Method method, RateLimit rateLimit) {
+        return new RateLimitException(format("The request of method[%s] exceeds the rate limit[permits : %d , " +
+                        "period : %d %s , algorithm : %s]", method, rateLimit.value(), rateLimit.period(),
+                rateLimit.periodUnit(), rateLimit.algorithm()));
+    }
+
+    static RateLimitState getState(Method method, RateLimit rateLimit) {
+        RateLimitState state = statesCache.get(method);
+        if (state == null) {
+            state = statesCache.computeIfAbsent(method, key -> new RateLimitState(method, rateLimit));
+        }
+        return state;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceDefinitionException;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static java.lang.String.format;
+import static org.geektimes.commons.util.TimeUtils.toTimeUnit;
+
+/**
+ * The state of {@link RateLimit} per method, which holds the {@link RateLimiter} of the method or the ones of the
+ * keys, the key is the string form of the parameter. The idle limiters of the keys are discarded once the keys exceed {@link #MAX_KEYS}.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+class RateLimitState {
+
+    static final int MAX_KEYS = 10000;
+
+    private final String name;
+
+    private final int keyParameter;
+
+    private final long maxWait;
+
+    private final Function<String, RateLimiter> rateLimiterFactory;
+
+    private final RateLimiter rateLimiter;
+
+    private final ConcurrentMap<String, RateLimiter> keyedRateLimiters;
+
+    private final AtomicBoolean discarding = new AtomicBoolean();
+
+    RateLimitState(Method method, RateLimit rateLimit) {
+        this(method, rateLimit, System::nanoTime);
+    }
+
+    RateLimitState(Method method, RateLimit rateLimit, LongSupplier nanoClock) {
+        long permits = rateLimit.value();
+        long period = toTimeUnit(rateLimit.periodUnit()).toNanos(rateLimit.period());
+        long burst = rateLimit.burst() > 0 ? rateLimit.burst() : permits;
+        int keyParameter = rateLimit.keyParameter();
+        if (permits < 1 || period < 1 || rateLimit.maxWait() < 0 || keyParameter >= method.getParameterCount()) {
+            throw new FaultToleranceDefinitionException(format("The @RateLimit[value : %d , period : %d %s , " +
+                            "maxWait : %d , keyParameter : %d] of method[%s] is invalid!", permits,
+                    rateLimit.period(), rateLimit.periodUnit(), rateLimit.maxWait(), keyParameter, method));
+        }
+        this.name = method.toGenericString();
+        this.keyParameter = keyParameter;
+        this.maxWait = toTimeUnit(rateLimit.maxWaitUnit()).toNanos(rateLimit.maxWait());
+        this.rateLimiterFactory = createRateLimiterFactory(method, rateLimit, permits, period, burst, nanoClock);
+        if (keyParameter < 0) {
+            this.rateLimiter = rateLimiterFactory.apply(name);
+            this.keyedRateLimiters = null;
+        } else {
+            this.rateLimiter = null;
+            this.keyedRateLimiters = new ConcurrentHashMap<>();
+        }
+    }
+
+    private static Function<String, RateLimiter> createRateLimiterFactory(Method method, RateLimit rateLimit,
+                                                                          long permits, long period, long burst,
+                                                                          LongSupplier nanoClock) {
+        long interval = Math.max(1, period / permits);
+        long tolerance = interval * (burst - 1);
+        String cacheName = rateLimit.cacheName();
+        boolean tokenBucket = RateLimit.Algorithm.TOKEN_BUCKET.equals(rateLimit.algorithm());
+        if (cacheName.isEmpty()) {
+            return tokenBucket ?
+                    key -> new TokenBucketRateLimiter(interval, tolerance, nanoClock) :
+                    key -> new SlidingWindowRateLimiter(period, permits, nanoClock);
+        }
+        // The Java Caching API is only required by the shared limits
+        ClassLoader classLoader = method.getDeclaringClass().getClassLoader();
+        return tokenBucket ?
+                CachingRateLimiter.tokenBucketFactory(cacheName, classLoader, interval, tolerance) :
+                CachingRateLimiter.slidingWindowFactory(cacheName, classLoader, period, permits);
+    }
+
+    /**
+     * Get the {@link RateLimiter} of the method or the key
+     *
+     * @param parameters the parameters of the invocation
+     * @return non-null
+     */
+    RateLimiter getRateLimiter(Object[] parameters) {
+        if (rateLimiter != null) {
+            return rateLimiter;
+        }
+        String key = String.valueOf(parameters[keyParameter]);
+        RateLimiter rateLimiter = keyedRateLimiters.get(key);
+        if (rateLimiter == null) {
+            if (keyedRateLimiters.size() >= MAX_KEYS) {
+                discardIdleRateLimiters();
+            }
+            rateLimiter = keyedRateLimiters.computeIfAbsent(key, k -> rateLimiterFactory.apply(name + "#" + k));
+        }
+        return rateLimiter;
+    }
+
+    private void discardIdleRateLimiters() {
+        if (discarding.compareAndSet(false, true)) {
+            try {
+                keyedRateLimiters.values().removeIf(RateLimiter::isIdle);
+            } finally {
+                discarding.set(false);
+            }
+        }
+    }
+
+    /**
+     * @return the max time waiting for the permit in nanoseconds
+     */
+    long getMaxWait() {
+        return maxWait;
+    }
+
+    int getKeys() {
+        return keyedRateLimiters == null ? 0 : keyedRateLimiters.size();
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitState{" +
+                "name='" + name + '\'' +
+                ", keyParameter=" + keyParameter +
+                ", maxWait=" + maxWait +
+                ", keys=" + getKeys() +
+                '}';
+    }
+}
@@ -17,6 +17,7 @@
 package org.geektimes.microprofile.faulttolerance;
 
 import org.eclipse.microprofile.faulttolerance.Retry;
+import org.geektimes.commons.concurrent.NamedThreadFactory;
 import org.geektimes.interceptor.AnnotatedInterceptor;
 
 import javax.annotation.Priority;
@@ -32,13 +33,15 @@ import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static javax.interceptor.Interceptor.Priority.LIBRARY_BEFORE;
 import static org.geektimes.commons.reflect.util.ClassUtils.isDerived;
 import static org.geektimes.commons.util.TimeUtils.toTimeUnit;
+import static org.geektimes.microprofile.faulttolerance.AsynchronousUtils.*;
 import static org.geektimes.microprofile.faulttolerance.BulkheadInterceptor.BULKHEAD_PRIORITY;
 import static org.geektimes.microprofile.faulttolerance.FallbackInterceptor.FALLBACK_PRIORITY;
 import static org.geektimes.microprofile.faulttolerance.RetryInterceptor.RETRY_PRIORITY;
 
 /**
  * The interceptor implementation for the annotation {@link Retry} of
- * MicroProfile Fault Tolerance
+ * MicroProfile Fault Tolerance, the retries of the {@link org.eclipse.microprofile.faulttolerance.Asynchronous}
+ * method are chained as the stages and the delays are scheduled by the shared timer, thus no thread waits for them.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0.0
@@ -50,7 +53,8 @@ public class RetryInterceptor extends AnnotatedInterceptor<Retry> {
 
     public static final int RETRY_PRIORITY = FALLBACK_PRIORITY + 100;
 
-    private final ScheduledExecutorService executorService = newScheduledThreadPool(2);
+    private final ScheduledExecutorService executorService = newScheduledThreadPool(2,
+            new NamedThreadFactory("FaultTolerance-Retry", true));
 
 
     public RetryInterceptor() {
@@ -65,6 +69,15 @@ public class RetryInterceptor extends AnnotatedInterceptor<Retry> {
             return context.proceed();
         }
 
+        if (isAsynchronous(context.getMethod())) {
+            Optional<Long> delay = getDelay(retry);
+            Optional<Long> maxDuration = getMaxDuration(retry, delay);
+            Optional<Long> deadline = maxDuration.map(duration -> System.nanoTime() + duration);
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            retryAsynchronously(context, retry, delay, deadline, 0, result);
+            return result;
+        }
+
         // Invoke first
         InvocationResult result = action(retry, context);
 
@@ -90,7 +103,7 @@ public class RetryInterceptor extends AnnotatedInterceptor<Retry> {
                 } else { // Synchronization
                     retryActionResult = retryAction.call();
                 }
-                if (retryActionResult.isSuccess()) {
+                if (retryActionResult.isSuccess() || retryActionResult.getFailure() != null) {
                     break;
                 }
             }
@@ -106,9 +119,34 @@ public class RetryInterceptor extends AnnotatedInterceptor<Retry> {
             result = maxRetriesAction.call();
         }
 
+        if (!result.isSuccess()) { // the retries are exhausted or aborted
+            throw result.getFailure() != null ? result.getFailure() : result.getRetryableFailure();
+        }
         return result.getResult();
     }
 
+    private void retryAsynchronously(InvocationContext context, Retry retry, Optional<Long> delay, Optional<Long> deadline,
+                                     int retries, CompletableFuture<Object> result) {
+        proceed(context).whenComplete((value, e) -> {
+            if (e == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable failure = resolveFailure(e);
+            long actualDelay = Math.max(0, delay.orElse(0L) + getJitter(retry).orElse(0L));
+            if (retries >= retry.maxRetries() || isAbortOn(retry, failure) || !isRetryOn(retry, failure)
+                    || (deadline.isPresent() && deadline.get() - System.nanoTime() <= actualDelay)) {
+                result.completeExceptionally(failure);
+            } else if (actualDelay > 0) {
+                schedule(() -> retryAsynchronously(context, retry, delay, deadline, retries + 1, result),
+                        actualDelay, TimeUnit.NANOSECONDS);
+            } else {
+                // The retry is not nested in the completion of the failed stage, which may be completed already
+                executor.execute(() -> retryAsynchronously(context, retry, delay, deadline, retries + 1, result));
+            }
+        });
+    }
+
     private InvocationResult action(Retry retry, InvocationContext context) {
         InvocationResult invocationResult = new InvocationResult();
         try {
@@ -119,6 +157,8 @@ public class RetryInterceptor extends AnnotatedInterceptor<Retry> {
             invocationResult.setSuccess(false);
             if (isAbortOn(retry, failure) || !isRetryOn(retry, failure)) {
                 invocationResult.setFailure(failure);
+            } else {
+                invocationResult.setRetryableFailure(failure);
             }
 
         }
@@ -183,6 +223,11 @@ public class RetryInterceptor extends AnnotatedInterceptor<Retry> {
          */
         private Throwable failure;
 
+        /**
+         * Holds the failure that could be retried
+         */
+        private Throwable retryableFailure;
+
         public Object getResult() {
             return result;
         }
@@ -207,6 +252,15 @@ public class RetryInterceptor extends AnnotatedInterceptor<Retry> {
             this.failure = failure;
             this.setSuccess(false);
         }
+
+        public Throwable getRetryableFailure() {
+            return retryableFailure;
+        }
+
+        public void setRetryableFailure(Throwable retryableFailure) {
+            this.retryableFailure = retryableFailure;
+            this.setSuccess(false);
+        }
     }
 }
 
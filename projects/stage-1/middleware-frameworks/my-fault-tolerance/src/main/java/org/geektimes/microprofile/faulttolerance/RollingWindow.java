@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static java.lang.String.format;
+
+/**
+ * The rolling window of the time buckets, the counts of the current bucket are added without the contention by
+ * {@link LongAdder LongAdders}, the stale bucket is replaced by CAS once the ring rolls over, thus no lock is
+ * required. The counts of the window are the sum of the buckets within the window.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+class RollingWindow {
+
+    private final long bucketNanos;
+
+    private final int bucketCount;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    RollingWindow(long windowNanos, int bucketCount) {
+        this(windowNanos, bucketCount, System::nanoTime);
+    }
+
+    RollingWindow(long windowNanos, int bucketCount, LongSupplier nanoClock) {
+        if (bucketCount < 1 || windowNanos < bucketCount) {
+            throw new IllegalArgumentException(format("The window[%d ns] can't be split into %d buckets!",
+                    windowNanos, bucketCount));
+        }
+        this.bucketNanos = windowNanos / bucketCount;
+        this.bucketCount = bucketCount;
+        this.nanoClock = nanoClock;
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    void recordSuccess() {
+        currentBucket().successes.increment();
+    }
+
+    void recordFailure() {
+        currentBucket().failures.increment();
+    }
+
+    /**
+     * Sum the counts of the buckets within the window
+     *
+     * @return non-null
+     */
+    Counts getCounts() {
+        long epoch = currentEpoch();
+        long successes = 0;
+        long failures = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && epoch - bucket.epoch < bucketCount) {
+                successes += bucket.successes.sum();
+                failures += bucket.failures.sum();
+            }
+        }
+        return new Counts(successes, failures);
+    }
+
+    private Bucket currentBucket() {
+        long epoch = currentEpoch();
+        int index = (int) Math.floorMod(epoch, (long) bucketCount);
+        Bucket bucket = buckets.get(index);
+        while (bucket == null || bucket.epoch != epoch) {
+            if (bucket != null && bucket.epoch > epoch) {
+                // The bucket was rolled by the faster clock reader, the counts are added into the newer one
+                return bucket;
+            }
+            Bucket newBucket = new Bucket(epoch);
+            if (buckets.compareAndSet(index, bucket, newBucket)) {
+                return newBucket;
+            }
+            bucket = buckets.get(index);
+        }
+        return bucket;
+    }
+
+    private long currentEpoch() {
+        return Math.floorDiv(nanoClock.getAsLong(), bucketNanos);
+    }
+
+    private static class Bucket {
+
+        private final long epoch;
+
+        private final LongAdder successes = new LongAdder();
+
+        private final LongAdder failures = new LongAdder();
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+    /**
+     * The counts of the window
+     */
+    static class Counts {
+
+        private final long successes;
+
+        private final long failures;
+
+        private Counts(long successes, long failures) {
+            this.successes = successes;
+            this.failures = failures;
+        }
+
+        long getSuccesses() {
+            return successes;
+        }
+
+        long getFailures() {
+            return failures;
+        }
+
+        long getRequests() {
+            return successes + failures;
+        }
+
+        @Override
+        public String toString() {
+            return "Counts{successes=" + successes + ", failures=" + failures + '}';
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * The sliding window counter, the count of the sliding window is estimated by the count of current fixed window
+ * and the count of previous one weighted by its overlap. The count is incremented by CAS and the window is rolled
+ * by CAS, thus no lock is required, the requests counted into the rolled window are lost from the estimation.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+class SlidingWindowRateLimiter implements RateLimiter {
+
+    private final long size;
+
+    private final long permits;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicReference<Window> window;
+
+    /**
+     * @param size      the size of window in nanoseconds
+     * @param permits   the permits per window
+     * @param nanoClock the clock in nanoseconds
+     */
+    SlidingWindowRateLimiter(long size, long permits, LongSupplier nanoClock) {
+        this.size = size;
+        this.permits = permits;
+        this.nanoClock = nanoClock;
+        this.window = new AtomicReference<>(new Window(nanoClock.getAsLong(), 0));
+    }
+
+    @Override
+    public long tryAcquire() {
+        long now = nanoClock.getAsLong();
+        while (true) {
+            Window window = currentWindow(now);
+            long count = window.count.get();
+            long waitTime = getWaitTime(now - window.start, window.previousCount, count, size, permits);
+            if (waitTime > 0) {
+                return waitTime;
+            }
+            if (window.count.compareAndSet(count, count + 1)) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public boolean isIdle() {
+        return nanoClock.getAsLong() - window.get().start >= 2 * size;
+    }
+
+    private Window currentWindow(long now) {
+        Window window = this.window.get();
+        while (now - window.start >= size) {
+            long windows = (now - window.start) / size;
+            Window nextWindow = new Window(window.start + windows * size, windows == 1 ? window.count.get() : 0);
+            if (this.window.compareAndSet(window, nextWindow)) {
+                return nextWindow;
+            }
+            window = this.window.get();
+        }
+        return window;
+    }
+
+    /**
+     * Get the time waiting for the permit
+     *
+     * @param elapsed       the elapsed time of current window
+     * @param previousCount the count of previous window
+     * @param count         the count of current window
+     * @param size          the size of window
+     * @param permits       the permits per window
+     * @return zero if the permit is available
+     */
+    static long getWaitTime(long elapsed, long previousCount, long count, long size, long permits) {
+        long rest = size - elapsed;
+        double estimatedCount = previousCount * ((double) rest / size) + count;
+        if (estimatedCount + 1 <= permits) {
+            return 0;
+        }
+        if (count + 1 > permits) { // Wait for the next window
+            return rest;
+        }
+        // The weighted count of previous window decreases linearly
+        long waitTime = (long) Math.ceil((estimatedCount + 1 - permits) * size / previousCount);
+        return Math.max(1, Math.min(waitTime, rest));
+    }
+
+    private static class Window {
+
+        private final long start;
+
+        private final long previousCount;
+
+        private final AtomicLong count = new AtomicLong();
+
+        private Window(long start, long previousCount) {
+            this.start = start;
+            this.previousCount = previousCount;
+        }
+    }
+}
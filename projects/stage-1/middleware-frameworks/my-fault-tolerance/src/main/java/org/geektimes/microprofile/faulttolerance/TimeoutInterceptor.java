@@ -26,12 +26,14 @@ import java.time.temporal.ChronoUnit;
 import java.util.concurrent.*;
 
 import static org.geektimes.commons.util.TimeUtils.toTimeUnit;
-import static org.geektimes.microprofile.faulttolerance.RetryInterceptor.RETRY_PRIORITY;
+import static org.geektimes.microprofile.faulttolerance.AsynchronousUtils.*;
+import static org.geektimes.microprofile.faulttolerance.HedgeInterceptor.HEDGE_PRIORITY;
 import static org.geektimes.microprofile.faulttolerance.TimeoutInterceptor.TIMEOUT_PRIORITY;
 
 /**
  * The interceptor implementation for the annotation {@link Timeout} of
- * MicroProfile Fault Tolerance
+ * MicroProfile Fault Tolerance, the timeout of the {@link org.eclipse.microprofile.faulttolerance.Asynchronous}
+ * method is scheduled by the shared timer rather than waiting for the result.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0.0
@@ -41,7 +43,7 @@ import static org.geektimes.microprofile.faulttolerance.TimeoutInterceptor.TIMEO
 @Priority(TIMEOUT_PRIORITY)
 public class TimeoutInterceptor extends AnnotatedInterceptor<Timeout> {
 
-    public static final int TIMEOUT_PRIORITY = RETRY_PRIORITY + 100;
+    public static final int TIMEOUT_PRIORITY = HEDGE_PRIORITY + 100;
 
     // TODO ExecutorService fixed size = external Server Thread numbers
     private final ExecutorService executor = ForkJoinPool.commonPool();
@@ -51,18 +53,47 @@ public class TimeoutInterceptor extends AnnotatedInterceptor<Timeout> {
     }
 
     @Override
-    protected Object intercept(InvocationContext context, Timeout timeout) throws Exception {
+    protected Object intercept(InvocationContext context, Timeout timeout) throws Throwable {
         ChronoUnit chronoUnit = timeout.unit();
         long timeValue = timeout.value();
         TimeUnit timeUnit = toTimeUnit(chronoUnit);
 
+        if (isAsynchronous(context.getMethod())) {
+            return executeAsynchronously(context, timeValue, timeUnit);
+        }
+
         Future future = executor.submit(context::proceed);
 
         try {
             return future.get(timeValue, timeUnit);
         } catch (TimeoutException e) {
             throw new org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException(e);
+        } catch (ExecutionException e) {
+            // The failure of the execution is thrown as-is
+            throw resolveFailure(e);
+        }
+    }
+
+    private CompletableFuture<Object> executeAsynchronously(InvocationContext context, long timeValue,
+                                                            TimeUnit timeUnit) {
+        CompletableFuture<Object> future = proceed(context);
+        if (future.isDone()) {
+            return future;
         }
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        // The stages depending on the timeout failure are executed by the executor rather than the timer
+        ScheduledFuture<?> timeoutFuture = schedule(() -> {
+            if (result.completeExceptionally(new org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException(
+                    String.format("The execution of %s timed out after %d %s", context.getMethod(), timeValue,
+                            timeUnit)))) {
+                future.cancel(false);
+            }
+        }, timeValue, timeUnit);
+        future.whenComplete((value, failure) -> {
+            timeoutFuture.cancel(false);
+            complete(result, value, failure);
+        });
+        return result;
     }
 
 }
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * The token bucket implemented by GCRA (Generic Cell Rate Algorithm), the state is the theoretical arrival time of
+ * the next request updated by CAS, thus no lock and no refill thread are required. A token is refilled every
+ * interval, and the bucket holds (tolerance / interval + 1) tokens at most.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+class TokenBucketRateLimiter implements RateLimiter {
+
+    private final long interval;
+
+    private final long tolerance;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong theoreticalArrivalTime;
+
+    /**
+     * @param interval  the interval of tokens in nanoseconds
+     * @param tolerance the tolerance of burst in nanoseconds
+     * @param nanoClock the clock in nanoseconds
+     */
+    TokenBucketRateLimiter(long interval, long tolerance, LongSupplier nanoClock) {
+        this.interval = interval;
+        this.tolerance = tolerance;
+        this.nanoClock = nanoClock;
+        this.theoreticalArrivalTime = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    @Override
+    public long tryAcquire() {
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long theoreticalArrivalTime = this.theoreticalArrivalTime.get();
+            long waitTime = getWaitTime(theoreticalArrivalTime, now, tolerance);
+            if (waitTime > 0) {
+                return waitTime;
+            }
+            if (this.theoreticalArrivalTime.compareAndSet(theoreticalArrivalTime,
+                    nextArrivalTime(theoreticalArrivalTime, now, interval))) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public boolean isIdle() {
+        return theoreticalArrivalTime.get() - nanoClock.getAsLong() <= 0;
+    }
+
+    static long getWaitTime(long theoreticalArrivalTime, long now, long tolerance) {
+        return Math.max(0, theoreticalArrivalTime - tolerance - now);
+    }
+
+    static long nextArrivalTime(long theoreticalArrivalTime, long now, long interval) {
+        return Math.max(theoreticalArrivalTime, now) + interval;
+    }
+}
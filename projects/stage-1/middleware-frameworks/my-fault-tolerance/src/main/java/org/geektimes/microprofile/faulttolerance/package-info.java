@@ -19,10 +19,12 @@
  * The annotations of MicroProfile Fault Tolerance based on {@link javax.interceptor.Interceptor @Interceptor}
  * implementations, the priority of annotations as below:
  * <ol>
+ *     <li>{@link org.geektimes.microprofile.faulttolerance.RateLimit}</li>
  *     <li>{@link org.eclipse.microprofile.faulttolerance.CircuitBreaker}</li>
  *     <li>{@link org.eclipse.microprofile.faulttolerance.Bulkhead}</li>
  *     <li>{@link org.eclipse.microprofile.faulttolerance.Fallback}</li>
  *     <li>{@link org.eclipse.microprofile.faulttolerance.Retry}</li>
+ *     <li>{@link org.geektimes.microprofile.faulttolerance.Hedge}</li>
  *     <li>{@link org.eclipse.microprofile.faulttolerance.Timeout}</li>
  *     <li>{@link org.eclipse.microprofile.faulttolerance.Asynchronous}</li>
  * </ol>
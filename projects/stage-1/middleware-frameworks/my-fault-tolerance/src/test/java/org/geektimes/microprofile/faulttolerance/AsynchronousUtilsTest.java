@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link AsynchronousUtils} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class AsynchronousUtilsTest {
+
+    @Test
+    public void testToCompletableFuture() throws Throwable {
+        FutureTask<Object> future = new FutureTask<>(() -> "OK");
+        CompletableFuture<Object> completableFuture = AsynchronousUtils.toCompletableFuture(future);
+        assertFalse(completableFuture.isDone());
+        future.run();
+        assertEquals("OK", completableFuture.get());
+    }
+
+    @Test
+    public void testToCompletableFutureOnFailure() throws Throwable {
+        FutureTask<Object> future = new FutureTask<>(() -> {
+            throw new IllegalStateException();
+        });
+        CompletableFuture<Object> completableFuture = AsynchronousUtils.toCompletableFuture(future);
+        future.run();
+        try {
+            completableFuture.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testCancel() throws Throwable {
+        CountDownLatch latch = new CountDownLatch(1);
+        FutureTask<Object> future = new FutureTask<>(() -> {
+            latch.await();
+            return "OK";
+        });
+        CompletableFuture<Object> completableFuture = AsynchronousUtils.toCompletableFuture(future);
+        completableFuture.cancel(true);
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void testSchedule() throws Throwable {
+        CompletableFuture<String> thread = new CompletableFuture<>();
+        AsynchronousUtils.schedule(() -> thread.complete(Thread.currentThread().getName()), 1,
+                TimeUnit.MILLISECONDS);
+        assertFalse(thread.get().startsWith("FaultTolerance-Timer"));
+    }
+}
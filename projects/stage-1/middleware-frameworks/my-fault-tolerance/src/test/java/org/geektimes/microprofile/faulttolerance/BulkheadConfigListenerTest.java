@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.geektimes.configuration.microprofile.config.DefaultConfigBuilder;
+import org.geektimes.configuration.microprofile.config.source.DynamicConfigSource;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link BulkheadConfigListener} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class BulkheadConfigListenerTest {
+
+    private static final String CLASS_PREFIX = BulkheadConfigListenerTest.class.getName() + "/Bulkhead/";
+
+    private static final String METHOD_PREFIX = BulkheadConfigListenerTest.class.getName() + "/execute/Bulkhead/";
+
+    private final DynamicConfigSource configSource = new DynamicConfigSource();
+
+    private Config config;
+
+    private BulkheadState state;
+
+    private BulkheadConfigListener listener;
+
+    @Before
+    public void init() throws Exception {
+        config = new DefaultConfigBuilder(getClass().getClassLoader()).withSources(configSource).build();
+        Method method = getClass().getMethod("execute");
+        Bulkhead bulkhead = method.getAnnotation(Bulkhead.class);
+        state = new BulkheadState(bulkhead, null);
+        listener = new BulkheadConfigListener(method, bulkhead, state);
+    }
+
+    @Test
+    public void testRetune() {
+        configSource.update(singletonMap("Bulkhead/value", "3"));
+        listener.bind(config);
+        assertEquals(3, state.getMaxConcurrentRequests());
+        assertEquals(5, state.getWaitingTaskQueue());
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("Bulkhead/value", "3");
+        properties.put(CLASS_PREFIX + "value", "4");
+        properties.put(CLASS_PREFIX + "waitingTaskQueue", "6");
+        configSource.update(properties);
+        assertEquals(4, state.getMaxConcurrentRequests());
+        assertEquals(6, state.getWaitingTaskQueue());
+
+        // The property of method takes precedence
+        properties.put(METHOD_PREFIX + "value", "7");
+        configSource.update(properties);
+        assertEquals(7, state.getMaxConcurrentRequests());
+
+        // The invalid values are ignored
+        properties.put(METHOD_PREFIX + "value", "0");
+        configSource.update(properties);
+        assertEquals(7, state.getMaxConcurrentRequests());
+
+        // The values of annotation are restored once the properties are removed
+        configSource.update(singletonMap("other", "1"));
+        assertEquals(2, state.getMaxConcurrentRequests());
+        assertEquals(5, state.getWaitingTaskQueue());
+    }
+
+    @Test
+    public void testUnbind() {
+        listener.bind(config);
+        listener.unbind();
+        configSource.update(singletonMap(METHOD_PREFIX + "value", "8"));
+        assertEquals(2, state.getMaxConcurrentRequests());
+    }
+
+    @Bulkhead(value = 2, waitingTaskQueue = 5)
+    public String execute() {
+        return "OK";
+    }
+}
@@ -16,10 +16,22 @@
  */
 package org.geektimes.microprofile.faulttolerance;
 
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
 import org.geektimes.interceptor.ReflectiveMethodInvocationContext;
 import org.junit.Test;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
 
 /**
  * {@link BulkheadInterceptor} Test
@@ -40,6 +52,63 @@ public class BulkheadInterceptorTest {
         interceptor.intercept(context);
     }
 
+    @Test
+    public void testInThreadIsolationWithoutBlocking() throws Throwable {
+        Method method = getClass().getMethod("holdAsynchronously");
+        ReflectiveMethodInvocationContext context = new ReflectiveMethodInvocationContext(this, method);
+        CompletableFuture<?> running = (CompletableFuture<?>) interceptor.intercept(context);
+        CompletableFuture<?> waiting = (CompletableFuture<?>) interceptor.intercept(context);
+        CompletableFuture<?> rejected = (CompletableFuture<?>) interceptor.intercept(context);
+        assertEquals(1, executions.get());
+        try {
+            rejected.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof BulkheadException);
+        }
+
+        // The waiting execution is started once the running one completes
+        pending.complete("OK");
+        assertEquals("OK", running.get());
+        assertEquals("OK", waiting.get());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void testStatePerMethod() throws Throwable {
+        Method method = getClass().getMethod("holdAsynchronously");
+        Method otherMethod = getClass().getMethod("holdOtherAsynchronously");
+        Bulkhead bulkhead = method.getAnnotation(Bulkhead.class);
+        assertEquals(bulkhead, otherMethod.getAnnotation(Bulkhead.class));
+        assertNotSame(BulkheadInterceptor.getState(method, bulkhead),
+                BulkheadInterceptor.getState(otherMethod, bulkhead));
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = BulkheadInterceptor.createObjectName(method);
+        assertTrue(mBeanServer.isRegistered(objectName));
+        assertEquals(1, mBeanServer.getAttribute(objectName, "MaxConcurrentRequests"));
+        assertEquals(false, mBeanServer.getAttribute(objectName, "Adaptive"));
+    }
+
+    @Test
+    public void testRelease() throws Throwable {
+        Method method = getClass().getMethod("holdOtherAsynchronously");
+        Bulkhead bulkhead = method.getAnnotation(Bulkhead.class);
+        BulkheadState state = BulkheadInterceptor.getState(method, bulkhead);
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = BulkheadInterceptor.createObjectName(method);
+        assertTrue(mBeanServer.isRegistered(objectName));
+
+        BulkheadInterceptor.release(getClass().getClassLoader());
+        assertFalse(mBeanServer.isRegistered(objectName));
+
+        // The state is recreated on demand
+        assertNotSame(state, BulkheadInterceptor.getState(method, bulkhead));
+        assertTrue(mBeanServer.isRegistered(objectName));
+        BulkheadInterceptor.release(method);
+        assertFalse(mBeanServer.isRegistered(objectName));
+    }
+
     @Test
     public void testInSemaphoreIsolation() throws Throwable {
         EchoService echoService = new EchoService();
@@ -49,5 +118,20 @@ public class BulkheadInterceptorTest {
         interceptor.intercept(context);
     }
 
-}
+    private final AtomicInteger executions = new AtomicInteger();
 
+    private final CompletableFuture<String> pending = new CompletableFuture<>();
+
+    @Asynchronous
+    @Bulkhead(value = 1, waitingTaskQueue = 1)
+    public CompletionStage<String> holdAsynchronously() {
+        executions.incrementAndGet();
+        return pending;
+    }
+
+    @Asynchronous
+    @Bulkhead(value = 1, waitingTaskQueue = 1)
+    public CompletionStage<String> holdOtherAsynchronously() {
+        return pending;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.geektimes.interceptor.ReflectiveMethodInvocationContext;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link BulkheadState} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class BulkheadStateTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final Queue<CompletableFuture<String>> pendings = new ConcurrentLinkedQueue<>();
+
+    private long latency;
+
+    @Test
+    public void testAdaptiveDecrease() throws Throwable {
+        BulkheadState state = newState("execute");
+        assertTrue(state.isAdaptive());
+        assertEquals(10, state.getMaxConcurrentRequests());
+
+        // The baseline is 10 ms
+        execute(state, 10, 10);
+        assertEquals(10, state.getMaxConcurrentRequests());
+
+        // The latency exceeds the baseline twice
+        execute(state, 30, 4);
+        assertEquals(9, state.getMaxConcurrentRequests());
+    }
+
+    @Test
+    public void testAdaptiveIncreaseByWaitTime() throws Throwable {
+        BulkheadState state = newState("executeAsynchronously");
+        ReflectiveMethodInvocationContext context = newContext("executeAsynchronously");
+        CompletableFuture<Object> running = state.executeAsynchronously(context);
+        CompletableFuture<Object> waiting = state.executeAsynchronously(context);
+        CompletableFuture<Object> rejected = state.executeAsynchronously(context);
+        assertEquals(1, state.getActiveRequests());
+        assertEquals(1, state.getQueuedRequests());
+        assertEquals(1, state.getRejectedRequests());
+        try {
+            rejected.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof BulkheadException);
+        }
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        pendings.poll().complete("OK");
+        assertEquals("OK", running.get());
+        // The waiting one waited for 50 ms
+        assertEquals(1, state.getActiveRequests());
+        assertEquals(0, state.getQueuedRequests());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(60));
+        pendings.poll().complete("OK");
+        assertEquals("OK", waiting.get());
+        assertEquals(2, state.getMaxConcurrentRequests());
+        // Only the queued request is recorded
+        assertEquals(Long.valueOf(0), state.getWaitTimeHistogram().get("1"));
+        assertEquals(Long.valueOf(1), state.getWaitTimeHistogram().get("50"));
+    }
+
+    @Test
+    public void testRejectedInSemaphoreIsolation() throws Throwable {
+        BulkheadState state = newState("executeNested", BulkheadState.class);
+        assertEquals("OK", state.execute(newContext("executeNested", state)));
+        assertEquals(1, state.getRejectedRequests());
+        assertEquals(0, state.getActiveRequests());
+        assertFalse(state.isAdaptive());
+        // No request waits under semaphore isolation
+        assertTrue(state.getWaitTimeHistogram().values().stream().allMatch(count -> count == 0));
+    }
+
+    @Test
+    public void testRetune() throws Throwable {
+        BulkheadState state = newState("executeAsynchronously");
+        ReflectiveMethodInvocationContext context = newContext("executeAsynchronously");
+        CompletableFuture<Object> running = state.executeAsynchronously(context);
+        CompletableFuture<Object> waiting = state.executeAsynchronously(context);
+        assertEquals(1, state.getActiveRequests());
+        assertEquals(1, state.getQueuedRequests());
+
+        // The waiting request is started once the limit is increased
+        state.retune(2, 3);
+        assertEquals(2, state.getMaxConcurrentRequests());
+        assertEquals(3, state.getWaitingTaskQueue());
+        assertEquals(2, state.getActiveRequests());
+        assertEquals(0, state.getQueuedRequests());
+
+        // The running requests complete as usual after the limit is decreased
+        state.retune(1, 1);
+        pendings.poll().complete("OK");
+        pendings.poll().complete("OK");
+        assertEquals("OK", running.get());
+        assertEquals("OK", waiting.get());
+        assertEquals(0, state.getActiveRequests());
+
+        try {
+            state.retune(0, 1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        assertEquals(1, state.getMaxConcurrentRequests());
+    }
+
+    private BulkheadState newState(String methodName, Class<?>... parameterTypes) throws Exception {
+        Method method = getClass().getMethod(methodName, parameterTypes);
+        return new BulkheadState(method.getAnnotation(Bulkhead.class), method.getAnnotation(AdaptiveBulkhead.class),
+                clock::get);
+    }
+
+    private ReflectiveMethodInvocationContext newContext(String methodName, Object... parameters) throws Exception {
+        Class<?>[] parameterTypes = new Class[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            parameterTypes[i] = parameters[i].getClass();
+        }
+        return new ReflectiveMethodInvocationContext(this, getClass().getMethod(methodName, parameterTypes),
+                parameters);
+    }
+
+    private void execute(BulkheadState state, long latencyMillis, int times) throws Exception {
+        latency = TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+        ReflectiveMethodInvocationContext context = newContext("execute");
+        for (int i = 0; i < times; i++) {
+            assertEquals("OK", state.execute(context));
+        }
+    }
+
+    @Bulkhead(10)
+    @AdaptiveBulkhead(minConcurrentRequests = 2, maxConcurrentRequests = 20, interval = 100)
+    public String execute() {
+        clock.addAndGet(latency);
+        return "OK";
+    }
+
+    @Bulkhead(value = 1, waitingTaskQueue = 1)
+    @AdaptiveBulkhead(interval = 100)
+    public CompletionStage<String> executeAsynchronously() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        pendings.offer(pending);
+        return pending;
+    }
+
+    @Bulkhead(1)
+    public String executeNested(BulkheadState state) throws Exception {
+        // The permit is held by the outer execution
+        try {
+            state.execute(newContext("execute"));
+            fail();
+        } catch (BulkheadException ignored) {
+        }
+        return "OK";
+    }
+}
@@ -41,21 +41,43 @@ public class CircuitBreakerInterceptorTest {
         InvocationContext context = new ReflectiveMethodInvocationContext(this, method);
         try {
             interceptor.intercept(context);
-        } catch (Throwable e) {
-
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // The failure is propagated
         }
 
         CircuitBreaker circuitBreaker = method.getAnnotation(CircuitBreaker.class);
-        CircuitBreakerInterceptor.CountableSlidingWindow slidingWindow = interceptor.getSlidingWindow(circuitBreaker);
-        Assert.assertFalse(slidingWindow.shouldReset());
-        Assert.assertTrue(slidingWindow.isOpen());
-        Assert.assertFalse(slidingWindow.isClosed());
-        Assert.assertFalse(slidingWindow.isHalfOpen());
-        interceptor.intercept(context);
+        CircuitBreakerState state = CircuitBreakerInterceptor.getState(method, circuitBreaker);
+        Assert.assertTrue(state.isOpen());
+        Assert.assertFalse(state.isClosed());
+        Assert.assertFalse(state.isHalfOpen());
+        // The state is shared by the interceptors
+        new CircuitBreakerInterceptor().intercept(context);
+    }
+
+    @Test
+    public void testSkipOn() throws Throwable {
+        Method method = getClass().getMethod("skipOn");
+        InvocationContext context = new ReflectiveMethodInvocationContext(this, method);
+        for (int i = 0; i < 3; i++) {
+            try {
+                interceptor.intercept(context);
+                Assert.fail();
+            } catch (UnsupportedOperationException e) {
+                // The failure is propagated
+            }
+        }
+        CircuitBreaker circuitBreaker = method.getAnnotation(CircuitBreaker.class);
+        Assert.assertTrue(CircuitBreakerInterceptor.getState(method, circuitBreaker).isClosed());
     }
 
     @CircuitBreaker(failOn = RuntimeException.class, requestVolumeThreshold = 1)
     public void failOn() {
-        throw new RuntimeException();
+        throw new IllegalStateException();
+    }
+
+    @CircuitBreaker(skipOn = UnsupportedOperationException.class, requestVolumeThreshold = 1)
+    public void skipOn() {
+        throw new UnsupportedOperationException();
     }
 }
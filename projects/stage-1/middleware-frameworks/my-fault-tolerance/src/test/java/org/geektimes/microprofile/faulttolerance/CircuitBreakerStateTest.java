@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link CircuitBreakerState} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class CircuitBreakerStateTest {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private CircuitBreakerState state;
+
+    @Before
+    public void init() throws Exception {
+        CircuitBreaker circuitBreaker = getClass().getMethod("execute").getAnnotation(CircuitBreaker.class);
+        state = new CircuitBreakerState(circuitBreaker, WINDOW_NANOS, clock::get);
+    }
+
+    @Test
+    public void testOpenByFailureRatio() {
+        // 2 failures of 4 requests reach the ratio 0.5
+        recordSuccess();
+        recordSuccess();
+        recordFailure();
+        assertTrue(state.isClosed());
+        recordFailure();
+        assertTrue(state.isOpen());
+        assertRejected();
+    }
+
+    @Test
+    public void testRollingWindow() {
+        recordSuccess();
+        recordFailure();
+        recordFailure();
+        // The requests are rolled out of the window
+        clock.addAndGet(WINDOW_NANOS);
+        recordFailure();
+        recordSuccess();
+        assertTrue(state.isClosed());
+        recordFailure();
+        recordSuccess();
+        assertTrue(state.isClosed());
+        recordFailure();
+        assertTrue(state.isOpen());
+    }
+
+    @Test
+    public void testHalfOpen() {
+        openCircuit();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(99));
+        assertRejected();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+
+        // Only 2 trial permits
+        CircuitBreakerState.Phase trial1 = state.acquire();
+        CircuitBreakerState.Phase trial2 = state.acquire();
+        assertTrue(state.isHalfOpen());
+        assertRejected();
+
+        state.onSuccess(trial1);
+        assertTrue(state.isHalfOpen());
+        state.onSuccess(trial2);
+        assertTrue(state.isClosed());
+
+        // The window is reset when closed
+        recordFailure();
+        assertTrue(state.isClosed());
+    }
+
+    @Test
+    public void testHalfOpenToOpen() {
+        openCircuit();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        CircuitBreakerState.Phase trial = state.acquire();
+        state.onFailure(trial, new RuntimeException());
+        assertTrue(state.isOpen());
+        assertRejected();
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            recordFailure();
+        }
+        assertTrue(state.isOpen());
+    }
+
+    private void recordSuccess() {
+        state.onSuccess(state.acquire());
+    }
+
+    private void recordFailure() {
+        state.onFailure(state.acquire(), new RuntimeException());
+    }
+
+    private void assertRejected() {
+        try {
+            state.acquire();
+            fail("The circuit should be open");
+        } catch (CircuitBreakerOpenException expected) {
+        }
+    }
+
+    @CircuitBreaker(requestVolumeThreshold = 4, failureRatio = 0.5, delay = 100, successThreshold = 2)
+    public void execute() {
+    }
+}
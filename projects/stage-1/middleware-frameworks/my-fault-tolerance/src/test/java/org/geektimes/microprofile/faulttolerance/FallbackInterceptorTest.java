@@ -16,6 +16,7 @@
  */
 package org.geektimes.microprofile.faulttolerance;
 
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
 import org.eclipse.microprofile.faulttolerance.ExecutionContext;
 import org.eclipse.microprofile.faulttolerance.Fallback;
 import org.eclipse.microprofile.faulttolerance.FallbackHandler;
@@ -26,6 +27,8 @@ import org.junit.Test;
 
 import javax.interceptor.InvocationContext;
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import static java.lang.Thread.currentThread;
 import static org.junit.Assert.assertEquals;
@@ -85,6 +88,14 @@ public class FallbackInterceptorTest {
         interceptor.intercept(context);
     }
 
+    @Test
+    public void testAsynchronousFallback() throws Throwable {
+        Method method = getClass().getMethod("failAsynchronously");
+        InvocationContext context = new ReflectiveMethodInvocationContext(this, method);
+        CompletableFuture<?> future = (CompletableFuture<?>) interceptor.intercept(context);
+        assertEquals("Fallback", future.get());
+    }
+
     public String fallback() {
         return "";
     }
@@ -99,6 +110,14 @@ public class FallbackInterceptorTest {
         throw new IllegalStateException();
     }
 
+    @Asynchronous
+    @Fallback(DefaultFallbackHandler.class)
+    public CompletionStage<String> failAsynchronously() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        future.completeExceptionally(new RuntimeException());
+        return future;
+    }
+
     static class DefaultFallbackHandler implements FallbackHandler<String> {
 
         @Override
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.geektimes.interceptor.ReflectiveMethodInvocationContext;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link HedgeInterceptor} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class HedgeInterceptorTest {
+
+    private final HedgeInterceptor interceptor = new HedgeInterceptor();
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+
+    private final Queue<CompletableFuture<String>> pendings = new ConcurrentLinkedQueue<>();
+
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    private final ThreadLocal<String> callerValue = new ThreadLocal<>();
+
+    @Test
+    public void testFirstSuccess() throws Throwable {
+        Method method = getClass().getMethod("slowFirst");
+        ReflectiveMethodInvocationContext context = new ReflectiveMethodInvocationContext(this, method);
+        assertEquals("2", interceptor.intercept(context));
+        // The slow attempt is interrupted, and the interruption is never leaked to the caller thread
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertEquals(1, HedgeInterceptor.getState(method, method.getAnnotation(Hedge.class)).getHedgedAttempts());
+    }
+
+    @Test
+    public void testUninterruptibleSlowAttempt() throws Throwable {
+        Method method = getClass().getMethod("uninterruptibleSlowFirst");
+        ReflectiveMethodInvocationContext context = new ReflectiveMethodInvocationContext(this, method);
+        long startTime = System.nanoTime();
+        try {
+            assertEquals("2", interceptor.intercept(context));
+            // The caller returns once the hedged attempt wins rather than the slow attempt completes
+            assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startTime) < 5);
+        } finally {
+            released.countDown();
+        }
+    }
+
+    @Test
+    public void testFirstAttemptOnCallerThreadWithoutHedge() throws Throwable {
+        Method method = getClass().getMethod("currentThread");
+        ReflectiveMethodInvocationContext context = new ReflectiveMethodInvocationContext(this, method);
+        callerValue.set("caller");
+        try {
+            assertEquals(Thread.currentThread().getName() + ":caller", interceptor.intercept(context));
+        } finally {
+            callerValue.remove();
+        }
+        // The interruption of the caller thread is never leaked
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void testNoHedgeWithoutBudget() throws Throwable {
+        Method method = getClass().getMethod("noBudget");
+        ReflectiveMethodInvocationContext context = new ReflectiveMethodInvocationContext(this, method);
+        assertEquals("1", interceptor.intercept(context));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testAsynchronous() throws Throwable {
+        Method method = getClass().getMethod("slowFirstAsynchronously");
+        ReflectiveMethodInvocationContext context = new ReflectiveMethodInvocationContext(this, method);
+        CompletableFuture<?> future = (CompletableFuture<?>) interceptor.intercept(context);
+        assertEquals("OK", future.get(5, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+        CompletableFuture<String> slowAttempt = pendings.poll();
+        // The slow attempt is cancelled right after the result is completed
+        for (int i = 0; i < 100 && !slowAttempt.isCancelled(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(slowAttempt.isCancelled());
+    }
+
+    @Hedge(delay = 10, percentile = 0)
+    public String slowFirst() throws InterruptedException {
+        int attempt = attempts.incrementAndGet();
+        if (attempt == 1) {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        }
+        return String.valueOf(attempt);
+    }
+
+    @Hedge(delay = 10, percentile = 0)
+    public String uninterruptibleSlowFirst() {
+        int attempt = attempts.incrementAndGet();
+        if (attempt == 1) {
+            // Like the blocking socket read, the interruption is ignored
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (released.getCount() > 0 && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+        }
+        return String.valueOf(attempt);
+    }
+
+    @Hedge(delay = 1000, percentile = 0, maxExtraLoad = 0)
+    public String currentThread() {
+        return Thread.currentThread().getName() + ":" + callerValue.get();
+    }
+
+    @Hedge(delay = 10, percentile = 0, maxExtraLoad = 0)
+    public String noBudget() throws InterruptedException {
+        Thread.sleep(50);
+        return String.valueOf(attempts.incrementAndGet());
+    }
+
+    @org.eclipse.microprofile.faulttolerance.Asynchronous
+    @Hedge(delay = 10, percentile = 0)
+    public CompletionStage<String> slowFirstAsynchronously() {
+        if (attempts.incrementAndGet() == 1) {
+            CompletableFuture<String> pending = new CompletableFuture<>();
+            pendings.offer(pending);
+            return pending;
+        }
+        return CompletableFuture.completedFuture("OK");
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceDefinitionException;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link HedgeState} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class HedgeStateTest {
+
+    @Test
+    public void testPercentileDelay() throws Exception {
+        HedgeState state = newState("percentile");
+        // No delay before enough latencies are observed
+        assertEquals(-1, state.getDelay());
+        for (int i = 1; i <= HedgeState.UPDATE_INTERVAL; i++) {
+            assertEquals(-1, state.getDelay());
+            state.recordLatency(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        // The 95th percentile of 1 ... 64 ms
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(61), state.getDelay());
+    }
+
+    @Test
+    public void testFixedDelay() throws Exception {
+        HedgeState state = newState("fixed");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20), state.getDelay());
+        state.recordLatency(1);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20), state.getDelay());
+    }
+
+    @Test
+    public void testBudget() throws Exception {
+        HedgeState state = newState("fixed");
+        // The budget is full at the beginning : 0.5 * 100 requests
+        for (int i = 0; i < 50; i++) {
+            assertTrue(state.tryAcquireHedge());
+        }
+        assertFalse(state.tryAcquireHedge());
+        // Every request deposits a half token
+        state.onRequest();
+        assertFalse(state.tryAcquireHedge());
+        state.onRequest();
+        assertTrue(state.tryAcquireHedge());
+        assertEquals(51, state.getHedgedAttempts());
+    }
+
+    @Test(expected = FaultToleranceDefinitionException.class)
+    public void testInvalid() throws Exception {
+        newState("invalid");
+    }
+
+    private HedgeState newState(String methodName) throws Exception {
+        return new HedgeState(getClass().getMethod(methodName).getAnnotation(Hedge.class));
+    }
+
+    @Hedge
+    public void percentile() {
+    }
+
+    @Hedge(delay = 20, percentile = 0, maxExtraLoad = 0.5)
+    public void fixed() {
+    }
+
+    @Hedge(percentile = 1)
+    public void invalid() {
+    }
+}
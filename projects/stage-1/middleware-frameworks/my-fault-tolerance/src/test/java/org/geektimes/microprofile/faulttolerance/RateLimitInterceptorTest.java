@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
+import org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceDefinitionException;
+import org.geektimes.interceptor.ReflectiveMethodInvocationContext;
+import org.junit.Test;
+
+import javax.cache.Cache;
+import javax.cache.Caching;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+import static java.time.temporal.ChronoUnit.HOURS;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.Assert.*;
+
+/**
+ * {@link RateLimitInterceptor} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class RateLimitInterceptorTest {
+
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor();
+
+    @Test
+    public void testReject() throws Throwable {
+        ReflectiveMethodInvocationContext context = newContext("reject");
+        assertEquals("OK", interceptor.intercept(context));
+        assertEquals("OK", interceptor.intercept(context));
+        try {
+            interceptor.intercept(context);
+            fail();
+        } catch (RateLimitException ignored) {
+        }
+    }
+
+    @Test
+    public void testWait() throws Throwable {
+        ReflectiveMethodInvocationContext context = newContext("await");
+        long startTime = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("OK", interceptor.intercept(context));
+        }
+        // The 3rd permit is refilled after 50 ms
+        assertTrue(System.nanoTime() - startTime >= 40_000_000L);
+    }
+
+    @Test
+    public void testPerKey() throws Throwable {
+        Method method = getClass().getMethod("perKey", String.class);
+        assertEquals("a", interceptor.intercept(new ReflectiveMethodInvocationContext(this, method, "a")));
+        assertEquals("b", interceptor.intercept(new ReflectiveMethodInvocationContext(this, method, "b")));
+        try {
+            interceptor.intercept(new ReflectiveMethodInvocationContext(this, method, "a"));
+            fail();
+        } catch (RateLimitException ignored) {
+        }
+        assertEquals(2, RateLimitInterceptor.getState(method, method.getAnnotation(RateLimit.class)).getKeys());
+    }
+
+    @Test
+    public void testAsynchronous() throws Throwable {
+        ReflectiveMethodInvocationContext context = newContext("rejectAsynchronously");
+        assertEquals("OK", ((CompletableFuture<?>) interceptor.intercept(context)).get());
+        CompletableFuture<?> rejected = (CompletableFuture<?>) interceptor.intercept(context);
+        try {
+            rejected.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RateLimitException);
+        }
+    }
+
+    @Test
+    public void testShared() throws Throwable {
+        ReflectiveMethodInvocationContext context = newContext("shared");
+        // The other node acquires the permit by the same cache
+        RateLimitState otherState = new RateLimitState(context.getMethod(),
+                context.getMethod().getAnnotation(RateLimit.class));
+        assertEquals(0, otherState.getRateLimiter(context.getParameters()).tryAcquire());
+        assertEquals("OK", interceptor.intercept(context));
+        try {
+            interceptor.intercept(context);
+            fail();
+        } catch (RateLimitException ignored) {
+        }
+    }
+
+    @Test
+    public void testSharedExpiry() throws Throwable {
+        Method method = getClass().getMethod("sharedPerKey", String.class);
+        assertEquals("a", interceptor.intercept(new ReflectiveMethodInvocationContext(this, method, "a")));
+        Cache<String, long[]> cache = Caching.getCachingProvider(getClass().getClassLoader()).getCacheManager()
+                .getCache("expiringRateLimits", String.class, long[].class);
+        String key = method.toGenericString() + "#a";
+        assertNotNull(cache.get(key));
+        // The state of key is idle after (interval + tolerance)
+        Thread.sleep(200);
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testAsynchronousWait() throws Throwable {
+        ReflectiveMethodInvocationContext context = newContext("awaitAsynchronously");
+        assertNotNull(((CompletableFuture<?>) interceptor.intercept(context)).get());
+        // The delayed call is not proceeded by the timer
+        String thread = (String) ((CompletableFuture<?>) interceptor.intercept(context)).get();
+        assertFalse(thread.startsWith("FaultTolerance-Timer"));
+    }
+
+    @Test(expected = FaultToleranceDefinitionException.class)
+    public void testInvalidKeyParameter() throws Throwable {
+        interceptor.intercept(newContext("invalid"));
+    }
+
+    private ReflectiveMethodInvocationContext newContext(String methodName) throws Exception {
+        return new ReflectiveMethodInvocationContext(this, getClass().getMethod(methodName));
+    }
+
+    @RateLimit(value = 2, period = 1, periodUnit = HOURS)
+    public String reject() {
+        return "OK";
+    }
+
+    @RateLimit(value = 20, burst = 2, maxWait = 1000)
+    public String await() {
+        return "OK";
+    }
+
+    @RateLimit(value = 1, period = 1, periodUnit = HOURS, keyParameter = 0,
+            algorithm = RateLimit.Algorithm.SLIDING_WINDOW)
+    public String perKey(String key) {
+        return key;
+    }
+
+    @Asynchronous
+    @RateLimit(value = 1, period = 1, periodUnit = HOURS)
+    public CompletionStage<String> rejectAsynchronously() {
+        return completedFuture("OK");
+    }
+
+    @RateLimit(value = 2, period = 1, periodUnit = HOURS, cacheName = "rateLimits")
+    public String shared() {
+        return "OK";
+    }
+
+    @RateLimit(value = 1, period = 50, periodUnit = MILLIS, keyParameter = 0, cacheName = "expiringRateLimits")
+    public String sharedPerKey(String key) {
+        return key;
+    }
+
+    @Asynchronous
+    @RateLimit(value = 20, maxWait = 1000)
+    public CompletionStage<String> awaitAsynchronously() {
+        return completedFuture(Thread.currentThread().getName());
+    }
+
+    @RateLimit(keyParameter = 0)
+    public String invalid() {
+        return "OK";
+    }
+}
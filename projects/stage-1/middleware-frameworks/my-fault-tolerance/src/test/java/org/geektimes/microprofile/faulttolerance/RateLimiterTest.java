@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.microprofile.faulttolerance;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link TokenBucketRateLimiter} and {@link SlidingWindowRateLimiter} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class RateLimiterTest {
+
+    private static final long PERIOD = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void testTokenBucket() {
+        // 10 permits per second, the burst is 5
+        long interval = PERIOD / 10;
+        RateLimiter rateLimiter = new TokenBucketRateLimiter(interval, interval * 4, clock::get);
+        assertTrue(rateLimiter.isIdle());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire());
+        }
+        assertEquals(interval, rateLimiter.tryAcquire());
+        assertFalse(rateLimiter.isIdle());
+
+        // A token is refilled every interval
+        clock.addAndGet(interval);
+        assertEquals(0, rateLimiter.tryAcquire());
+        assertEquals(interval, rateLimiter.tryAcquire());
+
+        // The bucket is full again
+        clock.addAndGet(interval * 5);
+        assertTrue(rateLimiter.isIdle());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire());
+        }
+        assertTrue(rateLimiter.tryAcquire() > 0);
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        RateLimiter rateLimiter = new SlidingWindowRateLimiter(PERIOD, 10, clock::get);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, rateLimiter.tryAcquire());
+        }
+        // Wait for the next window
+        assertEquals(PERIOD, rateLimiter.tryAcquire());
+
+        // 10 * 0.5 of previous window are counted
+        clock.addAndGet(PERIOD + PERIOD / 2);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire());
+        }
+        // The weight of previous window decreases 0.1 per 100 ms
+        assertEquals(PERIOD / 10, rateLimiter.tryAcquire());
+        clock.addAndGet(PERIOD / 10);
+        assertEquals(0, rateLimiter.tryAcquire());
+        assertFalse(rateLimiter.isIdle());
+
+        clock.addAndGet(PERIOD * 2);
+        assertTrue(rateLimiter.isIdle());
+    }
+}
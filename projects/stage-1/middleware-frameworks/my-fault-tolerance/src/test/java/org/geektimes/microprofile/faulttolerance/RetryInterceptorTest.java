@@ -16,10 +16,18 @@
  */
 package org.geektimes.microprofile.faulttolerance;
 
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
+import org.eclipse.microprofile.faulttolerance.Retry;
 import org.geektimes.interceptor.ReflectiveMethodInvocationContext;
 import org.junit.Test;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 /**
  * {@link RetryInterceptor} Test
@@ -31,8 +39,11 @@ public class RetryInterceptorTest {
 
     private RetryInterceptor interceptor = new RetryInterceptor();
 
-    @Test
-    public void test() throws Throwable {
+    /**
+     * The last failure is thrown after the retries are exhausted rather than the null result
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRetriesExhausted() throws Throwable {
         EchoService echoService = new EchoService();
         Method method = EchoService.class.getMethod("echo", Long.class);
         ReflectiveMethodInvocationContext context = new ReflectiveMethodInvocationContext
@@ -40,4 +51,70 @@ public class RetryInterceptorTest {
         interceptor.intercept(context);
     }
 
+    /**
+     * The failure that is not retried is thrown right after the first attempt
+     */
+    @Test
+    public void testNotRetryOn() throws Throwable {
+        Method method = getClass().getMethod("notRetryOn");
+        ReflectiveMethodInvocationContext context = new ReflectiveMethodInvocationContext(this, method);
+        try {
+            interceptor.intercept(context);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testAsynchronous() throws Throwable {
+        Method method = getClass().getMethod("retryAsynchronously");
+        ReflectiveMethodInvocationContext context = new ReflectiveMethodInvocationContext(this, method);
+        CompletableFuture<?> future = (CompletableFuture<?>) interceptor.intercept(context);
+        assertEquals("OK", future.get());
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testAsynchronousWithoutDelay() throws Throwable {
+        Method method = getClass().getMethod("retryAsynchronouslyWithoutDelay");
+        ReflectiveMethodInvocationContext context = new ReflectiveMethodInvocationContext(this, method);
+        CompletableFuture<?> future = (CompletableFuture<?>) interceptor.intercept(context);
+        // The retries of the failed stages are not nested in the stack
+        assertEquals("OK", future.get());
+        assertEquals(10000, attempts.get());
+    }
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Retry(maxRetries = 3, delay = 0, jitter = 0, maxDuration = 0, retryOn = IllegalStateException.class)
+    public String notRetryOn() {
+        attempts.incrementAndGet();
+        throw new IllegalArgumentException();
+    }
+
+    @Asynchronous
+    @Retry(maxRetries = 3, delay = 10, jitter = 0, retryOn = IllegalStateException.class)
+    public CompletionStage<String> retryAsynchronously() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        if (attempts.incrementAndGet() < 3) {
+            future.completeExceptionally(new IllegalStateException());
+        } else {
+            future.complete("OK");
+        }
+        return future;
+    }
+
+    @Asynchronous
+    @Retry(maxRetries = 10000, delay = 0, jitter = 0, maxDuration = 0, retryOn = IllegalStateException.class)
+    public CompletionStage<String> retryAsynchronouslyWithoutDelay() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        if (attempts.incrementAndGet() < 10000) {
+            future.completeExceptionally(new IllegalStateException());
+        } else {
+            future.complete("OK");
+        }
+        return future;
+    }
+
 }
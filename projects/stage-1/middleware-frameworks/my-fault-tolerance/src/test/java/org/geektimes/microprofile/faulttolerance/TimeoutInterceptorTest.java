@@ -16,6 +16,21 @@
  */
 package org.geektimes.microprofile.faulttolerance;
 
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+import org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException;
+import org.geektimes.interceptor.ReflectiveMethodInvocationContext;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
 /**
  * {@link TimeoutInterceptor} Test
  *
@@ -23,4 +38,55 @@ package org.geektimes.microprofile.faulttolerance;
  * @since 1.0.0
  */
 public class TimeoutInterceptorTest {
+
+    private final TimeoutInterceptor interceptor = new TimeoutInterceptor();
+
+    private final CompletableFuture<String> pending = new CompletableFuture<>();
+
+    @Test
+    public void testAsynchronous() throws Throwable {
+        Method method = getClass().getMethod("timeoutAsynchronously");
+        ReflectiveMethodInvocationContext context = new ReflectiveMethodInvocationContext(this, method);
+        CompletableFuture<?> future = (CompletableFuture<?>) interceptor.intercept(context);
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        // The call is cancelled right after the result is failed
+        for (int i = 0; i < 100 && !pending.isCancelled(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(pending.isCancelled());
+    }
+
+    @Test
+    public void testDependentStagesNotOnTimer() throws Throwable {
+        Method method = getClass().getMethod("timeoutAsynchronously");
+        ReflectiveMethodInvocationContext context = new ReflectiveMethodInvocationContext(this, method);
+        CompletableFuture<?> future = (CompletableFuture<?>) interceptor.intercept(context);
+        CompletableFuture<String> thread = future.handle((value, failure) -> Thread.currentThread().getName());
+        assertFalse(thread.get().startsWith("FaultTolerance-Timer"));
+    }
+
+    /**
+     * The failure of the synchronous execution is thrown as-is rather than {@link ExecutionException}
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testSynchronousFailure() throws Throwable {
+        Method method = getClass().getMethod("failSynchronously");
+        interceptor.intercept(new ReflectiveMethodInvocationContext(this, method));
+    }
+
+    @Timeout(1000)
+    public String failSynchronously() {
+        throw new IllegalStateException();
+    }
+
+    @Asynchronous
+    @Timeout(50)
+    public CompletionStage<String> timeoutAsynchronously() {
+        return pending;
+    }
 }
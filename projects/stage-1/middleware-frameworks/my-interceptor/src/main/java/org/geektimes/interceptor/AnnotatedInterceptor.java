@@ -277,6 +277,15 @@ public abstract class AnnotatedInterceptor<A extends Annotation> implements Inte
         return failure;
     }
 
+    /**
+     * Get the type of interceptor binding
+     *
+     * @return non-null
+     */
+    public Class<A> getInterceptorBindingType() {
+        return interceptorBindingType;
+    }
+
     public InterceptorManager getInterceptorRegistry() {
         return interceptorManager;
     }
@@ -16,19 +16,14 @@
  */
 package org.geektimes.interceptor;
 
-import javax.annotation.PostConstruct;
-import javax.annotation.PreDestroy;
 import javax.interceptor.InvocationContext;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.Collection;
-import java.util.List;
 import java.util.Map;
 
-import static org.geektimes.interceptor.InterceptorManager.getInstance;
-
 /**
- * Chainable {@link InvocationContext}
+ * Chainable {@link InvocationContext}, which walks the {@link InterceptorChain}
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0.0
@@ -37,20 +32,29 @@ public class ChainableInvocationContext implements InvocationContext {
 
     private final InvocationContext delegateContext;
 
-    private final List<Object> interceptors; // @Interceptor class instances
+    private final InterceptorChain chain;
 
-    private final int size;
+    private final int pos; // position
 
-    private final InterceptorManager interceptorManager;
+    public ChainableInvocationContext(InvocationContext delegateContext, Object... defaultInterceptors) {
+        this(delegateContext, new InterceptorChain(delegateContext, defaultInterceptors));
+    }
 
-    private int pos; // position
+    /**
+     * @param delegateContext the {@link InvocationContext} that invokes the target
+     * @param chain           the resolved {@link InterceptorChain}, which may be shared by the invocations
+     */
+    public ChainableInvocationContext(InvocationContext delegateContext, InterceptorChain chain) {
+        this(delegateContext, chain, 0);
+    }
 
-    public ChainableInvocationContext(InvocationContext delegateContext, Object... defaultInterceptors) {
+    /**
+     * The context of the given position in the chain
+     */
+    private ChainableInvocationContext(InvocationContext delegateContext, InterceptorChain chain, int pos) {
         this.delegateContext = delegateContext;
-        this.interceptorManager = getInstance(resolveClassLoader(defaultInterceptors));
-        this.interceptors = resolveInterceptors(defaultInterceptors);
-        this.size = this.interceptors.size();
-        this.pos = 0;
+        this.chain = chain;
+        this.pos = pos;
     }
 
     @Override
@@ -90,58 +94,23 @@ public class ChainableInvocationContext implements InvocationContext {
 
     @Override
     public Object proceed() throws Exception {
-        if (pos < size) {
-            int currentPos = pos++;
-            Object interceptor = interceptors.get(currentPos);
-            Collection<Method> interceptionMethods = resolveInterceptionMethods(interceptor);
+        if (pos < chain.size()) {
+            Object interceptor = chain.getInterceptor(pos);
+            // The context of the next position is immutable, thus the interceptor could proceed again
+            // (e.g, retry) or later in the other thread (e.g, asynchronous)
+            ChainableInvocationContext nextContext = new ChainableInvocationContext(delegateContext, chain, pos + 1);
             Object result = null;
-            for (Method interceptionMethod : interceptionMethods) {
-                result = interceptionMethod.invoke(interceptor, this);
+            try {
+                for (Method interceptionMethod : chain.getInterceptionMethods(pos)) {
+                    result = interceptionMethod.invoke(interceptor, nextContext);
+                }
+            } catch (InvocationTargetException e) {
+                // The failure of the interceptor or the target is thrown as-is
+                throw ReflectiveMethodInvocationContext.getFailure(e);
             }
             return result;
         } else {
             return delegateContext.proceed();
         }
     }
-
-    private ClassLoader resolveClassLoader(Object[] interceptors) {
-        Object target = interceptors.length > 0 ? interceptors[0] : this;
-        return target.getClass().getClassLoader();
-    }
-
-    private List<Object> resolveInterceptors(Object[] defaultInterceptors) {
-        Method method = getMethod();
-        if (method != null) {
-            return interceptorManager.resolveInterceptors(method, defaultInterceptors);
-        }
-        return interceptorManager.resolveInterceptors(getConstructor(), defaultInterceptors);
-    }
-
-
-    private Collection<Method> resolveInterceptionMethods(Object interceptor) {
-        InterceptorInfo interceptorInfo = interceptorManager.getInterceptorInfo(interceptor.getClass());
-
-        if (interceptorInfo == null) { // interceptor may be a default(external) Interceptor
-            interceptorInfo = new InterceptorInfo(interceptor.getClass());
-        }
-
-        final Collection<Method> interceptionMethods;  // nerver null
-
-        if (getTimer() != null) { // If the "Timer" is present
-            interceptionMethods = interceptorInfo.getAroundTimeoutMethods();
-        } else if (getConstructor() != null) { // If the "Constructor" should be intercepted
-            interceptionMethods = interceptorInfo.getAroundConstructMethods();
-        } else {
-            Method method = getMethod();
-            if (method.isAnnotationPresent(PostConstruct.class)) {
-                interceptionMethods = interceptorInfo.getPostConstructMethods();
-            } else if (method.isAnnotationPresent(PreDestroy.class)) {
-                interceptionMethods = interceptorInfo.getPreDestroyMethods();
-            } else {
-                interceptionMethods = interceptorInfo.getAroundInvokeMethods();
-            }
-        }
-
-        return interceptionMethods;
-    }
 }
@@ -26,6 +26,8 @@ import javax.interceptor.ExcludeDefaultInterceptors;
 import javax.interceptor.Interceptor;
 import javax.interceptor.Interceptors;
 import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Target;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Method;
@@ -45,6 +47,14 @@ import static org.geektimes.interceptor.util.InterceptorUtils.*;
  */
 public class DefaultInterceptorManager implements InterceptorManager {
 
+    /**
+     * The interceptors are ordered by the priorities, and the ones of the same priority are distinguished by
+     * the class names, otherwise only one of them would be kept
+     */
+    private static final Comparator<Object> INTERCEPTOR_COMPARATOR = PriorityComparator.INSTANCE
+            .thenComparing(interceptor -> (interceptor instanceof Class ? (Class<?>) interceptor :
+                    interceptor.getClass()).getName());
+
     /**
      * The supported annotation types of interceptor binding.
      */
@@ -60,6 +70,12 @@ public class DefaultInterceptorManager implements InterceptorManager {
      */
     private final Map<InterceptorBindings, SortedSet<Object>> bindingInterceptors;
 
+    /**
+     * The {@link AnnotatedInterceptor} classes map their interceptor binding types that only target the methods
+     * (e.g, @Fallback), which can't annotate the classes
+     */
+    private final Map<Class<?>, Class<? extends Annotation>> methodInterceptorBindingTypes;
+
     /**
      * The cache for {@link Method} or {@link Constructor} mapping the prioritized {@link Interceptor @Interceptor}
      * {@link Class classes}
@@ -73,8 +89,9 @@ public class DefaultInterceptorManager implements InterceptorManager {
 
     public DefaultInterceptorManager() {
         this.interceptorBindingTypes = new HashSet<>();
-        this.interceptorInfoRepository = new TreeMap<>(PriorityComparator.INSTANCE);
+        this.interceptorInfoRepository = new TreeMap<>(INTERCEPTOR_COMPARATOR);
         this.bindingInterceptors = new HashMap<>();
+        this.methodInterceptorBindingTypes = new HashMap<>();
         this.executableInterceptorClasses = new HashMap<>();
         this.interceptorRepository = new HashMap<>();
         registerDefaultInterceptorBindingType();
@@ -98,6 +115,14 @@ public class DefaultInterceptorManager implements InterceptorManager {
     private void registerRegularInterceptor(InterceptorInfo interceptorInfo, Object interceptor) {
         InterceptorBindings interceptorBindings = interceptorInfo.getInterceptorBindings();
         registerInterceptor(interceptorBindings, interceptor);
+        if (interceptorBindings.getInterceptorBindingTypes().isEmpty() && interceptor instanceof AnnotatedInterceptor) {
+            Class<? extends Annotation> interceptorBindingType =
+                    ((AnnotatedInterceptor<?>) interceptor).getInterceptorBindingType();
+            // The binding type that could annotate the class is bound by the class of interceptor only
+            if (!isTypeAnnotation(interceptorBindingType)) {
+                methodInterceptorBindingTypes.put(interceptorInfo.getInterceptorClass(), interceptorBindingType);
+            }
+        }
     }
 
     private void registerLifecycleEventInterceptor(InterceptorInfo interceptorInfo, Object interceptor) {
@@ -193,6 +218,14 @@ public class DefaultInterceptorManager implements InterceptorManager {
                 matched &= interceptorBindingInfo.equals(annotation);
             }
 
+            if (!matched && interceptorBindings.getInterceptorBindingTypes().isEmpty()) {
+                // The interceptor binding type that only targets the methods (e.g, @Fallback) can't annotate the
+                // class of AnnotatedInterceptor, thus it's bound by the type of interceptor binding
+                Class<? extends Annotation> interceptorBindingType =
+                        methodInterceptorBindingTypes.get(interceptorInfo.getInterceptorClass());
+                matched = interceptorBindingType != null && searchAnnotation(executable, interceptorBindingType) != null;
+            }
+
             if (matched) {
                 bindingInterceptorClasses.add(interceptorInfo.getInterceptorClass());
             }
@@ -204,7 +237,6 @@ public class DefaultInterceptorManager implements InterceptorManager {
         return bindingInterceptorClasses;
     }
 
-
     @Override
     public void registerInterceptorBindingType(Class<? extends Annotation> interceptorBindingType) {
         this.interceptorBindingTypes.add(interceptorBindingType);
@@ -264,6 +296,11 @@ public class DefaultInterceptorManager implements InterceptorManager {
         registerInterceptorBindingType(PreDestroy.class);
     }
 
+    private static boolean isTypeAnnotation(Class<? extends Annotation> annotationType) {
+        Target target = annotationType.getAnnotation(Target.class);
+        return target == null || asList(target.value()).contains(ElementType.TYPE);
+    }
+
     private boolean isExcludedDefaultInterceptors(Executable executable) {
         if (executable != null && !executable.isAnnotationPresent(ExcludeDefaultInterceptors.class)) {
             return findAnnotation(executable.getDeclaringClass(), ExcludeDefaultInterceptors.class) != null;
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.interceptor;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.interceptor.InvocationContext;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+
+import static org.geektimes.interceptor.InterceptorManager.getInstance;
+
+/**
+ * The immutable chain of the {@link javax.interceptor.Interceptor @Interceptor} instances and their interception
+ * methods for a {@link Method method} or {@link Constructor constructor}, which is resolved once and could be shared
+ * by all invocations, thus an invocation only walks the arrays rather than resolving the interceptors again.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ChainableInvocationContext
+ * @since 1.0.0
+ */
+public class InterceptorChain {
+
+    private static final Method[] NO_METHODS = new Method[0];
+
+    private final Object[] interceptors; // @Interceptor class instances
+
+    /**
+     * The interception methods of the interceptors at the same positions
+     */
+    private final Method[][] interceptionMethods;
+
+    /**
+     * Resolve the chain for the business method
+     *
+     * @param method              the intercepted {@link Method method}
+     * @param defaultInterceptors the default interceptors that are invoked first
+     */
+    public InterceptorChain(Method method, Object... defaultInterceptors) {
+        this(method, false, defaultInterceptors);
+    }
+
+    /**
+     * Resolve the chain for the method, the constructor or the timeout of the {@link InvocationContext}
+     *
+     * @param context             {@link InvocationContext}
+     * @param defaultInterceptors the default interceptors that are invoked first
+     */
+    public InterceptorChain(InvocationContext context, Object... defaultInterceptors) {
+        this(context.getMethod() != null ? context.getMethod() : context.getConstructor(), context.getTimer() != null,
+                defaultInterceptors);
+    }
+
+    private InterceptorChain(Executable executable, boolean timeout, Object[] defaultInterceptors) {
+        InterceptorManager interceptorManager = getInstance(resolveClassLoader(defaultInterceptors));
+        List<Object> interceptors = interceptorManager.resolveInterceptors(executable, defaultInterceptors);
+        int size = interceptors.size();
+        this.interceptors = interceptors.toArray(new Object[size]);
+        this.interceptionMethods = new Method[size][];
+        for (int i = 0; i < size; i++) {
+            Collection<Method> methods = resolveInterceptionMethods(interceptorManager, this.interceptors[i],
+                    executable, timeout);
+            this.interceptionMethods[i] = methods.toArray(NO_METHODS);
+        }
+    }
+
+    /**
+     * Proceed the invocation through the chain
+     *
+     * @param delegateContext the {@link InvocationContext} that invokes the target
+     * @return the result of invocation
+     * @throws Exception if thrown by the target or any interceptor in the chain
+     */
+    public Object proceed(InvocationContext delegateContext) throws Exception {
+        return new ChainableInvocationContext(delegateContext, this).proceed();
+    }
+
+    /**
+     * @return the number of interceptors
+     */
+    public int size() {
+        return interceptors.length;
+    }
+
+    Object getInterceptor(int position) {
+        return interceptors[position];
+    }
+
+    Method[] getInterceptionMethods(int position) {
+        return interceptionMethods[position];
+    }
+
+    private static ClassLoader resolveClassLoader(Object[] interceptors) {
+        Class<?> type = interceptors.length > 0 ? interceptors[0].getClass() : InterceptorChain.class;
+        return type.getClassLoader();
+    }
+
+    private static Collection<Method> resolveInterceptionMethods(InterceptorManager interceptorManager,
+                                                                 Object interceptor, Executable executable,
+                                                                 boolean timeout) {
+        InterceptorInfo interceptorInfo = interceptorManager.getInterceptorInfo(interceptor.getClass());
+
+        if (interceptorInfo == null) { // interceptor may be a default(external) Interceptor
+            interceptorInfo = new InterceptorInfo(interceptor.getClass());
+        }
+
+        final Collection<Method> interceptionMethods;  // never null
+
+        if (timeout) { // If the "Timer" is present
+            interceptionMethods = interceptorInfo.getAroundTimeoutMethods();
+        } else if (executable instanceof Constructor) { // If the "Constructor" should be intercepted
+            interceptionMethods = interceptorInfo.getAroundConstructMethods();
+        } else if (executable.isAnnotationPresent(PostConstruct.class)) {
+            interceptionMethods = interceptorInfo.getPostConstructMethods();
+        } else if (executable.isAnnotationPresent(PreDestroy.class)) {
+            interceptionMethods = interceptorInfo.getPreDestroyMethods();
+        } else {
+            interceptionMethods = interceptorInfo.getAroundInvokeMethods();
+        }
+
+        return interceptionMethods;
+    }
+}
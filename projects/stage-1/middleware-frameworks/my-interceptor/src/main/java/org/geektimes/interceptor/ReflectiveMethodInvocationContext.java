@@ -18,6 +18,7 @@ package org.geektimes.interceptor;
 
 import javax.interceptor.InvocationContext;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,9 +37,14 @@ public class ReflectiveMethodInvocationContext implements InvocationContext {
 
     private final Method method;
 
+    private static final Object[] NO_PARAMETERS = new Object[0];
+
     private Object[] parameters;
 
-    private final Map<String, Object> contextData;
+    /**
+     * The context data is created on demand, because the most of interceptors don't use it
+     */
+    private Map<String, Object> contextData;
 
     public ReflectiveMethodInvocationContext(Object target, Method method, Object... parameters) {
         requireNonNull(target, "The target instance must not be null");
@@ -46,7 +52,6 @@ public class ReflectiveMethodInvocationContext implements InvocationContext {
         this.target = target;
         this.method = method;
         this.setParameters(parameters);
-        this.contextData = new HashMap<>();
     }
 
     @Override
@@ -76,16 +81,39 @@ public class ReflectiveMethodInvocationContext implements InvocationContext {
 
     @Override
     public final void setParameters(Object[] params) {
-        this.parameters = params != null ? params : new Object[0];
+        this.parameters = params != null ? params : NO_PARAMETERS;
     }
 
     @Override
     public final Map<String, Object> getContextData() {
+        Map<String, Object> contextData = this.contextData;
+        if (contextData == null) {
+            contextData = new HashMap<>();
+            this.contextData = contextData;
+        }
         return contextData;
     }
 
     @Override
     public Object proceed() throws Exception {
-        return method.invoke(getTarget(), getParameters());
+        try {
+            return method.invoke(getTarget(), getParameters());
+        } catch (InvocationTargetException e) {
+            throw getFailure(e);
+        }
+    }
+
+    /**
+     * Get the exception thrown by the invoked method, the {@link Error} is rethrown
+     *
+     * @param e {@link InvocationTargetException}
+     * @return the {@link Exception} thrown by the invoked method, or the given one if the cause is not an exception
+     */
+    static Exception getFailure(InvocationTargetException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return cause instanceof Exception ? (Exception) cause : e;
     }
 }
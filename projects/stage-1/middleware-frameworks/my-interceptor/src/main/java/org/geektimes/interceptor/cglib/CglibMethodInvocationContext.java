@@ -42,6 +42,8 @@ class CglibMethodInvocationContext extends ReflectiveMethodInvocationContext {
     public Object proceed() throws Exception {
         try {
             return proxy.invokeSuper(getTarget(), getParameters());
+        } catch (Exception | Error e) { // thrown as-is
+            throw e;
         } catch (Throwable throwable) {
             throw new Exception(throwable);
         }
@@ -18,13 +18,15 @@ package org.geektimes.interceptor.cglib;
 
 import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.MethodProxy;
-import org.geektimes.interceptor.ChainableInvocationContext;
+import org.geektimes.interceptor.InterceptorChain;
 
-import javax.interceptor.InvocationContext;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * {@link MethodInterceptor} -> @Interceptor chain
+ * {@link MethodInterceptor} -> @Interceptor chain, the {@link InterceptorChain} of the method is resolved on the first
+ * invocation and cached, because the component class of the proxy is fixed.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0.0
@@ -35,6 +37,8 @@ class MethodInterceptorAdapter implements MethodInterceptor {
 
     private final Object[] additionalInterceptors;
 
+    private final ConcurrentMap<Method, InterceptorChain> chains = new ConcurrentHashMap<>();
+
     public MethodInterceptorAdapter(Object target, Object... additionalInterceptors) {
         this.target = target;
         this.additionalInterceptors = additionalInterceptors;
@@ -42,8 +46,14 @@ class MethodInterceptorAdapter implements MethodInterceptor {
 
     @Override
     public Object intercept(Object obj, Method method, Object[] args, MethodProxy proxy) throws Throwable {
-        InvocationContext delegateContext = new CglibMethodInvocationContext(obj, method, proxy, args);
-        ChainableInvocationContext context = new ChainableInvocationContext(delegateContext, additionalInterceptors);
-        return context.proceed();
+        return getChain(method).proceed(new CglibMethodInvocationContext(obj, method, proxy, args));
+    }
+
+    InterceptorChain getChain(Method method) {
+        InterceptorChain chain = chains.get(method);
+        if (chain == null) {
+            chain = chains.computeIfAbsent(method, m -> new InterceptorChain(m, additionalInterceptors));
+        }
+        return chain;
     }
 }
@@ -16,16 +16,18 @@
  */
 package org.geektimes.interceptor.jdk;
 
-import org.geektimes.interceptor.ChainableInvocationContext;
+import org.geektimes.interceptor.InterceptorChain;
 import org.geektimes.interceptor.ReflectiveMethodInvocationContext;
 
 import javax.interceptor.Interceptor;
-import javax.interceptor.InvocationContext;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * {@link InvocationHandler} Adapter based on {@link Interceptor @Interceptor} class
+ * {@link InvocationHandler} Adapter based on {@link Interceptor @Interceptor} class, the {@link InterceptorChain} of
+ * the method is resolved on the first invocation and cached, because the component class of the proxy is fixed.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0.0
@@ -36,6 +38,8 @@ class InvocationHandlerAdapter implements InvocationHandler {
 
     private final Object[] interceptors;
 
+    private final ConcurrentMap<Method, InterceptorChain> chains = new ConcurrentHashMap<>();
+
     public InvocationHandlerAdapter(Object source, Object... additionalInterceptors) {
         this.source = source;
         this.interceptors = additionalInterceptors;
@@ -43,8 +47,14 @@ class InvocationHandlerAdapter implements InvocationHandler {
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        InvocationContext delegateContext = new ReflectiveMethodInvocationContext(source, method, args);
-        ChainableInvocationContext context = new ChainableInvocationContext(delegateContext, interceptors);
-        return context.proceed();
+        return getChain(method).proceed(new ReflectiveMethodInvocationContext(source, method, args));
+    }
+
+    InterceptorChain getChain(Method method) {
+        InterceptorChain chain = chains.get(method);
+        if (chain == null) {
+            chain = chains.computeIfAbsent(method, m -> new InterceptorChain(m, interceptors));
+        }
+        return chain;
     }
 }
@@ -21,6 +21,8 @@ import org.junit.Test;
 import java.lang.reflect.Method;
 
 import static org.geektimes.interceptor.Interceptor.loadInterceptors;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 /**
  * {@link ChainableInvocationContext} Test
@@ -42,4 +44,27 @@ public class ChainableInvocationContextTest {
         context.proceed();
 
     }
+
+    /**
+     * The exception of the target is thrown as-is through the interceptors rather than
+     * {@link java.lang.reflect.InvocationTargetException}
+     */
+    @Test
+    public void testFailure() throws Exception {
+        Method method = getClass().getMethod("failure");
+        ReflectiveMethodInvocationContext delegateContext = new ReflectiveMethodInvocationContext(this, method);
+        ChainableInvocationContext context = new ChainableInvocationContext(delegateContext,
+                new TracingInterceptor());
+        try {
+            context.proceed();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("failure", e.getMessage());
+        }
+    }
+
+    @Traced
+    public void failure() {
+        throw new IllegalStateException("failure");
+    }
 }
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.interceptor;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import static org.geektimes.commons.collection.util.CollectionUtils.asSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * {@link InterceptorChain} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class InterceptorChainTest {
+
+    private final EchoService echoService = new EchoService();
+
+    @Test
+    public void testProceed() throws Exception {
+        ExternalInterceptor interceptor = new ExternalInterceptor();
+        Method method = EchoService.class.getMethod("echo", String.class);
+        InterceptorChain chain = new InterceptorChain(method, interceptor);
+
+        InterceptorManager interceptorManager = InterceptorManager.getInstance(ExternalInterceptor.class.getClassLoader());
+        assertEquals(interceptorManager.resolveInterceptors(method, interceptor).size(), chain.size());
+        // The default interceptors are invoked first
+        assertSame(interceptor, chain.getInterceptor(0));
+
+        // The chain is shared by the invocations
+        for (int i = 0; i < 3; i++) {
+            String message = "Hello,World-" + i;
+            assertEquals(echoService.echo(message),
+                    chain.proceed(new ReflectiveMethodInvocationContext(echoService, method, message)));
+        }
+        assertEquals(asSet("echo"), interceptor.getMethodNames());
+    }
+
+    @Test
+    public void testPostConstruct() throws Exception {
+        ExternalInterceptor interceptor = new ExternalInterceptor();
+        Method method = EchoService.class.getMethod("init");
+        InterceptorChain chain = new InterceptorChain(method, interceptor);
+        chain.proceed(new ReflectiveMethodInvocationContext(echoService, method));
+        assertEquals(asSet("init"), interceptor.getMethodNames());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testFailure() throws Exception {
+        Method method = getClass().getMethod("fail", String.class);
+        InterceptorChain chain = new InterceptorChain(method, new ExternalInterceptor());
+        // The failure of the target is thrown as-is
+        chain.proceed(new ReflectiveMethodInvocationContext(this, method, "Hello,World"));
+    }
+
+    public String fail(String message) {
+        throw new UnsupportedOperationException(message);
+    }
+}
@@ -18,7 +18,11 @@ package org.geektimes.interceptor;
 
 import org.junit.Test;
 
+import java.lang.reflect.Method;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * {@link InterceptorManager}
@@ -35,4 +39,41 @@ public class InterceptorManagerTest {
             assertEquals(registry, InterceptorManager.getInstance());
         }
     }
+
+    /**
+     * The {@link AnnotatedInterceptor} of {@link Traced @Traced} that can't annotate the class is bound by
+     * the methods annotated {@link Traced @Traced}
+     */
+    @Test
+    public void testMethodInterceptorBinding() throws Exception {
+        DefaultInterceptorManager manager = new DefaultInterceptorManager();
+        manager.registerInterceptor(new TracingInterceptor());
+        Method traced = getClass().getMethod("traced");
+        Method untraced = getClass().getMethod("untraced");
+        assertTrue(manager.resolveInterceptorClasses(traced).contains(TracingInterceptor.class));
+        assertFalse(manager.resolveInterceptorClasses(untraced).contains(TracingInterceptor.class));
+    }
+
+    /**
+     * The {@link AnnotatedInterceptor} of the synthetic binding type that could annotate its class is not bound by
+     * the annotated methods, it's applied explicitly (e.g, the interceptors of JSR-107 annotations)
+     */
+    @Test
+    public void testSyntheticInterceptorBindingNotBoundByMethods() throws Exception {
+        InterceptorManager manager = InterceptorManager.getInstance(AuditingInterceptor.class.getClassLoader());
+        new AuditingInterceptor();
+        Method audited = getClass().getMethod("audited");
+        assertFalse(manager.resolveInterceptorClasses(audited).contains(AuditingInterceptor.class));
+    }
+
+    @Audited
+    public void audited() {
+    }
+
+    @Traced
+    public void traced() {
+    }
+
+    public void untraced() {
+    }
 }
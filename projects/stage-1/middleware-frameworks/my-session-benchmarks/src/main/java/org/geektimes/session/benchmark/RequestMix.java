@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.session.benchmark;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import static java.lang.String.format;
+
+/**
+ * The weighted mix of the requests, e.g : "read=70,write=20,increment=10"
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+class RequestMix {
+
+    enum Operation {
+
+        /**
+         * Read all attributes of session
+         */
+        READ,
+
+        /**
+         * Replace an attribute of session
+         */
+        WRITE,
+
+        /**
+         * Increment the counter attribute of session, the read-modify-write is used to detect the lost updates
+         */
+        INCREMENT
+    }
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    private final int totalWeight;
+
+    RequestMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String item : mix.split(",")) {
+            String[] pair = item.split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException(format("The request mix[%s] is invalid!", mix));
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException(format("The weight of request mix[%s] must not be negative!", mix));
+            }
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+        }
+        this.operations = weights.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException(format("The request mix[%s] has no weight!", mix));
+        }
+        this.totalWeight = total;
+    }
+
+    Operation next(Random random) {
+        int value = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < operations.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(operations[i].name().toLowerCase()).append('=').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.session.benchmark;
+
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Collections.enumeration;
+
+/**
+ * The minimal stubs of Servlet API which are required by the distributed session filter, the unsupported methods
+ * return the default values.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+abstract class ServletStubs {
+
+    private ServletStubs() {
+    }
+
+    static ServletContext newServletContext(ClassLoader classLoader) {
+        return stub(ServletContext.class, (proxy, method, args) ->
+                "getClassLoader".equals(method.getName()) ? classLoader : null);
+    }
+
+    static FilterConfig newFilterConfig(String filterName, ServletContext servletContext,
+                                        Map<String, String> initParameters) {
+        return stub(FilterConfig.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getFilterName":
+                    return filterName;
+                case "getServletContext":
+                    return servletContext;
+                case "getInitParameter":
+                    return initParameters.get(args[0]);
+                case "getInitParameterNames":
+                    return enumeration(initParameters.keySet());
+                default:
+                    return null;
+            }
+        });
+    }
+
+    /**
+     * Create the request of the client which holds the given session id, the container session is created
+     * with the requested session id (or the new one) as the sticky container does.
+     */
+    static HttpServletRequest newRequest(ServletContext servletContext, String requestedSessionId) {
+        Map<String, Object> attributes = new ConcurrentHashMap<>();
+        HttpSession[] session = new HttpSession[1];
+        return stub(HttpServletRequest.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getRequestedSessionId":
+                    return requestedSessionId;
+                case "getServletContext":
+                    return servletContext;
+                case "getSession":
+                    boolean create = args == null || (Boolean) args[0];
+                    if (session[0] == null && create) {
+                        session[0] = newSession(servletContext, requestedSessionId == null ?
+                                UUID.randomUUID().toString() : requestedSessionId, requestedSessionId == null);
+                    }
+                    return session[0];
+                case "getAttribute":
+                    return attributes.get(args[0]);
+                case "setAttribute":
+                    attributes.put((String) args[0], args[1]);
+                    return null;
+                case "removeAttribute":
+                    attributes.remove(args[0]);
+                    return null;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    static HttpServletResponse newResponse() {
+        return stub(HttpServletResponse.class, (proxy, method, args) -> null);
+    }
+
+    /**
+     * The container session which doesn't hold the attributes
+     */
+    private static HttpSession newSession(ServletContext servletContext, String id, boolean isNew) {
+        long creationTime = System.currentTimeMillis();
+        return stub(HttpSession.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getId":
+                    return id;
+                case "getCreationTime":
+                case "getLastAccessedTime":
+                    return creationTime;
+                case "getMaxInactiveInterval":
+                    return 1800;
+                case "isNew":
+                    return isNew;
+                case "getServletContext":
+                    return servletContext;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(ServletStubs.class.getClassLoader(), new Class[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                    }
+                    Object value = handler.invoke(proxy, method, args);
+                    return value == null ? defaultValue(method.getReturnType()) : value;
+                }));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || void.class.equals(type)) {
+            return null;
+        } else if (boolean.class.equals(type)) {
+            return false;
+        } else if (char.class.equals(type)) {
+            return '\0';
+        } else if (long.class.equals(type)) {
+            return 0L;
+        } else if (float.class.equals(type)) {
+            return 0f;
+        } else if (double.class.equals(type)) {
+            return 0d;
+        } else if (byte.class.equals(type)) {
+            return (byte) 0;
+        } else if (short.class.equals(type)) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
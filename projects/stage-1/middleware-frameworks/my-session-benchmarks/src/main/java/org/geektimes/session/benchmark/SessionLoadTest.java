@@ -0,0 +1,292 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.session.benchmark;
+
+import org.geektimes.commons.io.DefaultSerializer;
+import org.geektimes.session.SessionInfo;
+import org.geektimes.session.SessionRepository;
+import org.geektimes.session.benchmark.RequestMix.Operation;
+import org.geektimes.session.cache.ConfigurableCachingSessionRepository;
+import org.geektimes.session.io.SessionAttributes;
+import org.geektimes.session.io.SessionAttributesSerializer;
+
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.geektimes.session.cache.ConfigurableCachingSessionRepository.CACHE_URI_PROPERTY_NAME;
+
+/**
+ * The load test of the distributed sessions, the simulated nodes serve the concurrent requests of the same sessions
+ * against the shared storage, and the throughput, the latency percentiles, the stored bytes and the lost updates are
+ * reported. The options are specified by the system properties, e.g :
+ * <pre>
+ * java -Dsession.load.nodes=4 -Dsession.load.backend=redis -Dsimulated.redis.latency.microseconds=200 \
+ *      -Dsession.local.cache.max.size=0 -jar target/session-load-test.jar
+ * </pre>
+ * The session properties (e.g "session.local.cache.max.size") are applied to all nodes.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+public class SessionLoadTest {
+
+    public static final String PROPERTY_NAME_PREFIX = "session.load.";
+
+    /**
+     * The attribute name of the counter which is incremented by {@link Operation#INCREMENT}
+     */
+    static final String COUNTER_ATTRIBUTE_NAME = "counter";
+
+    private static final String ATTRIBUTE_NAME_PREFIX = "attribute-";
+
+    private static final String IN_MEMORY_BACKEND = "in-memory";
+
+    private static final String REDIS_BACKEND = "redis";
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final int nodeCount = Integer.getInteger(PROPERTY_NAME_PREFIX + "nodes", 4);
+
+    private final int sessionCount = Integer.getInteger(PROPERTY_NAME_PREFIX + "sessions", 32);
+
+    /**
+     * The number of concurrent clients per session
+     */
+    private final int concurrency = Integer.getInteger(PROPERTY_NAME_PREFIX + "concurrency", 4);
+
+    /**
+     * The number of measured requests per client
+     */
+    private final int requests = Integer.getInteger(PROPERTY_NAME_PREFIX + "requests", 2000);
+
+    /**
+     * The number of warmup requests per client
+     */
+    private final int warmupRequests = Integer.getInteger(PROPERTY_NAME_PREFIX + "warmup.requests", 200);
+
+    private final int attributeCount = Integer.getInteger(PROPERTY_NAME_PREFIX + "attributes", 8);
+
+    /**
+     * The length of the attribute value
+     */
+    private final int valueSize = Integer.getInteger(PROPERTY_NAME_PREFIX + "value.size", 256);
+
+    /**
+     * The client always requests the same node if sticky
+     */
+    private final boolean sticky = Boolean.getBoolean(PROPERTY_NAME_PREFIX + "sticky");
+
+    private final RequestMix requestMix = new RequestMix(System.getProperty(PROPERTY_NAME_PREFIX + "mix",
+            "read=70,write=20,increment=10"));
+
+    private final String backend = System.getProperty(PROPERTY_NAME_PREFIX + "backend", IN_MEMORY_BACKEND);
+
+    private final URI cacheURI;
+
+    private final List<SimulatedNode> nodes = new ArrayList<>();
+
+    private final String[] sessionIds = new String[sessionCount];
+
+    /**
+     * The successful increments of sessions
+     */
+    private final AtomicLong[] increments = new AtomicLong[sessionCount];
+
+    private final AtomicLong errors = new AtomicLong();
+
+    public SessionLoadTest() {
+        if (IN_MEMORY_BACKEND.equals(backend)) {
+            cacheURI = URI.create("in-memory://localhost/sessions");
+        } else if (REDIS_BACKEND.equals(backend)) {
+            cacheURI = URI.create("redis://127.0.0.1:6379/");
+        } else {
+            throw new IllegalArgumentException(format("The backend[%s] is not supported, 'in-memory' or 'redis' " +
+                    "is expected!", backend));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new SessionLoadTest().run();
+    }
+
+    public void run() throws Exception {
+        ClassLoader classLoader = getClass().getClassLoader();
+        Map<String, String> initParameters = new HashMap<>();
+        initParameters.put(CACHE_URI_PROPERTY_NAME, cacheURI.toString());
+        initParameters.put("javax.cache.CacheManager.mappings.redis", SimulatedRedisCacheManager.class.getName());
+        initParameters.put(SimulatedRedisCacheManager.LATENCY_PROPERTY_NAME,
+                System.getProperty(SimulatedRedisCacheManager.LATENCY_PROPERTY_NAME, "0"));
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.add(new SimulatedNode("node-" + i, classLoader, initParameters));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(sessionCount * concurrency);
+        try {
+            createSessions();
+            execute(executor, warmupRequests);
+            long startTime = System.nanoTime();
+            long[] latencies = execute(executor, requests);
+            long elapsedTime = System.nanoTime() - startTime;
+            report(latencies, elapsedTime, classLoader);
+        } finally {
+            executor.shutdownNow();
+            nodes.forEach(SimulatedNode::destroy);
+            SimulatedRedis.shutdown(cacheURI);
+        }
+    }
+
+    private void createSessions() throws Exception {
+        Random random = new Random(sessionCount);
+        for (int i = 0; i < sessionCount; i++) {
+            sessionIds[i] = nodes.get(i % nodeCount).execute(null, session -> {
+                for (int j = 0; j < attributeCount; j++) {
+                    session.setAttribute(ATTRIBUTE_NAME_PREFIX + j, newValue(random));
+                }
+            });
+            increments[i] = new AtomicLong();
+        }
+    }
+
+    /**
+     * Execute the requests of all clients concurrently
+     *
+     * @return the latencies of all requests in nanoseconds
+     */
+    private long[] execute(ExecutorService executor, int requests) throws Exception {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int i = 0; i < sessionCount; i++) {
+            for (int j = 0; j < concurrency; j++) {
+                int sessionIndex = i;
+                int clientIndex = i * concurrency + j;
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    return executeClient(sessionIndex, clientIndex, requests);
+                }));
+            }
+        }
+        startLatch.countDown();
+        long[] latencies = new long[futures.size() * requests];
+        int position = 0;
+        for (Future<long[]> future : futures) {
+            long[] clientLatencies = future.get();
+            System.arraycopy(clientLatencies, 0, latencies, position, clientLatencies.length);
+            position += clientLatencies.length;
+        }
+        return latencies;
+    }
+
+    private long[] executeClient(int sessionIndex, int clientIndex, int requests) {
+        Random random = ThreadLocalRandom.current();
+        long[] latencies = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            SimulatedNode node = nodes.get(sticky ? clientIndex % nodeCount : random.nextInt(nodeCount));
+            Operation operation = requestMix.next(random);
+            long startTime = System.nanoTime();
+            try {
+                node.execute(sessionIds[sessionIndex], session -> handle(session, operation, random));
+                if (operation == Operation.INCREMENT) {
+                    increments[sessionIndex].incrementAndGet();
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+            latencies[i] = System.nanoTime() - startTime;
+        }
+        return latencies;
+    }
+
+    private void handle(HttpSession session, Operation operation, Random random) {
+        switch (operation) {
+            case READ:
+                Enumeration<String> attributeNames = session.getAttributeNames();
+                while (attributeNames.hasMoreElements()) {
+                    session.getAttribute(attributeNames.nextElement());
+                }
+                break;
+            case WRITE:
+                session.setAttribute(ATTRIBUTE_NAME_PREFIX + random.nextInt(attributeCount), newValue(random));
+                break;
+            case INCREMENT:
+                Integer counter = (Integer) session.getAttribute(COUNTER_ATTRIBUTE_NAME);
+                session.setAttribute(COUNTER_ATTRIBUTE_NAME, counter == null ? 1 : counter + 1);
+                break;
+        }
+    }
+
+    private String newValue(Random random) {
+        char[] value = new char[valueSize];
+        for (int i = 0; i < valueSize; i++) {
+            value[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(value);
+    }
+
+    private void report(long[] latencies, long elapsedTime, ClassLoader classLoader) throws IOException {
+        // The repository reads the shared storage as a new node
+        SessionRepository repository = new ConfigurableCachingSessionRepository(classLoader);
+        repository.initialize();
+        DefaultSerializer sessionInfoSerializer = new DefaultSerializer();
+        SessionAttributesSerializer attributesSerializer = new SessionAttributesSerializer();
+        long storedBytes = 0;
+        long expectedIncrements = 0;
+        long lostUpdates = 0;
+        for (int i = 0; i < sessionCount; i++) {
+            SessionInfo sessionInfo = repository.getSessionInfo(sessionIds[i]);
+            if (sessionInfo != null) {
+                storedBytes += sessionInfoSerializer.serialize(sessionInfo).length;
+            }
+            SessionAttributes attributes = new SessionAttributes(repository.getAttributes(sessionIds[i]));
+            storedBytes += attributesSerializer.serialize(attributes).length;
+            Integer counter = (Integer) attributes.get(COUNTER_ATTRIBUTE_NAME);
+            long expected = increments[i].get();
+            expectedIncrements += expected;
+            lostUpdates += expected - (counter == null ? 0 : counter);
+        }
+
+        Arrays.sort(latencies);
+        System.out.printf("Nodes : %d, Sessions : %d, Clients per session : %d, Sticky : %s, Backend : %s%n",
+                nodeCount, sessionCount, concurrency, sticky, backend);
+        System.out.printf("Request mix : %s, Attributes per session : %d, Value size : %d%n",
+                requestMix, attributeCount, valueSize);
+        System.out.printf("Requests : %d, Errors : %d, Elapsed : %d ms, Throughput : %.1f ops/sec%n",
+                latencies.length, errors.get(), NANOSECONDS.toMillis(elapsedTime),
+                latencies.length * 1e9 / elapsedTime);
+        StringBuilder latencyReport = new StringBuilder("Latency (us) :");
+        for (double percentile : PERCENTILES) {
+            latencyReport.append(format(" p%s=%.1f,", format("%.1f", percentile).replace(".0", ""),
+                    percentile(latencies, percentile) / 1e3));
+        }
+        latencyReport.append(format(" max=%.1f", latencies[latencies.length - 1] / 1e3));
+        System.out.println(latencyReport);
+        System.out.printf("Bytes stored : %d (%d per session)%n", storedBytes, storedBytes / sessionCount);
+        if (REDIS_BACKEND.equals(backend)) {
+            System.out.printf("Bytes stored in Redis (keys and values) : %d%n", SimulatedRedis.getStoredBytes(cacheURI));
+        }
+        System.out.printf("Lost updates : %d of %d increments%n", lostUpdates, expectedIncrements);
+    }
+
+    private static long percentile(long[] sortedValues, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sortedValues.length) - 1;
+        return sortedValues[Math.max(0, Math.min(index, sortedValues.length - 1))];
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.session.benchmark;
+
+import org.geektimes.session.servlet.http.DistributedHttpSessionFilter;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.geektimes.session.benchmark.ServletStubs.*;
+
+/**
+ * The simulated servlet node serving the requests by {@link DistributedHttpSessionFilter}, the nodes share
+ * the session storage via the same cache configuration.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+class SimulatedNode {
+
+    private final String name;
+
+    private final ServletContext servletContext;
+
+    private final DistributedHttpSessionFilter filter;
+
+    SimulatedNode(String name, ClassLoader classLoader, Map<String, String> initParameters) throws ServletException {
+        this.name = name;
+        this.servletContext = newServletContext(classLoader);
+        this.filter = new DistributedHttpSessionFilter();
+        this.filter.init(newFilterConfig(name, servletContext, initParameters));
+    }
+
+    /**
+     * Execute the request of the client
+     *
+     * @param requestedSessionId the session id held by the client, or <code>null</code> if absent
+     * @param handler            the handler of the session
+     * @return the session id of the request
+     * @throws Exception if the handler failed
+     */
+    String execute(String requestedSessionId, Consumer<HttpSession> handler) throws Exception {
+        HttpServletRequest request = newRequest(servletContext, requestedSessionId);
+        String[] sessionId = new String[1];
+        // The filter swallows the error of chain
+        Exception[] error = new Exception[1];
+        filter.doFilter(request, newResponse(), (servletRequest, servletResponse) -> {
+            try {
+                HttpSession session = ((HttpServletRequest) servletRequest).getSession();
+                handler.accept(session);
+                sessionId[0] = session.getId();
+            } catch (Exception e) {
+                error[0] = e;
+            }
+        });
+        if (error[0] != null) {
+            throw error[0];
+        }
+        return sessionId[0];
+    }
+
+    void destroy() {
+        filter.destroy();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.session.benchmark;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.params.SetParams;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The local stand-in of Redis server, the clients connected to the same {@link URI} share the binary storage, and
+ * every command costs the simulated round trip latency. The expiration of keys is ignored.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+public class SimulatedRedis extends Jedis {
+
+    private static final String OK = "OK";
+
+    private static final ConcurrentMap<URI, Map<ByteBuffer, byte[]>> databases = new ConcurrentHashMap<>();
+
+    private final Map<ByteBuffer, byte[]> storage;
+
+    private final long latencyNanos;
+
+    public SimulatedRedis(URI uri, long latencyNanos) {
+        this.storage = databases.computeIfAbsent(uri, u -> new ConcurrentHashMap<>());
+        this.latencyNanos = latencyNanos;
+    }
+
+    /**
+     * Get the total bytes of the keys and values stored by the server
+     *
+     * @param uri the {@link URI} of server
+     * @return zero if the server is absent
+     */
+    public static long getStoredBytes(URI uri) {
+        Map<ByteBuffer, byte[]> storage = databases.get(uri);
+        long bytes = 0;
+        if (storage != null) {
+            for (Map.Entry<ByteBuffer, byte[]> entry : storage.entrySet()) {
+                bytes += entry.getKey().capacity() + entry.getValue().length;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Shutdown the server and discard its storage
+     *
+     * @param uri the {@link URI} of server
+     */
+    public static void shutdown(URI uri) {
+        databases.remove(uri);
+    }
+
+    @Override
+    public String set(byte[] key, byte[] value) {
+        roundTrip();
+        storage.put(ByteBuffer.wrap(key), value);
+        return OK;
+    }
+
+    @Override
+    public String set(byte[] key, byte[] value, SetParams params) {
+        return set(key, value);
+    }
+
+    @Override
+    public byte[] get(byte[] key) {
+        roundTrip();
+        return storage.get(ByteBuffer.wrap(key));
+    }
+
+    @Override
+    public Boolean exists(byte[] key) {
+        roundTrip();
+        return storage.containsKey(ByteBuffer.wrap(key));
+    }
+
+    @Override
+    public Long del(byte[] key) {
+        roundTrip();
+        return storage.remove(ByteBuffer.wrap(key)) == null ? 0L : 1L;
+    }
+
+    @Override
+    public Set<byte[]> keys(byte[] prefix) {
+        roundTrip();
+        Set<byte[]> keys = new LinkedHashSet<>();
+        for (ByteBuffer key : storage.keySet()) {
+            byte[] bytes = key.array();
+            if (startsWith(bytes, prefix)) {
+                keys.add(bytes);
+            }
+        }
+        return keys;
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void roundTrip() {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+    }
+
+    @Override
+    public void close() {
+        // The connection is closed, the storage of server is kept
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.session.benchmark;
+
+import org.geektimes.cache.redis.JedisCache;
+import org.geektimes.cache.redis.JedisCacheManager;
+
+import javax.cache.Cache;
+import javax.cache.configuration.Configuration;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.Properties;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * The {@link JedisCacheManager} connecting to {@link SimulatedRedis}, it's mapped to the "redis" scheme by
+ * the property "javax.cache.CacheManager.mappings.redis".
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0
+ */
+public class SimulatedRedisCacheManager extends JedisCacheManager {
+
+    /**
+     * The property name of the simulated round trip latency of Redis command in microseconds
+     */
+    public static final String LATENCY_PROPERTY_NAME = "simulated.redis.latency.microseconds";
+
+    private final long latencyNanos;
+
+    public SimulatedRedisCacheManager(CachingProvider cachingProvider, URI uri, ClassLoader classLoader,
+                                      Properties properties) {
+        super(cachingProvider, uri, classLoader, properties);
+        this.latencyNanos = MICROSECONDS.toNanos(Long.parseLong(properties.getProperty(LATENCY_PROPERTY_NAME, "0")));
+    }
+
+    @Override
+    protected <K, V, C extends Configuration<K, V>> Cache doCreateCache(String cacheName, C configuration) {
+        return new JedisCache(this, cacheName, configuration, new SimulatedRedis(getURI(), latencyNanos));
+    }
+}
@@ -36,6 +36,12 @@ public class SessionInfo implements Serializable {
 
     private int maxInactiveInterval;
 
+    /**
+     * The generation stamp of the attributes, which is renewed whenever the attributes are written, thus the local
+     * copies could be revalidated cheaply.
+     */
+    private long version;
+
     /**
      * Default Constructor (for Serialization)
      */
@@ -81,4 +87,12 @@ public class SessionInfo implements Serializable {
     public void setMaxInactiveInterval(int maxInactiveInterval) {
         this.maxInactiveInterval = maxInactiveInterval;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -16,6 +16,8 @@
  */
 package org.geektimes.session;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -40,10 +42,54 @@ public interface SessionRepository {
 
     SessionRepository removeAttribute(String sessionId, String name);
 
+    /**
+     * Remove all attributes of the session, e.g. the session is invalidated
+     *
+     * @param sessionId the id of session
+     * @return this
+     */
+    SessionRepository removeAttributes(String sessionId);
+
     Object getAttribute(String sessionId, String name);
 
     Set<String> getAttributeNames(String sessionId);
 
+    /**
+     * Get all attributes of the session in one read
+     *
+     * @param sessionId the id of session
+     * @return non-null mutable copy
+     */
+    default Map<String, Object> getAttributes(String sessionId) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (String name : getAttributeNames(sessionId)) {
+            Object value = getAttribute(sessionId, name);
+            if (value != null) {
+                attributes.put(name, value);
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * Save the changes of session in one batch
+     *
+     * @param sessionId         the id of session
+     * @param sessionInfo       the changed {@link SessionInfo}, or <code>null</code> if not changed
+     * @param changedAttributes the changed attributes
+     * @param removedAttributes the names of removed attributes
+     * @return this
+     */
+    default SessionRepository saveSession(String sessionId, SessionInfo sessionInfo,
+                                          Map<String, Object> changedAttributes, Set<String> removedAttributes) {
+        if (sessionInfo != null) {
+            saveSessionInfo(sessionInfo);
+        }
+        changedAttributes.forEach((name, value) -> setAttribute(sessionId, name, value));
+        removedAttributes.forEach(name -> removeAttribute(sessionId, name));
+        return this;
+    }
+
     // Lifecycle methods
 
     /**
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.session.cache;
+
+import org.geektimes.session.SessionInfo;
+import org.geektimes.session.io.SessionAttributes;
+
+import java.io.Serializable;
+
+/**
+ * The stored form of a session, which holds {@link SessionInfo} and the attributes in one cache entry, thus all
+ * changes of a request are written at once and expire together.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+class CachedSession implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * <code>null</code> if the attributes were written before {@link SessionInfo}
+     */
+    private final SessionInfo sessionInfo;
+
+    private final SessionAttributes attributes;
+
+    private final long version;
+
+    CachedSession(SessionInfo sessionInfo, SessionAttributes attributes, long version) {
+        this.sessionInfo = sessionInfo;
+        this.attributes = attributes;
+        this.version = version;
+    }
+
+    SessionInfo getSessionInfo() {
+        return sessionInfo;
+    }
+
+    SessionAttributes getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * The version of attributes, which is renewed whenever the attributes are changed
+     */
+    long getVersion() {
+        return version;
+    }
+}
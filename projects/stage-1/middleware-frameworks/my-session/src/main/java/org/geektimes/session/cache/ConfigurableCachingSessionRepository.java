@@ -18,9 +18,12 @@ package org.geektimes.session.cache;
 
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.spi.ConfigProviderResolver;
+import org.geektimes.configuration.microprofile.config.ConfigChangeListener;
+import org.geektimes.configuration.microprofile.config.ObservableConfig;
 import org.geektimes.configuration.microprofile.config.util.DelegatingPropertiesAdapter;
 import org.geektimes.session.SessionInfo;
 import org.geektimes.session.SessionRepository;
+import org.geektimes.session.io.SessionAttributes;
 
 import javax.cache.Cache;
 import javax.cache.CacheManager;
@@ -28,12 +31,23 @@ import javax.cache.Caching;
 import javax.cache.configuration.MutableConfiguration;
 import javax.cache.expiry.Duration;
 import javax.cache.expiry.ExpiryPolicy;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.MutableEntry;
 import javax.cache.spi.CachingProvider;
+import java.io.Serializable;
 import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
 import static org.eclipse.microprofile.config.spi.ConfigProviderResolver.instance;
 
 /**
@@ -53,9 +67,20 @@ public class ConfigurableCachingSessionRepository implements SessionRepository {
 
     private Config config;
 
+    /**
+     * The max inactive interval of sessions, which is retuned when the property changed
+     */
+    private volatile Duration maxInactiveInterval;
+
+    private final ConfigChangeListener maxInactiveIntervalListener = (config, changedPropertyNames) -> {
+        if (changedPropertyNames.contains(SESSION_MAX_INACTIVE_INTERVAL_PROPERTY_NAME)) {
+            this.maxInactiveInterval = resolveMaxInactiveInterval(config);
+        }
+    };
+
     private CacheManager cacheManager;
 
-    private Cache<String, SessionInfo> sessionInfoCache;
+    private Cache<String, CachedSession> sessionCache;
 
     public ConfigurableCachingSessionRepository() {
         this.classLoader = Thread.currentThread().getContextClassLoader();
@@ -68,8 +93,12 @@ public class ConfigurableCachingSessionRepository implements SessionRepository {
     @Override
     public void initialize() {
         this.config = getConfig();
+        this.maxInactiveInterval = resolveMaxInactiveInterval(config);
+        if (config instanceof ObservableConfig) {
+            ((ObservableConfig) config).addChangeListener(maxInactiveIntervalListener);
+        }
         this.cacheManager = buildCacheManager(config, classLoader);
-        this.sessionInfoCache = resolveSessionInfoCache();
+        this.sessionCache = resolveSessionCache();
     }
 
     private Config getConfig() {
@@ -83,34 +112,25 @@ public class ConfigurableCachingSessionRepository implements SessionRepository {
         return cachingProvider.getCacheManager(uri, classLoader, new DelegatingPropertiesAdapter(config));
     }
 
-    private Cache<String, SessionInfo> resolveSessionInfoCache() {
-        String cacheName = "sessionInfoCache";
-        Cache<String, SessionInfo> cache = cacheManager.getCache(cacheName, String.class, SessionInfo.class);
+    /**
+     * {@link SessionInfo} and all attributes of a session are stored in one entry of the shared cache whose key is
+     * the session id, thus the changes of a request are written in one operation and the entry expires with
+     * the session. The attributes are stored in the compact form of {@link SessionAttributes}.
+     */
+    private Cache<String, CachedSession> resolveSessionCache() {
+        String cacheName = "sessionCache";
+        Cache<String, CachedSession> cache = cacheManager.getCache(cacheName, String.class, CachedSession.class);
         if (cache == null) {
-            MutableConfiguration<String, SessionInfo> configuration =
-                    new MutableConfiguration<String, SessionInfo>()
-                            .setTypes(String.class, SessionInfo.class)
-                            .setExpiryPolicyFactory(this::createExpiryPolicy);
+            MutableConfiguration<String, CachedSession> configuration =
+                    new MutableConfiguration<String, CachedSession>()
+                            .setTypes(String.class, CachedSession.class)
+                            .setExpiryPolicyFactory(this::createExpiryPolicy)
+                            .setStoreByValue(true);
             cache = cacheManager.createCache(cacheName, configuration);
         }
         return cache;
     }
 
-    private Cache<String, Object> resolveAttributesCache(String sessionId) {
-        String cacheName = "sessionAttributesCache-" + sessionId;
-        Class keyType = String.class;
-        Class valueType = Object.class;
-        Cache<String, Object> attributeCache = cacheManager.getCache(cacheName, keyType, valueType);
-        if (attributeCache == null) {
-            MutableConfiguration<String, Object> configuration = new MutableConfiguration<String, Object>()
-                    .setTypes(keyType, valueType)
-                    .setExpiryPolicyFactory(this::createExpiryPolicy)
-                    .setStoreByValue(true);
-            attributeCache = cacheManager.createCache(cacheName, configuration);
-        }
-        return attributeCache;
-    }
-
     private ExpiryPolicy createExpiryPolicy() {
         return new ExpiryPolicy() {
             @Override
@@ -129,69 +149,238 @@ public class ConfigurableCachingSessionRepository implements SessionRepository {
             }
 
             private Duration newDuration() {
-                Long maxInactiveInterval = config.getValue(SESSION_MAX_INACTIVE_INTERVAL_PROPERTY_NAME, Long.class);
-                if (maxInactiveInterval == null) {
-                    maxInactiveInterval = 30L; // 30L as the default
-                }
-                return new Duration(TimeUnit.SECONDS, maxInactiveInterval);
+                return maxInactiveInterval;
             }
         };
     }
 
+    private Duration resolveMaxInactiveInterval(Config config) {
+        Long maxInactiveInterval = config.getValue(SESSION_MAX_INACTIVE_INTERVAL_PROPERTY_NAME, Long.class);
+        if (maxInactiveInterval == null) {
+            maxInactiveInterval = 30L; // 30L as the default
+        }
+        return new Duration(TimeUnit.SECONDS, maxInactiveInterval);
+    }
+
     @Override
     public SessionRepository saveSessionInfo(SessionInfo sessionInfo) {
-        sessionInfo.setLastAccessedTime(System.currentTimeMillis());
-        sessionInfoCache.put(sessionInfo.getId(), sessionInfo);
+        return saveSession(sessionInfo.getId(), sessionInfo, emptyMap(), emptySet());
+    }
+
+    @Override
+    public SessionRepository saveSession(String sessionId, SessionInfo sessionInfo,
+                                         Map<String, Object> changedAttributes, Set<String> removedAttributes) {
+        if (sessionInfo != null) {
+            sessionInfo.setLastAccessedTime(System.currentTimeMillis());
+        }
+        Long version = updateSession(sessionId, sessionInfo, changedAttributes, removedAttributes);
+        if (sessionInfo != null && version != null) {
+            sessionInfo.setVersion(version);
+        }
         return this;
     }
 
+    /**
+     * Read {@link SessionInfo} stamped with the version of attributes by the
+     * {@link Cache#invoke(Object, EntryProcessor, Object...) entry processor}, which only returns {@link SessionInfo}
+     * rather than the whole entry, thus the attributes are neither transferred nor deserialized when the stamp is
+     * revalidated.
+     */
     @Override
     public SessionInfo getSessionInfo(String sessionId) {
-        return sessionInfoCache.get(sessionId);
+        return sessionCache.invoke(sessionId, new GetSessionInfoProcessor());
     }
 
+    /**
+     * Remove the session, the attributes are removed along with {@link SessionInfo}, because they're stored in
+     * the same entry.
+     */
     @Override
     public SessionRepository removeSessionInfo(String sessionId) {
-        sessionInfoCache.remove(sessionId);
+        sessionCache.remove(sessionId);
         return this;
     }
 
     @Override
     public SessionRepository setAttribute(String sessionId, String name, Object value) {
-        Cache<String, Object> attributesCache = resolveAttributesCache(sessionId);
-        attributesCache.put(name, value);
+        updateSession(sessionId, null, singletonMap(name, value), emptySet());
         return this;
     }
 
     @Override
     public SessionRepository removeAttribute(String sessionId, String name) {
-        Cache<String, Object> attributesCache = resolveAttributesCache(sessionId);
-        attributesCache.remove(name);
+        updateSession(sessionId, null, emptyMap(), singleton(name));
+        return this;
+    }
+
+    @Override
+    public SessionRepository removeAttributes(String sessionId) {
+        sessionCache.invoke(sessionId, new RemoveAttributesProcessor());
         return this;
     }
 
     @Override
     public Object getAttribute(String sessionId, String name) {
-        Cache<String, Object> attributesCache = resolveAttributesCache(sessionId);
-        return attributesCache.get(name);
+        SessionAttributes attributes = getStoredAttributes(sessionId);
+        return attributes == null ? null : attributes.get(name);
+    }
+
+    @Override
+    public Map<String, Object> getAttributes(String sessionId) {
+        SessionAttributes attributes = getStoredAttributes(sessionId);
+        return attributes == null ? new SessionAttributes() : new SessionAttributes(attributes);
     }
 
     @Override
     public Set<String> getAttributeNames(String sessionId) {
-        Cache<String, Object> attributesCache = resolveAttributesCache(sessionId);
-        Set<String> attributeNames = new LinkedHashSet<>();
-        for (Cache.Entry<String, Object> entry : attributesCache) {
-            attributeNames.add(entry.getKey());
-        }
-        return attributeNames;
+        SessionAttributes attributes = getStoredAttributes(sessionId);
+        return attributes == null ? emptySet() : new LinkedHashSet<>(attributes.keySet());
+    }
+
+    /**
+     * The stored attributes may be shared by the concurrent readers, they must be copied before changed, and
+     * the serialized forms of the unchanged attributes are reused by the copy.
+     */
+    private SessionAttributes getStoredAttributes(String sessionId) {
+        CachedSession cachedSession = sessionCache.get(sessionId);
+        return cachedSession == null ? null : cachedSession.getAttributes();
+    }
+
+    /**
+     * Apply the changes to the stored session in one {@link Cache#invoke(Object, EntryProcessor, Object...)
+     * atomic operation}, which is the only write of a request, thus the concurrent requests of the same session on
+     * the different nodes never lose the changes of each other.
+     *
+     * @return the version of the stored attributes, <code>null</code> if the session is absent
+     */
+    private Long updateSession(String sessionId, SessionInfo sessionInfo, Map<String, Object> changedAttributes,
+                               Set<String> removedAttributes) {
+        return sessionCache.invoke(sessionId,
+                new UpdateSessionProcessor(sessionInfo, changedAttributes, removedAttributes));
+    }
+
+    /**
+     * The random version avoids the same versions generated by the concurrent writers on different nodes
+     */
+    private static long newVersion(long version) {
+        long newVersion;
+        do {
+            newVersion = ThreadLocalRandom.current().nextLong();
+        } while (newVersion == version);
+        return newVersion;
     }
 
     @Override
     public void destroy() {
+        if (config instanceof ObservableConfig) {
+            ((ObservableConfig) config).removeChangeListener(maxInactiveIntervalListener);
+        }
         destroyCacheManager();
     }
 
     private void destroyCacheManager() {
         cacheManager.getCacheNames().forEach(cacheManager::destroyCache);
     }
+
+    /**
+     * The {@link EntryProcessor} applies {@link SessionInfo} and the changed and removed attributes to the stored
+     * session, the serialized forms of the unchanged attributes are reused. The version of attributes is renewed
+     * only if they're changed, and nothing is written if neither of them is changed.
+     */
+    private static class UpdateSessionProcessor implements EntryProcessor<String, CachedSession, Long>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SessionInfo sessionInfo;
+
+        private final Map<String, Object> changedAttributes;
+
+        private final Set<String> removedAttributes;
+
+        private UpdateSessionProcessor(SessionInfo sessionInfo, Map<String, Object> changedAttributes,
+                                       Set<String> removedAttributes) {
+            this.sessionInfo = sessionInfo;
+            this.changedAttributes = new LinkedHashMap<>(changedAttributes);
+            this.removedAttributes = new LinkedHashSet<>(removedAttributes);
+        }
+
+        @Override
+        public Long process(MutableEntry<String, CachedSession> entry, Object... arguments)
+                throws EntryProcessorException {
+            CachedSession storedSession = entry.exists() ? entry.getValue() : null;
+            SessionAttributes attributes = storedSession == null ?
+                    new SessionAttributes() : new SessionAttributes(storedSession.getAttributes());
+            attributes.putAll(changedAttributes);
+            boolean attributesChanged = !changedAttributes.isEmpty();
+            for (String name : removedAttributes) {
+                attributesChanged |= attributes.containsKey(name);
+                attributes.remove(name);
+            }
+            if (sessionInfo == null && !attributesChanged) {
+                return storedSession == null ? null : storedSession.getVersion();
+            }
+            SessionInfo sessionInfo = this.sessionInfo != null ? this.sessionInfo :
+                    storedSession == null ? null : storedSession.getSessionInfo();
+            if (sessionInfo == null && attributes.isEmpty()) {
+                entry.remove();
+                return null;
+            }
+            long version = storedSession == null ? newVersion(0L) :
+                    attributesChanged ? newVersion(storedSession.getVersion()) : storedSession.getVersion();
+            entry.setValue(new CachedSession(sessionInfo, attributes, version));
+            return version;
+        }
+    }
+
+    /**
+     * The {@link EntryProcessor} returns the copy of stored {@link SessionInfo} with the version of attributes
+     */
+    private static class GetSessionInfoProcessor implements EntryProcessor<String, CachedSession, SessionInfo>,
+            Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public SessionInfo process(MutableEntry<String, CachedSession> entry, Object... arguments)
+                throws EntryProcessorException {
+            CachedSession storedSession = entry.exists() ? entry.getValue() : null;
+            SessionInfo storedSessionInfo = storedSession == null ? null : storedSession.getSessionInfo();
+            if (storedSessionInfo == null) {
+                return null;
+            }
+            SessionInfo sessionInfo = new SessionInfo();
+            sessionInfo.setId(storedSessionInfo.getId());
+            sessionInfo.setCreationTime(storedSessionInfo.getCreationTime());
+            sessionInfo.setLastAccessedTime(storedSessionInfo.getLastAccessedTime());
+            sessionInfo.setMaxInactiveInterval(storedSessionInfo.getMaxInactiveInterval());
+            sessionInfo.setVersion(storedSession.getVersion());
+            return sessionInfo;
+        }
+    }
+
+    /**
+     * The {@link EntryProcessor} removes all attributes of the stored session, the session is removed if its
+     * {@link SessionInfo} is absent.
+     */
+    private static class RemoveAttributesProcessor implements EntryProcessor<String, CachedSession, Void>,
+            Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Void process(MutableEntry<String, CachedSession> entry, Object... arguments)
+                throws EntryProcessorException {
+            CachedSession storedSession = entry.exists() ? entry.getValue() : null;
+            if (storedSession == null || storedSession.getAttributes().isEmpty()) {
+                return null;
+            }
+            if (storedSession.getSessionInfo() == null) {
+                entry.remove();
+            } else {
+                entry.setValue(new CachedSession(storedSession.getSessionInfo(), new SessionAttributes(),
+                        newVersion(storedSession.getVersion())));
+            }
+            return null;
+        }
+    }
 }
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.session.cache;
+
+import org.geektimes.session.SessionInfo;
+import org.geektimes.session.SessionRepository;
+import org.geektimes.session.io.SessionAttributes;
+
+import java.util.*;
+
+import static java.util.Collections.emptySet;
+
+/**
+ * The {@link SessionRepository} decorator holding the bounded local copies of the sessions, the copy is revalidated
+ * by {@link SessionInfo#getVersion() the version} when {@link #getSessionInfo(String) SessionInfo is loaded}, the
+ * attributes are only fetched from the delegate if the version changed, thus the attributes are read without I/O
+ * if the requests of user keep hitting the same node, and the changes from the other nodes are still visible after
+ * failover.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class LocalCachingSessionRepository implements SessionRepository {
+
+    private final SessionRepository delegate;
+
+    /**
+     * The LRU copies of sessions
+     */
+    private final Map<String, LocalSession> localSessions;
+
+    public LocalCachingSessionRepository(SessionRepository delegate, int maxSize) {
+        this.delegate = delegate;
+        this.localSessions = new LinkedHashMap<String, LocalSession>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalSession> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public SessionRepository saveSessionInfo(SessionInfo sessionInfo) {
+        delegate.saveSessionInfo(sessionInfo);
+        LocalSession localSession = getLocalSession(sessionInfo.getId());
+        if (localSession != null && localSession.version == sessionInfo.getVersion()) {
+            // The attributes are not changed
+            return this;
+        }
+        removeLocalSession(sessionInfo.getId());
+        return this;
+    }
+
+    @Override
+    public SessionInfo getSessionInfo(String sessionId) {
+        SessionInfo sessionInfo = delegate.getSessionInfo(sessionId);
+        if (sessionInfo == null) {
+            removeLocalSession(sessionId);
+            return null;
+        }
+        LocalSession localSession = getLocalSession(sessionId);
+        if (localSession == null || localSession.version != sessionInfo.getVersion()) {
+            // The attributes will be fetched lazily
+            putLocalSession(sessionId, new LocalSession(sessionInfo.getVersion(), null));
+        }
+        return sessionInfo;
+    }
+
+    @Override
+    public SessionRepository removeSessionInfo(String sessionId) {
+        delegate.removeSessionInfo(sessionId);
+        removeLocalSession(sessionId);
+        return this;
+    }
+
+    @Override
+    public SessionRepository setAttribute(String sessionId, String name, Object value) {
+        delegate.setAttribute(sessionId, name, value);
+        removeLocalSession(sessionId);
+        return this;
+    }
+
+    @Override
+    public SessionRepository removeAttribute(String sessionId, String name) {
+        delegate.removeAttribute(sessionId, name);
+        removeLocalSession(sessionId);
+        return this;
+    }
+
+    @Override
+    public SessionRepository removeAttributes(String sessionId) {
+        delegate.removeAttributes(sessionId);
+        removeLocalSession(sessionId);
+        return this;
+    }
+
+    @Override
+    public Object getAttribute(String sessionId, String name) {
+        return getLocalAttributes(sessionId).get(name);
+    }
+
+    @Override
+    public Set<String> getAttributeNames(String sessionId) {
+        SessionAttributes attributes = getLocalAttributes(sessionId);
+        return attributes.isEmpty() ? emptySet() : new LinkedHashSet<>(attributes.keySet());
+    }
+
+    @Override
+    public Map<String, Object> getAttributes(String sessionId) {
+        return new SessionAttributes(getLocalAttributes(sessionId));
+    }
+
+    /**
+     * The local copy is evicted once the attributes are changed, because the delegate merges the changes into
+     * the stored attributes which may have been written by the other nodes, the merged attributes will be fetched
+     * by the next request.
+     */
+    @Override
+    public SessionRepository saveSession(String sessionId, SessionInfo sessionInfo,
+                                         Map<String, Object> changedAttributes, Set<String> removedAttributes) {
+        delegate.saveSession(sessionId, sessionInfo, changedAttributes, removedAttributes);
+        if (changedAttributes.isEmpty() && removedAttributes.isEmpty()) {
+            if (sessionInfo == null) {
+                return this;
+            }
+            LocalSession localSession = getLocalSession(sessionId);
+            if (localSession != null && localSession.version == sessionInfo.getVersion()) {
+                // The stored attributes are not changed
+                return this;
+            }
+        }
+        removeLocalSession(sessionId);
+        return this;
+    }
+
+    /**
+     * Get the local attributes which were revalidated by {@link #getSessionInfo(String)}, or fetch them
+     * from the delegate if absent
+     */
+    private SessionAttributes getLocalAttributes(String sessionId) {
+        LocalSession localSession = getLocalSession(sessionId);
+        if (localSession != null && localSession.attributes != null) {
+            return localSession.attributes;
+        }
+        SessionAttributes attributes = new SessionAttributes(delegate.getAttributes(sessionId));
+        if (localSession != null) {
+            putLocalSession(sessionId, new LocalSession(localSession.version, attributes));
+        }
+        return attributes;
+    }
+
+    private LocalSession getLocalSession(String sessionId) {
+        synchronized (localSessions) {
+            return localSessions.get(sessionId);
+        }
+    }
+
+    private void putLocalSession(String sessionId, LocalSession localSession) {
+        synchronized (localSessions) {
+            localSessions.put(sessionId, localSession);
+        }
+    }
+
+    private void removeLocalSession(String sessionId) {
+        synchronized (localSessions) {
+            localSessions.remove(sessionId);
+        }
+    }
+
+    @Override
+    public void initialize() {
+        delegate.initialize();
+    }
+
+    @Override
+    public void destroy() {
+        synchronized (localSessions) {
+            localSessions.clear();
+        }
+        delegate.destroy();
+    }
+
+    public SessionRepository getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * The immutable local copy of session
+     */
+    private static class LocalSession {
+
+        private final long version;
+
+        /**
+         * The attributes which are never modified, or <code>null</code> if not loaded
+         */
+        private final SessionAttributes attributes;
+
+        private LocalSession(long version, SessionAttributes attributes) {
+            this.version = version;
+            this.attributes = attributes;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.session.io;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * The attributes of session, which holds the serialized forms of the attributes that have been loaded or saved,
+ * thus {@link SessionAttributesSerializer} only serializes the changed attributes, and whether an attribute is
+ * changed could be determined by its serialized form. The Java serialization is replaced by
+ * {@link SessionAttributesSerializer}.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see SessionAttributesSerializer
+ * @see SessionAttributesDeserializer
+ * @since 1.0.0
+ */
+public class SessionAttributes extends AbstractMap<String, Object> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<String, Object> values = new LinkedHashMap<>();
+
+    /**
+     * The serialized forms of values, which are discarded once the values are replaced or removed
+     */
+    private final transient Map<String, byte[]> serializedValues = new HashMap<>();
+
+    private transient Set<Entry<String, Object>> entrySet;
+
+    public SessionAttributes() {
+    }
+
+    public SessionAttributes(Map<String, ?> attributes) {
+        putAll(attributes);
+        if (attributes instanceof SessionAttributes) {
+            serializedValues.putAll(((SessionAttributes) attributes).serializedValues);
+        }
+    }
+
+    @Override
+    public Object get(Object name) {
+        return values.get(name);
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return values.containsKey(name);
+    }
+
+    @Override
+    public Object put(String name, Object value) {
+        serializedValues.remove(name);
+        return values.put(name, value);
+    }
+
+    @Override
+    public Object remove(Object name) {
+        serializedValues.remove(name);
+        return values.remove(name);
+    }
+
+    @Override
+    public void clear() {
+        serializedValues.clear();
+        values.clear();
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Set<Entry<String, Object>> entrySet = this.entrySet;
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+            this.entrySet = entrySet;
+        }
+        return entrySet;
+    }
+
+    /**
+     * Get the serialized form of the attribute if it's not changed since loaded or saved
+     *
+     * @param name the name of attribute
+     * @return <code>null</code> if absent
+     */
+    public byte[] getSerializedValue(String name) {
+        return serializedValues.get(name);
+    }
+
+    /**
+     * Get the serialized form of the attribute, it will be serialized if absent
+     *
+     * @param name the name of attribute
+     * @return <code>null</code> if the attribute is absent
+     * @throws IOException if the value can't be serialized
+     */
+    byte[] serializeValue(String name) throws IOException {
+        byte[] serializedValue = serializedValues.get(name);
+        if (serializedValue == null) {
+            Object value = values.get(name);
+            if (value == null) {
+                return null;
+            }
+            serializedValue = SessionAttributesSerializer.serializeValue(value);
+            serializedValues.put(name, serializedValue);
+        }
+        return serializedValue;
+    }
+
+    void putSerialized(String name, Object value, byte[] serializedValue) {
+        values.put(name, value);
+        serializedValues.put(name, serializedValue);
+    }
+
+    /**
+     * Replace the Java serialization by {@link SessionAttributesSerializer}
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        try {
+            return new SerializedForm(new SessionAttributesSerializer().serialize(this));
+        } catch (IOException e) {
+            InvalidObjectException exception = new InvalidObjectException(e.getMessage());
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    private static class SerializedForm implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] bytes;
+
+        private SerializedForm(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            try {
+                return new SessionAttributesDeserializer().deserialize(bytes);
+            } catch (IOException e) {
+                InvalidObjectException exception = new InvalidObjectException(e.getMessage());
+                exception.initCause(e);
+                throw exception;
+            }
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            Iterator<Entry<String, Object>> iterator = values.entrySet().iterator();
+            return new Iterator<Entry<String, Object>>() {
+
+                private Entry<String, Object> current;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Entry<String, Object> next() {
+                    Entry<String, Object> entry = iterator.next();
+                    current = entry;
+                    return new SimpleEntry<String, Object>(entry) {
+                        @Override
+                        public Object setValue(Object value) {
+                            serializedValues.remove(entry.getKey());
+                            super.setValue(value);
+                            return entry.setValue(value);
+                        }
+                    };
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    serializedValues.remove(current.getKey());
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return values.size();
+        }
+
+        @Override
+        public void clear() {
+            SessionAttributes.this.clear();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.session.io;
+
+import org.geektimes.commons.io.DefaultDeserializer;
+import org.geektimes.commons.io.Deserializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.InflaterInputStream;
+
+import static org.geektimes.session.io.SessionAttributesSerializer.*;
+
+/**
+ * The {@link Deserializer} for {@link SessionAttributes}, the serialized forms of the attributes are kept.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see SessionAttributesSerializer
+ * @since 1.0.0
+ */
+public class SessionAttributesDeserializer implements Deserializer<SessionAttributes> {
+
+    private static final DefaultDeserializer defaultDeserializer = new DefaultDeserializer();
+
+    @Override
+    public SessionAttributes deserialize(byte[] bytes) throws IOException {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length == 0) {
+            throw new IOException("The bytes of SessionAttributes must not be empty!");
+        }
+        InputStream body = new ByteArrayInputStream(bytes, 1, bytes.length - 1);
+        if (bytes[0] == COMPRESSED_FORMAT) {
+            body = new InflaterInputStream(body);
+        } else if (bytes[0] != RAW_FORMAT) {
+            throw new IOException("The format[" + bytes[0] + "] of SessionAttributes is unknown!");
+        }
+        SessionAttributes attributes = new SessionAttributes();
+        try (DataInputStream inputStream = new DataInputStream(body)) {
+            int size = inputStream.readInt();
+            for (int i = 0; i < size; i++) {
+                String name = inputStream.readUTF();
+                byte[] value = new byte[inputStream.readInt()];
+                inputStream.readFully(value);
+                attributes.putSerialized(name, deserializeValue(value), value);
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * Deserialize the value of attribute
+     *
+     * @param bytes the serialized form by {@link SessionAttributesSerializer#serializeValue(Object)}
+     * @return non-null
+     * @throws IOException if the value can't be deserialized
+     */
+    public static Object deserializeValue(byte[] bytes) throws IOException {
+        try (DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+            switch (bytes[0]) {
+                case STRING_TYPE:
+                    return new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+                case INTEGER_TYPE:
+                    return inputStream.readInt();
+                case LONG_TYPE:
+                    return inputStream.readLong();
+                case BOOLEAN_TYPE:
+                    return inputStream.readBoolean();
+                case DOUBLE_TYPE:
+                    return inputStream.readDouble();
+                case BYTES_TYPE:
+                    return Arrays.copyOfRange(bytes, 1, bytes.length);
+                case SERIALIZABLE_TYPE:
+                    return defaultDeserializer.deserialize(Arrays.copyOfRange(bytes, 1, bytes.length));
+                default:
+                    throw new IOException("The type[" + bytes[0] + "] of attribute value is unknown!");
+            }
+        }
+    }
+}
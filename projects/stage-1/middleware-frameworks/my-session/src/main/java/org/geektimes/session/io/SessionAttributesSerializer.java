@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.session.io;
+
+import org.geektimes.commons.io.DefaultSerializer;
+import org.geektimes.commons.io.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * The compact {@link Serializer} for {@link SessionAttributes} :
+ * <pre>
+ * format(byte) [count(int) [name(UTF) value length(int) value]*]
+ * </pre>
+ * The common immutable types of values are written directly, the others are written by Java serialization, and
+ * the serialized forms of the unchanged attributes are reused. The payload whose size is greater than
+ * {@link #COMPRESSION_THRESHOLD_PROPERTY_NAME the threshold} will be compressed by Deflater.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see SessionAttributesDeserializer
+ * @since 1.0.0
+ */
+public class SessionAttributesSerializer implements Serializer<SessionAttributes> {
+
+    /**
+     * The property name of the threshold in bytes to compress the payload
+     */
+    public static final String COMPRESSION_THRESHOLD_PROPERTY_NAME =
+            "org.geektimes.session.io.SessionAttributesSerializer.compression-threshold";
+
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 512;
+
+    static final byte RAW_FORMAT = 0;
+
+    static final byte COMPRESSED_FORMAT = 1;
+
+    static final byte STRING_TYPE = 1;
+
+    static final byte INTEGER_TYPE = 2;
+
+    static final byte LONG_TYPE = 3;
+
+    static final byte BOOLEAN_TYPE = 4;
+
+    static final byte DOUBLE_TYPE = 5;
+
+    static final byte BYTES_TYPE = 6;
+
+    static final byte SERIALIZABLE_TYPE = 9;
+
+    private static final DefaultSerializer defaultSerializer = new DefaultSerializer();
+
+    private final int compressionThreshold;
+
+    public SessionAttributesSerializer() {
+        this(Integer.getInteger(COMPRESSION_THRESHOLD_PROPERTY_NAME, DEFAULT_COMPRESSION_THRESHOLD));
+    }
+
+    public SessionAttributesSerializer(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(SessionAttributes attributes) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (DataOutputStream outputStream = new DataOutputStream(body)) {
+            outputStream.writeInt(attributes.size());
+            for (String name : attributes.keySet()) {
+                byte[] value = attributes.serializeValue(name);
+                outputStream.writeUTF(name);
+                outputStream.writeInt(value.length);
+                outputStream.write(value);
+            }
+        }
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(body.size() + 1);
+        if (body.size() > compressionThreshold) {
+            payload.write(COMPRESSED_FORMAT);
+            try (DeflaterOutputStream outputStream = new DeflaterOutputStream(payload)) {
+                body.writeTo(outputStream);
+            }
+        } else {
+            payload.write(RAW_FORMAT);
+            body.writeTo(payload);
+        }
+        return payload.toByteArray();
+    }
+
+    /**
+     * Serialize the value of attribute
+     *
+     * @param value the non-null value
+     * @return the serialized form starting with the type
+     * @throws IOException if the value can't be serialized
+     */
+    public static byte[] serializeValue(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream outputStream = new DataOutputStream(bytes)) {
+            if (value instanceof String) {
+                outputStream.writeByte(STRING_TYPE);
+                outputStream.write(((String) value).getBytes(StandardCharsets.UTF_8));
+            } else if (value instanceof Integer) {
+                outputStream.writeByte(INTEGER_TYPE);
+                outputStream.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                outputStream.writeByte(LONG_TYPE);
+                outputStream.writeLong((Long) value);
+            } else if (value instanceof Boolean) {
+                outputStream.writeByte(BOOLEAN_TYPE);
+                outputStream.writeBoolean((Boolean) value);
+            } else if (value instanceof Double) {
+                outputStream.writeByte(DOUBLE_TYPE);
+                outputStream.writeDouble((Double) value);
+            } else if (value instanceof byte[]) {
+                outputStream.writeByte(BYTES_TYPE);
+                outputStream.write((byte[]) value);
+            } else {
+                outputStream.writeByte(SERIALIZABLE_TYPE);
+                outputStream.write(defaultSerializer.serialize(value));
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
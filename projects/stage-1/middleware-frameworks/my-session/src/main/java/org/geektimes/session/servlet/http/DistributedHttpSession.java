@@ -18,17 +18,25 @@ package org.geektimes.session.servlet.http;
 
 import org.geektimes.session.SessionInfo;
 import org.geektimes.session.SessionRepository;
+import org.geektimes.session.io.SessionAttributes;
 
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
 import javax.servlet.http.HttpSessionContext;
-import java.util.Enumeration;
+import java.io.IOException;
+import java.util.*;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.enumeration;
+import static org.geektimes.session.io.SessionAttributesSerializer.serializeValue;
 
 /**
- * The Distributed {@link HttpSession}
+ * The Distributed {@link HttpSession}, the attributes are loaded from {@link SessionRepository} once per request,
+ * the changes are tracked and flushed by {@link #commit()} in one batch, and {@link SessionInfo#getLastAccessedTime()}
+ * is only updated when the {@link #lastAccessedTimeGranularity granularity} elapsed. If the attributes were loaded
+ * as {@link SessionAttributes}, only the delta is flushed : the attributes set with the equivalent serialized forms
+ * are skipped, and the mutable attributes changed in place after {@link #getAttribute(String) read} are included.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0.0
@@ -41,6 +49,17 @@ public class DistributedHttpSession implements HttpSession {
      */
     public static final String ATTRIBUTE_NAME = "_distributedHttpSession";
 
+    /**
+     * The default granularity of {@link #getLastAccessedTime() last accessed time} in milliseconds
+     */
+    public static final long DEFAULT_LAST_ACCESSED_TIME_GRANULARITY = 1000L;
+
+    /**
+     * The immutable types of attribute values which can't be changed in place
+     */
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(asList(String.class, Boolean.class,
+            Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class));
+
     private final HttpServletRequest request;
 
     private final SessionRepository sessionRepository;
@@ -49,10 +68,46 @@ public class DistributedHttpSession implements HttpSession {
 
     private final SessionInfo sessionInfo;
 
+    private final long lastAccessedTimeGranularity;
+
+    /**
+     * The attributes loaded from the repository lazily
+     */
+    private Map<String, Object> attributes;
+
+    private final Map<String, Object> changedAttributes = new LinkedHashMap<>();
+
+    private final Set<String> removedAttributes = new LinkedHashSet<>();
+
+    /**
+     * The names of the mutable attributes which were read
+     */
+    private final Set<String> readAttributes = new LinkedHashSet<>();
+
+    /**
+     * The serialized forms of the attributes before they were set, the value is <code>null</code> if unknown
+     */
+    private final Map<String, byte[]> originalSerializedValues = new HashMap<>();
+
+    private boolean sessionInfoChanged;
+
+    /**
+     * The {@link SessionInfo} is absent in the repository or not
+     */
+    private boolean created;
+
+    private boolean invalidated;
+
     public DistributedHttpSession(HttpServletRequest request, HttpSession source, SessionRepository sessionRepository) {
+        this(request, source, sessionRepository, DEFAULT_LAST_ACCESSED_TIME_GRANULARITY);
+    }
+
+    public DistributedHttpSession(HttpServletRequest request, HttpSession source, SessionRepository sessionRepository,
+                                  long lastAccessedTimeGranularity) {
         this.request = request;
         this.source = source;
         this.sessionRepository = sessionRepository;
+        this.lastAccessedTimeGranularity = lastAccessedTimeGranularity;
         this.sessionInfo = resolveSessionInfo();
         // set self into Request Context
         request.setAttribute(ATTRIBUTE_NAME, this);
@@ -73,6 +128,9 @@ public class DistributedHttpSession implements HttpSession {
         }
         if (sessionInfo == null) { // Maybe the first time access to the server when the "requestSessionId" is absent
             sessionInfo = new SessionInfo(source);
+            // The new SessionInfo must be saved
+            sessionInfoChanged = true;
+            created = true;
         }
         return sessionInfo;
     }
@@ -90,6 +148,81 @@ public class DistributedHttpSession implements HttpSession {
         sessionRepository.saveSessionInfo(getSessionInfo());
     }
 
+    /**
+     * Flush the changes of current request into the repository in one batch, {@link SessionInfo} is only written
+     * if it's changed or the {@link #lastAccessedTimeGranularity granularity} of last accessed time elapsed.
+     */
+    public void commit() {
+        if (invalidated) {
+            return;
+        }
+        if (System.currentTimeMillis() - sessionInfo.getLastAccessedTime() >= lastAccessedTimeGranularity) {
+            sessionInfoChanged = true;
+        }
+        resolveAttributesDelta();
+        boolean attributesChanged = !changedAttributes.isEmpty() || !removedAttributes.isEmpty();
+        if (!sessionInfoChanged && !attributesChanged) {
+            return;
+        }
+        if (attributesChanged) {
+            // The version of SessionInfo will be renewed
+            sessionInfoChanged = true;
+        }
+        sessionRepository.saveSession(getId(), sessionInfoChanged ? sessionInfo : null,
+                changedAttributes, removedAttributes);
+        sessionInfoChanged = false;
+        changedAttributes.clear();
+        removedAttributes.clear();
+    }
+
+    private void resolveAttributesDelta() {
+        if (attributes instanceof SessionAttributes) {
+            SessionAttributes sessionAttributes = (SessionAttributes) attributes;
+            // The attributes set with the same values are not changed
+            changedAttributes.entrySet().removeIf(entry -> {
+                byte[] originalSerializedValue = originalSerializedValues.get(entry.getKey());
+                return originalSerializedValue != null &&
+                        Arrays.equals(originalSerializedValue, serialize(entry.getValue()));
+            });
+            // The attributes changed in place
+            for (String name : readAttributes) {
+                if (changedAttributes.containsKey(name) || removedAttributes.contains(name)) {
+                    continue;
+                }
+                byte[] originalSerializedValue = sessionAttributes.getSerializedValue(name);
+                Object value = sessionAttributes.get(name);
+                if (originalSerializedValue != null && value != null &&
+                        !Arrays.equals(originalSerializedValue, serialize(value))) {
+                    changedAttributes.put(name, value);
+                }
+            }
+        }
+        readAttributes.clear();
+        originalSerializedValues.clear();
+    }
+
+    /**
+     * @return <code>null</code> if the value can't be serialized, thus it's regarded as changed
+     */
+    private static byte[] serialize(Object value) {
+        try {
+            return serializeValue(value);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static boolean isImmutable(Object value) {
+        return IMMUTABLE_TYPES.contains(value.getClass()) || value instanceof Enum;
+    }
+
+    private Map<String, Object> getAttributes() {
+        if (attributes == null) {
+            attributes = created ? new LinkedHashMap<>() : sessionRepository.getAttributes(getId());
+        }
+        return attributes;
+    }
+
     @Override
     public long getCreationTime() {
         return sessionInfo.getCreationTime();
@@ -113,6 +246,7 @@ public class DistributedHttpSession implements HttpSession {
     @Override
     public void setMaxInactiveInterval(int interval) {
         sessionInfo.setMaxInactiveInterval(interval);
+        sessionInfoChanged = true;
     }
 
     @Override
@@ -127,14 +261,9 @@ public class DistributedHttpSession implements HttpSession {
 
     @Override
     public Object getAttribute(String name) {
-        // try to find the value in local session
-        Object value = source.getAttribute(name);
-        if (value == null) { // If not found, try to find it in the repository
-            value = sessionRepository.getAttribute(getId(), name);
-            // restore the value into local session if found
-            if (value != null) {
-                source.setAttribute(name, value);
-            }
+        Object value = getAttributes().get(name);
+        if (value != null && !isImmutable(value)) {
+            readAttributes.add(name);
         }
         return value;
     }
@@ -147,19 +276,29 @@ public class DistributedHttpSession implements HttpSession {
 
     @Override
     public Enumeration<String> getAttributeNames() {
-        return enumeration(sessionRepository.getAttributeNames(getId()));
+        return enumeration(new ArrayList<>(getAttributes().keySet()));
     }
 
     @Override
     @Deprecated
     public String[] getValueNames() {
-        return source.getValueNames();
+        return getAttributes().keySet().toArray(new String[0]);
     }
 
     @Override
     public void setAttribute(String name, Object value) {
+        if (value == null) {
+            removeAttribute(name);
+            return;
+        }
         source.setAttribute(name, value);
-        sessionRepository.setAttribute(getId(), name, value);
+        Map<String, Object> attributes = getAttributes();
+        if (attributes instanceof SessionAttributes && !originalSerializedValues.containsKey(name)) {
+            originalSerializedValues.put(name, ((SessionAttributes) attributes).getSerializedValue(name));
+        }
+        attributes.put(name, value);
+        changedAttributes.put(name, value);
+        removedAttributes.remove(name);
     }
 
     @Override
@@ -171,7 +310,10 @@ public class DistributedHttpSession implements HttpSession {
     @Override
     public void removeAttribute(String name) {
         source.removeAttribute(name);
-        sessionRepository.removeAttribute(getId(), name);
+        changedAttributes.remove(name);
+        if (getAttributes().remove(name) != null) {
+            removedAttributes.add(name);
+        }
     }
 
     @Override
@@ -185,12 +327,15 @@ public class DistributedHttpSession implements HttpSession {
         source.invalidate();
         invalidateSessionInfoCache();
         invalidateAttributesCache();
+        invalidated = true;
     }
 
     private void invalidateSessionInfoCache() {
+        sessionRepository.removeSessionInfo(getId());
     }
 
     private void invalidateAttributesCache() {
+        sessionRepository.removeAttributes(getId());
     }
 
     @Override
@@ -198,4 +343,8 @@ public class DistributedHttpSession implements HttpSession {
         return source.isNew();
     }
 
+    HttpSession getSource() {
+        return source;
+    }
+
 }
@@ -21,6 +21,7 @@ import org.eclipse.microprofile.config.spi.ConfigBuilder;
 import org.eclipse.microprofile.config.spi.ConfigProviderResolver;
 import org.geektimes.configuration.microprofile.config.source.servlet.FilterConfigSource;
 import org.geektimes.session.SessionRepository;
+import org.geektimes.session.cache.LocalCachingSessionRepository;
 import org.geektimes.session.config.DefaultSessionConfigSource;
 import org.geektimes.session.config.converter.SessionRepositoryConverter;
 
@@ -43,12 +44,22 @@ public class DistributedHttpSessionFilter implements Filter {
 
     public static final String SESSION_REPOSITORY_CLASS_PROPERTY_NAME = "session.repository.class";
 
+    /**
+     * The max number of sessions cached locally, the non-positive value disables the local cache
+     */
+    public static final String SESSION_LOCAL_CACHE_MAX_SIZE_PROPERTY_NAME = "session.local.cache.max.size";
+
+    public static final String SESSION_LAST_ACCESSED_TIME_GRANULARITY_PROPERTY_NAME =
+            "session.last.accessed.time.granularity.milliseconds";
+
     private ClassLoader classLoader;
 
     private Config config;
 
     private SessionRepository sessionRepository;
 
+    private long lastAccessedTimeGranularity;
+
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
         this.classLoader = filterConfig.getServletContext().getClassLoader();
@@ -76,8 +87,15 @@ public class DistributedHttpSessionFilter implements Filter {
     }
 
     protected void initSessionRepository(Config config, ClassLoader classLoader) {
-        this.sessionRepository = config.getValue(SESSION_REPOSITORY_CLASS_PROPERTY_NAME, SessionRepository.class);
+        SessionRepository sessionRepository = config.getValue(SESSION_REPOSITORY_CLASS_PROPERTY_NAME, SessionRepository.class);
+        int localCacheMaxSize = config.getOptionalValue(SESSION_LOCAL_CACHE_MAX_SIZE_PROPERTY_NAME, Integer.class).orElse(0);
+        if (localCacheMaxSize > 0) {
+            sessionRepository = new LocalCachingSessionRepository(sessionRepository, localCacheMaxSize);
+        }
+        this.sessionRepository = sessionRepository;
         this.sessionRepository.initialize();
+        this.lastAccessedTimeGranularity = config.getOptionalValue(SESSION_LAST_ACCESSED_TIME_GRANULARITY_PROPERTY_NAME,
+                Long.class).orElse(DistributedHttpSession.DEFAULT_LAST_ACCESSED_TIME_GRANULARITY);
     }
 
     @Override
@@ -105,7 +123,8 @@ public class DistributedHttpSessionFilter implements Filter {
 
     protected void filter(HttpServletRequest request, HttpServletResponse response,
                           FilterChain chain) throws IOException, ServletException {
-        DistributedServletRequestWrapper requestWrapper = new DistributedServletRequestWrapper(request, sessionRepository);
+        DistributedServletRequestWrapper requestWrapper = new DistributedServletRequestWrapper(request, sessionRepository,
+                lastAccessedTimeGranularity);
         DistributedServletResponseWrapper responseWrapper = new DistributedServletResponseWrapper(response);
         chain.doFilter(requestWrapper, responseWrapper);
     }
@@ -113,7 +132,8 @@ public class DistributedHttpSessionFilter implements Filter {
     protected void afterFilter(HttpServletRequest request, HttpServletResponse response, Throwable error) {
         DistributedHttpSession session = DistributedHttpSession.get(request);
         if (session != null) {
-            session.commitSessionInfo();
+            // Flush the changes of session in one batch
+            session.commit();
         }
     }
 
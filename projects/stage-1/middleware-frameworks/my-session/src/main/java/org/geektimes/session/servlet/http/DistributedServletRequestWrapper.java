@@ -35,6 +35,8 @@ public class DistributedServletRequestWrapper extends HttpServletRequestWrapper
 
     private final SessionRepository sessionRepository;
 
+    private final long lastAccessedTimeGranularity;
+
     /**
      * Constructs a request object wrapping the given request.
      *
@@ -43,9 +45,23 @@ public class DistributedServletRequestWrapper extends HttpServletRequestWrapper
      * @throws IllegalArgumentException if the request is null
      */
     public DistributedServletRequestWrapper(HttpServletRequest request, SessionRepository sessionRepository) {
+        this(request, sessionRepository, DistributedHttpSession.DEFAULT_LAST_ACCESSED_TIME_GRANULARITY);
+    }
+
+    /**
+     * Constructs a request object wrapping the given request.
+     *
+     * @param request                     {@link HttpServletRequest}
+     * @param sessionRepository           {@link SessionRepository}
+     * @param lastAccessedTimeGranularity the granularity of last accessed time in milliseconds
+     * @throws IllegalArgumentException if the request is null
+     */
+    public DistributedServletRequestWrapper(HttpServletRequest request, SessionRepository sessionRepository,
+                                            long lastAccessedTimeGranularity) {
         super(request);
         this.request = request;
         this.sessionRepository = sessionRepository;
+        this.lastAccessedTimeGranularity = lastAccessedTimeGranularity;
     }
 
     @Override
@@ -54,7 +70,12 @@ public class DistributedServletRequestWrapper extends HttpServletRequestWrapper
         HttpSession session = super.getSession(create);
 
         if (session != null) {
-            return new DistributedHttpSession(request, session, sessionRepository);
+            // The changes of session are tracked by the same instance during the request
+            DistributedHttpSession distributedHttpSession = DistributedHttpSession.get(request);
+            if (distributedHttpSession != null && distributedHttpSession.getSource() == session) {
+                return distributedHttpSession;
+            }
+            return new DistributedHttpSession(request, session, sessionRepository, lastAccessedTimeGranularity);
         } else {
             // invalidate session
             return session;
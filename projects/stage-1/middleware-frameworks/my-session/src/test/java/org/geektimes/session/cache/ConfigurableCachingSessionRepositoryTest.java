@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.session.cache;
+
+import org.eclipse.microprofile.config.Config;
+import org.geektimes.configuration.microprofile.config.DefaultConfigBuilder;
+import org.geektimes.configuration.microprofile.config.source.MapConfigSource;
+import org.geektimes.session.SessionInfo;
+import org.geektimes.session.config.DefaultSessionConfigSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.*;
+import static org.eclipse.microprofile.config.spi.ConfigProviderResolver.instance;
+import static org.geektimes.session.cache.ConfigurableCachingSessionRepository.CACHE_URI_PROPERTY_NAME;
+import static org.junit.Assert.*;
+
+/**
+ * {@link ConfigurableCachingSessionRepository} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class ConfigurableCachingSessionRepositoryTest {
+
+    private static final String SESSION_ID = "test-session";
+
+    private Config config;
+
+    private ConfigurableCachingSessionRepository repository;
+
+    @Before
+    public void init() {
+        // The isolated ClassLoader binds the Config and the CacheManager of current test
+        ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+        };
+        Map<String, String> properties = new HashMap<>();
+        properties.put(CACHE_URI_PROPERTY_NAME, "in-memory://localhost/");
+        config = new DefaultConfigBuilder(classLoader)
+                .withSources(new MapConfigSource("test", 500, properties),
+                        new DefaultSessionConfigSource(classLoader))
+                .build();
+        instance().registerConfig(config, classLoader);
+        repository = new ConfigurableCachingSessionRepository(classLoader);
+        repository.initialize();
+    }
+
+    @After
+    public void destroy() {
+        repository.destroy();
+        instance().releaseConfig(config);
+    }
+
+    @Test
+    public void testSaveSessionOnInterleavedRequests() {
+        repository.saveSessionInfo(newSessionInfo());
+        repository.setAttribute(SESSION_ID, "a", 1);
+
+        // Both requests have loaded the session before either one is committed
+        SessionInfo sessionInfo1 = repository.getSessionInfo(SESSION_ID);
+        SessionInfo sessionInfo2 = repository.getSessionInfo(SESSION_ID);
+        assertEquals(singletonMap("a", 1), repository.getAttributes(SESSION_ID));
+
+        repository.saveSession(SESSION_ID, sessionInfo1, singletonMap("b", 2), emptySet());
+        repository.saveSession(SESSION_ID, sessionInfo2, singletonMap("c", 3), singleton("a"));
+
+        Map<String, Object> attributes = repository.getAttributes(SESSION_ID);
+        assertEquals(2, attributes.size());
+        assertEquals(2, attributes.get("b"));
+        assertEquals(3, attributes.get("c"));
+    }
+
+    @Test
+    public void testSetAndRemoveAttribute() {
+        repository.saveSessionInfo(newSessionInfo());
+        long version = repository.getSessionInfo(SESSION_ID).getVersion();
+
+        repository.setAttribute(SESSION_ID, "a", "1");
+        repository.setAttribute(SESSION_ID, "b", "2");
+        assertEquals("1", repository.getAttribute(SESSION_ID, "a"));
+        assertEquals("2", repository.getAttribute(SESSION_ID, "b"));
+        assertNotEquals(version, version = repository.getSessionInfo(SESSION_ID).getVersion());
+
+        // Removing the absent attribute changes nothing
+        repository.removeAttribute(SESSION_ID, "c");
+        assertEquals(version, repository.getSessionInfo(SESSION_ID).getVersion());
+
+        repository.removeAttribute(SESSION_ID, "a");
+        assertNull(repository.getAttribute(SESSION_ID, "a"));
+        assertEquals(singleton("b"), repository.getAttributeNames(SESSION_ID));
+        assertNotEquals(version, version = repository.getSessionInfo(SESSION_ID).getVersion());
+
+        repository.removeAttribute(SESSION_ID, "b");
+        assertTrue(repository.getAttributeNames(SESSION_ID).isEmpty());
+        assertNotEquals(version, repository.getSessionInfo(SESSION_ID).getVersion());
+    }
+
+    @Test
+    public void testSaveSessionWithoutChangedAttributes() {
+        repository.saveSessionInfo(newSessionInfo());
+        repository.setAttribute(SESSION_ID, "a", 1);
+        SessionInfo sessionInfo = repository.getSessionInfo(SESSION_ID);
+        long version = sessionInfo.getVersion();
+
+        repository.saveSession(SESSION_ID, sessionInfo, emptyMap(), emptySet());
+        assertEquals(version, repository.getSessionInfo(SESSION_ID).getVersion());
+        assertEquals(singletonMap("a", 1), repository.getAttributes(SESSION_ID));
+    }
+
+    @Test
+    public void testSaveSessionInfoAlongWithAttributes() {
+        SessionInfo sessionInfo = newSessionInfo();
+        repository.saveSession(SESSION_ID, sessionInfo, singletonMap("a", 1), emptySet());
+
+        SessionInfo storedSessionInfo = repository.getSessionInfo(SESSION_ID);
+        assertNotNull(storedSessionInfo);
+        assertEquals(sessionInfo.getVersion(), storedSessionInfo.getVersion());
+        assertEquals(singletonMap("a", 1), repository.getAttributes(SESSION_ID));
+
+        // The version of attributes is kept if only SessionInfo is saved
+        repository.saveSessionInfo(storedSessionInfo);
+        assertEquals(sessionInfo.getVersion(), repository.getSessionInfo(SESSION_ID).getVersion());
+
+        // The attributes are removed along with SessionInfo
+        repository.removeSessionInfo(SESSION_ID);
+        assertNull(repository.getSessionInfo(SESSION_ID));
+        assertTrue(repository.getAttributes(SESSION_ID).isEmpty());
+    }
+
+    @Test
+    public void testRemoveAttributes() {
+        repository.saveSession(SESSION_ID, newSessionInfo(), singletonMap("a", 1), emptySet());
+        long version = repository.getSessionInfo(SESSION_ID).getVersion();
+
+        repository.removeAttributes(SESSION_ID);
+        assertTrue(repository.getAttributeNames(SESSION_ID).isEmpty());
+        assertNotEquals(version, repository.getSessionInfo(SESSION_ID).getVersion());
+    }
+
+    private SessionInfo newSessionInfo() {
+        SessionInfo sessionInfo = new SessionInfo();
+        sessionInfo.setId(SESSION_ID);
+        sessionInfo.setCreationTime(System.currentTimeMillis());
+        sessionInfo.setMaxInactiveInterval(30);
+        return sessionInfo;
+    }
+}
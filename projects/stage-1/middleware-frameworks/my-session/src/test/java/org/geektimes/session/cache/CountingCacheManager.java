@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.session.cache;
+
+import org.geektimes.cache.InMemoryCache;
+import org.geektimes.cache.InMemoryCacheManager;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.Configuration;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * "counting" scheme {@link CacheManager} counting the whole entries read by the clients, the reads of
+ * the entry processors are excluded, since they are executed by the owner of the entry in the distributed caches.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class CountingCacheManager extends InMemoryCacheManager {
+
+    static final AtomicInteger entryReads = new AtomicInteger();
+
+    public CountingCacheManager(CachingProvider cachingProvider, URI uri, ClassLoader classLoader,
+                                Properties properties) {
+        super(cachingProvider, uri, classLoader, properties);
+    }
+
+    @Override
+    protected <K, V, C extends Configuration<K, V>> Cache doCreateCache(String cacheName, C configuration) {
+        return new CountingCache<K, V>(this, cacheName, configuration);
+    }
+
+    static class CountingCache<K, V> extends InMemoryCache<K, V> {
+
+        private final ThreadLocal<Boolean> processing = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+        CountingCache(CacheManager cacheManager, String cacheName, Configuration<K, V> configuration) {
+            super(cacheManager, cacheName, configuration);
+        }
+
+        @Override
+        public V get(K key) {
+            if (!processing.get()) {
+                entryReads.incrementAndGet();
+            }
+            return super.get(key);
+        }
+
+        @Override
+        public <T> T invoke(K key, EntryProcessor<K, V, T> entryProcessor, Object... arguments)
+                throws EntryProcessorException {
+            processing.set(Boolean.TRUE);
+            try {
+                return super.invoke(key, entryProcessor, arguments);
+            } finally {
+                processing.set(Boolean.FALSE);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.session.cache;
+
+import org.eclipse.microprofile.config.Config;
+import org.geektimes.configuration.microprofile.config.DefaultConfigBuilder;
+import org.geektimes.configuration.microprofile.config.source.MapConfigSource;
+import org.geektimes.session.SessionInfo;
+import org.geektimes.session.config.DefaultSessionConfigSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.*;
+import static org.eclipse.microprofile.config.spi.ConfigProviderResolver.instance;
+import static org.geektimes.session.cache.ConfigurableCachingSessionRepository.CACHE_URI_PROPERTY_NAME;
+import static org.junit.Assert.*;
+
+/**
+ * {@link LocalCachingSessionRepository} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class LocalCachingSessionRepositoryTest {
+
+    private static final String SESSION_ID = "test-session";
+
+    private final AtomicInteger attributesReads = new AtomicInteger();
+
+    private Config config;
+
+    private ConfigurableCachingSessionRepository delegate;
+
+    /**
+     * The local caches of two nodes sharing the same delegate
+     */
+    private LocalCachingSessionRepository node1;
+
+    private LocalCachingSessionRepository node2;
+
+    @Before
+    public void init() {
+        ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+        };
+        Map<String, String> properties = new HashMap<>();
+        properties.put(CACHE_URI_PROPERTY_NAME, "counting://localhost/");
+        properties.put("javax.cache.CacheManager.mappings.counting", CountingCacheManager.class.getName());
+        config = new DefaultConfigBuilder(classLoader)
+                .withSources(new MapConfigSource("test", 500, properties),
+                        new DefaultSessionConfigSource(classLoader))
+                .build();
+        instance().registerConfig(config, classLoader);
+        delegate = new ConfigurableCachingSessionRepository(classLoader) {
+            @Override
+            public Map<String, Object> getAttributes(String sessionId) {
+                attributesReads.incrementAndGet();
+                return super.getAttributes(sessionId);
+            }
+        };
+        delegate.initialize();
+        node1 = new LocalCachingSessionRepository(delegate, 10);
+        node2 = new LocalCachingSessionRepository(delegate, 10);
+    }
+
+    @After
+    public void destroy() {
+        delegate.destroy();
+        instance().releaseConfig(config);
+    }
+
+    @Test
+    public void testGetAttributesFromLocalCopy() {
+        node1.saveSession(SESSION_ID, newSessionInfo(), singletonMap("a", 1), emptySet());
+        assertEquals(singletonMap("a", 1), loadAttributes(node1));
+        assertEquals(1, attributesReads.get());
+
+        // The local copy is still valid when only SessionInfo is saved
+        node1.saveSession(SESSION_ID, node1.getSessionInfo(SESSION_ID), emptyMap(), emptySet());
+        assertEquals(singletonMap("a", 1), loadAttributes(node1));
+        assertEquals(1, attributesReads.get());
+    }
+
+    /**
+     * The unchanged stamp is revalidated without reading the attributes of the stored session
+     */
+    @Test
+    public void testRevalidateWithoutReadingAttributes() {
+        node1.saveSession(SESSION_ID, newSessionInfo(), singletonMap("a", 1), emptySet());
+        assertEquals(singletonMap("a", 1), loadAttributes(node1));
+
+        CountingCacheManager.entryReads.set(0);
+        assertEquals(singletonMap("a", 1), loadAttributes(node1));
+        assertEquals(1, node1.getAttribute(SESSION_ID, "a"));
+        assertEquals(0, CountingCacheManager.entryReads.get());
+        assertEquals(1, attributesReads.get());
+    }
+
+    @Test
+    public void testWriteFromAnotherNode() {
+        node1.saveSession(SESSION_ID, newSessionInfo(), singletonMap("a", 1), emptySet());
+        assertEquals(singletonMap("a", 1), loadAttributes(node1));
+        assertEquals(singletonMap("a", 1), loadAttributes(node2));
+
+        // Both nodes handle the requests of the same session, node2 is committed first
+        SessionInfo sessionInfo1 = node1.getSessionInfo(SESSION_ID);
+        SessionInfo sessionInfo2 = node2.getSessionInfo(SESSION_ID);
+        node2.saveSession(SESSION_ID, sessionInfo2, singletonMap("b", 2), emptySet());
+        node1.saveSession(SESSION_ID, sessionInfo1, singletonMap("c", 3), emptySet());
+
+        Map<String, Object> attributes = loadAttributes(node1);
+        assertEquals(3, attributes.size());
+        assertEquals(2, attributes.get("b"));
+        assertEquals(3, attributes.get("c"));
+        assertEquals(attributes, loadAttributes(node2));
+    }
+
+    @Test
+    public void testInvalidateOnAnotherNode() {
+        node1.saveSession(SESSION_ID, newSessionInfo(), singletonMap("a", 1), emptySet());
+        assertEquals(singletonMap("a", 1), loadAttributes(node1));
+
+        node2.removeAttributes(SESSION_ID);
+        assertTrue(loadAttributes(node1).isEmpty());
+
+        node2.removeSessionInfo(SESSION_ID);
+        assertNull(node1.getSessionInfo(SESSION_ID));
+        assertTrue(node1.getAttributes(SESSION_ID).isEmpty());
+    }
+
+    /**
+     * Load the attributes like a request does
+     */
+    private Map<String, Object> loadAttributes(LocalCachingSessionRepository repository) {
+        assertNotNull(repository.getSessionInfo(SESSION_ID));
+        return repository.getAttributes(SESSION_ID);
+    }
+
+    private SessionInfo newSessionInfo() {
+        SessionInfo sessionInfo = new SessionInfo();
+        sessionInfo.setId(SESSION_ID);
+        sessionInfo.setCreationTime(System.currentTimeMillis());
+        sessionInfo.setMaxInactiveInterval(30);
+        return sessionInfo;
+    }
+}
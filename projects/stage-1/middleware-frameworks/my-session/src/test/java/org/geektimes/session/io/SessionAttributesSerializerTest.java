@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.geektimes.session.io;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.geektimes.session.io.SessionAttributesSerializer.COMPRESSED_FORMAT;
+import static org.geektimes.session.io.SessionAttributesSerializer.RAW_FORMAT;
+import static org.geektimes.session.io.SessionAttributesSerializer.serializeValue;
+import static org.junit.Assert.*;
+
+/**
+ * {@link SessionAttributesSerializer} and {@link SessionAttributesDeserializer} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class SessionAttributesSerializerTest {
+
+    private static final int COMPRESSION_THRESHOLD = 64;
+
+    /**
+     * The size of body excluding the value of one attribute named "a" :
+     * count(4) + name(2 + 1) + value length(4) + value type(1)
+     */
+    private static final int BODY_OVERHEAD = 12;
+
+    private final SessionAttributesSerializer serializer = new SessionAttributesSerializer(COMPRESSION_THRESHOLD);
+
+    private final SessionAttributesDeserializer deserializer = new SessionAttributesDeserializer();
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<String> list = new ArrayList<>(Arrays.asList("x", "y"));
+        SessionAttributes attributes = new SessionAttributes();
+        attributes.put("string", "中文");
+        attributes.put("integer", 1);
+        attributes.put("long", 2L);
+        attributes.put("boolean", true);
+        attributes.put("double", 3.0d);
+        attributes.put("bytes", new byte[]{4, 5});
+        attributes.put("serializable", list);
+
+        SessionAttributes deserialized = deserializer.deserialize(serializer.serialize(attributes));
+        assertEquals(Arrays.asList("string", "integer", "long", "boolean", "double", "bytes", "serializable"),
+                new ArrayList<>(deserialized.keySet()));
+        assertEquals("中文", deserialized.get("string"));
+        assertEquals(1, deserialized.get("integer"));
+        assertEquals(2L, deserialized.get("long"));
+        assertEquals(true, deserialized.get("boolean"));
+        assertEquals(3.0d, deserialized.get("double"));
+        assertArrayEquals(new byte[]{4, 5}, (byte[]) deserialized.get("bytes"));
+        assertEquals(list, deserialized.get("serializable"));
+
+        assertTrue(deserializer.deserialize(serializer.serialize(new SessionAttributes())).isEmpty());
+    }
+
+    @Test
+    public void testJavaSerialization() throws Exception {
+        SessionAttributes attributes = new SessionAttributes();
+        attributes.put("a", "1");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(bytes)) {
+            outputStream.writeObject(attributes);
+        }
+        try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Object deserialized = inputStream.readObject();
+            assertTrue(deserialized instanceof SessionAttributes);
+            assertEquals(attributes, deserialized);
+        }
+    }
+
+    @Test
+    public void testChangeDetection() throws IOException {
+        SessionAttributes attributes = new SessionAttributes();
+        attributes.put("immutable", "1");
+        attributes.put("mutable", new ArrayList<>(Arrays.asList("x")));
+        // The serialized forms are absent until serialized
+        assertNull(attributes.getSerializedValue("immutable"));
+
+        SessionAttributes deserialized = deserializer.deserialize(serializer.serialize(attributes));
+        assertArrayEquals(serializeValue("1"), deserialized.getSerializedValue("immutable"));
+        byte[] serializedValue = deserialized.getSerializedValue("mutable");
+        assertArrayEquals(serializeValue(new ArrayList<>(Arrays.asList("x"))), serializedValue);
+
+        // The value changed in place is detected by its serialized form
+        List<String> list = (List<String>) deserialized.get("mutable");
+        list.add("y");
+        assertFalse(Arrays.equals(serializedValue, serializeValue(list)));
+
+        // The serialized form is discarded once the value is replaced or removed
+        deserialized.put("immutable", "2");
+        assertNull(deserialized.getSerializedValue("immutable"));
+        deserialized.remove("mutable");
+        assertNull(deserialized.getSerializedValue("mutable"));
+
+        // The copy reuses the serialized forms of the unchanged attributes
+        deserialized.put("mutable", list);
+        SessionAttributes copy = new SessionAttributes(deserializer.deserialize(serializer.serialize(deserialized)));
+        assertArrayEquals(serializeValue("2"), copy.getSerializedValue("immutable"));
+        assertArrayEquals(serializeValue(new ArrayList<>(Arrays.asList("x", "y"))), copy.getSerializedValue("mutable"));
+    }
+
+    @Test
+    public void testCompressionThreshold() throws IOException {
+        // The body whose size equals the threshold is not compressed
+        SessionAttributes attributes = newAttributes(COMPRESSION_THRESHOLD - BODY_OVERHEAD);
+        byte[] bytes = serializer.serialize(attributes);
+        assertEquals(RAW_FORMAT, bytes[0]);
+        assertEquals(COMPRESSION_THRESHOLD + 1, bytes.length);
+        assertEquals(attributes, deserializer.deserialize(bytes));
+
+        // The body whose size is greater than the threshold is compressed
+        attributes = newAttributes(COMPRESSION_THRESHOLD - BODY_OVERHEAD + 1);
+        bytes = serializer.serialize(attributes);
+        assertEquals(COMPRESSED_FORMAT, bytes[0]);
+        assertTrue(bytes.length < COMPRESSION_THRESHOLD);
+        assertEquals(attributes, deserializer.deserialize(bytes));
+    }
+
+    private static SessionAttributes newAttributes(int valueLength) {
+        char[] value = new char[valueLength];
+        Arrays.fill(value, 'a');
+        SessionAttributes attributes = new SessionAttributes();
+        attributes.put("a", new String(value));
+        return attributes;
+    }
+}